@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/*
+ * This benchmark compares deflate compression of small JSON messages with and without a preset dictionary which was
+ * trained on similar messages. Besides throughput, the "inputBytes" and "compressedBytes" counters of the compress
+ * benchmark give the compression ratio.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class DeflateDictionaryBenchmark {
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf"};
+    private static final int MESSAGES = 1024;
+
+    @Param({"200", "500", "2000"})
+    private int size;
+
+    @Param({"plain", "dictionary"})
+    private String implementation;
+
+    private SerializerDeserializer<Buffer> serializer;
+    private Buffer[] payloads;
+    private Buffer[] compressed;
+    private int index;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long inputBytes;
+        public long compressedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(size);
+        if ("dictionary".equals(implementation)) {
+            final DeflateDictionaryTrainer trainer = new DeflateDictionaryTrainer(16 * 1024);
+            for (int i = 0; i < 1000; ++i) {
+                trainer.addSample(newMessage(random, size));
+            }
+            serializer = NettyCompression.deflate().dictionary(trainer.train()).build();
+        } else {
+            serializer = NettyCompression.deflateDefault();
+        }
+        payloads = new Buffer[MESSAGES];
+        compressed = new Buffer[MESSAGES];
+        for (int i = 0; i < MESSAGES; ++i) {
+            payloads[i] = DEFAULT_ALLOCATOR.wrap(newMessage(random, size));
+            compressed[i] = serializer.serialize(payloads[i].duplicate(), DEFAULT_ALLOCATOR);
+        }
+    }
+
+    @Benchmark
+    public Buffer compress(final Counters counters) {
+        final Buffer payload = payloads[next()].duplicate();
+        counters.inputBytes += payload.readableBytes();
+        final Buffer result = serializer.serialize(payload, DEFAULT_ALLOCATOR);
+        counters.compressedBytes += result.readableBytes();
+        return result;
+    }
+
+    @Benchmark
+    public Buffer decompress() {
+        return serializer.deserialize(compressed[next()].duplicate(), DEFAULT_ALLOCATOR);
+    }
+
+    private int next() {
+        return index = (index + 1) & (MESSAGES - 1);
+    }
+
+    /**
+     * An array of JSON objects with a fixed schema and random values, of roughly {@code size} bytes.
+     */
+    private static byte[] newMessage(final Random random, final int size) {
+        final StringBuilder sb = new StringBuilder(size + 200).append('[');
+        while (sb.length() < size) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append("{\"orderId\":").append(random.nextInt(1_000_000))
+                    .append(",\"customer\":{\"name\":\"").append(WORDS[random.nextInt(WORDS.length)])
+                    .append("\",\"tier\":\"").append(random.nextBoolean() ? "gold" : "silver")
+                    .append("\"},\"amount\":").append(random.nextInt(10_000)).append('.').append(random.nextInt(100))
+                    .append(",\"currency\":\"USD\",\"status\":\"").append(WORDS[random.nextInt(WORDS.length)])
+                    .append("\"}");
+        }
+        return sb.append(']').toString().getBytes(US_ASCII);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+
+import io.netty.handler.codec.compression.JdkZlibDecoder;
+import io.netty.handler.codec.compression.JdkZlibEncoder;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+
+/*
+ * This benchmark compares gzip/deflate message compression driven by pooled Deflater/Inflater instances ("direct")
+ * with compression through a per-message EmbeddedChannel and Netty codec ("embedded"), for 1 KiB to 1 MiB payloads.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class ZlibSerializerBenchmark {
+
+    @Param({"1024", "16384", "262144", "1048576"})
+    private int size;
+
+    @Param({"gzip", "deflate"})
+    private String format;
+
+    @Param({"direct", "embedded"})
+    private String implementation;
+
+    private SerializerDeserializer<Buffer> serializer;
+    private Buffer payload;
+    private Buffer compressed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final boolean gzip = "gzip".equals(format);
+        if ("direct".equals(implementation)) {
+            serializer = new ZlibSerializer(gzip, 6, 4 << 20);
+        } else {
+            final ZlibWrapper wrapper = gzip ? ZlibWrapper.GZIP : ZlibWrapper.ZLIB;
+            serializer = new NettyCompressionSerializer(() -> new JdkZlibEncoder(wrapper, 6),
+                    () -> new JdkZlibDecoder(wrapper, 4 << 20));
+        }
+        // Text-like payload: a small alphabet with some randomness compresses to roughly a third.
+        final byte[] bytes = new byte[size];
+        final Random random = new Random(size);
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) ('a' + random.nextInt(16));
+        }
+        payload = DEFAULT_ALLOCATOR.wrap(bytes);
+        compressed = serializer.serialize(payload.duplicate(), DEFAULT_ALLOCATOR);
+    }
+
+    @Benchmark
+    public Buffer compress() {
+        return serializer.serialize(payload.duplicate(), DEFAULT_ALLOCATOR);
+    }
+
+    @Benchmark
+    public Buffer decompress() {
+        return serializer.deserialize(compressed.duplicate(), DEFAULT_ALLOCATOR);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+
+import static io.netty.buffer.Unpooled.unreleasableBuffer;
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static java.net.InetAddress.getLoopbackAddress;
+
+/*
+ * This benchmark simulates many HTTP/2 streams writing and flushing small frames on the same parent channel within a
+ * single event loop task, with and without connection level flush coalescing (see H2FlushCoalescingHandler). Frames
+ * are written over a loopback connection, so every non-coalesced flush results in a write syscall.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class H2FlushCoalescingBenchmark {
+
+    private static final int FRAME_SIZE = 64;
+    private static final int MAX_PENDING_BYTES = 64 * 1024;
+
+    @Param({"false", "true"})
+    private boolean coalesce;
+
+    @Param({"1", "10", "100"})
+    private int streams;
+
+    private EventLoopGroup group;
+    private Channel serverChannel;
+    private Channel clientChannel;
+    private ByteBuf frame;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        group = new NioEventLoopGroup(2);
+        frame = unreleasableBuffer(wrappedBuffer(new byte[FRAME_SIZE]));
+        serverChannel = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+                        ReferenceCountUtil.release(msg);
+                    }
+
+                    @Override
+                    public boolean isSharable() {
+                        return true;
+                    }
+                })
+                .bind(new InetSocketAddress(getLoopbackAddress(), 0)).sync().channel();
+        clientChannel = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(final Channel ch) {
+                        if (coalesce) {
+                            ch.pipeline().addLast(new H2FlushCoalescingHandler(MAX_PENDING_BYTES));
+                        }
+                    }
+                })
+                .connect(serverChannel.localAddress()).sync().channel();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        clientChannel.close().sync();
+        serverChannel.close().sync();
+        group.shutdownGracefully().sync();
+    }
+
+    @Benchmark
+    public void writeAndFlush() throws Exception {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        clientChannel.eventLoop().execute(() -> {
+            ChannelFuture lastWrite = null;
+            for (int i = 0; i < streams; ++i) {
+                // Every stream flushes its own frame, as Http2StreamChannel does for the parent channel.
+                lastWrite = clientChannel.writeAndFlush(frame.duplicate());
+            }
+            assert lastWrite != null;
+            lastWrite.addListener(f -> done.complete(null));
+        });
+        done.get();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.ArrayHttpHeadersFactory;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpHeadersFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersDecoder;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersEncoder;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static io.netty.buffer.Unpooled.directBuffer;
+import static io.netty.handler.codec.http2.Http2HeadersEncoder.NEVER_SENSITIVE;
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersToH2Headers;
+
+/*
+ * This benchmark measures the cost of HTTP/2 headers per stream: converting HttpHeaders created by different
+ * HttpHeadersFactory implementations to Http2Headers, HPACK encoding them, and decoding them into HttpHeaders.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class H2HeadersBenchmark {
+
+    private static final CharSequence X_REQUEST_ID = newAsciiString("x-request-id");
+    private static final CharSequence VALUE = newAsciiString("servicetalk.io");
+
+    @Param({"h2", "default", "array"})
+    private String factoryType;
+
+    @Param({"true", "false"})
+    private boolean mixedCaseNames;
+
+    private HttpHeadersFactory factory;
+    private final DefaultHttp2HeadersEncoder encoder = new DefaultHttp2HeadersEncoder(NEVER_SENSITIVE);
+    private final DefaultHttp2HeadersDecoder decoder = new DefaultHttp2HeadersDecoder(false);
+    private ByteBuf buffer;
+    private int streamId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        factory = "h2".equals(factoryType) ? H2HeadersFactory.INSTANCE :
+                "array".equals(factoryType) ? ArrayHttpHeadersFactory.INSTANCE : DefaultHttpHeadersFactory.INSTANCE;
+        buffer = directBuffer(1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.release();
+    }
+
+    private HttpHeaders newHeaders() {
+        final HttpHeaders headers = factory.newHeaders()
+                .add(USER_AGENT, VALUE)
+                .add(ACCEPT, VALUE)
+                .add(ACCEPT_ENCODING, VALUE)
+                .add(CONTENT_TYPE, VALUE)
+                .add(X_REQUEST_ID, Integer.toString(streamId));
+        if (mixedCaseNames && !"h2".equals(factoryType)) {
+            headers.add("X-Custom-Header", VALUE);
+        } else {
+            headers.add("x-custom-header", VALUE);
+        }
+        return headers;
+    }
+
+    @Benchmark
+    public Http2Headers convert() {
+        return h1HeadersToH2Headers(newHeaders());
+    }
+
+    @Benchmark
+    public int encode() throws Http2Exception {
+        buffer.clear();
+        encoder.encodeHeaders(streamId += 2, h1HeadersToH2Headers(newHeaders()), buffer);
+        return buffer.readableBytes();
+    }
+
+    @Benchmark
+    public HttpHeaders roundTrip() throws Http2Exception {
+        buffer.clear();
+        encoder.encodeHeaders(streamId += 2, h1HeadersToH2Headers(newHeaders()), buffer);
+        return new NettyH2HeadersToHttpHeaders(decoder.decodeHeaders(streamId, buffer), false, false);
+    }
+}
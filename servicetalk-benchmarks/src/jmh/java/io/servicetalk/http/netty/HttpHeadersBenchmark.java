@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.ArrayHttpHeadersFactory;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.EmptyHttpHeaders;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpHeadersFactory;
+import io.servicetalk.http.api.HttpResponseMetaData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpHeaderValues.ZERO;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpResponseMetaDataFactory.newResponseMetaData;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+
+/*
+ * This benchmark compares HttpHeaders implementations for typical header operations: adding headers, looking up
+ * present and absent names, iterating over all headers, and encoding them on the wire.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class HttpHeadersBenchmark {
+
+    private static final CharSequence[] NAMES = {HOST, USER_AGENT, ACCEPT, ACCEPT_ENCODING, CONTENT_TYPE, DATE,
+            SERVER, VARY, newAsciiString("x-request-id"), newAsciiString("x-forwarded-for"),
+            newAsciiString("x-trace-id"), newAsciiString("x-custom-header")};
+    private static final CharSequence VALUE = newAsciiString("servicetalk.io");
+
+    @Param({"default", "array"})
+    private String factoryType;
+
+    @Param({"4", "12"})
+    private int numHeaders;
+
+    private HttpHeadersFactory factory;
+    private HttpHeaders headers;
+    private HttpResponseMetaData metaData;
+    private EmbeddedChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        factory = "array".equals(factoryType) ? ArrayHttpHeadersFactory.INSTANCE : DefaultHttpHeadersFactory.INSTANCE;
+        headers = addHeaders(factory.newHeaders());
+        metaData = newResponseMetaData(HTTP_1_1, OK, headers);
+        channel = new EmbeddedChannel(new HttpResponseEncoder(new ArrayDeque<>(), 256, 256));
+    }
+
+    private HttpHeaders addHeaders(final HttpHeaders headers) {
+        for (int i = 0; i < numHeaders; ++i) {
+            headers.add(NAMES[i], VALUE);
+        }
+        headers.add(CONTENT_LENGTH, ZERO);
+        return headers;
+    }
+
+    @Benchmark
+    public HttpHeaders add() {
+        return addHeaders(factory.newHeaders());
+    }
+
+    @Benchmark
+    public void get(Blackhole bh) {
+        bh.consume(headers.get(HOST));
+        bh.consume(headers.get(CONTENT_LENGTH));
+        bh.consume(headers.get(TRANSFER_ENCODING));
+        bh.consume(headers.get("X-Custom-Header"));
+    }
+
+    @Benchmark
+    public int iterate() {
+        int length = 0;
+        for (Map.Entry<CharSequence, CharSequence> header : headers) {
+            length += header.getKey().length() + header.getValue().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int encode() {
+        channel.writeOutbound(metaData);
+        channel.writeOutbound(EmptyHttpHeaders.INSTANCE);
+
+        final ByteBuf byteBuf1 = channel.readOutbound();
+        final int size1 = byteBuf1.readableBytes();
+        byteBuf1.release();
+        final ByteBuf byteBuf2 = channel.readOutbound();
+        final int size2 = byteBuf2.readableBytes();
+        byteBuf2.release();
+        return size1 + size2;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpRequestMetaData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+
+import static io.netty.buffer.Unpooled.directBuffer;
+import static io.netty.buffer.Unpooled.unreleasableBuffer;
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.getByteBufAllocator;
+import static io.servicetalk.transport.netty.internal.CloseHandler.UNSUPPORTED_PROTOCOL_CLOSE_HANDLER;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/*
+ * This benchmark measures decoding of HTTP requests with a typical set of request headers. With "known" headers, names
+ * and values are resolved to shared constants by the decoder, with "custom" headers of the same shape every name and
+ * value is sliced from the network buffer. Run with "-prof gc" to compare allocation per operation
+ * (gc.alloc.rate.norm). The "browser" header block is dominated by long request-target, user-agent and cookie values
+ * and measures the word-at-a-time scanning of the start-line and header lines. With "lazyParsing" the header block is
+ * only validated and indexed, as a pass-through proxy would see it.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class HttpRequestDecoderBenchmark {
+
+    private static final String KNOWN_HEADERS = "Host: servicetalk.io" + "\r\n" +
+            "Accept: */*" + "\r\n" +
+            "Accept-Encoding: gzip, deflate" + "\r\n" +
+            "Connection: keep-alive" + "\r\n" +
+            "Content-Type: application/json" + "\r\n" +
+            "Cache-Control: no-cache" + "\r\n" +
+            "User-Agent: servicetalk" + "\r\n";
+
+    private static final String CUSTOM_HEADERS = "X-Host: servicetalk.io" + "\r\n" +
+            "X-Accept: */*/" + "\r\n" +
+            "X-Accept-Encoding: zstd, brotli" + "\r\n" +
+            "X-Connection: keep-going" + "\r\n" +
+            "X-Content-Type: application/xjson" + "\r\n" +
+            "X-Cache-Control: no-cache-x" + "\r\n" +
+            "X-User-Agent: servicetalk" + "\r\n";
+
+    private static final String BROWSER_HEADERS = "Host: www.servicetalk.io" + "\r\n" +
+            "User-Agent: Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) " +
+            "Chrome/90.0.4430.93 Safari/537.36" + "\r\n" +
+            "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;" +
+            "q=0.8,application/signed-exchange;v=b3;q=0.9" + "\r\n" +
+            "Accept-Encoding: gzip, deflate, br" + "\r\n" +
+            "Accept-Language: en-US,en;q=0.9" + "\r\n" +
+            "Referer: https://www.servicetalk.io/servicetalk/SNAPSHOT/programming-paradigms.html" + "\r\n" +
+            "Cookie: _ga=GA1.2.1234567890.1619712345; _gid=GA1.2.987654321.1619798765; " +
+            "session=2b1c9f7e4d3a8b6c5e0f1a2b3c4d5e6f7a8b9c0d1e2f3a4b5c6d7e8f9a0b1c2d" + "\r\n" +
+            "Sec-Fetch-Site: same-origin" + "\r\n" +
+            "Sec-Fetch-Mode: navigate" + "\r\n" +
+            "Upgrade-Insecure-Requests: 1" + "\r\n";
+
+    @Param({"known", "custom", "browser"})
+    private String headers;
+
+    @Param({"false", "true"})
+    private boolean lazyParsing;
+
+    private ByteBuf requestByteBuf;
+
+    private EmbeddedChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final byte[] request;
+        if ("browser".equals(headers)) {
+            request = ("GET /servicetalk/SNAPSHOT/index.html?utm_source=github&utm_medium=readme HTTP/1.1" + "\r\n" +
+                    BROWSER_HEADERS + "\r\n").getBytes(US_ASCII);
+        } else {
+            request = ("GET /some/path?query=value HTTP/1.1" + "\r\n" +
+                    ("known".equals(headers) ? KNOWN_HEADERS : CUSTOM_HEADERS) + "\r\n").getBytes(US_ASCII);
+        }
+        requestByteBuf = unreleasableBuffer(directBuffer(request.length).writeBytes(request));
+
+        channel = new EmbeddedChannel(new HttpRequestDecoder(new ArrayDeque<>(),
+                getByteBufAllocator(DEFAULT_ALLOCATOR),
+                new DefaultHttpHeadersFactory(true, true, false, 16, 4, lazyParsing), 8192, 8192, false, false,
+                UNSUPPORTED_PROTOCOL_CLOSE_HANDLER));
+    }
+
+    @Benchmark
+    public int decode() {
+        channel.writeInbound(requestByteBuf.duplicate());
+
+        final HttpRequestMetaData request = channel.readInbound();
+        final HttpHeaders trailers = channel.readInbound();
+
+        return request.headers().size() + (trailers == null ? 0 : trailers.size());
+    }
+}
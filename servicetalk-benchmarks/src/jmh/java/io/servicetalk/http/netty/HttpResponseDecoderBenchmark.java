@@ -1,5 +1,5 @@
 /*
- * Copyright © 2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2019-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,10 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
  * HttpResponseDecoderBenchmark.initialLine           500  thrpt    5   988277.529 ±  8913.071  ops/s
  * HttpResponseDecoderBenchmark.initialLine           600  thrpt    5   965798.581 ± 13396.336  ops/s
  * HttpResponseDecoderBenchmark.initialLine           700  thrpt    5   811948.162 ± 14176.711  ops/s
+ *
+ * typicalHeaders decodes the same start-line followed by a set of commonly used response headers, whose names and
+ * values are mostly resolved to shared constants by the decoder. Run with "-prof gc" to compare allocation per
+ * operation (gc.alloc.rate.norm) with initialLine.
  */
 @Fork(value = 1)
 @State(Scope.Benchmark)
@@ -69,6 +73,7 @@ public class HttpResponseDecoderBenchmark {
     private int statusCode;
 
     private ByteBuf responseByteBuf;
+    private ByteBuf typicalHeadersByteBuf;
 
     private EmbeddedChannel channel;
 
@@ -85,6 +90,22 @@ public class HttpResponseDecoderBenchmark {
         responseBuffer.writeShort(CRLF_SHORT);
         responseByteBuf = toByteBuf(responseBuffer.slice());
 
+        final Buffer typicalHeadersBuffer = PREFER_DIRECT_ALLOCATOR.newBuffer(512);
+        HTTP_1_1.writeTo(typicalHeadersBuffer);
+        typicalHeadersBuffer.writeByte(SP);
+        status.writeTo(typicalHeadersBuffer);
+        typicalHeadersBuffer.writeShort(CRLF_SHORT);
+        typicalHeadersBuffer.writeBytes(("Content-Type: application/json" + "\r\n" +
+                "Content-Encoding: gzip" + "\r\n" +
+                "Connection: keep-alive" + "\r\n" +
+                "Cache-Control: no-cache" + "\r\n" +
+                "Vary: Accept-Encoding" + "\r\n" +
+                "Date: Mon, 19 Oct 2020 10:00:00 GMT" + "\r\n" +
+                "Server: servicetalk" + "\r\n" +
+                "content-length: 0" + "\r\n").getBytes(US_ASCII));
+        typicalHeadersBuffer.writeShort(CRLF_SHORT);
+        typicalHeadersByteBuf = toByteBuf(typicalHeadersBuffer.slice());
+
         channel = new EmbeddedChannel(new HttpResponseDecoder(new ArrayDeque<>(),
                 getByteBufAllocator(DEFAULT_ALLOCATOR), DefaultHttpHeadersFactory.INSTANCE, 8192, 8192));
     }
@@ -102,4 +123,18 @@ public class HttpResponseDecoderBenchmark {
 
         return response.headers().size() + trailers.size();
     }
+
+    @Benchmark
+    public int typicalHeaders() {
+        channel.writeInbound(typicalHeadersByteBuf.duplicate());
+
+        final HttpResponseMetaData response = channel.readInbound();
+        final HttpHeaders trailers = channel.readInbound();
+
+        if (response.status().code() != statusCode) {
+            throw new IllegalStateException("Unexpected statusCode: " + response.status().code());
+        }
+
+        return response.headers().size() + trailers.size();
+    }
 }
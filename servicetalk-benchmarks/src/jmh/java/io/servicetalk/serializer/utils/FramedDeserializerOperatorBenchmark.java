@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.serializer.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.serializer.api.Deserializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.fromIterable;
+import static java.lang.Integer.BYTES;
+import static java.lang.Math.min;
+import static java.util.function.Function.identity;
+
+/*
+ * This benchmark measures deframing of length-prefixed frames of 16 KiB to 16 MiB which arrive in 16 KiB chunks (the
+ * default HTTP/2 maximum frame size). "slice" hands views of the aggregated chunks to the deserializer, "copy" copies
+ * each frame into a new buffer first. The deserializer only consumes the bytes, so the difference is the cost of the
+ * copy.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class FramedDeserializerOperatorBenchmark {
+    private static final int CHUNK_SIZE = 16384;
+    private static final int FRAMES = 4;
+    private static final Deserializer<Integer> DESERIALIZER = (serializedData, allocator) -> {
+        final int length = serializedData.readableBytes();
+        serializedData.skipBytes(length);
+        return length;
+    };
+
+    @Param({"16384", "1048576", "16777216"})
+    private int frameSize;
+
+    @Param({"slice", "copy"})
+    private String implementation;
+
+    private final List<Buffer> chunks = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final byte[] frame = new byte[frameSize];
+        new Random(frameSize).nextBytes(frame);
+        final Buffer serialized = DEFAULT_ALLOCATOR.newBuffer(FRAMES * (BYTES + frameSize));
+        for (int i = 0; i < FRAMES; ++i) {
+            serialized.writeInt(frameSize).writeBytes(frame);
+        }
+        while (serialized.readableBytes() > 0) {
+            chunks.add(serialized.readSlice(min(serialized.readableBytes(), CHUNK_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public Integer deserialize() throws Exception {
+        final boolean copy = "copy".equals(implementation);
+        return fromIterable(chunks).map(Buffer::duplicate)
+                .liftSync(new FramedDeserializerOperator<>(DESERIALIZER, () -> new LengthDeframer(copy),
+                        DEFAULT_ALLOCATOR))
+                .flatMapConcatIterable(identity())
+                .reduce(() -> 0, Integer::sum)
+                .toFuture().get();
+    }
+
+    private static final class LengthDeframer implements BiFunction<Buffer, BufferAllocator, Buffer> {
+        private final boolean copy;
+        private int expectedLength = -1;
+
+        LengthDeframer(final boolean copy) {
+            this.copy = copy;
+        }
+
+        @Nullable
+        @Override
+        public Buffer apply(final Buffer buffer, final BufferAllocator allocator) {
+            if (expectedLength < 0) {
+                if (buffer.readableBytes() < BYTES) {
+                    return null;
+                }
+                expectedLength = buffer.readInt();
+            }
+            if (buffer.readableBytes() < expectedLength) {
+                return null;
+            }
+            final Buffer result = copy ? buffer.readBytes(expectedLength) : buffer.readSlice(expectedLength);
+            expectedLength = -1;
+            return result;
+        }
+    }
+}
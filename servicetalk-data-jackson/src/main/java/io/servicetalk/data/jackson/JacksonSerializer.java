@@ -19,6 +19,7 @@ import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.buffer.api.BufferAllocator;
 import io.servicetalk.serializer.api.SerializationException;
 import io.servicetalk.serializer.api.SerializerDeserializer;
+import io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
@@ -27,8 +28,11 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 
 import java.io.IOException;
+import java.util.function.ToIntFunction;
 
 import static io.servicetalk.buffer.api.Buffer.asOutputStream;
+import static io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator.recordSerializedSize;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Serializes and deserializes to/from JSON via jackson.
@@ -37,20 +41,32 @@ import static io.servicetalk.buffer.api.Buffer.asOutputStream;
 final class JacksonSerializer<T> implements SerializerDeserializer<T> {
     private final ObjectWriter writer;
     private final ObjectReader reader;
+    private final ToIntFunction<T> bytesEstimator;
 
     JacksonSerializer(ObjectMapper mapper, Class<T> clazz) {
+        this(mapper, clazz, new AdaptiveSerializedSizeEstimator<>());
+    }
+
+    JacksonSerializer(ObjectMapper mapper, Class<T> clazz, ToIntFunction<T> bytesEstimator) {
         writer = mapper.writerFor(clazz);
         reader = mapper.readerFor(clazz);
+        this.bytesEstimator = requireNonNull(bytesEstimator);
     }
 
     JacksonSerializer(ObjectMapper mapper, TypeReference<T> typeRef) {
+        this(mapper, typeRef, new AdaptiveSerializedSizeEstimator<>());
+    }
+
+    JacksonSerializer(ObjectMapper mapper, TypeReference<T> typeRef, ToIntFunction<T> bytesEstimator) {
         writer = mapper.writerFor(typeRef);
         reader = mapper.readerFor(typeRef);
+        this.bytesEstimator = requireNonNull(bytesEstimator);
     }
 
     JacksonSerializer(ObjectMapper mapper, JavaType type) {
         writer = mapper.writerFor(type);
         reader = mapper.readerFor(type);
+        bytesEstimator = new AdaptiveSerializedSizeEstimator<>();
     }
 
     @Override
@@ -58,6 +74,15 @@ final class JacksonSerializer<T> implements SerializerDeserializer<T> {
         doSerialize(writer, toSerialize, buffer);
     }
 
+    @Override
+    public Buffer serialize(final T toSerialize, final BufferAllocator allocator) {
+        final int sizeEstimate = bytesEstimator.applyAsInt(toSerialize);
+        final Buffer buffer = allocator.newBuffer(sizeEstimate);
+        doSerialize(writer, toSerialize, buffer);
+        recordSerializedSize(bytesEstimator, sizeEstimate, buffer.readableBytes());
+        return buffer;
+    }
+
     @Override
     public T deserialize(final Buffer serializedData, final BufferAllocator allocator) {
         try {
@@ -15,6 +15,7 @@
  */
 package io.servicetalk.data.jackson;
 
+import io.servicetalk.data.jackson.JacksonStreamingSerializer.Framing;
 import io.servicetalk.serializer.api.SerializerDeserializer;
 import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
 
@@ -25,6 +26,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
 
 /**
  * Caches instances of {@link SerializerDeserializer} and {@link StreamingSerializerDeserializer} for
@@ -39,6 +41,10 @@ public final class JacksonSerializerFactory {
     @SuppressWarnings("rawtypes")
     private final Map<Object, StreamingSerializerDeserializer> streamingSerializerMap;
     @SuppressWarnings("rawtypes")
+    private final Map<Object, StreamingSerializerDeserializer> arrayStreamingSerializerMap;
+    @SuppressWarnings("rawtypes")
+    private final Map<Object, StreamingSerializerDeserializer> ndJsonStreamingSerializerMap;
+    @SuppressWarnings("rawtypes")
     private final Map<Object, SerializerDeserializer> serializerMap;
 
     /**
@@ -55,6 +61,8 @@ public final class JacksonSerializerFactory {
     public JacksonSerializerFactory(final ObjectMapper mapper) {
         this.mapper = Objects.requireNonNull(mapper);
         streamingSerializerMap = new ConcurrentHashMap<>();
+        arrayStreamingSerializerMap = new ConcurrentHashMap<>();
+        ndJsonStreamingSerializerMap = new ConcurrentHashMap<>();
         serializerMap = new ConcurrentHashMap<>();
     }
 
@@ -81,6 +89,37 @@ public final class JacksonSerializerFactory {
                 new JacksonSerializer<>(mapper, (TypeReference<T>) typeRef2));
     }
 
+    /**
+     * Create a new {@link SerializerDeserializer} which uses the passed {@code bytesEstimator}.
+     * <p>
+     * Unlike {@link #serializerDeserializer(Class)}, the returned instance is not cached.
+     * @param clazz The class to serialize and deserialize.
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link SerializerDeserializer}.
+     */
+    public <T> SerializerDeserializer<T> serializerDeserializer(final Class<T> clazz,
+                                                                final ToIntFunction<T> bytesEstimator) {
+        return new JacksonSerializer<>(mapper, clazz, bytesEstimator);
+    }
+
+    /**
+     * Create a new {@link SerializerDeserializer} which uses the passed {@code bytesEstimator}.
+     * @see #serializerDeserializer(Class, ToIntFunction)
+     * @param typeRef The type reference to serialize and deserialize (captures generic type arguments at runtime).
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link SerializerDeserializer}.
+     */
+    public <T> SerializerDeserializer<T> serializerDeserializer(final TypeReference<T> typeRef,
+                                                                final ToIntFunction<T> bytesEstimator) {
+        return new JacksonSerializer<>(mapper, typeRef, bytesEstimator);
+    }
+
     /**
      * Get a {@link SerializerDeserializer}.
      * @param type The type to serialize and deserialize (captures generic type arguments at runtime).
@@ -116,6 +155,37 @@ public final class JacksonSerializerFactory {
                 new JacksonStreamingSerializer<>(mapper, (TypeReference<T>) typeRef2));
     }
 
+    /**
+     * Create a new {@link StreamingSerializerDeserializer} which uses the passed {@code bytesEstimator}.
+     * <p>
+     * Unlike {@link #streamingSerializerDeserializer(Class)}, the returned instance is not cached.
+     * @param clazz The class to serialize and deserialize.
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    public <T> StreamingSerializerDeserializer<T> streamingSerializerDeserializer(
+            final Class<T> clazz, final ToIntFunction<T> bytesEstimator) {
+        return new JacksonStreamingSerializer<>(mapper, clazz, Framing.CONCATENATED, bytesEstimator);
+    }
+
+    /**
+     * Create a new {@link StreamingSerializerDeserializer} which uses the passed {@code bytesEstimator}.
+     * @see #streamingSerializerDeserializer(Class, ToIntFunction)
+     * @param typeRef The type reference to serialize and deserialize (captures generic type arguments at runtime).
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    public <T> StreamingSerializerDeserializer<T> streamingSerializerDeserializer(
+            final TypeReference<T> typeRef, final ToIntFunction<T> bytesEstimator) {
+        return new JacksonStreamingSerializer<>(mapper, typeRef, Framing.CONCATENATED, bytesEstimator);
+    }
+
     /**
      * Get a {@link StreamingSerializerDeserializer}.
      * @param type The type to serialize and deserialize (captures generic type arguments at runtime).
@@ -127,4 +197,157 @@ public final class JacksonSerializerFactory {
         return streamingSerializerMap.computeIfAbsent(type, type2 ->
                 new JacksonStreamingSerializer<>(mapper, (JavaType) type2));
     }
+
+    /**
+     * Get a {@link StreamingSerializerDeserializer} for the elements of a single top-level JSON array
+     * ({@code [{...},{...}]}).
+     * <p>
+     * Elements are parsed incrementally as {@link io.servicetalk.buffer.api.Buffer}s arrive and each element is
+     * serialized to its own {@link io.servicetalk.buffer.api.Buffer}, so arbitrarily large arrays are processed in
+     * memory bounded by the size of an element.
+     * @param clazz The class to serialize and deserialize.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StreamingSerializerDeserializer<T> arrayStreamingSerializerDeserializer(final Class<T> clazz) {
+        return arrayStreamingSerializerMap.computeIfAbsent(clazz, clazz2 ->
+                new JacksonStreamingSerializer<>(mapper, (Class<T>) clazz2, Framing.ARRAY));
+    }
+
+    /**
+     * Get a {@link StreamingSerializerDeserializer} for the elements of a single top-level JSON array.
+     * @see #arrayStreamingSerializerDeserializer(Class)
+     * @param typeRef The type reference to serialize and deserialize (captures generic type arguments at runtime).
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StreamingSerializerDeserializer<T> arrayStreamingSerializerDeserializer(final TypeReference<T> typeRef) {
+        return arrayStreamingSerializerMap.computeIfAbsent(typeRef, typeRef2 ->
+                new JacksonStreamingSerializer<>(mapper, (TypeReference<T>) typeRef2, Framing.ARRAY));
+    }
+
+    /**
+     * Create a new {@link StreamingSerializerDeserializer} for the elements of a single top-level JSON array, which
+     * uses the passed {@code bytesEstimator}.
+     * <p>
+     * Unlike {@link #arrayStreamingSerializerDeserializer(Class)}, the returned instance is not cached.
+     * @param clazz The class to serialize and deserialize.
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    public <T> StreamingSerializerDeserializer<T> arrayStreamingSerializerDeserializer(
+            final Class<T> clazz, final ToIntFunction<T> bytesEstimator) {
+        return new JacksonStreamingSerializer<>(mapper, clazz, Framing.ARRAY, bytesEstimator);
+    }
+
+    /**
+     * Create a new {@link StreamingSerializerDeserializer} for the elements of a single top-level JSON array, which
+     * uses the passed {@code bytesEstimator}.
+     * @see #arrayStreamingSerializerDeserializer(Class, ToIntFunction)
+     * @param typeRef The type reference to serialize and deserialize (captures generic type arguments at runtime).
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    public <T> StreamingSerializerDeserializer<T> arrayStreamingSerializerDeserializer(
+            final TypeReference<T> typeRef, final ToIntFunction<T> bytesEstimator) {
+        return new JacksonStreamingSerializer<>(mapper, typeRef, Framing.ARRAY, bytesEstimator);
+    }
+
+    /**
+     * Get a {@link StreamingSerializerDeserializer} for the elements of a single top-level JSON array.
+     * @see #arrayStreamingSerializerDeserializer(Class)
+     * @param type The type to serialize and deserialize (captures generic type arguments at runtime).
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StreamingSerializerDeserializer<T> arrayStreamingSerializerDeserializer(final JavaType type) {
+        return arrayStreamingSerializerMap.computeIfAbsent(type, type2 ->
+                new JacksonStreamingSerializer<>(mapper, (JavaType) type2, Framing.ARRAY));
+    }
+
+    /**
+     * Get a {@link StreamingSerializerDeserializer} for <a href="http://ndjson.org">newline delimited JSON</a>
+     * ({@code {...}\n{...}\n}).
+     * <p>
+     * Values are parsed incrementally as {@link io.servicetalk.buffer.api.Buffer}s arrive and each value is
+     * serialized to its own {@link io.servicetalk.buffer.api.Buffer}, so arbitrarily large streams are processed in
+     * memory bounded by the size of a value.
+     * @param clazz The class to serialize and deserialize.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StreamingSerializerDeserializer<T> ndJsonStreamingSerializerDeserializer(final Class<T> clazz) {
+        return ndJsonStreamingSerializerMap.computeIfAbsent(clazz, clazz2 ->
+                new JacksonStreamingSerializer<>(mapper, (Class<T>) clazz2, Framing.NEWLINE_DELIMITED));
+    }
+
+    /**
+     * Get a {@link StreamingSerializerDeserializer} for newline delimited JSON.
+     * @see #ndJsonStreamingSerializerDeserializer(Class)
+     * @param typeRef The type reference to serialize and deserialize (captures generic type arguments at runtime).
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StreamingSerializerDeserializer<T> ndJsonStreamingSerializerDeserializer(
+            final TypeReference<T> typeRef) {
+        return ndJsonStreamingSerializerMap.computeIfAbsent(typeRef, typeRef2 ->
+                new JacksonStreamingSerializer<>(mapper, (TypeReference<T>) typeRef2, Framing.NEWLINE_DELIMITED));
+    }
+
+    /**
+     * Create a new {@link StreamingSerializerDeserializer} for newline delimited JSON, which uses the passed
+     * {@code bytesEstimator}.
+     * <p>
+     * Unlike {@link #ndJsonStreamingSerializerDeserializer(Class)}, the returned instance is not cached.
+     * @param clazz The class to serialize and deserialize.
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    public <T> StreamingSerializerDeserializer<T> ndJsonStreamingSerializerDeserializer(
+            final Class<T> clazz, final ToIntFunction<T> bytesEstimator) {
+        return new JacksonStreamingSerializer<>(mapper, clazz, Framing.NEWLINE_DELIMITED, bytesEstimator);
+    }
+
+    /**
+     * Create a new {@link StreamingSerializerDeserializer} for newline delimited JSON, which uses the passed
+     * {@code bytesEstimator}.
+     * @see #ndJsonStreamingSerializerDeserializer(Class, ToIntFunction)
+     * @param typeRef The type reference to serialize and deserialize (captures generic type arguments at runtime).
+     * @param bytesEstimator Estimates the serialized size (in bytes) of each object, used to size the buffer it is
+     * serialized to. An {@code AdaptiveSerializedSizeEstimator} is updated with the actual sizes, so its
+     * {@code resizeCount()} can be used to monitor how often buffers have to grow.
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    public <T> StreamingSerializerDeserializer<T> ndJsonStreamingSerializerDeserializer(
+            final TypeReference<T> typeRef, final ToIntFunction<T> bytesEstimator) {
+        return new JacksonStreamingSerializer<>(mapper, typeRef, Framing.NEWLINE_DELIMITED, bytesEstimator);
+    }
+
+    /**
+     * Get a {@link StreamingSerializerDeserializer} for newline delimited JSON.
+     * @see #ndJsonStreamingSerializerDeserializer(Class)
+     * @param type The type to serialize and deserialize (captures generic type arguments at runtime).
+     * @param <T> The type to serialize and deserialize.
+     * @return a {@link StreamingSerializerDeserializer}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StreamingSerializerDeserializer<T> ndJsonStreamingSerializerDeserializer(final JavaType type) {
+        return ndJsonStreamingSerializerMap.computeIfAbsent(type, type2 ->
+                new JacksonStreamingSerializer<>(mapper, (JavaType) type2, Framing.NEWLINE_DELIMITED));
+    }
 }
@@ -24,6 +24,7 @@ import io.servicetalk.concurrent.api.PublisherOperator;
 import io.servicetalk.concurrent.internal.ConcurrentSubscription;
 import io.servicetalk.serializer.api.SerializationException;
 import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
+import io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
@@ -47,12 +48,16 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
 
 import static com.fasterxml.jackson.databind.node.JsonNodeFactory.instance;
 import static io.servicetalk.concurrent.internal.EmptySubscriptions.EMPTY_SUBSCRIPTION;
 import static io.servicetalk.data.jackson.JacksonSerializer.doSerialize;
+import static io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator.recordSerializedSize;
 import static java.util.Collections.singletonList;
+import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
 
 /**
@@ -60,43 +65,141 @@ import static java.util.function.Function.identity;
  * @param <T> The type of objects to serialize.
  */
 final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserializer<T> {
+    /**
+     * How the JSON values of a stream are delimited.
+     */
+    enum Framing {
+        /**
+         * Root-level values which are concatenated without delimiters.
+         */
+        CONCATENATED,
+        /**
+         * Elements of a single top-level JSON array.
+         */
+        ARRAY,
+        /**
+         * Root-level values which are each followed by a newline (<a href="http://ndjson.org">NDJSON</a>).
+         */
+        NEWLINE_DELIMITED
+    }
+
     private final ObjectWriter writer;
     private final ObjectReader reader;
+    private final Framing framing;
+    private final ToIntFunction<T> bytesEstimator;
 
     JacksonStreamingSerializer(ObjectMapper mapper, Class<T> clazz) {
+        this(mapper, clazz, Framing.CONCATENATED);
+    }
+
+    JacksonStreamingSerializer(ObjectMapper mapper, Class<T> clazz, Framing framing) {
+        this(mapper, clazz, framing, new AdaptiveSerializedSizeEstimator<>());
+    }
+
+    JacksonStreamingSerializer(ObjectMapper mapper, Class<T> clazz, Framing framing,
+                               ToIntFunction<T> bytesEstimator) {
         writer = mapper.writerFor(clazz);
         reader = mapper.readerFor(clazz);
+        this.framing = framing;
+        this.bytesEstimator = requireNonNull(bytesEstimator);
     }
 
     JacksonStreamingSerializer(ObjectMapper mapper, TypeReference<T> typeRef) {
+        this(mapper, typeRef, Framing.CONCATENATED);
+    }
+
+    JacksonStreamingSerializer(ObjectMapper mapper, TypeReference<T> typeRef, Framing framing) {
+        this(mapper, typeRef, framing, new AdaptiveSerializedSizeEstimator<>());
+    }
+
+    JacksonStreamingSerializer(ObjectMapper mapper, TypeReference<T> typeRef, Framing framing,
+                               ToIntFunction<T> bytesEstimator) {
         writer = mapper.writerFor(typeRef);
         reader = mapper.readerFor(typeRef);
+        this.framing = framing;
+        this.bytesEstimator = requireNonNull(bytesEstimator);
     }
 
     JacksonStreamingSerializer(ObjectMapper mapper, JavaType type) {
+        this(mapper, type, Framing.CONCATENATED);
+    }
+
+    JacksonStreamingSerializer(ObjectMapper mapper, JavaType type, Framing framing) {
         writer = mapper.writerFor(type);
         reader = mapper.readerFor(type);
+        this.framing = framing;
+        bytesEstimator = new AdaptiveSerializedSizeEstimator<>();
     }
 
     @Override
     public Publisher<Buffer> serialize(final Publisher<T> toSerialize, final BufferAllocator allocator) {
-        return toSerialize.map(t -> {
-            Buffer buffer = allocator.newBuffer();
-            doSerialize(writer, t, buffer);
-            return buffer;
-        });
+        // Each value is serialized to its own Buffer, so memory is bounded by the largest value and not by the stream.
+        switch (framing) {
+            case ARRAY:
+                return Publisher.defer(() -> {
+                    final ArrayElementSerializer<T> elementSerializer =
+                            new ArrayElementSerializer<>(writer, bytesEstimator, allocator);
+                    return toSerialize.map(elementSerializer).concat(Publisher.defer(() ->
+                            Publisher.from(allocator.fromAscii(elementSerializer.first ? "[]" : "]"))));
+                });
+            case NEWLINE_DELIMITED:
+                return toSerialize.map(t -> {
+                    final int sizeEstimate = bytesEstimator.applyAsInt(t);
+                    Buffer buffer = allocator.newBuffer(sizeEstimate);
+                    doSerialize(writer, t, buffer);
+                    buffer.writeByte('\n');
+                    recordSerializedSize(bytesEstimator, sizeEstimate, buffer.readableBytes());
+                    return buffer;
+                });
+            default:
+                return toSerialize.map(t -> {
+                    final int sizeEstimate = bytesEstimator.applyAsInt(t);
+                    Buffer buffer = allocator.newBuffer(sizeEstimate);
+                    doSerialize(writer, t, buffer);
+                    recordSerializedSize(bytesEstimator, sizeEstimate, buffer.readableBytes());
+                    return buffer;
+                });
+        }
     }
 
     @Override
     public Publisher<T> deserialize(final Publisher<Buffer> serializedData, final BufferAllocator allocator) {
-        return serializedData.liftSync(new DeserializeOperator<T>(reader)).flatMapConcatIterable(identity());
+        return serializedData.liftSync(new DeserializeOperator<T>(reader, framing == Framing.ARRAY))
+                .flatMapConcatIterable(identity());
+    }
+
+    private static final class ArrayElementSerializer<T> implements Function<T, Buffer> {
+        private final ObjectWriter writer;
+        private final ToIntFunction<T> bytesEstimator;
+        private final BufferAllocator allocator;
+        boolean first = true;
+
+        ArrayElementSerializer(final ObjectWriter writer, final ToIntFunction<T> bytesEstimator,
+                               final BufferAllocator allocator) {
+            this.writer = writer;
+            this.bytesEstimator = bytesEstimator;
+            this.allocator = allocator;
+        }
+
+        @Override
+        public Buffer apply(final T t) {
+            final int sizeEstimate = bytesEstimator.applyAsInt(t);
+            Buffer buffer = allocator.newBuffer(sizeEstimate);
+            buffer.writeByte(first ? '[' : ',');
+            first = false;
+            doSerialize(writer, t, buffer);
+            recordSerializedSize(bytesEstimator, sizeEstimate, buffer.readableBytes());
+            return buffer;
+        }
     }
 
     private static final class DeserializeOperator<T> implements PublisherOperator<Buffer, Iterable<T>> {
         private final ObjectReader reader;
+        private final boolean array;
 
-        private DeserializeOperator(ObjectReader reader) {
+        private DeserializeOperator(ObjectReader reader, boolean array) {
             this.reader = reader;
+            this.array = array;
         }
 
         @Override
@@ -113,9 +216,11 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
             }
             NonBlockingInputFeeder feeder = parser.getNonBlockingInputFeeder();
             if (feeder instanceof ByteBufferFeeder) {
-                return new ByteBufferDeserializeSubscriber<>(subscriber, reader, parser, (ByteBufferFeeder) feeder);
+                return new ByteBufferDeserializeSubscriber<>(subscriber, reader, array, parser,
+                        (ByteBufferFeeder) feeder);
             } else if (feeder instanceof ByteArrayFeeder) {
-                return new ByteArrayDeserializeSubscriber<>(subscriber, reader, parser, (ByteArrayFeeder) feeder);
+                return new ByteArrayDeserializeSubscriber<>(subscriber, reader, array, parser,
+                        (ByteArrayFeeder) feeder);
             }
             return new FailedSubscriber<>(subscriber, new SerializationException("unsupported feeder type: " + feeder));
         }
@@ -124,9 +229,9 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
             private final ByteArrayFeeder feeder;
 
             private ByteArrayDeserializeSubscriber(final Subscriber<? super Iterable<T>> subscriber,
-                                                   final ObjectReader reader, final JsonParser parser,
-                                                   final ByteArrayFeeder feeder) {
-                super(subscriber, reader, parser);
+                                                   final ObjectReader reader, final boolean array,
+                                                   final JsonParser parser, final ByteArrayFeeder feeder) {
+                super(subscriber, reader, array, parser);
                 this.feeder = feeder;
             }
 
@@ -151,9 +256,9 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
             private final ByteBufferFeeder feeder;
 
             private ByteBufferDeserializeSubscriber(final Subscriber<? super Iterable<T>> subscriber,
-                                                    final ObjectReader reader, final JsonParser parser,
-                                                    final ByteBufferFeeder feeder) {
-                super(subscriber, reader, parser);
+                                                    final ObjectReader reader, final boolean array,
+                                                    final JsonParser parser, final ByteBufferFeeder feeder) {
+                super(subscriber, reader, array, parser);
                 this.feeder = feeder;
             }
 
@@ -165,8 +270,17 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
         }
 
         private abstract static class DeserializeSubscriber<T> implements Subscriber<Buffer> {
+            private static final byte ARRAY_NOT_STARTED = 0;
+            private static final byte ARRAY_STARTED = 1;
+            private static final byte ARRAY_ENDED = 2;
+
             private final JsonParser parser;
             private final ObjectReader reader;
+            /**
+             * {@code true} if values are the elements of a top-level array, which itself is not deserialized.
+             */
+            private final boolean array;
+            private byte arrayState = ARRAY_NOT_STARTED;
             private final Deque<JsonNode> tokenStack = new ArrayDeque<>(8);
             private final Subscriber<? super Iterable<T>> subscriber;
             @Nullable
@@ -176,8 +290,10 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
 
             private DeserializeSubscriber(final Subscriber<? super Iterable<T>> subscriber,
                                           final ObjectReader reader,
+                                          final boolean array,
                                           final JsonParser parser) {
                 this.reader = reader;
+                this.array = array;
                 this.parser = parser;
                 this.subscriber = subscriber;
             }
@@ -208,17 +324,22 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
                         List<T> values = null;
                         T value = null;
                         while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+                            if (array && tokenStack.isEmpty() && !isArrayElement(token)) {
+                                continue;
+                            }
                             JsonNode nextRoot = push(token, parser);
-                            if (nextRoot != null) {
+                            // null values can't be emitted and are skipped.
+                            final T next;
+                            if (nextRoot != null && (next = reader.readValue(nextRoot)) != null) {
                                 if (values != null) {
-                                    values.add(reader.readValue(nextRoot));
+                                    values.add(next);
                                 } else if (value == null) {
-                                    value = reader.readValue(nextRoot);
+                                    value = next;
                                 } else {
                                     values = new ArrayList<>(3);
                                     values.add(value);
                                     value = null;
-                                    values.add(reader.readValue(nextRoot));
+                                    values.add(next);
                                 }
                             }
                         }
@@ -243,11 +364,38 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
 
             @Override
             public final void onComplete() {
-                if (tokenStack.isEmpty()) {
-                    subscriber.onComplete();
-                } else {
+                if (!tokenStack.isEmpty()) {
                     subscriber.onError(new SerializationException("completed with " + tokenStack.size() +
                             " tokens pending"));
+                } else if (array && arrayState != ARRAY_ENDED) {
+                    subscriber.onError(new SerializationException("completed before the end of the JSON array"));
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+
+            /**
+             * Tracks the start and end of the top-level array for a token which is not nested in an element.
+             * @param token a token which is not nested in an element of the top-level array.
+             * @return {@code true} if the token is (or starts) an element of the top-level array.
+             */
+            private boolean isArrayElement(final JsonToken token) {
+                switch (arrayState) {
+                    case ARRAY_NOT_STARTED:
+                        if (token != JsonToken.START_ARRAY) {
+                            throw new SerializationException("expected the start of a JSON array, got: " + token);
+                        }
+                        arrayState = ARRAY_STARTED;
+                        return false;
+                    case ARRAY_STARTED:
+                        if (token == JsonToken.END_ARRAY) {
+                            arrayState = ARRAY_ENDED;
+                            return false;
+                        }
+                        return true;
+                    default:
+                        throw new SerializationException("unexpected token after the end of the JSON array: " +
+                                token);
                 }
             }
 
@@ -275,6 +423,10 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
                         addValue(tokenStack.peek(), parser.getValueAsString());
                         return null;
                     case VALUE_NUMBER_INT:
+                        if (array && tokenStack.isEmpty()) {
+                            // Numbers which are elements of an array are delimited, unlike root-level numbers.
+                            return instance.numberNode(parser.getLongValue());
+                        }
                         // Ideally we want to make sure that if we deserialize a single primitive value, that is the
                         // only thing that this deserializer deserializes, i.e. any subsequent deserialization attempts
                         // MUST throw. However, to achieve that we need to maintain state between two deserialize calls.
@@ -283,6 +435,9 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
                         addValue(peekNonNull(), parser.getLongValue());
                         return null;
                     case VALUE_NUMBER_FLOAT:
+                        if (array && tokenStack.isEmpty()) {
+                            return instance.numberNode(parser.getDoubleValue());
+                        }
                         addValue(peekNonNull(), parser.getDoubleValue());
                         return null;
                     case VALUE_TRUE:
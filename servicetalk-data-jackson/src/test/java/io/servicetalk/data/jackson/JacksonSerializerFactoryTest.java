@@ -19,9 +19,11 @@ import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.buffer.api.BufferAllocator;
 import io.servicetalk.serializer.api.SerializerDeserializer;
 import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
+import io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -35,6 +37,7 @@ import static io.servicetalk.buffer.netty.BufferAllocators.PREFER_HEAP_ALLOCATOR
 import static io.servicetalk.concurrent.api.Publisher.from;
 import static io.servicetalk.data.jackson.JacksonSerializerFactory.JACKSON;
 import static java.lang.System.lineSeparator;
+import static java.util.Arrays.asList;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -61,6 +64,33 @@ class JacksonSerializerFactoryTest {
                 pojoSerializer(typeRef).serialize(expected, alloc), alloc));
     }
 
+    @Test
+    void aggregatedBytesEstimatorRecordsResizes() {
+        final AdaptiveSerializedSizeEstimator<String> estimator = new AdaptiveSerializedSizeEstimator<>(1, 1024);
+        final SerializerDeserializer<String> serializer = JACKSON.serializerDeserializer(String.class, estimator);
+        final String value = newString(100);
+        assertThat(serializer.deserialize(serializer.serialize(value, PREFER_HEAP_ALLOCATOR), PREFER_HEAP_ALLOCATOR),
+                is(value));
+        assertThat(estimator.sampleCount(), is(1L));
+        assertThat(estimator.resizeCount(), is(1L));
+        // The estimate has learned the size, so the buffer does not have to grow again.
+        serializer.serialize(value, PREFER_HEAP_ALLOCATOR);
+        assertThat(estimator.sampleCount(), is(2L));
+        assertThat(estimator.resizeCount(), is(1L));
+    }
+
+    @Test
+    void streamingBytesEstimatorRecordsResizes() {
+        final AdaptiveSerializedSizeEstimator<String> estimator = new AdaptiveSerializedSizeEstimator<>(1, 1024);
+        final StreamingSerializerDeserializer<String> serializer =
+                JACKSON.ndJsonStreamingSerializerDeserializer(String.class, estimator);
+        final String value = newString(100);
+        assertThat(serializer.deserialize(serializer.serialize(asList(value, value), PREFER_HEAP_ALLOCATOR),
+                PREFER_HEAP_ALLOCATOR), contains(value, value));
+        assertThat(estimator.sampleCount(), is(2L));
+        assertThat(estimator.resizeCount(), is(1L));
+    }
+
     @ParameterizedTest(name = "{index}, typeRef={0}, alloc={1}")
     @MethodSource("params")
     void deserializeInvalidData(boolean typeRef, BufferAllocator alloc) {
@@ -249,6 +279,14 @@ class JacksonSerializerFactoryTest {
                 JACKSON.serializerDeserializer(TestPojo.class);
     }
 
+    private static String newString(int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('a' + i % 26));
+        }
+        return sb.toString();
+    }
+
     private static StreamingSerializerDeserializer<TestPojo> pojoStreamingSerializer(boolean typeRef) {
         return typeRef ? JACKSON.streamingSerializerDeserializer(TEST_POJO_TYPE_REFERENCE) :
                 JACKSON.streamingSerializerDeserializer(TestPojo.class);
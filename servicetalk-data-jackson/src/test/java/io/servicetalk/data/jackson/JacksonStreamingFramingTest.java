@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.data.jackson;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.serializer.api.SerializationException;
+import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Publisher.fromIterable;
+import static io.servicetalk.data.jackson.JacksonSerializerFactory.JACKSON;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JacksonStreamingFramingTest {
+    private static final TestPojo POJO1 = new TestPojo(true, (byte) -2, (short) -3, 'a', 2, 5, 3.2f, -8.5, null,
+            new String[] {"bar"}, null);
+    private static final TestPojo POJO2 = new TestPojo(false, (byte) 1, (short) 4, 'b', 7, 9, -1.5f, 2.25, "foo",
+            new String[] {"baz", "[]"}, POJO1);
+
+    @Test
+    void arraySerialize() throws Exception {
+        final StreamingSerializerDeserializer<TestPojo> serializer =
+                JACKSON.arrayStreamingSerializerDeserializer(TestPojo.class);
+        assertThat(serialize(serializer, asList(POJO1, POJO2)),
+                is(new ObjectMapper().writeValueAsString(asList(POJO1, POJO2))));
+        assertThat(serialize(serializer, new ArrayList<>()), is("[]"));
+    }
+
+    @Test
+    void arrayRoundTripSplitBuffers() throws Exception {
+        final StreamingSerializerDeserializer<TestPojo> serializer =
+                JACKSON.arrayStreamingSerializerDeserializer(TestPojo.class);
+        final String json = " \n" + serialize(serializer, asList(POJO1, POJO2, POJO1)) + "\n";
+        assertThat(serializer.deserialize(splitBytes(json), DEFAULT_ALLOCATOR).toIterable(),
+                contains(POJO1, POJO2, POJO1));
+        assertThat(serializer.deserialize(from(DEFAULT_ALLOCATOR.fromUtf8(" [ ] ")), DEFAULT_ALLOCATOR).toIterable(),
+                emptyIterable());
+    }
+
+    @Test
+    void arrayOfPrimitives() {
+        assertThat(JACKSON.arrayStreamingSerializerDeserializer(Integer.class)
+                        .deserialize(splitBytes("[1, -2,3]"), DEFAULT_ALLOCATOR).toIterable(),
+                contains(1, -2, 3));
+        assertThat(JACKSON.arrayStreamingSerializerDeserializer(Double.class)
+                        .deserialize(from(DEFAULT_ALLOCATOR.fromUtf8("[1.5,-2.25]")), DEFAULT_ALLOCATOR).toIterable(),
+                contains(1.5, -2.25));
+        assertThat(JACKSON.arrayStreamingSerializerDeserializer(String.class)
+                        .deserialize(splitBytes("[\"a\",null,\"[b]\"]"), DEFAULT_ALLOCATOR).toIterable(),
+                // Like root-level values, null elements are skipped.
+                contains("a", "[b]"));
+    }
+
+    @Test
+    void arrayInvalidFraming() {
+        final StreamingSerializerDeserializer<TestPojo> serializer =
+                JACKSON.arrayStreamingSerializerDeserializer(TestPojo.class);
+        assertDeserializeFails(serializer, "{\"myBoolean\":true}");
+        assertDeserializeFails(serializer, "[{\"myBoolean\":true}");
+        assertDeserializeFails(serializer, "[{\"myBoolean\":true}] {\"myBoolean\":true}");
+        assertDeserializeFails(serializer, "");
+    }
+
+    @Test
+    void ndJsonRoundTrip() throws Exception {
+        final StreamingSerializerDeserializer<TestPojo> serializer =
+                JACKSON.ndJsonStreamingSerializerDeserializer(TestPojo.class);
+        final ObjectMapper mapper = new ObjectMapper();
+        final String json = serialize(serializer, asList(POJO1, POJO2));
+        assertThat(json, is(mapper.writeValueAsString(POJO1) + '\n' + mapper.writeValueAsString(POJO2) + '\n'));
+        assertThat(serializer.deserialize(splitBytes(json), DEFAULT_ALLOCATOR).toIterable(), contains(POJO1, POJO2));
+    }
+
+    private static <T> String serialize(final StreamingSerializerDeserializer<T> serializer, final List<T> values)
+            throws Exception {
+        return serializer.serialize(fromIterable(values), DEFAULT_ALLOCATOR)
+                .collect(StringBuilder::new, (sb, buffer) -> sb.append(buffer.toString(UTF_8)))
+                .toFuture().get().toString();
+    }
+
+    private static Publisher<Buffer> splitBytes(final String json) {
+        final byte[] bytes = json.getBytes(UTF_8);
+        final List<Buffer> buffers = new ArrayList<>(bytes.length);
+        for (byte b : bytes) {
+            buffers.add(DEFAULT_ALLOCATOR.newBuffer(1).writeByte(b));
+        }
+        return fromIterable(buffers);
+    }
+
+    private static void assertDeserializeFails(final StreamingSerializerDeserializer<TestPojo> serializer,
+                                               final String json) {
+        final ExecutionException e = assertThrows(ExecutionException.class, () ->
+                serializer.deserialize(splitBytes(json), DEFAULT_ALLOCATOR).toFuture().get());
+        assertThat(e.getCause(), instanceOf(SerializationException.class));
+    }
+}
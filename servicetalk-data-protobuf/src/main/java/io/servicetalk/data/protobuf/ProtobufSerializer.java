@@ -30,7 +30,9 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import static com.google.protobuf.CodedOutputStream.newInstance;
-import static com.google.protobuf.UnsafeByteOperations.unsafeWrap;
+import static io.servicetalk.buffer.api.Buffer.asOutputStream;
+import static java.lang.Math.min;
+import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -38,6 +40,7 @@ import static java.util.Objects.requireNonNull;
  * @param <T> The type of objects to serialize.
  */
 final class ProtobufSerializer<T extends MessageLite> implements SerializerDeserializer<T> {
+    private static final int MAX_OUTPUT_CHUNK_SIZE = 4096;
     private final Parser<T> parser;
 
     /**
@@ -57,20 +60,30 @@ final class ProtobufSerializer<T extends MessageLite> implements SerializerDeser
 
     @Override
     public void serialize(final T toSerialize, final BufferAllocator allocator, final Buffer buffer) {
+        final int serializedSize = toSerialize.getSerializedSize();
+        buffer.ensureWritable(serializedSize);
         final int writerIdx = buffer.writerIndex();
-        final int writableBytes = buffer.writableBytes();
-        final CodedOutputStream out = buffer.hasArray() ?
-                newInstance(buffer.array(), buffer.arrayOffset() + writerIdx, writableBytes) :
-                newInstance(buffer.toNioBuffer(writerIdx, writableBytes));
+        final CodedOutputStream out;
+        if (buffer.hasArray()) {
+            out = newInstance(buffer.array(), buffer.arrayOffset() + writerIdx, serializedSize);
+        } else if (buffer.nioBufferCount() == 1) {
+            // The ByteBuffer shares the memory of the Buffer, so a direct Buffer is written to without a copy.
+            out = newInstance(buffer.toNioBuffer(writerIdx, serializedSize));
+        } else {
+            // A CompositeBuffer may have to copy its components into a temporary ByteBuffer, which would not share
+            // its memory. Write through the Buffer instead, in chunks of bounded size.
+            out = newInstance(asOutputStream(buffer), min(serializedSize, MAX_OUTPUT_CHUNK_SIZE));
+        }
 
         try {
             toSerialize.writeTo(out);
+            out.flush();
         } catch (IOException e) {
             throw new SerializationException(e);
         }
 
-        // Forward write index of our buffer
-        buffer.writerIndex(writerIdx + toSerialize.getSerializedSize());
+        // Forward write index of our buffer, which writing through the OutputStream has already done.
+        buffer.writerIndex(writerIdx + serializedSize);
     }
 
     @Override
@@ -83,12 +96,11 @@ final class ProtobufSerializer<T extends MessageLite> implements SerializerDeser
                 // Aggregated payload body may consist of multiple Buffers. In this case,
                 // CompositeBuffer.toNioBuffer(idx, length) may return a single ByteBuffer (when requested
                 // length < components[0].length) or create a new ByteBuffer and copy multiple components
-                // into it. Later, proto parser will copy data from this temporary ByteBuffer again.
-                // To avoid unnecessary copying, we use newCodedInputStream(buffers, lengthOfData).
+                // into it. To avoid aggregating the components, the parser reads from them in sequence.
                 final ByteBuffer[] buffers = serializedData.toNioBuffers();
                 in = buffers.length == 1 ?
                         CodedInputStream.newInstance(buffers[0]) :
-                        newCodedInputStream(buffers, serializedData.readableBytes());
+                        CodedInputStream.newInstance(asList(buffers));
             }
 
             T result = parser.parseFrom(in);
@@ -98,21 +110,4 @@ final class ProtobufSerializer<T extends MessageLite> implements SerializerDeser
             throw new SerializationException(e);
         }
     }
-
-    private static CodedInputStream newCodedInputStream(final ByteBuffer[] buffers, final int lengthOfData) {
-        // Because we allocated a new internal ByteBuffer that will never be mutated we may just wrap it and
-        // enable aliasing to avoid an extra copying inside parser for a deserialized message.
-        final CodedInputStream in = unsafeWrap(mergeByteBuffers(buffers, lengthOfData)).newCodedInput();
-        in.enableAliasing(true);
-        return in;
-    }
-
-    private static ByteBuffer mergeByteBuffers(final ByteBuffer[] buffers, final int lengthOfData) {
-        final ByteBuffer merged = ByteBuffer.allocate(lengthOfData);
-        for (ByteBuffer buf : buffers) {
-            merged.put(buf);
-        }
-        merged.flip();
-        return merged;
-    }
 }
@@ -16,6 +16,7 @@
 package io.servicetalk.data.protobuf;
 
 import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.CompositeBuffer;
 import io.servicetalk.data.protobuf.test.TestProtos.DummyMessage;
 import io.servicetalk.serializer.api.SerializerDeserializer;
 import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
@@ -25,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.OutputStream;
 import java.util.ArrayList;
@@ -40,6 +42,7 @@ import static io.servicetalk.concurrent.api.Publisher.from;
 import static io.servicetalk.concurrent.api.Publisher.fromIterable;
 import static io.servicetalk.data.protobuf.ProtobufSerializerFactory.PROTOBUF;
 import static io.servicetalk.data.protobuf.test.TestProtos.DummyMessage.parser;
+import static java.lang.Math.min;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -69,6 +72,45 @@ class ProtobufSerializerFactoryTest {
         assertThat(serializer.deserialize(buffer, DEFAULT_ALLOCATOR), equalTo(testMessage));
     }
 
+    @ParameterizedTest(name = "direct={0}")
+    @ValueSource(booleans = {true, false})
+    void serializeToBufferWithoutEnoughSpace(boolean direct) {
+        final DummyMessage testMessage = newMsg(1 << 14);
+        final Buffer buffer = DEFAULT_ALLOCATOR.newBuffer(16, direct).writeByte(42);
+        PROTOBUF.serializerDeserializer(parser()).serialize(testMessage, DEFAULT_ALLOCATOR, buffer);
+        assertThat(buffer.readByte(), equalTo((byte) 42));
+        assertThat(toByteArray(buffer), equalTo(testMessage.toByteArray()));
+    }
+
+    @Test
+    void serializeToCompositeBuffer() {
+        final DummyMessage testMessage = newMsg(1 << 14);
+        final CompositeBuffer buffer = DEFAULT_ALLOCATOR.newCompositeBuffer()
+                .addBuffer(DEFAULT_ALLOCATOR.newBuffer(1, true).writeByte(42))
+                .addBuffer(DEFAULT_ALLOCATOR.newBuffer(8, false).writeByte(43));
+        PROTOBUF.serializerDeserializer(parser()).serialize(testMessage, DEFAULT_ALLOCATOR, buffer);
+        assertThat(buffer.readByte(), equalTo((byte) 42));
+        assertThat(buffer.readByte(), equalTo((byte) 43));
+        assertThat(toByteArray(buffer), equalTo(testMessage.toByteArray()));
+    }
+
+    @ParameterizedTest(name = "direct={0}")
+    @ValueSource(booleans = {true, false})
+    void deserializeFromCompositeBuffer(boolean direct) {
+        final DummyMessage testMessage = newMsg(1 << 14);
+        final byte[] bytes = testMessage.toByteArray();
+        final CompositeBuffer buffer = DEFAULT_ALLOCATOR.newCompositeBuffer();
+        final int chunkSize = bytes.length / 3 + 1;
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            final int length = min(chunkSize, bytes.length - i);
+            buffer.addBuffer(DEFAULT_ALLOCATOR.newBuffer(length, direct).writeBytes(bytes, i, length));
+        }
+        assertThat(buffer.toNioBuffers().length, equalTo(3));
+        assertThat(PROTOBUF.serializerDeserializer(parser()).deserialize(buffer, DEFAULT_ALLOCATOR),
+                equalTo(testMessage));
+        assertThat(buffer.readableBytes(), equalTo(0));
+    }
+
     @ParameterizedTest(name = "pojos={0}")
     @MethodSource("pojos")
     void streamingWriteDelimitedToDeserialized(Collection<DummyMessage> msgs) throws Exception {
@@ -105,6 +147,12 @@ class ProtobufSerializerFactoryTest {
         return POJOS.stream();
     }
 
+    private static byte[] toByteArray(Buffer buffer) {
+        final byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+
     private static DummyMessage newMsg(String msg) {
         return DummyMessage.newBuilder().setMessage(msg).build();
     }
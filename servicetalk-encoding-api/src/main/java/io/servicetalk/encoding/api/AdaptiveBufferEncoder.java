@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.api;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.serializer.api.Serializer;
+import io.servicetalk.serializer.api.StreamingSerializer;
+
+import java.util.List;
+import java.util.function.DoubleSupplier;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.indexOf;
+import static io.servicetalk.buffer.api.CharSequences.regionMatches;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link BufferEncoder} which carries a policy for when and how content should be encoded.
+ * <p>
+ * Encoding small content costs CPU and usually makes it larger, and encoding content which is already compressed
+ * (images, archives, ...) wastes CPU. Components which support this type, like the HTTP content encoding filter and
+ * gRPC message serialization, consult {@link #shouldEncodeContentLength(long)} and
+ * {@link #shouldEncodeContentType(CharSequence)} before encoding and use {@link #select()} to pick a cheaper encoder
+ * when utilization is high. Other components use it as a regular {@link BufferEncoder} which delegates to
+ * {@link #select()}.
+ *
+ * @see AdaptiveBufferEncoderBuilder
+ */
+public final class AdaptiveBufferEncoder implements BufferEncoder {
+    private final BufferEncoder encoder;
+    private final int minContentLength;
+    private final List<CharSequence> allowedContentTypes;
+    private final List<CharSequence> deniedContentTypes;
+    @Nullable
+    private final BufferEncoder highUtilizationEncoder;
+    @Nullable
+    private final DoubleSupplier utilization;
+    private final double utilizationThreshold;
+
+    AdaptiveBufferEncoder(final BufferEncoder encoder, final int minContentLength,
+                          final List<CharSequence> allowedContentTypes, final List<CharSequence> deniedContentTypes,
+                          @Nullable final BufferEncoder highUtilizationEncoder,
+                          @Nullable final DoubleSupplier utilization, final double utilizationThreshold) {
+        this.encoder = requireNonNull(encoder);
+        this.minContentLength = minContentLength;
+        this.allowedContentTypes = allowedContentTypes;
+        this.deniedContentTypes = deniedContentTypes;
+        this.highUtilizationEncoder = highUtilizationEncoder;
+        this.utilization = utilization;
+        this.utilizationThreshold = utilizationThreshold;
+    }
+
+    @Override
+    public Serializer<Buffer> encoder() {
+        return select().encoder();
+    }
+
+    @Override
+    public StreamingSerializer<Buffer> streamingEncoder() {
+        return select().streamingEncoder();
+    }
+
+    @Override
+    public CharSequence encodingName() {
+        return encoder.encodingName();
+    }
+
+    /**
+     * Get the minimum length in bytes of content which should be encoded.
+     *
+     * @return the minimum length in bytes of content which should be encoded.
+     */
+    public int minContentLength() {
+        return minContentLength;
+    }
+
+    /**
+     * Determine if content of the passed length should be encoded.
+     *
+     * @param contentLength the length of the content in bytes or a negative value if the length is unknown.
+     * @return {@code true} if content of the passed length should be encoded.
+     */
+    public boolean shouldEncodeContentLength(final long contentLength) {
+        return contentLength < 0 || contentLength >= minContentLength;
+    }
+
+    /**
+     * Determine if content of the passed
+     * <a href="https://datatracker.ietf.org/doc/html/rfc7231#section-3.1.1.1">media type</a> should be encoded.
+     *
+     * @param contentType the media type of the content, parameters are ignored. {@code null} if unknown.
+     * @return {@code true} if content of the passed media type should be encoded.
+     */
+    public boolean shouldEncodeContentType(@Nullable final CharSequence contentType) {
+        if (contentType == null) {
+            return allowedContentTypes.isEmpty();
+        }
+        return (allowedContentTypes.isEmpty() || matches(allowedContentTypes, contentType)) &&
+                !matches(deniedContentTypes, contentType);
+    }
+
+    /**
+     * Select the {@link BufferEncoder} to use for the content which is about to be encoded, depending on the current
+     * utilization.
+     *
+     * @return the {@link BufferEncoder} to use for the content which is about to be encoded.
+     */
+    public BufferEncoder select() {
+        return highUtilizationEncoder != null && utilization != null &&
+                utilization.getAsDouble() >= utilizationThreshold ? highUtilizationEncoder : encoder;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{encoder=" + encoder +
+                ", minContentLength=" + minContentLength +
+                ", allowedContentTypes=" + allowedContentTypes +
+                ", deniedContentTypes=" + deniedContentTypes +
+                ", highUtilizationEncoder=" + highUtilizationEncoder +
+                ", utilizationThreshold=" + utilizationThreshold +
+                '}';
+    }
+
+    private static boolean matches(final List<CharSequence> mediaTypes, final CharSequence contentType) {
+        // Strip parameters and surrounding whitespace: type "/" subtype *( OWS ";" OWS parameter )
+        int end = indexOf(contentType, ';', 0);
+        if (end < 0) {
+            end = contentType.length();
+        }
+        while (end > 0 && contentType.charAt(end - 1) == ' ') {
+            --end;
+        }
+        int start = 0;
+        while (start < end && contentType.charAt(start) == ' ') {
+            ++start;
+        }
+        final int length = end - start;
+        for (CharSequence mediaType : mediaTypes) {
+            final int mediaTypeLength = mediaType.length();
+            // Entries ending with '/' match all subtypes of a type, e.g. "video/".
+            final boolean prefix = mediaTypeLength > 0 && mediaType.charAt(mediaTypeLength - 1) == '/';
+            if ((prefix ? mediaTypeLength <= length : mediaTypeLength == length) &&
+                    regionMatches(contentType, true, start, mediaType, 0, mediaTypeLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
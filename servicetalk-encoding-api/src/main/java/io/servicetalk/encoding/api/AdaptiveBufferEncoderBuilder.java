@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builder for {@link AdaptiveBufferEncoder}s.
+ */
+public final class AdaptiveBufferEncoderBuilder {
+    private static final int DEFAULT_MIN_CONTENT_LENGTH = 1024;
+    private static final List<CharSequence> DEFAULT_DENIED_CONTENT_TYPES = unmodifiableList(asList(
+            "image/jpeg", "image/png", "image/gif", "image/webp", "image/avif", "video/", "audio/",
+            "font/woff", "font/woff2", "application/zip", "application/gzip", "application/x-gzip",
+            "application/zstd", "application/x-7z-compressed", "application/x-rar-compressed"));
+
+    private final BufferEncoder encoder;
+    private int minContentLength = DEFAULT_MIN_CONTENT_LENGTH;
+    private List<CharSequence> allowedContentTypes = emptyList();
+    private List<CharSequence> deniedContentTypes = DEFAULT_DENIED_CONTENT_TYPES;
+    @Nullable
+    private BufferEncoder highUtilizationEncoder;
+    @Nullable
+    private DoubleSupplier utilization;
+    private double utilizationThreshold;
+
+    /**
+     * Create a new instance.
+     *
+     * @param encoder the {@link BufferEncoder} to use when content should be encoded.
+     */
+    public AdaptiveBufferEncoderBuilder(final BufferEncoder encoder) {
+        this.encoder = requireNonNull(encoder);
+    }
+
+    /**
+     * Sets the minimum length in bytes of content which should be encoded. Smaller content is sent without encoding.
+     * <p>
+     * The default is 1024 bytes.
+     *
+     * @param minContentLength the minimum length in bytes of content which should be encoded, {@code 0} to encode
+     * content of any length.
+     * @return {@code this}.
+     */
+    public AdaptiveBufferEncoderBuilder minContentLength(final int minContentLength) {
+        if (minContentLength < 0) {
+            throw new IllegalArgumentException("minContentLength: " + minContentLength + " (expected >= 0)");
+        }
+        this.minContentLength = minContentLength;
+        return this;
+    }
+
+    /**
+     * Sets the media types of content which should be encoded. Content with other media types, or with an unknown
+     * media type, is sent without encoding. An entry ending with {@code '/'} (e.g. {@code "text/"}) matches all
+     * subtypes of the type.
+     * <p>
+     * By default, all media types which are not {@link #deniedContentTypes(Collection) denied} are encoded.
+     *
+     * @param contentTypes the media types of content which should be encoded, empty to allow all media types.
+     * @return {@code this}.
+     */
+    public AdaptiveBufferEncoderBuilder allowedContentTypes(final Collection<? extends CharSequence> contentTypes) {
+        allowedContentTypes = copyOf(contentTypes);
+        return this;
+    }
+
+    /**
+     * Sets the media types of content which should not be encoded, typically because the content is already
+     * compressed. An entry ending with {@code '/'} (e.g. {@code "video/"}) matches all subtypes of the type.
+     * <p>
+     * By default, common compressed image, audio, video, font and archive media types are denied.
+     *
+     * @param contentTypes the media types of content which should not be encoded.
+     * @return {@code this}.
+     */
+    public AdaptiveBufferEncoderBuilder deniedContentTypes(final Collection<? extends CharSequence> contentTypes) {
+        deniedContentTypes = copyOf(contentTypes);
+        return this;
+    }
+
+    /**
+     * Use a cheaper {@link BufferEncoder}, e.g. one with a lower compression level, while utilization is high.
+     * <p>
+     * The utilization is sampled once for every response or message that is encoded, so the {@link DoubleSupplier}
+     * should be cheap, e.g. return a value which is periodically updated from event loop or executor metrics. Servers
+     * running on a {@code MonitoredIoExecutor} can use {@code IoExecutorUtilization.maxIoThreadUtilization(...)} from
+     * {@code servicetalk-http-netty} to derive it from the utilization of their IO threads.
+     *
+     * @param highUtilizationEncoder the {@link BufferEncoder} to use while utilization is high. It must have the same
+     * {@link BufferEncoder#encodingName() encoding name} as the default encoder.
+     * @param utilization provides the current utilization.
+     * @param threshold the utilization at and above which {@code highUtilizationEncoder} is used.
+     * @return {@code this}.
+     */
+    public AdaptiveBufferEncoderBuilder highUtilizationEncoder(final BufferEncoder highUtilizationEncoder,
+                                                               final DoubleSupplier utilization,
+                                                               final double threshold) {
+        if (!contentEqualsIgnoreCase(encoder.encodingName(), highUtilizationEncoder.encodingName())) {
+            throw new IllegalArgumentException("highUtilizationEncoder: " + highUtilizationEncoder.encodingName() +
+                    " (expected " + encoder.encodingName() + ")");
+        }
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold: " + threshold + " (expected > 0)");
+        }
+        this.highUtilizationEncoder = highUtilizationEncoder;
+        this.utilization = requireNonNull(utilization);
+        this.utilizationThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Build a new {@link AdaptiveBufferEncoder}.
+     *
+     * @return a new {@link AdaptiveBufferEncoder}.
+     */
+    public AdaptiveBufferEncoder build() {
+        return new AdaptiveBufferEncoder(encoder, minContentLength, allowedContentTypes, deniedContentTypes,
+                highUtilizationEncoder, utilization, utilizationThreshold);
+    }
+
+    private static List<CharSequence> copyOf(final Collection<? extends CharSequence> contentTypes) {
+        return contentTypes.isEmpty() ? emptyList() : unmodifiableList(new ArrayList<>(contentTypes));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.api;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.serializer.api.Serializer;
+import io.servicetalk.serializer.api.StreamingSerializer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.servicetalk.encoding.api.Identity.identityEncoder;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveBufferEncoderTest {
+    private static final BufferEncoder GZIP = new TestEncoder("gzip");
+    private static final BufferEncoder GZIP_FAST = new TestEncoder("gzip");
+
+    @Test
+    void contentLength() {
+        final AdaptiveBufferEncoder encoder = new AdaptiveBufferEncoderBuilder(GZIP).minContentLength(100).build();
+        assertThat(encoder.minContentLength(), is(100));
+        assertThat(encoder.shouldEncodeContentLength(99), is(false));
+        assertThat(encoder.shouldEncodeContentLength(100), is(true));
+        assertThat("unknown length", encoder.shouldEncodeContentLength(-1), is(true));
+    }
+
+    @Test
+    void defaultDeniedContentTypes() {
+        final AdaptiveBufferEncoder encoder = new AdaptiveBufferEncoderBuilder(GZIP).build();
+        assertThat(encoder.shouldEncodeContentType("text/html; charset=UTF-8"), is(true));
+        assertThat(encoder.shouldEncodeContentType("image/svg+xml"), is(true));
+        assertThat(encoder.shouldEncodeContentType(null), is(true));
+        assertThat(encoder.shouldEncodeContentType("image/PNG"), is(false));
+        assertThat(encoder.shouldEncodeContentType(" video/mp4 ;codecs=avc1"), is(false));
+        assertThat(encoder.shouldEncodeContentType("application/zip"), is(false));
+    }
+
+    @Test
+    void allowedContentTypes() {
+        final AdaptiveBufferEncoder encoder = new AdaptiveBufferEncoderBuilder(GZIP)
+                .allowedContentTypes(asList("text/", "application/json"))
+                .deniedContentTypes(asList("text/event-stream"))
+                .build();
+        assertThat(encoder.shouldEncodeContentType("text/plain"), is(true));
+        assertThat(encoder.shouldEncodeContentType("application/json;charset=utf-8"), is(true));
+        assertThat(encoder.shouldEncodeContentType("application/jsonx"), is(false));
+        assertThat(encoder.shouldEncodeContentType("text/event-stream"), is(false));
+        assertThat(encoder.shouldEncodeContentType("text"), is(false));
+        assertThat(encoder.shouldEncodeContentType(null), is(false));
+
+        final AdaptiveBufferEncoder allowAll = new AdaptiveBufferEncoderBuilder(GZIP).deniedContentTypes(emptyList())
+                .build();
+        assertThat(allowAll.shouldEncodeContentType("image/png"), is(true));
+    }
+
+    @Test
+    void highUtilizationEncoder() {
+        final AtomicReference<Double> utilization = new AtomicReference<>(0.5);
+        final AdaptiveBufferEncoder encoder = new AdaptiveBufferEncoderBuilder(GZIP)
+                .highUtilizationEncoder(GZIP_FAST, utilization::get, 0.8)
+                .build();
+        assertThat(encoder.select(), is(sameInstance(GZIP)));
+        assertThat(encoder.encodingName().toString(), is("gzip"));
+        utilization.set(0.8);
+        assertThat(encoder.select(), is(sameInstance(GZIP_FAST)));
+        utilization.set(0.2);
+        assertThat(encoder.select(), is(sameInstance(GZIP)));
+    }
+
+    @Test
+    void invalidArguments() {
+        final AdaptiveBufferEncoderBuilder builder = new AdaptiveBufferEncoderBuilder(GZIP);
+        assertThrows(IllegalArgumentException.class, () -> builder.minContentLength(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.highUtilizationEncoder(new TestEncoder("deflate"), () -> 1, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> builder.highUtilizationEncoder(GZIP_FAST, () -> 1, 0));
+    }
+
+    private static final class TestEncoder implements BufferEncoder {
+        private final CharSequence encodingName;
+
+        TestEncoder(final CharSequence encodingName) {
+            this.encodingName = encodingName;
+        }
+
+        @Override
+        public Serializer<Buffer> encoder() {
+            return identityEncoder().encoder();
+        }
+
+        @Override
+        public StreamingSerializer<Buffer> streamingEncoder() {
+            return identityEncoder().streamingEncoder();
+        }
+
+        @Override
+        public CharSequence encodingName() {
+            return encodingName;
+        }
+    }
+}
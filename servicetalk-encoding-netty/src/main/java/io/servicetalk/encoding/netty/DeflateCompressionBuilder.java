@@ -26,16 +26,26 @@ import io.netty.handler.codec.compression.ZlibWrapper;
 final class DeflateCompressionBuilder extends ZipCompressionBuilder {
     @Override
     public SerializerDeserializer<Buffer> build() {
-        return new NettyCompressionSerializer(
-                () -> new JdkZlibEncoder(ZlibWrapper.ZLIB, compressionLevel()),
-                () -> new JdkZlibDecoder(ZlibWrapper.ZLIB, maxChunkSize()));
+        return new ZlibSerializer(false, compressionLevel(), maxChunkSize(), dictionary());
     }
 
     @Override
     public StreamingSerializerDeserializer<Buffer> buildStreaming() {
+        final byte[] dictionary = dictionary();
+        if (dictionary != null) {
+            return new NettyCompressionStreamingSerializer(
+                    () -> new JdkZlibEncoder(compressionLevel(), dictionary),
+                    () -> new JdkZlibDecoder(dictionary, maxChunkSize())
+            );
+        }
         return new NettyCompressionStreamingSerializer(
                 () -> new JdkZlibEncoder(ZlibWrapper.ZLIB, compressionLevel()),
                 () -> new JdkZlibDecoder(ZlibWrapper.ZLIB, maxChunkSize())
         );
     }
+
+    @Override
+    boolean supportsDictionary() {
+        return true;
+    }
 }
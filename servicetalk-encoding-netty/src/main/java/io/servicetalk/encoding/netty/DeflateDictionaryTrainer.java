@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Builds a preset dictionary for the deflate {@link ZipCompressionBuilder#dictionary(byte[]) codec} from sampled
+ * payloads.
+ * <p>
+ * The dictionary is made of segments of the samples which contain the byte sequences shared by most samples, in a
+ * simplified form of the COVER algorithm which is used to train zstd dictionaries. The most valuable segments are
+ * placed at the end of the dictionary, closest to the compressed content, where deflate can reference them with the
+ * shortest distances.
+ * <p>
+ * To refresh a dictionary, {@link #reset()} the trainer, add recent samples and {@link #train()} again. The new
+ * dictionary must be advertised with a new encoding name.
+ * <p>
+ * This class is not thread safe and retains all samples in memory until {@link #reset()} is called.
+ */
+public final class DeflateDictionaryTrainer {
+    /**
+     * Deflate can only reference the last 32 KiB preceding the current position.
+     */
+    private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+    private static final int DMER_SIZE = 8;
+    private static final int DEFAULT_SEGMENT_SIZE = 128;
+
+    private final int maxDictionarySize;
+    private final int segmentSize;
+    private final List<byte[]> samples = new ArrayList<>();
+
+    /**
+     * Create a new instance.
+     * @param maxDictionarySize the maximum size of the dictionary in bytes, at most 32 KiB.
+     */
+    public DeflateDictionaryTrainer(final int maxDictionarySize) {
+        this(maxDictionarySize, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Create a new instance.
+     * @param maxDictionarySize the maximum size of the dictionary in bytes, at most 32 KiB.
+     * @param segmentSize the size in bytes of the segments which are copied from the samples into the dictionary.
+     */
+    public DeflateDictionaryTrainer(final int maxDictionarySize, final int segmentSize) {
+        if (maxDictionarySize <= 0 || maxDictionarySize > MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("maxDictionarySize: " + maxDictionarySize + " (expected: 1-" +
+                    MAX_DICTIONARY_SIZE + ")");
+        }
+        if (segmentSize < DMER_SIZE) {
+            throw new IllegalArgumentException("segmentSize: " + segmentSize + " (expected >= " + DMER_SIZE + ")");
+        }
+        this.maxDictionarySize = maxDictionarySize;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Add a sample payload. The readable bytes of the {@link Buffer} are copied, its indexes are not modified.
+     * @param sample a sample payload.
+     * @return {@code this}
+     */
+    public DeflateDictionaryTrainer addSample(final Buffer sample) {
+        final byte[] bytes = new byte[sample.readableBytes()];
+        sample.getBytes(sample.readerIndex(), bytes);
+        return addSample(bytes);
+    }
+
+    /**
+     * Add a sample payload. The array is copied.
+     * @param sample a sample payload.
+     * @return {@code this}
+     */
+    public DeflateDictionaryTrainer addSample(final byte[] sample) {
+        if (sample.length >= DMER_SIZE) {
+            samples.add(sample.clone());
+        }
+        return this;
+    }
+
+    /**
+     * Discard all samples which were added so far.
+     * @return {@code this}
+     */
+    public DeflateDictionaryTrainer reset() {
+        samples.clear();
+        return this;
+    }
+
+    /**
+     * Build a dictionary from the samples which were added so far.
+     * @return a dictionary of at most {@code maxDictionarySize} bytes. Empty if the samples do not share content.
+     */
+    public byte[] train() {
+        final Map<Long, Integer> frequencies = documentFrequencies();
+        // More epochs than segments which fit in the dictionary, so that the best ones can be picked.
+        final int epochs = max(1, min(samples.size(), 2 * maxDictionarySize / segmentSize));
+        final List<Segment> segments = new ArrayList<>(epochs);
+        final Map<Long, Integer> window = new HashMap<>();
+        for (int epoch = 0; epoch < epochs; ++epoch) {
+            @Nullable
+            Segment best = null;
+            for (int s = epoch * samples.size() / epochs, end = (epoch + 1) * samples.size() / epochs; s < end; ++s) {
+                final Segment candidate = bestSegment(samples.get(s), frequencies, window);
+                if (candidate != null && (best == null || candidate.score > best.score)) {
+                    best = candidate;
+                }
+            }
+            if (best != null) {
+                // Content which is already covered doesn't add value to later segments.
+                for (int i = best.offset; i + DMER_SIZE <= best.offset + best.length; ++i) {
+                    frequencies.remove(dmer(best.sample, i));
+                }
+                segments.add(best);
+            }
+        }
+
+        segments.sort((a, b) -> Long.compare(b.score, a.score));
+        int size = 0;
+        int count = 0;
+        for (; count < segments.size() && size < maxDictionarySize; ++count) {
+            size += min(segments.get(count).length, maxDictionarySize - size);
+        }
+        final byte[] dictionary = new byte[size];
+        int offset = size;
+        for (int i = 0; i < count; ++i) {
+            final Segment segment = segments.get(i);
+            final int length = min(segment.length, offset);
+            offset -= length;
+            // Keep the tail of a truncated segment, it sits next to the better segment which follows it.
+            System.arraycopy(segment.sample, segment.offset + segment.length - length, dictionary, offset, length);
+        }
+        return dictionary;
+    }
+
+    /**
+     * Count for every d-mer the number of samples which contain it. D-mers which occur in a single sample are not
+     * worth including in the dictionary and are dropped.
+     */
+    private Map<Long, Integer> documentFrequencies() {
+        final Map<Long, Integer> frequencies = new HashMap<>();
+        final Set<Long> seen = new HashSet<>();
+        for (byte[] sample : samples) {
+            seen.clear();
+            for (int i = 0; i + DMER_SIZE <= sample.length; ++i) {
+                final Long dmer = dmer(sample, i);
+                if (seen.add(dmer)) {
+                    frequencies.merge(dmer, 1, Integer::sum);
+                }
+            }
+        }
+        frequencies.values().removeIf(frequency -> frequency < 2);
+        return frequencies;
+    }
+
+    /**
+     * Slide a window of {@link #segmentSize} over the sample and return the window in which the sum of the
+     * frequencies of the distinct d-mers is the highest.
+     */
+    @Nullable
+    private Segment bestSegment(final byte[] sample, final Map<Long, Integer> frequencies,
+                                final Map<Long, Integer> window) {
+        final int length = min(segmentSize, sample.length);
+        final int dmers = length - DMER_SIZE + 1;
+        window.clear();
+        long score = 0;
+        long bestScore = 0;
+        int bestOffset = -1;
+        for (int i = 0; i + DMER_SIZE <= sample.length; ++i) {
+            final Long added = dmer(sample, i);
+            if (window.merge(added, 1, Integer::sum) == 1) {
+                score += frequencies.getOrDefault(added, 0);
+            }
+            if (i >= dmers) {
+                final Long removed = dmer(sample, i - dmers);
+                if (window.merge(removed, -1, Integer::sum) == 0) {
+                    window.remove(removed);
+                    score -= frequencies.getOrDefault(removed, 0);
+                }
+            }
+            if (i >= dmers - 1 && score > bestScore) {
+                bestScore = score;
+                bestOffset = i - dmers + 1;
+            }
+        }
+        return bestOffset < 0 ? null : new Segment(sample, bestOffset, length, bestScore);
+    }
+
+    private static long dmer(final byte[] bytes, final int offset) {
+        long dmer = 0;
+        for (int i = offset; i < offset + DMER_SIZE; ++i) {
+            dmer = (dmer << 8) | (bytes[i] & 0xFF);
+        }
+        return dmer;
+    }
+
+    private static final class Segment {
+        final byte[] sample;
+        final int offset;
+        final int length;
+        final long score;
+
+        Segment(final byte[] sample, final int offset, final int length, final long score) {
+            this.sample = sample;
+            this.offset = offset;
+            this.length = length;
+            this.score = score;
+        }
+    }
+}
@@ -26,9 +26,7 @@ import io.netty.handler.codec.compression.ZlibWrapper;
 final class GzipCompressionBuilder extends ZipCompressionBuilder {
     @Override
     public SerializerDeserializer<Buffer> build() {
-        return new NettyCompressionSerializer(
-                () -> new JdkZlibEncoder(ZlibWrapper.GZIP, compressionLevel()),
-                () -> new JdkZlibDecoder(ZlibWrapper.GZIP, maxChunkSize()));
+        return new ZlibSerializer(true, compressionLevel(), maxChunkSize());
     }
 
     @Override
@@ -38,4 +36,9 @@ final class GzipCompressionBuilder extends ZipCompressionBuilder {
                 () -> new JdkZlibDecoder(ZlibWrapper.GZIP, maxChunkSize())
         );
     }
+
+    @Override
+    boolean supportsDictionary() {
+        return false;
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.compression.DecompressionException;
+import io.netty.handler.codec.compression.SnappyFrameDecoder;
+
+import java.util.List;
+
+/**
+ * A {@link SnappyFrameDecoder} which limits the number of bytes decompressed from each received buffer, so a small
+ * input can not expand without bound.
+ */
+final class LimitedSnappyFrameDecoder extends SnappyFrameDecoder {
+    private final int maxChunkSize;
+    private long decompressedBytes;
+
+    /**
+     * Create a new instance.
+     *
+     * @param maxChunkSize the maximum number of bytes which may be decompressed from a single received buffer.
+     */
+    LimitedSnappyFrameDecoder(final int maxChunkSize) {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException("maxChunkSize: " + maxChunkSize + " (expected > 0)");
+        }
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        decompressedBytes = 0;
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out)
+            throws Exception {
+        final int size = out.size();
+        super.decode(ctx, in, out);
+        for (int i = size; i < out.size(); ++i) {
+            decompressedBytes += ((ByteBuf) out.get(i)).readableBytes();
+        }
+        if (decompressedBytes > maxChunkSize) {
+            for (int i = out.size() - 1; i >= size; --i) {
+                ((ByteBuf) out.remove(i)).release();
+            }
+            throw new DecompressionException("Decompressed size exceeds the maximum of " + maxChunkSize + " bytes");
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.compression.DecompressionException;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import net.jpountz.xxhash.StreamingXXHash32;
+import net.jpountz.xxhash.XXHash32;
+import net.jpountz.xxhash.XXHashFactory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.encoding.netty.Lz4FrameEncoder.END_MARK;
+import static io.servicetalk.encoding.netty.Lz4FrameEncoder.MAGIC;
+import static io.servicetalk.encoding.netty.Lz4FrameEncoder.UNCOMPRESSED_BLOCK;
+import static io.servicetalk.encoding.netty.Lz4FrameEncoder.descriptorChecksum;
+import static io.servicetalk.encoding.netty.Lz4FrameEncoder.nioBuffer;
+import static java.lang.Integer.toHexString;
+import static java.lang.Math.min;
+
+/**
+ * Decodes data in the <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Frame_format.md">LZ4 frame format</a>.
+ * <p>
+ * Concatenated and skippable frames, block and content checksums are supported. Frames with dependent blocks or a
+ * dictionary are rejected.
+ * <p>
+ * Blocks do not declare their decompressed size, so they are decompressed into a scratch buffer of the maximum block
+ * size which is reused for the lifetime of the decoder, and only the actual decompressed bytes are passed on. The
+ * number of bytes decompressed from each received buffer is limited, so a small input can not expand without bound.
+ */
+final class Lz4FrameDecoder extends ByteToMessageDecoder {
+    private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+    private static final int SKIPPABLE_MAGIC_MASK = 0xFFFFFFF0;
+    private static final int FLG_VERSION_MASK = 0xC0;
+    private static final int FLG_VERSION = 0x40;
+    private static final int FLG_INDEPENDENT_BLOCKS = 0x20;
+    private static final int FLG_BLOCK_CHECKSUM = 0x10;
+    private static final int FLG_CONTENT_SIZE = 0x08;
+    private static final int FLG_CONTENT_CHECKSUM = 0x04;
+    private static final int FLG_RESERVED = 0x02;
+    private static final int FLG_DICTIONARY_ID = 0x01;
+    private static final int BD_RESERVED = 0x8F;
+
+    private enum State {
+        MAGIC, DESCRIPTOR, BLOCK_SIZE, BLOCK, CONTENT_CHECKSUM, SKIPPABLE_SIZE, SKIPPABLE
+    }
+
+    private final int maxChunkSize;
+    private final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+    private final XXHash32 blockHash = XXHashFactory.fastestInstance().hash32();
+    @Nullable
+    private StreamingXXHash32 contentHash;
+    private State state = State.MAGIC;
+    private boolean blockChecksum;
+    private boolean contentChecksum;
+    private int maxBlockSize;
+    private int blockSize;
+    private boolean uncompressedBlock;
+    private long skippableRemaining;
+    private long decompressedBytes;
+    @Nullable
+    private ByteBuf scratch;
+
+    /**
+     * Create a new instance.
+     *
+     * @param maxChunkSize the maximum number of bytes which may be decompressed from a single received buffer.
+     */
+    Lz4FrameDecoder(final int maxChunkSize) {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException("maxChunkSize: " + maxChunkSize + " (expected > 0)");
+        }
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        decompressedBytes = 0;
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    protected void handlerRemoved0(final ChannelHandlerContext ctx) {
+        if (scratch != null) {
+            scratch.release();
+            scratch = null;
+        }
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out) {
+        for (;;) {
+            switch (state) {
+                case MAGIC:
+                    if (in.readableBytes() < 4) {
+                        return;
+                    }
+                    final int magic = in.readIntLE();
+                    if (magic == MAGIC) {
+                        state = State.DESCRIPTOR;
+                    } else if ((magic & SKIPPABLE_MAGIC_MASK) == SKIPPABLE_MAGIC) {
+                        state = State.SKIPPABLE_SIZE;
+                    } else {
+                        throw new DecompressionException("Unexpected LZ4 frame magic number: 0x" +
+                                toHexString(magic));
+                    }
+                    break;
+                case DESCRIPTOR:
+                    if (!readDescriptor(in)) {
+                        return;
+                    }
+                    state = State.BLOCK_SIZE;
+                    break;
+                case BLOCK_SIZE:
+                    if (in.readableBytes() < 4) {
+                        return;
+                    }
+                    final int size = in.readIntLE();
+                    if (size == END_MARK) {
+                        state = contentChecksum ? State.CONTENT_CHECKSUM : State.MAGIC;
+                        break;
+                    }
+                    uncompressedBlock = (size & UNCOMPRESSED_BLOCK) != 0;
+                    blockSize = size & ~UNCOMPRESSED_BLOCK;
+                    if (blockSize > maxBlockSize) {
+                        throw new DecompressionException("LZ4 block size: " + blockSize + " (expected <= " +
+                                maxBlockSize + ")");
+                    }
+                    state = State.BLOCK;
+                    break;
+                case BLOCK:
+                    if (in.readableBytes() < blockSize + (blockChecksum ? 4 : 0)) {
+                        return;
+                    }
+                    out.add(readBlock(ctx, in));
+                    state = State.BLOCK_SIZE;
+                    break;
+                case CONTENT_CHECKSUM:
+                    if (in.readableBytes() < 4) {
+                        return;
+                    }
+                    assert contentHash != null;
+                    if (in.readIntLE() != contentHash.getValue()) {
+                        throw new DecompressionException("LZ4 content checksum mismatch");
+                    }
+                    state = State.MAGIC;
+                    break;
+                case SKIPPABLE_SIZE:
+                    if (in.readableBytes() < 4) {
+                        return;
+                    }
+                    skippableRemaining = in.readUnsignedIntLE();
+                    state = State.SKIPPABLE;
+                    break;
+                case SKIPPABLE:
+                    final int skip = (int) min(skippableRemaining, in.readableBytes());
+                    in.skipBytes(skip);
+                    skippableRemaining -= skip;
+                    if (skippableRemaining > 0) {
+                        return;
+                    }
+                    state = State.MAGIC;
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected state: " + state);
+            }
+        }
+    }
+
+    @Override
+    protected void decodeLast(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out) {
+        if (in.isReadable()) {
+            decode(ctx, in, out);
+        }
+        if (state != State.MAGIC || in.isReadable()) {
+            throw new DecompressionException("Truncated LZ4 frame");
+        }
+    }
+
+    private boolean readDescriptor(final ByteBuf in) {
+        if (in.readableBytes() < 2) {
+            return false;
+        }
+        final int index = in.readerIndex();
+        final int flg = in.getUnsignedByte(index);
+        final int bd = in.getUnsignedByte(index + 1);
+        // FLG, BD, optional content size, optional dictionary id and HC
+        final int length = 3 + ((flg & FLG_CONTENT_SIZE) != 0 ? 8 : 0) + ((flg & FLG_DICTIONARY_ID) != 0 ? 4 : 0);
+        if (in.readableBytes() < length) {
+            return false;
+        }
+        if ((flg & FLG_VERSION_MASK) != FLG_VERSION || (flg & FLG_RESERVED) != 0 || (bd & BD_RESERVED) != 0) {
+            throw new DecompressionException("Unsupported LZ4 frame descriptor: FLG=0x" + toHexString(flg) +
+                    ", BD=0x" + toHexString(bd));
+        }
+        if ((flg & FLG_INDEPENDENT_BLOCKS) == 0) {
+            throw new DecompressionException("LZ4 frames with dependent blocks are not supported");
+        }
+        if ((flg & FLG_DICTIONARY_ID) != 0) {
+            throw new DecompressionException("LZ4 frames with a dictionary are not supported");
+        }
+        final int blockMaxSizeId = bd >> 4;
+        if (blockMaxSizeId < 4) {
+            throw new DecompressionException("Unsupported LZ4 block maximum size id: " + blockMaxSizeId);
+        }
+        final ByteBuffer descriptor = nioBuffer(in, index, length - 1);
+        if (in.getUnsignedByte(index + length - 1) != descriptorChecksum(descriptor, descriptor.position(),
+                length - 1)) {
+            throw new DecompressionException("LZ4 frame descriptor checksum mismatch");
+        }
+        // 4: 64 KiB, 5: 256 KiB, 6: 1 MiB, 7: 4 MiB
+        maxBlockSize = 1 << (2 * blockMaxSizeId + 8);
+        blockChecksum = (flg & FLG_BLOCK_CHECKSUM) != 0;
+        contentChecksum = (flg & FLG_CONTENT_CHECKSUM) != 0;
+        if (contentChecksum) {
+            if (contentHash == null) {
+                contentHash = XXHashFactory.fastestInstance().newStreamingHash32(0);
+            } else {
+                contentHash.reset();
+            }
+        }
+        in.skipBytes(length);
+        return true;
+    }
+
+    private ByteBuf readBlock(final ChannelHandlerContext ctx, final ByteBuf in) {
+        final int index = in.readerIndex();
+        if (blockChecksum) {
+            final ByteBuffer block = nioBuffer(in, index, blockSize);
+            if (blockHash.hash(block, block.position(), blockSize, 0) != in.getIntLE(index + blockSize)) {
+                throw new DecompressionException("LZ4 block checksum mismatch");
+            }
+        }
+        final ByteBuf decompressed;
+        if (uncompressedBlock) {
+            addDecompressedBytes(blockSize);
+            decompressed = in.retainedSlice(index, blockSize);
+        } else {
+            final ByteBuf scratch = scratch(ctx);
+            final int length;
+            try {
+                final ByteBuffer src = nioBuffer(in, index, blockSize);
+                final ByteBuffer dst = scratch.internalNioBuffer(0, maxBlockSize);
+                length = decompressor.decompress(src, src.position(), blockSize, dst, dst.position(), maxBlockSize);
+            } catch (LZ4Exception e) {
+                throw new DecompressionException("Invalid LZ4 block", e);
+            }
+            addDecompressedBytes(length);
+            if (length > maxBlockSize >>> 1) {
+                // Mostly full, hand over the scratch buffer instead of copying it.
+                decompressed = scratch.setIndex(0, length);
+                this.scratch = null;
+            } else {
+                decompressed = ctx.alloc().buffer(length);
+                decompressed.writeBytes(scratch, 0, length);
+            }
+        }
+        in.skipBytes(blockSize + (blockChecksum ? 4 : 0));
+        if (contentChecksum) {
+            assert contentHash != null;
+            if (decompressed.hasArray()) {
+                contentHash.update(decompressed.array(), decompressed.arrayOffset() + decompressed.readerIndex(),
+                        decompressed.readableBytes());
+            } else {
+                final byte[] bytes = ByteBufUtil.getBytes(decompressed);
+                contentHash.update(bytes, 0, bytes.length);
+            }
+        }
+        return decompressed;
+    }
+
+    private ByteBuf scratch(final ChannelHandlerContext ctx) {
+        ByteBuf scratch = this.scratch;
+        if (scratch == null || scratch.capacity() < maxBlockSize) {
+            if (scratch != null) {
+                scratch.release();
+            }
+            scratch = this.scratch = ctx.alloc().buffer(maxBlockSize);
+        }
+        return scratch;
+    }
+
+    private void addDecompressedBytes(final int length) {
+        decompressedBytes += length;
+        if (decompressedBytes > maxChunkSize) {
+            throw new DecompressionException("Decompressed size exceeds the maximum of " + maxChunkSize + " bytes");
+        }
+    }
+}
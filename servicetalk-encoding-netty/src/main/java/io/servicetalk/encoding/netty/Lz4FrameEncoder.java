@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.xxhash.XXHashFactory;
+
+import java.nio.ByteBuffer;
+
+import static java.lang.Math.min;
+
+/**
+ * Encodes data in the <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Frame_format.md">LZ4 frame format</a>.
+ * <p>
+ * Unlike {@link io.netty.handler.codec.compression.Lz4FrameEncoder}, which produces the format of
+ * {@code LZ4BlockOutputStream}, the output is readable by the {@code lz4} command line tool and other LZ4 frame
+ * implementations. Every message is compressed into independent blocks of at most {@link #BLOCK_SIZE} bytes as soon as
+ * it is written, there is no buffering across messages. The end mark is written when the channel is closed.
+ */
+final class Lz4FrameEncoder extends MessageToByteEncoder<ByteBuf> {
+    static final int MAGIC = 0x184D2204;
+    static final int BLOCK_SIZE = 1 << 16;
+    static final int UNCOMPRESSED_BLOCK = 0x80000000;
+    static final int END_MARK = 0;
+    // Version 01, independent blocks, no block checksum, no content size, no content checksum, no dictionary.
+    private static final int FLG = 0x60;
+    // Maximum block size 64 KiB.
+    private static final int BD = 0x40;
+    private static final int HC = descriptorChecksum(FLG, BD);
+    private static final int HEADER_SIZE = 7;
+
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private boolean headerWritten;
+    private boolean finished;
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx, final ByteBuf in, final ByteBuf out) {
+        if (!headerWritten) {
+            writeHeader(out);
+        }
+        while (in.isReadable()) {
+            final int length = min(in.readableBytes(), BLOCK_SIZE);
+            final int maxCompressedLength = compressor.maxCompressedLength(length);
+            out.ensureWritable(4 + maxCompressedLength);
+            final int sizeIndex = out.writerIndex();
+            final ByteBuffer src = nioBuffer(in, in.readerIndex(), length);
+            final ByteBuffer dst = out.internalNioBuffer(sizeIndex + 4, maxCompressedLength);
+            final int compressedLength = compressor.compress(src, src.position(), length, dst, dst.position(),
+                    maxCompressedLength);
+            if (compressedLength < length) {
+                out.setIntLE(sizeIndex, compressedLength);
+                out.writerIndex(sizeIndex + 4 + compressedLength);
+            } else {
+                // Incompressible data is stored as is.
+                out.writeIntLE(length | UNCOMPRESSED_BLOCK);
+                out.writeBytes(in, in.readerIndex(), length);
+            }
+            in.skipBytes(length);
+        }
+    }
+
+    @Override
+    public void close(final ChannelHandlerContext ctx, final ChannelPromise promise) {
+        if (!finished) {
+            finished = true;
+            final ByteBuf footer = ctx.alloc().buffer(headerWritten ? 4 : HEADER_SIZE + 4);
+            if (!headerWritten) {
+                // Empty content still needs to be a valid frame.
+                writeHeader(footer);
+            }
+            footer.writeIntLE(END_MARK);
+            ctx.writeAndFlush(footer);
+        }
+        ctx.close(promise);
+    }
+
+    private void writeHeader(final ByteBuf out) {
+        headerWritten = true;
+        out.writeIntLE(MAGIC);
+        out.writeByte(FLG);
+        out.writeByte(BD);
+        out.writeByte(HC);
+    }
+
+    /**
+     * Computes the header checksum byte of a frame descriptor.
+     *
+     * @param descriptor the frame descriptor, starting with the {@code FLG} byte and excluding the checksum byte.
+     * @param offset the offset of the descriptor in {@code descriptor}.
+     * @param length the length of the descriptor.
+     * @return the header checksum byte of the frame descriptor.
+     */
+    static int descriptorChecksum(final ByteBuffer descriptor, final int offset, final int length) {
+        return (XXHashFactory.fastestInstance().hash32().hash(descriptor, offset, length, 0) >> 8) & 0xFF;
+    }
+
+    private static int descriptorChecksum(final int flg, final int bd) {
+        return descriptorChecksum(ByteBuffer.wrap(new byte[] {(byte) flg, (byte) bd}), 0, 2);
+    }
+
+    /**
+     * Returns a {@link ByteBuffer} view of the passed region for the absolute-offset LZ4 and xxHash APIs, copying only
+     * if the {@link ByteBuf} is backed by more than one {@link ByteBuffer}.
+     *
+     * @param buf the {@link ByteBuf}.
+     * @param index the index of the region.
+     * @param length the length of the region.
+     * @return a {@link ByteBuffer} whose {@link ByteBuffer#position() position} is the start of the region.
+     */
+    static ByteBuffer nioBuffer(final ByteBuf buf, final int index, final int length) {
+        return buf.nioBufferCount() == 1 ? buf.internalNioBuffer(index, length) : buf.nioBuffer(index, length);
+    }
+}
@@ -23,6 +23,8 @@ import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
 import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
 import static io.servicetalk.encoding.netty.NettyCompression.deflateDefaultStreaming;
 import static io.servicetalk.encoding.netty.NettyCompression.gzipDefaultStreaming;
+import static io.servicetalk.encoding.netty.NettyCompression.lz4DefaultStreaming;
+import static io.servicetalk.encoding.netty.NettyCompression.snappyDefaultStreaming;
 
 /**
  * Factory methods for common {@link BufferEncoderDecoder}s.
@@ -30,10 +32,16 @@ import static io.servicetalk.encoding.netty.NettyCompression.gzipDefaultStreamin
 public final class NettyBufferEncoders {
     private static final CharSequence GZIP = newAsciiString("gzip");
     private static final CharSequence DEFLATE = newAsciiString("deflate");
+    private static final CharSequence SNAPPY = newAsciiString("snappy");
+    private static final CharSequence LZ4 = newAsciiString("lz4");
     private static final BufferEncoderDecoder DEFAULT_GZIP = bufferEncoder(NettyCompression.gzipDefault(),
             gzipDefaultStreaming(), GZIP);
     private static final BufferEncoderDecoder DEFAULT_DEFLATE =
             bufferEncoder(NettyCompression.deflateDefault(), deflateDefaultStreaming(), DEFLATE);
+    private static final BufferEncoderDecoder DEFAULT_SNAPPY =
+            bufferEncoder(NettyCompression.snappyDefault(), snappyDefaultStreaming(), SNAPPY);
+    private static final BufferEncoderDecoder DEFAULT_LZ4 =
+            bufferEncoder(NettyCompression.lz4Default(), lz4DefaultStreaming(), LZ4);
 
     private NettyBufferEncoders() {
     }
@@ -54,6 +62,30 @@ public final class NettyBufferEncoders {
         return DEFAULT_DEFLATE;
     }
 
+    /**
+     * Get a default {@link BufferEncoderDecoder} for framed snappy encoding.
+     * <p>
+     * The encoding is not registered with IANA, so it is only expected to be understood by peers which are configured
+     * with a matching {@link BufferEncoderDecoder}, for example via
+     * {@link io.servicetalk.encoding.api.BufferDecoderGroupBuilder}.
+     * @return a default {@link BufferEncoderDecoder} for framed snappy encoding.
+     */
+    public static BufferEncoderDecoder snappyDefault() {
+        return DEFAULT_SNAPPY;
+    }
+
+    /**
+     * Get a default {@link BufferEncoderDecoder} for LZ4 frame encoding.
+     * <p>
+     * The encoding is not registered with IANA, so it is only expected to be understood by peers which are configured
+     * with a matching {@link BufferEncoderDecoder}, for example via
+     * {@link io.servicetalk.encoding.api.BufferDecoderGroupBuilder}.
+     * @return a default {@link BufferEncoderDecoder} for LZ4 frame encoding.
+     */
+    public static BufferEncoderDecoder lz4Default() {
+        return DEFAULT_LZ4;
+    }
+
     /**
      * Create a {@link BufferEncoderDecoder} given the underlying {@link SerializerDeserializer} and
      * {@link StreamingSerializerDeserializer} implementations.
@@ -19,14 +19,30 @@ import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.serializer.api.SerializerDeserializer;
 import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
 
+import io.netty.handler.codec.compression.SnappyFrameEncoder;
+
 /**
  * Common available compression implementations.
  */
 public final class NettyCompression {
+    // Same as the default maxChunkSize of ZipCompressionBuilder.
+    private static final int DEFAULT_MAX_CHUNK_SIZE = 4 << 20; //4MiB
     private static final SerializerDeserializer<Buffer> DEFAULT_GZIP = gzip().build();
     private static final SerializerDeserializer<Buffer> DEFAULT_DEFLATE = deflate().build();
     private static final StreamingSerializerDeserializer<Buffer> DEFAULT_STREAM_GZIP = gzip().buildStreaming();
     private static final StreamingSerializerDeserializer<Buffer> DEFAULT_STREAM_DEFLATE = deflate().buildStreaming();
+    private static final SerializerDeserializer<Buffer> DEFAULT_SNAPPY =
+            new NettyCompressionSerializer(SnappyFrameEncoder::new,
+                    () -> new LimitedSnappyFrameDecoder(DEFAULT_MAX_CHUNK_SIZE));
+    private static final StreamingSerializerDeserializer<Buffer> DEFAULT_STREAM_SNAPPY =
+            new NettyCompressionStreamingSerializer(SnappyFrameEncoder::new,
+                    () -> new LimitedSnappyFrameDecoder(DEFAULT_MAX_CHUNK_SIZE));
+    private static final SerializerDeserializer<Buffer> DEFAULT_LZ4 =
+            new NettyCompressionSerializer(Lz4FrameEncoder::new,
+                    () -> new Lz4FrameDecoder(DEFAULT_MAX_CHUNK_SIZE));
+    private static final StreamingSerializerDeserializer<Buffer> DEFAULT_STREAM_LZ4 =
+            new NettyCompressionStreamingSerializer(Lz4FrameEncoder::new,
+                    () -> new Lz4FrameDecoder(DEFAULT_MAX_CHUNK_SIZE));
 
     private NettyCompression() {
     }
@@ -78,4 +94,50 @@ public final class NettyCompression {
     public static ZipCompressionBuilder deflate() {
         return new DeflateCompressionBuilder();
     }
+
+    /**
+     * Returns the default <a href="https://github.com/google/snappy/blob/main/framing_format.txt">framed Snappy</a>
+     * based {@link SerializerDeserializer}.
+     * <p>
+     * Snappy trades compression ratio for speed, which suits high throughput traffic between services. At most
+     * {@code 4 MiB} are decompressed from a single message.
+     * @return default framed Snappy based {@link SerializerDeserializer}
+     */
+    public static SerializerDeserializer<Buffer> snappyDefault() {
+        return DEFAULT_SNAPPY;
+    }
+
+    /**
+     * Returns the default <a href="https://github.com/google/snappy/blob/main/framing_format.txt">framed Snappy</a>
+     * based {@link StreamingSerializerDeserializer}.
+     * <p>
+     * At most {@code 4 MiB} are decompressed from a single received {@link Buffer}.
+     * @return default framed Snappy based {@link StreamingSerializerDeserializer}
+     */
+    public static StreamingSerializerDeserializer<Buffer> snappyDefaultStreaming() {
+        return DEFAULT_STREAM_SNAPPY;
+    }
+
+    /**
+     * Returns the default <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Frame_format.md">LZ4 frame</a> based
+     * {@link SerializerDeserializer}.
+     * <p>
+     * LZ4 trades compression ratio for speed, which suits high throughput traffic between services. At most
+     * {@code 4 MiB} are decompressed from a single message.
+     * @return default LZ4 frame based {@link SerializerDeserializer}
+     */
+    public static SerializerDeserializer<Buffer> lz4Default() {
+        return DEFAULT_LZ4;
+    }
+
+    /**
+     * Returns the default <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Frame_format.md">LZ4 frame</a> based
+     * {@link StreamingSerializerDeserializer}.
+     * <p>
+     * At most {@code 4 MiB} are decompressed from a single received {@link Buffer}.
+     * @return default LZ4 frame based {@link StreamingSerializerDeserializer}
+     */
+    public static StreamingSerializerDeserializer<Buffer> lz4DefaultStreaming() {
+        return DEFAULT_STREAM_LZ4;
+    }
 }
@@ -19,6 +19,8 @@ import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.serializer.api.SerializerDeserializer;
 import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
 
+import javax.annotation.Nullable;
+
 /**
  * Base class for Zip based content-codecs.
  */
@@ -27,6 +29,8 @@ public abstract class ZipCompressionBuilder {
 
     private int maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
     private int compressionLevel = 6;
+    @Nullable
+    private byte[] dictionary;
 
     ZipCompressionBuilder() {
         // pkg private
@@ -61,6 +65,37 @@ public abstract class ZipCompressionBuilder {
         return this;
     }
 
+    /**
+     * Sets a preset dictionary which is used by both the encoder and the decoder.
+     * <p>
+     * A dictionary primes the compression window with content which is common across messages (e.g. the field names
+     * of JSON or protobuf payloads), which makes small messages compress much better. Content compressed with a
+     * dictionary can only be decompressed with the same dictionary, so it must be advertised with an encoding name
+     * which identifies the dictionary, for example:
+     * <pre>{@code
+     * ZipCompressionBuilder builder = NettyCompression.deflate().dictionary(dictionary);
+     * BufferEncoderDecoder encoder = NettyBufferEncoders.bufferEncoder(builder.build(), builder.buildStreaming(),
+     *         "x-deflate-dict-1");
+     * }</pre>
+     * Use a new encoding name when the dictionary is refreshed, and keep decoding the previous one until all peers
+     * have moved to the new dictionary. {@link DeflateDictionaryTrainer} builds a dictionary from sampled payloads.
+     * @param dictionary the preset dictionary. Only the last 32 KiB are used.
+     * @return {@code this}
+     * @throws UnsupportedOperationException if the format does not support a preset dictionary (e.g. GZIP).
+     */
+    public final ZipCompressionBuilder dictionary(final byte[] dictionary) {
+        if (!supportsDictionary()) {
+            throw new UnsupportedOperationException("Preset dictionaries are not supported by " +
+                    getClass().getSimpleName());
+        }
+        if (dictionary.length == 0) {
+            throw new IllegalArgumentException("dictionary.length: " + dictionary.length + " (expected > 0)");
+        }
+
+        this.dictionary = dictionary.clone();
+        return this;
+    }
+
     /**
      * Build and return an instance of the {@link SerializerDeserializer} with the configuration of the builder.
      * @return the {@link SerializerDeserializer} with the configuration of the builder
@@ -82,6 +117,21 @@ public abstract class ZipCompressionBuilder {
         return compressionLevel;
     }
 
+    /**
+     * Returns the preset dictionary for this codec.
+     * @return the preset dictionary for this codec, or {@code null} if none is set.
+     */
+    @Nullable
+    final byte[] dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns {@code true} if this codec supports a preset {@link #dictionary(byte[]) dictionary}.
+     * @return {@code true} if this codec supports a preset {@link #dictionary(byte[]) dictionary}.
+     */
+    abstract boolean supportsDictionary();
+
     /**
      * Returns the max chunk size allowed to inflate during decoding.
      * @return Returns the max chunk size allowed to inflate during decoding.
@@ -0,0 +1,346 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.encoding.api.BufferEncodingException;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+
+import static java.lang.Math.min;
+
+/**
+ * A {@link SerializerDeserializer} for the <a href="https://tools.ietf.org/html/rfc1950">ZLIB</a> and
+ * <a href="https://tools.ietf.org/html/rfc1952">GZIP</a> formats which drives {@link Deflater} and {@link Inflater}
+ * directly.
+ * <p>
+ * The native zlib state of {@link Deflater} and {@link Inflater} is expensive to allocate, so instances are kept per
+ * thread and {@link Deflater#reset() reset} for every message instead of being created (together with an
+ * {@link io.netty.channel.embedded.EmbeddedChannel} and a Netty codec) per message. Heap {@link Buffer}s are read and
+ * written in place, other {@link Buffer}s are copied through a per-thread scratch array.
+ * <p>
+ * The ZLIB format supports a preset dictionary, which primes the compression window with content that is common
+ * across messages and makes small messages compress well.
+ */
+final class ZlibSerializer implements SerializerDeserializer<Buffer> {
+    private static final int SCRATCH_SIZE = 8192;
+    // Bounds the initial output buffer by the compressed size, the buffer grows on demand beyond it.
+    private static final int MAX_INITIAL_EXPANSION = 8;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+    private static final int FRESERVED = 0xE0;
+
+    private static final FastThreadLocal<Scratch> SCRATCH = new FastThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private final boolean gzip;
+    private final int maxChunkSize;
+    @Nullable
+    private final byte[] dictionary;
+    private final FastThreadLocal<Deflater> deflater;
+    private final FastThreadLocal<Inflater> inflater;
+
+    /**
+     * Create a new instance.
+     *
+     * @param gzip {@code true} to use the GZIP format, {@code false} to use the ZLIB format.
+     * @param compressionLevel the compression level of the {@link Deflater}.
+     * @param maxChunkSize the maximum number of bytes a message may inflate to.
+     */
+    ZlibSerializer(final boolean gzip, final int compressionLevel, final int maxChunkSize) {
+        this(gzip, compressionLevel, maxChunkSize, null);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param gzip {@code true} to use the GZIP format, {@code false} to use the ZLIB format.
+     * @param compressionLevel the compression level of the {@link Deflater}.
+     * @param maxChunkSize the maximum number of bytes a message may inflate to.
+     * @param dictionary the preset dictionary for the ZLIB format or {@code null} to not use a dictionary.
+     */
+    ZlibSerializer(final boolean gzip, final int compressionLevel, final int maxChunkSize,
+                   @Nullable final byte[] dictionary) {
+        assert dictionary == null || !gzip : "GZIP does not support a preset dictionary";
+        this.gzip = gzip;
+        this.maxChunkSize = maxChunkSize;
+        this.dictionary = dictionary;
+        deflater = new FastThreadLocal<Deflater>() {
+            @Override
+            protected Deflater initialValue() {
+                // GZIP header and trailer are written by this class, only the DEFLATE stream is produced by zlib.
+                return new Deflater(compressionLevel, gzip);
+            }
+
+            @Override
+            protected void onRemoval(final Deflater value) {
+                value.end();
+            }
+        };
+        inflater = new FastThreadLocal<Inflater>() {
+            @Override
+            protected Inflater initialValue() {
+                return new Inflater(gzip);
+            }
+
+            @Override
+            protected void onRemoval(final Inflater value) {
+                value.end();
+            }
+        };
+    }
+
+    @Override
+    public void serialize(final Buffer toSerialize, final BufferAllocator allocator, final Buffer buffer) {
+        final Deflater deflater = this.deflater.get();
+        final Scratch scratch = SCRATCH.get();
+        final CRC32 crc = scratch.crc;
+        try {
+            deflater.reset();
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            final int length = toSerialize.readableBytes();
+            if (gzip) {
+                crc.reset();
+                buffer.writeBytes(GZIP_HEADER);
+            }
+            if (toSerialize.hasArray()) {
+                final int offset = toSerialize.arrayOffset() + toSerialize.readerIndex();
+                if (gzip) {
+                    crc.update(toSerialize.array(), offset, length);
+                }
+                deflater.setInput(toSerialize.array(), offset, length);
+                deflate(deflater, buffer, scratch.out);
+            } else {
+                final byte[] in = scratch.in;
+                for (int i = toSerialize.readerIndex(), end = i + length; i < end; ) {
+                    final int chunk = min(in.length, end - i);
+                    toSerialize.getBytes(i, in, 0, chunk);
+                    if (gzip) {
+                        crc.update(in, 0, chunk);
+                    }
+                    deflater.setInput(in, 0, chunk);
+                    deflate(deflater, buffer, scratch.out);
+                    i += chunk;
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflateOnce(deflater, buffer, scratch.out);
+            }
+            if (gzip) {
+                buffer.writeIntLE((int) crc.getValue());
+                buffer.writeIntLE(length);
+            }
+            toSerialize.skipBytes(length);
+        } catch (Throwable e) {
+            throw new BufferEncodingException("Unexpected exception during encoding", e);
+        }
+    }
+
+    @Override
+    public Buffer serialize(final Buffer toSerialize, final BufferAllocator allocator) {
+        final Buffer buffer = allocator.newBuffer(toSerialize.readableBytes() +
+                (gzip ? GZIP_HEADER_SIZE + GZIP_TRAILER_SIZE : 0));
+        serialize(toSerialize, allocator, buffer);
+        return buffer;
+    }
+
+    @Override
+    public Buffer deserialize(final Buffer serializedData, final BufferAllocator allocator) {
+        final Inflater inflater = this.inflater.get();
+        final Scratch scratch = SCRATCH.get();
+        final CRC32 crc = scratch.crc;
+        final int end = serializedData.writerIndex();
+        try {
+            inflater.reset();
+            final Buffer buffer;
+            int i = serializedData.readerIndex();
+            if (gzip) {
+                crc.reset();
+                i = skipGzipHeader(serializedData, i, end);
+                // ISIZE of the trailer is the size of the uncompressed data modulo 2^32. It is controlled by the
+                // sender, so it only sizes the buffer within the bound derived from the compressed size.
+                final long size = end - i >= GZIP_TRAILER_SIZE ?
+                        serializedData.getIntLE(end - 4) & 0xFFFFFFFFL : serializedData.readableBytes();
+                buffer = allocator.newBuffer((int) min(min(size,
+                        (long) MAX_INITIAL_EXPANSION * serializedData.readableBytes()), maxChunkSize));
+            } else {
+                buffer = allocator.newBuffer((int) min(2L * serializedData.readableBytes(), maxChunkSize));
+            }
+            final int dataStart = buffer.writerIndex();
+            final boolean inPlace = serializedData.hasArray();
+            while (!inflater.finished()) {
+                if (inflater.needsDictionary()) {
+                    if (dictionary == null) {
+                        throw new BufferEncodingException("Decompression requires a preset dictionary");
+                    }
+                    // Fails if the Adler-32 checksum of the dictionary does not match the one in the ZLIB header.
+                    inflater.setDictionary(dictionary);
+                } else if (inflater.needsInput()) {
+                    if (i == end) {
+                        throw new BufferEncodingException("Truncated input: " + serializedData.readableBytes() +
+                                " bytes do not contain a complete " + (gzip ? "GZIP" : "ZLIB") + " stream");
+                    }
+                    if (inPlace) {
+                        inflater.setInput(serializedData.array(), serializedData.arrayOffset() + i, end - i);
+                        i = end;
+                    } else {
+                        final int chunk = min(scratch.in.length, end - i);
+                        serializedData.getBytes(i, scratch.in, 0, chunk);
+                        inflater.setInput(scratch.in, 0, chunk);
+                        i += chunk;
+                    }
+                }
+                inflateOnce(inflater, buffer, scratch.out, gzip ? crc : null);
+                if (buffer.writerIndex() - dataStart > maxChunkSize) {
+                    throw new BufferEncodingException("Decompressed size exceeds the maximum of " + maxChunkSize +
+                            " bytes");
+                }
+            }
+            // Bytes which were passed to the Inflater but are not part of the compressed stream.
+            i -= inflater.getRemaining();
+            if (gzip) {
+                if (end - i < GZIP_TRAILER_SIZE) {
+                    throw new BufferEncodingException("Truncated GZIP trailer");
+                }
+                if (serializedData.getIntLE(i) != (int) crc.getValue()) {
+                    throw new BufferEncodingException("GZIP CRC32 mismatch");
+                }
+                if (serializedData.getIntLE(i + 4) != buffer.writerIndex() - dataStart) {
+                    throw new BufferEncodingException("GZIP size mismatch");
+                }
+                i += GZIP_TRAILER_SIZE;
+            }
+            serializedData.readerIndex(i);
+            return buffer;
+        } catch (BufferEncodingException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BufferEncodingException("Unexpected exception during decoding", e);
+        }
+    }
+
+    private static void deflate(final Deflater deflater, final Buffer dst, final byte[] scratch) {
+        do {
+            deflateOnce(deflater, dst, scratch);
+        } while (!deflater.needsInput());
+    }
+
+    private static void deflateOnce(final Deflater deflater, final Buffer dst, final byte[] scratch) {
+        dst.ensureWritable(SCRATCH_SIZE);
+        if (dst.hasArray()) {
+            final int writerIndex = dst.writerIndex();
+            final int written = deflater.deflate(dst.array(), dst.arrayOffset() + writerIndex, dst.writableBytes());
+            dst.writerIndex(writerIndex + written);
+        } else {
+            dst.writeBytes(scratch, 0, deflater.deflate(scratch));
+        }
+    }
+
+    private static void inflateOnce(final Inflater inflater, final Buffer dst, final byte[] scratch,
+                                    @Nullable final CRC32 crc) throws DataFormatException {
+        dst.ensureWritable(SCRATCH_SIZE);
+        final byte[] array;
+        final int offset;
+        final int written;
+        if (dst.hasArray()) {
+            final int writerIndex = dst.writerIndex();
+            array = dst.array();
+            offset = dst.arrayOffset() + writerIndex;
+            written = inflater.inflate(array, offset, dst.writableBytes());
+            dst.writerIndex(writerIndex + written);
+        } else {
+            array = scratch;
+            offset = 0;
+            written = inflater.inflate(scratch);
+            dst.writeBytes(scratch, 0, written);
+        }
+        if (crc != null) {
+            crc.update(array, offset, written);
+        }
+    }
+
+    private static int skipGzipHeader(final Buffer src, int i, final int end) {
+        if (end - i < GZIP_HEADER_SIZE) {
+            throw new BufferEncodingException("Truncated GZIP header");
+        }
+        if (src.getUnsignedShortLE(i) != 0x8b1f) {
+            throw new BufferEncodingException("Input is not in the GZIP format");
+        }
+        if (src.getByte(i + 2) != Deflater.DEFLATED) {
+            throw new BufferEncodingException("Unsupported GZIP compression method: " + src.getByte(i + 2));
+        }
+        final int flags = src.getByte(i + 3) & 0xFF;
+        if ((flags & FRESERVED) != 0) {
+            throw new BufferEncodingException("Reserved GZIP flags are set: " + flags);
+        }
+        // Skip ID1, ID2, CM, FLG, MTIME (4), XFL, OS
+        i += GZIP_HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (end - i < 2) {
+                throw new BufferEncodingException("Truncated GZIP header");
+            }
+            i += 2 + src.getUnsignedShortLE(i);
+        }
+        if ((flags & FNAME) != 0) {
+            i = skipZeroTerminated(src, i, end);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            i = skipZeroTerminated(src, i, end);
+        }
+        if ((flags & FHCRC) != 0) {
+            i += 2;
+        }
+        if (i > end) {
+            throw new BufferEncodingException("Truncated GZIP header");
+        }
+        return i;
+    }
+
+    private static int skipZeroTerminated(final Buffer src, int i, final int end) {
+        while (i < end) {
+            if (src.getByte(i++) == 0) {
+                return i;
+            }
+        }
+        throw new BufferEncodingException("Truncated GZIP header");
+    }
+
+    private static final class Scratch {
+        final byte[] in = new byte[SCRATCH_SIZE];
+        final byte[] out = new byte[SCRATCH_SIZE];
+        final CRC32 crc = new CRC32();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.CompositeBuffer;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.encoding.api.BufferDecoderGroup;
+import io.servicetalk.encoding.api.BufferDecoderGroupBuilder;
+import io.servicetalk.encoding.api.BufferEncoderDecoder;
+import io.servicetalk.encoding.api.BufferEncodingException;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Inflater;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DeflateDictionaryTest {
+    private static final String[] ROLES = {"admin", "reader", "writer", "auditor"};
+
+    private static byte[] newJson(final Random random) {
+        return ("{\"id\":" + random.nextInt(1_000_000) +
+                ",\"name\":\"user-" + Integer.toHexString(random.nextInt()) +
+                "\",\"email\":\"user" + random.nextInt(10_000) + "@example.com\"" +
+                ",\"active\":" + random.nextBoolean() +
+                ",\"roles\":[\"" + ROLES[random.nextInt(ROLES.length)] + "\",\"" +
+                ROLES[random.nextInt(ROLES.length)] + "\"]" +
+                ",\"createdAt\":\"2021-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10) +
+                "T10:1" + random.nextInt(10) + ":00Z\"}").getBytes(US_ASCII);
+    }
+
+    private static byte[] trainDictionary() {
+        final Random random = new Random(0);
+        final DeflateDictionaryTrainer trainer = new DeflateDictionaryTrainer(4096);
+        for (int i = 0; i < 500; ++i) {
+            trainer.addSample(newJson(random));
+        }
+        return trainer.train();
+    }
+
+    @Test
+    void roundTrip() {
+        final byte[] dictionary = trainDictionary();
+        final SerializerDeserializer<Buffer> serializer = NettyCompression.deflate().dictionary(dictionary).build();
+        final SerializerDeserializer<Buffer> plain = NettyCompression.deflateDefault();
+        final Random random = new Random(1);
+        int plainSize = 0;
+        int dictionarySize = 0;
+        for (int i = 0; i < 100; ++i) {
+            final byte[] payload = newJson(random);
+            final Buffer compressed = serializer.serialize(DEFAULT_ALLOCATOR.wrap(payload), DEFAULT_ALLOCATOR);
+            dictionarySize += compressed.readableBytes();
+            plainSize += plain.serialize(DEFAULT_ALLOCATOR.wrap(payload), DEFAULT_ALLOCATOR).readableBytes();
+
+            // Compatible with the JDK Inflater.
+            assertThat(inflateWithJdk(toBytes(compressed.duplicate()), dictionary), is(payload));
+            assertThat(toBytes(serializer.deserialize(compressed, DEFAULT_ALLOCATOR)), is(payload));
+        }
+        assertThat(dictionarySize, lessThan(plainSize));
+    }
+
+    @Test
+    void streamingRoundTrip() throws Exception {
+        final byte[] dictionary = trainDictionary();
+        final ZipCompressionBuilder builder = NettyCompression.deflate().dictionary(dictionary);
+        final Random random = new Random(2);
+        final List<Buffer> chunks = new ArrayList<>();
+        final CompositeBuffer expected = DEFAULT_ALLOCATOR.newCompositeBuffer();
+        for (int i = 0; i < 10; ++i) {
+            final byte[] payload = newJson(random);
+            chunks.add(DEFAULT_ALLOCATOR.wrap(payload));
+            expected.addBuffer(DEFAULT_ALLOCATOR.wrap(payload));
+        }
+
+        final Buffer compressed = builder.buildStreaming().serialize(Publisher.fromIterable(chunks), DEFAULT_ALLOCATOR)
+                .collect(DEFAULT_ALLOCATOR::newCompositeBuffer, CompositeBuffer::addBuffer).toFuture().get();
+        final Buffer decompressed = builder.buildStreaming().deserialize(Publisher.from(compressed.duplicate()),
+                DEFAULT_ALLOCATOR).collect(DEFAULT_ALLOCATOR::newCompositeBuffer, CompositeBuffer::addBuffer)
+                .toFuture().get();
+        assertThat(toBytes(decompressed), is(toBytes(expected.duplicate())));
+
+        // The aggregated and streaming variants are interchangeable.
+        assertThat(toBytes(builder.build().deserialize(compressed, DEFAULT_ALLOCATOR)), is(toBytes(expected)));
+    }
+
+    @Test
+    void missingOrWrongDictionary() {
+        final byte[] dictionary = trainDictionary();
+        final byte[] payload = newJson(new Random(3));
+        final Buffer compressed = NettyCompression.deflate().dictionary(dictionary).build()
+                .serialize(DEFAULT_ALLOCATOR.wrap(payload), DEFAULT_ALLOCATOR);
+
+        assertThrows(BufferEncodingException.class,
+                () -> NettyCompression.deflateDefault().deserialize(compressed.duplicate(), DEFAULT_ALLOCATOR));
+        final byte[] wrongDictionary = "{\"unrelated\":\"dictionary\"}".getBytes(US_ASCII);
+        assertThrows(BufferEncodingException.class, () -> NettyCompression.deflate().dictionary(wrongDictionary)
+                .build().deserialize(compressed.duplicate(), DEFAULT_ALLOCATOR));
+    }
+
+    @Test
+    void negotiatedThroughDecoderGroup() {
+        final ZipCompressionBuilder builder = NettyCompression.deflate().dictionary(trainDictionary());
+        final BufferEncoderDecoder encoder = NettyBufferEncoders.bufferEncoder(builder.build(),
+                builder.buildStreaming(), "x-deflate-dict-1");
+        final BufferDecoderGroup group = new BufferDecoderGroupBuilder()
+                .add(encoder, true)
+                .add(NettyBufferEncoders.deflateDefault(), true)
+                .build();
+        final CharSequence advertised = group.advertisedMessageEncoding();
+        assertThat(advertised == null ? null : advertised.toString(), is("x-deflate-dict-1,deflate"));
+    }
+
+    @Test
+    void gzipDoesNotSupportDictionary() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> NettyCompression.gzip().dictionary(new byte[] {1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> NettyCompression.deflate().dictionary(new byte[0]));
+    }
+
+    @Test
+    void trainer() {
+        final Random random = new Random(4);
+        final DeflateDictionaryTrainer trainer = new DeflateDictionaryTrainer(1024, 64);
+        assertThat(trainer.train().length, is(0));
+        for (int i = 0; i < 1000; ++i) {
+            trainer.addSample(DEFAULT_ALLOCATOR.wrap(newJson(random)));
+        }
+        final byte[] dictionary = trainer.train();
+        assertThat(dictionary.length, greaterThan(0));
+        assertThat(dictionary.length, lessThanOrEqualTo(1024));
+        // Field names shared by all samples are part of the dictionary.
+        assertThat(new String(dictionary, US_ASCII).contains("\"createdAt\":\"2021-0"), is(true));
+
+        // Samples without shared content don't produce a dictionary.
+        trainer.reset();
+        for (int i = 0; i < 10; ++i) {
+            final byte[] sample = new byte[100];
+            random.nextBytes(sample);
+            trainer.addSample(sample);
+        }
+        assertThat(trainer.train().length, is(0));
+
+        assertThrows(IllegalArgumentException.class, () -> new DeflateDictionaryTrainer(32 * 1024 + 1));
+        assertThrows(IllegalArgumentException.class, () -> new DeflateDictionaryTrainer(1024, 4));
+    }
+
+    private static byte[] inflateWithJdk(final byte[] compressed, final byte[] dictionary) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final byte[] out = new byte[4096];
+            int length = inflater.inflate(out);
+            assertThat(inflater.needsDictionary(), is(true));
+            inflater.setDictionary(dictionary);
+            length += inflater.inflate(out, length, out.length - length);
+            assertThat(inflater.finished(), is(true));
+            final byte[] result = new byte[length];
+            System.arraycopy(out, 0, result, 0, length);
+            return result;
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] toBytes(final Buffer buffer) {
+        final byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.CompositeBuffer;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.encoding.api.BufferDecoderGroup;
+import io.servicetalk.encoding.api.BufferDecoderGroupBuilder;
+import io.servicetalk.encoding.api.BufferEncoderDecoder;
+import io.servicetalk.encoding.api.BufferEncodingException;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream.BLOCKSIZE;
+import net.jpountz.lz4.LZ4FrameOutputStream.FLG;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferAllocators.PREFER_DIRECT_ALLOCATOR;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnappyLz4CompressionTest {
+
+    private static Stream<BufferEncoderDecoder> encoders() {
+        return Stream.of(NettyBufferEncoders.snappyDefault(), NettyBufferEncoders.lz4Default());
+    }
+
+    private static byte[] newPayload(final int size) {
+        // Every other byte is random to get a compressible payload which is not trivial to compress.
+        final byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        for (int i = 0; i < size; i += 2) {
+            bytes[i] = 'a';
+        }
+        return bytes;
+    }
+
+    @ParameterizedTest
+    @MethodSource("encoders")
+    void roundTrip(final BufferEncoderDecoder encoder) {
+        for (int size : new int[] {0, 1, 1024, 200_000}) {
+            final byte[] payload = newPayload(size);
+            final Buffer compressed = encoder.encoder().serialize(DEFAULT_ALLOCATOR.wrap(payload),
+                    PREFER_DIRECT_ALLOCATOR);
+            if (size >= 1024) {
+                assertThat(compressed.readableBytes(), lessThan(size));
+            }
+            assertThat(toBytes(encoder.decoder().deserialize(compressed, DEFAULT_ALLOCATOR)), is(payload));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("encoders")
+    void streamingRoundTrip(final BufferEncoderDecoder encoder) throws Exception {
+        final List<Buffer> chunks = new ArrayList<>();
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < 5; ++i) {
+            final byte[] chunk = newPayload(30_000 * i);
+            expected.write(chunk);
+            chunks.add(DEFAULT_ALLOCATOR.wrap(chunk));
+        }
+
+        final Buffer compressed = encoder.streamingEncoder().serialize(Publisher.fromIterable(chunks),
+                DEFAULT_ALLOCATOR).collect(DEFAULT_ALLOCATOR::newCompositeBuffer, CompositeBuffer::addBuffer)
+                .toFuture().get();
+
+        // Decompress in small slices to exercise partial frames.
+        final List<Buffer> slices = new ArrayList<>();
+        while (compressed.readableBytes() > 0) {
+            slices.add(compressed.readBytes(Math.min(1000, compressed.readableBytes())));
+        }
+        final Buffer decompressed = encoder.streamingDecoder().deserialize(Publisher.fromIterable(slices),
+                DEFAULT_ALLOCATOR).collect(DEFAULT_ALLOCATOR::newCompositeBuffer, CompositeBuffer::addBuffer)
+                .toFuture().get();
+        assertThat(toBytes(decompressed), is(expected.toByteArray()));
+    }
+
+    @Test
+    void lz4TruncatedInput() {
+        final Buffer compressed = NettyCompression.lz4Default().serialize(DEFAULT_ALLOCATOR.wrap(newPayload(1024)),
+                DEFAULT_ALLOCATOR);
+        compressed.writerIndex(compressed.writerIndex() - 10);
+        assertThrows(BufferEncodingException.class,
+                () -> NettyCompression.lz4Default().deserialize(compressed, DEFAULT_ALLOCATOR));
+    }
+
+    @ParameterizedTest
+    @MethodSource("encoders")
+    void decompressedSizeIsLimited(final BufferEncoderDecoder encoder) {
+        // Zeros compress well, so a small input expands beyond the limit.
+        final Buffer compressed = encoder.encoder().serialize(DEFAULT_ALLOCATOR.wrap(new byte[5 << 20]),
+                DEFAULT_ALLOCATOR);
+        assertThat(compressed.readableBytes(), lessThan(1 << 20));
+        assertThrows(BufferEncodingException.class,
+                () -> encoder.decoder().deserialize(compressed, DEFAULT_ALLOCATOR));
+    }
+
+    @Test
+    void lz4ManyTinyBlocks() throws Exception {
+        // Each flush ends a block, so the frame holds many blocks which are far smaller than the declared 4 MiB
+        // maximum block size.
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = new LZ4FrameOutputStream(bos, BLOCKSIZE.SIZE_4MB, FLG.Bits.BLOCK_INDEPENDENCE)) {
+            for (int i = 0; i < 2000; ++i) {
+                final byte[] block = newPayload(64);
+                expected.write(block);
+                out.write(block);
+                out.flush();
+            }
+        }
+        assertThat(toBytes(NettyCompression.lz4Default().deserialize(DEFAULT_ALLOCATOR.wrap(bos.toByteArray()),
+                DEFAULT_ALLOCATOR)), is(expected.toByteArray()));
+    }
+
+    @Test
+    void negotiatedThroughDecoderGroup() {
+        final BufferDecoderGroup group = new BufferDecoderGroupBuilder()
+                .add(NettyBufferEncoders.lz4Default(), true)
+                .add(NettyBufferEncoders.snappyDefault(), true)
+                .add(NettyBufferEncoders.gzipDefault(), true)
+                .build();
+        final CharSequence advertised = group.advertisedMessageEncoding();
+        assertThat(advertised == null ? null : advertised.toString(), is("lz4,snappy,gzip"));
+        assertThat(group.decoders().get(0).encodingName().toString(), is("lz4"));
+        assertThat(group.decoders().get(1).encodingName().toString(), is("snappy"));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] checksums={0}")
+    @ValueSource(booleans = {true, false})
+    void lz4InteropWithReferenceFrameFormat(final boolean checksums) throws Exception {
+        final byte[] payload = newPayload(300_000);
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = checksums ?
+                new LZ4FrameOutputStream(bos, BLOCKSIZE.SIZE_256KB, payload.length, FLG.Bits.BLOCK_INDEPENDENCE,
+                        FLG.Bits.BLOCK_CHECKSUM, FLG.Bits.CONTENT_CHECKSUM, FLG.Bits.CONTENT_SIZE) :
+                new LZ4FrameOutputStream(bos, BLOCKSIZE.SIZE_64KB, FLG.Bits.BLOCK_INDEPENDENCE)) {
+            out.write(payload);
+        }
+        assertThat(toBytes(NettyCompression.lz4Default().deserialize(DEFAULT_ALLOCATOR.wrap(bos.toByteArray()),
+                DEFAULT_ALLOCATOR)), is(payload));
+
+        final Buffer compressed = NettyCompression.lz4Default().serialize(DEFAULT_ALLOCATOR.wrap(payload),
+                DEFAULT_ALLOCATOR);
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream in = new LZ4FrameInputStream(new ByteArrayInputStream(toBytes(compressed)))) {
+            final byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) >= 0) {
+                decompressed.write(chunk, 0, read);
+            }
+        }
+        assertThat(decompressed.toByteArray(), is(payload));
+    }
+
+    private static byte[] toBytes(final Buffer buffer) {
+        final byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+}
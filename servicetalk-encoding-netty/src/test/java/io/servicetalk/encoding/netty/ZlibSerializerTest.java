@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.encoding.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.buffer.api.CompositeBuffer;
+import io.servicetalk.encoding.api.BufferEncodingException;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferAllocators.PREFER_DIRECT_ALLOCATOR;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZlibSerializerTest {
+
+    private static byte[] newPayload(final int size) {
+        // Half random, half repeated to get a compressible payload which is not trivial to compress.
+        final byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        for (int i = 0; i < size; i += 2) {
+            bytes[i] = 'a';
+        }
+        return bytes;
+    }
+
+    private static SerializerDeserializer<Buffer> serializer(final boolean gzip) {
+        return gzip ? NettyCompression.gzipDefault() : NettyCompression.deflateDefault();
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] gzip={0} size={1} direct={2}")
+    @CsvSource({"true,0,false", "true,1024,false", "true,100000,true", "false,0,true", "false,1024,true",
+            "false,100000,false"})
+    void roundTrip(final boolean gzip, final int size, final boolean direct) throws Exception {
+        final byte[] payload = newPayload(size);
+        final SerializerDeserializer<Buffer> serializer = serializer(gzip);
+        final BufferAllocator allocator = direct ? PREFER_DIRECT_ALLOCATOR : DEFAULT_ALLOCATOR;
+        final Buffer source = allocator.newBuffer(size).writeBytes(payload);
+        final Buffer compressed = serializer.serialize(source, allocator);
+        assertThat(source.readableBytes(), is(0));
+
+        // Compatible with the JDK streams.
+        final byte[] compressedBytes = new byte[compressed.readableBytes()];
+        compressed.getBytes(compressed.readerIndex(), compressedBytes);
+        assertThat(inflateWithJdk(gzip, compressedBytes), is(payload));
+
+        final Buffer decompressed = serializer.deserialize(compressed, DEFAULT_ALLOCATOR);
+        assertThat(compressed.readableBytes(), is(0));
+        assertThat(toBytes(decompressed), is(payload));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] gzip={0}")
+    @ValueSource(booleans = {true, false})
+    void deserializeJdkOutput(final boolean gzip) throws Exception {
+        final byte[] payload = newPayload(50_000);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bos) : new DeflaterOutputStream(bos)) {
+            out.write(payload);
+        }
+        final Buffer decompressed = serializer(gzip).deserialize(DEFAULT_ALLOCATOR.wrap(bos.toByteArray()),
+                DEFAULT_ALLOCATOR);
+        assertThat(toBytes(decompressed), is(payload));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] gzip={0}")
+    @ValueSource(booleans = {true, false})
+    void instancesAreReusedAcrossMessages(final boolean gzip) {
+        final SerializerDeserializer<Buffer> serializer = serializer(gzip);
+        for (int i = 0; i < 10; ++i) {
+            final byte[] payload = newPayload(1024 * (i + 1));
+            final Buffer compressed = serializer.serialize(DEFAULT_ALLOCATOR.wrap(payload), DEFAULT_ALLOCATOR);
+            assertThat(toBytes(serializer.deserialize(compressed, DEFAULT_ALLOCATOR)), is(payload));
+        }
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] gzip={0}")
+    @ValueSource(booleans = {true, false})
+    void maxChunkSizeEnforced(final boolean gzip) {
+        final SerializerDeserializer<Buffer> serializer = (gzip ? NettyCompression.gzip() : NettyCompression.deflate())
+                .maxChunkSize(1024).build();
+        final Buffer compressed = serializer.serialize(DEFAULT_ALLOCATOR.wrap(new byte[1025]), DEFAULT_ALLOCATOR);
+        assertThrows(BufferEncodingException.class, () -> serializer.deserialize(compressed, DEFAULT_ALLOCATOR));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] gzip={0}")
+    @ValueSource(booleans = {true, false})
+    void truncatedInput(final boolean gzip) {
+        final SerializerDeserializer<Buffer> serializer = serializer(gzip);
+        final Buffer compressed = serializer.serialize(DEFAULT_ALLOCATOR.wrap(newPayload(1024)), DEFAULT_ALLOCATOR);
+        compressed.writerIndex(compressed.writerIndex() - 10);
+        assertThrows(BufferEncodingException.class, () -> serializer.deserialize(compressed, DEFAULT_ALLOCATOR));
+    }
+
+    @Test
+    void gzipCrcMismatch() {
+        final SerializerDeserializer<Buffer> serializer = serializer(true);
+        final Buffer compressed = serializer.serialize(DEFAULT_ALLOCATOR.wrap(newPayload(1024)), DEFAULT_ALLOCATOR);
+        final int crcIndex = compressed.writerIndex() - 8;
+        compressed.setByte(crcIndex, compressed.getByte(crcIndex) + 1);
+        assertThrows(BufferEncodingException.class, () -> serializer.deserialize(compressed, DEFAULT_ALLOCATOR));
+    }
+
+    @Test
+    void gzipSizeTrailerDoesNotSizeOutput() {
+        final SerializerDeserializer<Buffer> serializer = serializer(true);
+        final Buffer compressed = serializer.serialize(DEFAULT_ALLOCATOR.wrap(newPayload(1024)), DEFAULT_ALLOCATOR);
+        // Claim the maximum ISIZE, the output buffer must still be sized from the compressed size.
+        compressed.setIntLE(compressed.writerIndex() - 4, -1);
+        final int compressedSize = compressed.readableBytes();
+        final RecordingAllocator allocator = new RecordingAllocator();
+        assertThrows(BufferEncodingException.class, () -> serializer.deserialize(compressed, allocator));
+        assertThat(allocator.maxInitialCapacity, lessThanOrEqualTo(8 * compressedSize));
+    }
+
+    private static byte[] inflateWithJdk(final boolean gzip, final byte[] compressed) throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(compressed)) :
+                new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            final byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) >= 0) {
+                bos.write(chunk, 0, read);
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] toBytes(final Buffer buffer) {
+        final byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+
+    private static final class RecordingAllocator implements BufferAllocator {
+        int maxInitialCapacity;
+
+        private void record(final int initialCapacity) {
+            maxInitialCapacity = Math.max(maxInitialCapacity, initialCapacity);
+        }
+
+        @Override
+        public Buffer newBuffer(final int initialCapacity) {
+            record(initialCapacity);
+            return DEFAULT_ALLOCATOR.newBuffer(initialCapacity);
+        }
+
+        @Override
+        public Buffer newBuffer(final int initialCapacity, final int maxCapacity) {
+            record(initialCapacity);
+            return DEFAULT_ALLOCATOR.newBuffer(initialCapacity, maxCapacity);
+        }
+
+        @Override
+        public Buffer newBuffer(final int initialCapacity, final boolean direct) {
+            record(initialCapacity);
+            return DEFAULT_ALLOCATOR.newBuffer(initialCapacity, direct);
+        }
+
+        @Override
+        public CompositeBuffer newCompositeBuffer() {
+            return DEFAULT_ALLOCATOR.newCompositeBuffer();
+        }
+
+        @Override
+        public CompositeBuffer newCompositeBuffer(final int maxComponents) {
+            return DEFAULT_ALLOCATOR.newCompositeBuffer(maxComponents);
+        }
+
+        @Override
+        public Buffer fromSequence(final CharSequence data, final Charset charset) {
+            return DEFAULT_ALLOCATOR.fromSequence(data, charset);
+        }
+
+        @Override
+        public Buffer fromSequence(final CharSequence data, final Charset charset, final boolean direct) {
+            return DEFAULT_ALLOCATOR.fromSequence(data, charset, direct);
+        }
+
+        @Override
+        public Buffer fromUtf8(final CharSequence data) {
+            return DEFAULT_ALLOCATOR.fromUtf8(data);
+        }
+
+        @Override
+        public Buffer fromUtf8(final CharSequence data, final boolean direct) {
+            return DEFAULT_ALLOCATOR.fromUtf8(data, direct);
+        }
+
+        @Override
+        public Buffer fromAscii(final CharSequence data) {
+            return DEFAULT_ALLOCATOR.fromAscii(data);
+        }
+
+        @Override
+        public Buffer fromAscii(final CharSequence data, final boolean direct) {
+            return DEFAULT_ALLOCATOR.fromAscii(data, direct);
+        }
+
+        @Override
+        public Buffer wrap(final byte[] bytes) {
+            return DEFAULT_ALLOCATOR.wrap(bytes);
+        }
+
+        @Override
+        public Buffer wrap(final ByteBuffer buffer) {
+            return DEFAULT_ALLOCATOR.wrap(buffer);
+        }
+    }
+}
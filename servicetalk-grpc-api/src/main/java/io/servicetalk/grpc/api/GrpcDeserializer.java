@@ -62,7 +62,7 @@ final class GrpcDeserializer<T> implements Deserializer<T> {
             throw new SerializationException("Message-Length invalid: " + expectedLength);
         }
 
-        Buffer result = buffer.readBytes(expectedLength);
+        Buffer result = buffer.readSlice(expectedLength);
         if (compressed) {
             result = decompressor.decoder().deserialize(result, allocator);
         }
@@ -26,6 +26,8 @@ import javax.annotation.Nullable;
 import static io.servicetalk.grpc.api.GrpcStreamingSerializer.FLAG_COMPRESSED;
 import static io.servicetalk.grpc.api.GrpcStreamingSerializer.FLAG_UNCOMPRESSED;
 import static io.servicetalk.grpc.api.GrpcStreamingSerializer.METADATA_SIZE;
+import static io.servicetalk.grpc.api.GrpcStreamingSerializer.messageEncoder;
+import static io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator.recordSerializedSize;
 import static java.util.Objects.requireNonNull;
 
 final class GrpcSerializer<T> implements Serializer<T> {
@@ -67,12 +69,21 @@ final class GrpcSerializer<T> implements Serializer<T> {
             final int sizeEstimate = serializedBytesEstimator.applyAsInt(t);
             Buffer serializedBuffer = allocator.newBuffer(sizeEstimate);
             serializer.serialize(t, allocator, serializedBuffer);
+            recordSerializedSize(serializedBytesEstimator, sizeEstimate, serializedBuffer.readableBytes());
+
+            final BufferEncoder encoder = messageEncoder(compressor, serializedBuffer.readableBytes());
+            if (encoder == null) {
+                buffer.writeByte(FLAG_UNCOMPRESSED);
+                buffer.writeInt(serializedBuffer.readableBytes());
+                buffer.writeBytes(serializedBuffer);
+                return;
+            }
 
             // Compress into the same buffer that we return, so advance the writer index metadata
             // bytes and then we fill in the meta data after compression is done and the final size is known.
             final int writerIndexBefore = buffer.writerIndex();
             buffer.writerIndex(writerIndexBefore + METADATA_SIZE);
-            compressor.encoder().serialize(serializedBuffer, allocator, buffer);
+            encoder.encoder().serialize(serializedBuffer, allocator, buffer);
             buffer.setByte(writerIndexBefore, FLAG_COMPRESSED);
             buffer.setInt(writerIndexBefore + 1, buffer.writerIndex() - writerIndexBefore - METADATA_SIZE);
         }
@@ -80,8 +91,13 @@ final class GrpcSerializer<T> implements Serializer<T> {
 
     @Override
     public Buffer serialize(final T t, final BufferAllocator allocator) {
-        Buffer buffer = allocator.newBuffer(serializedBytesEstimator.applyAsInt(t) + METADATA_SIZE);
+        final int sizeEstimate = serializedBytesEstimator.applyAsInt(t);
+        Buffer buffer = allocator.newBuffer(sizeEstimate + METADATA_SIZE);
         serialize(t, allocator, buffer);
+        if (compressor == null) {
+            // When compressing, the size of the uncompressed message has already been recorded.
+            recordSerializedSize(serializedBytesEstimator, sizeEstimate, buffer.readableBytes() - METADATA_SIZE);
+        }
         return buffer;
     }
 }
@@ -83,7 +83,7 @@ final class GrpcStreamingDeserializer<T> implements StreamingDeserializer<T> {
             if (buffer.readableBytes() < expectedLength) {
                 return null;
             }
-            Buffer result = buffer.readBytes(expectedLength);
+            Buffer result = buffer.readSlice(expectedLength);
             expectedLength = -1;
             if (compressed) {
                 assert compressor != null;
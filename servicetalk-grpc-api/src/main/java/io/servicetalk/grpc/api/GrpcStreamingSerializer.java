@@ -18,6 +18,7 @@ package io.servicetalk.grpc.api;
 import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.buffer.api.BufferAllocator;
 import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.encoding.api.AdaptiveBufferEncoder;
 import io.servicetalk.encoding.api.BufferEncoder;
 import io.servicetalk.serializer.api.Serializer;
 import io.servicetalk.serializer.api.StreamingSerializer;
@@ -25,6 +26,7 @@ import io.servicetalk.serializer.api.StreamingSerializer;
 import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator.recordSerializedSize;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -70,8 +72,10 @@ final class GrpcStreamingSerializer<T> implements StreamingSerializer<T> {
                     final int writerIndexBefore = buffer.writerIndex();
                     buffer.writerIndex(writerIndexBefore + METADATA_SIZE);
                     serializer.serialize(t, allocator, buffer);
+                    final int length = buffer.writerIndex() - writerIndexBefore - METADATA_SIZE;
                     buffer.setByte(writerIndexBefore, FLAG_UNCOMPRESSED);
-                    buffer.setInt(writerIndexBefore + 1, buffer.writerIndex() - writerIndexBefore - METADATA_SIZE);
+                    buffer.setInt(writerIndexBefore + 1, length);
+                    recordSerializedSize(serializedBytesEstimator, sizeEstimate, length);
                     return buffer;
                 }) :
                 toSerialize.map(t -> {
@@ -79,6 +83,16 @@ final class GrpcStreamingSerializer<T> implements StreamingSerializer<T> {
                     final int sizeEstimate = serializedBytesEstimator.applyAsInt(t);
                     Buffer serializedBuffer = allocator.newBuffer(sizeEstimate);
                     serializer.serialize(t, allocator, serializedBuffer);
+                    recordSerializedSize(serializedBytesEstimator, sizeEstimate, serializedBuffer.readableBytes());
+
+                    final BufferEncoder encoder = messageEncoder(compressor, serializedBuffer.readableBytes());
+                    if (encoder == null) {
+                        Buffer resultBuffer = allocator.newBuffer(METADATA_SIZE + serializedBuffer.readableBytes());
+                        resultBuffer.writeByte(FLAG_UNCOMPRESSED);
+                        resultBuffer.writeInt(serializedBuffer.readableBytes());
+                        resultBuffer.writeBytes(serializedBuffer);
+                        return resultBuffer;
+                    }
 
                     // Next do the compression, pessimistically assume the size won't decrease when allocating.
                     Buffer resultBuffer = allocator.newBuffer(METADATA_SIZE + sizeEstimate);
@@ -87,11 +101,30 @@ final class GrpcStreamingSerializer<T> implements StreamingSerializer<T> {
                     // bytes and then we fill in the meta data after compression is done and the final size is known.
                     final int writerIndexBefore = resultBuffer.writerIndex();
                     resultBuffer.writerIndex(writerIndexBefore + METADATA_SIZE);
-                    compressor.encoder().serialize(serializedBuffer, allocator, resultBuffer);
+                    encoder.encoder().serialize(serializedBuffer, allocator, resultBuffer);
                     resultBuffer.setByte(writerIndexBefore, FLAG_COMPRESSED);
                     resultBuffer.setInt(writerIndexBefore + 1,
                             resultBuffer.writerIndex() - writerIndexBefore - METADATA_SIZE);
                     return resultBuffer;
                 });
     }
+
+    /**
+     * Get the {@link BufferEncoder} to compress a message with.
+     * <p>
+     * gRPC allows individual messages of a compressed stream to be sent uncompressed, so the length policy of an
+     * {@link AdaptiveBufferEncoder} is applied per message.
+     * @param compressor the negotiated {@link BufferEncoder}.
+     * @param messageLength the length of the serialized message.
+     * @return the {@link BufferEncoder} to compress the message with or {@code null} if the message should not be
+     * compressed.
+     */
+    @Nullable
+    static BufferEncoder messageEncoder(final BufferEncoder compressor, final int messageLength) {
+        if (compressor instanceof AdaptiveBufferEncoder) {
+            final AdaptiveBufferEncoder adaptiveCompressor = (AdaptiveBufferEncoder) compressor;
+            return adaptiveCompressor.shouldEncodeContentLength(messageLength) ? adaptiveCompressor.select() : null;
+        }
+        return compressor;
+    }
 }
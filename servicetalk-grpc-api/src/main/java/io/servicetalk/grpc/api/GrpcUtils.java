@@ -44,6 +44,7 @@ import io.servicetalk.serializer.api.Deserializer;
 import io.servicetalk.serializer.api.SerializationException;
 import io.servicetalk.serializer.api.Serializer;
 import io.servicetalk.serializer.api.SerializerDeserializer;
+import io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.rpc.Status;
@@ -432,7 +433,7 @@ final class GrpcUtils {
     }
 
     static <T> ToIntFunction<T> defaultToInt() {
-        return t -> 256;
+        return new AdaptiveSerializedSizeEstimator<>();
     }
 
     static <T> List<GrpcStreamingDeserializer<T>> streamingDeserializers(Deserializer<T> desrializer,
@@ -319,6 +319,12 @@ final class DefaultGrpcServerBuilder implements GrpcServerBuilder, ServerBinder
             return this;
         }
 
+        @Override
+        public HttpServerBuilder addDateHeader(final boolean enable) {
+            delegate.addDateHeader(enable);
+            return this;
+        }
+
         @Override
         public HttpServerBuilder appendConnectionAcceptorFilter(final ConnectionAcceptorFactory factory) {
             delegate.appendConnectionAcceptorFilter(factory);
@@ -0,0 +1,877 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.caseInsensitiveHashCode;
+import static io.servicetalk.buffer.api.CharSequences.contentEquals;
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.http.api.DefaultHttpSetCookie.parseSetCookie;
+import static io.servicetalk.http.api.HeaderUtils.DEFAULT_HEADER_FILTER;
+import static io.servicetalk.http.api.HeaderUtils.domainMatches;
+import static io.servicetalk.http.api.HeaderUtils.isSetCookieNameMatches;
+import static io.servicetalk.http.api.HeaderUtils.parseCookiePair;
+import static io.servicetalk.http.api.HeaderUtils.pathMatches;
+import static io.servicetalk.http.api.HeaderUtils.validateCookieTokenAndHeaderName;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.SET_COOKIE;
+import static io.servicetalk.utils.internal.MathUtils.findNextPositivePowerOfTwo;
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link HttpHeaders} which keeps all headers in flat parallel arrays.
+ * <p>
+ * Entries are stored in insertion order, entries with the same (case-insensitive) name are linked in insertion order
+ * via indexes. The first entry for every name is found via an open addressing (linear probing) hash table of indexes.
+ * Removed entries leave a gap which is reclaimed when the arrays need to grow, removed names leave a tombstone in the
+ * hash table which is reclaimed at the same time. Compared to {@link DefaultHttpHeaders} no objects are allocated per
+ * header and lookups do not chase pointers.
+ */
+final class ArrayHttpHeaders implements HttpHeaders {
+    private static final int TOMBSTONE = -1;
+    private static final int NONE = -1;
+
+    private final boolean validateNames;
+    private final boolean validateCookies;
+    private final boolean validateValues;
+    /**
+     * Header names in insertion order, {@code null} for removed entries.
+     */
+    private CharSequence[] names;
+    private CharSequence[] values;
+    private int[] hashes;
+    /**
+     * Index of the next entry with the same name or {@link #NONE}.
+     */
+    private int[] nexts;
+    /**
+     * Only valid for the first entry of a name: index of the last entry with the same name.
+     */
+    private int[] tails;
+    /**
+     * Open addressing hash table: index of the first entry of a name plus one, {@code 0} for an empty slot or
+     * {@link #TOMBSTONE}. The table is at least twice as large as the entry arrays, and every non-empty slot
+     * corresponds to at least one used entry, so there is always an empty slot to terminate probing.
+     */
+    private int[] table;
+    /**
+     * Number of used entries, including removed ones.
+     */
+    private int count;
+    private int size;
+    /**
+     * Incremented every time entries are moved to a different index, which invalidates iterators.
+     */
+    private int compactions;
+
+    /**
+     * Create a new instance.
+     *
+     * @param sizeHint A hint as to how many headers are expected.
+     * @param validateNames {@code true} to validate header names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header values.
+     */
+    ArrayHttpHeaders(final int sizeHint, final boolean validateNames, final boolean validateCookies,
+                     final boolean validateValues) {
+        this.validateNames = validateNames;
+        this.validateCookies = validateCookies;
+        this.validateValues = validateValues;
+        final int capacity = findNextPositivePowerOfTwo(max(sizeHint, 2));
+        names = new CharSequence[capacity];
+        values = new CharSequence[capacity];
+        hashes = new int[capacity];
+        nexts = new int[capacity];
+        tails = new int[capacity];
+        table = new int[capacity << 1];
+    }
+
+    private static int hash(final CharSequence name) {
+        final int h = caseInsensitiveHashCode(name);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Find the hash table slot of the first entry for {@code name}.
+     *
+     * @return the slot or {@link #NONE} if there is no entry for {@code name}.
+     */
+    private int findSlot(final CharSequence name, final int hash) {
+        final int[] table = this.table;
+        final int mask = table.length - 1;
+        for (int i = hash & mask;; i = (i + 1) & mask) {
+            final int slot = table[i];
+            if (slot == 0) {
+                return NONE;
+            }
+            if (slot > 0) {
+                final int e = slot - 1;
+                if (hashes[e] == hash && contentEqualsIgnoreCase(names[e], name)) {
+                    return i;
+                }
+            }
+        }
+    }
+
+    private int first(final CharSequence name) {
+        final int slot = findSlot(name, hash(name));
+        return slot < 0 ? NONE : table[slot] - 1;
+    }
+
+    private void addEntry(final CharSequence name, final CharSequence value) {
+        if (count == names.length) {
+            if (size <= count >>> 1) {
+                compact();
+            } else {
+                grow();
+            }
+        }
+        final int e = count++;
+        names[e] = name;
+        values[e] = value;
+        hashes[e] = hash(name);
+        ++size;
+        link(e);
+    }
+
+    /**
+     * Link an entry, which is already stored in the arrays, to the hash table and other entries with the same name.
+     */
+    private void link(final int e) {
+        nexts[e] = NONE;
+        final int hash = hashes[e];
+        final CharSequence name = names[e];
+        final int[] table = this.table;
+        final int mask = table.length - 1;
+        int insertAt = NONE;
+        for (int i = hash & mask;; i = (i + 1) & mask) {
+            final int slot = table[i];
+            if (slot == 0) {
+                if (insertAt < 0) {
+                    insertAt = i;
+                }
+                break;
+            }
+            if (slot == TOMBSTONE) {
+                if (insertAt < 0) {
+                    insertAt = i;
+                }
+            } else {
+                final int head = slot - 1;
+                if (hashes[head] == hash && contentEqualsIgnoreCase(names[head], name)) {
+                    nexts[tails[head]] = e;
+                    tails[head] = e;
+                    return;
+                }
+            }
+        }
+        table[insertAt] = e + 1;
+        tails[e] = e;
+    }
+
+    private void grow() {
+        final int capacity = names.length << 1;
+        names = copyOf(names, capacity);
+        values = copyOf(values, capacity);
+        hashes = copyOf(hashes, capacity);
+        nexts = new int[capacity];
+        tails = new int[capacity];
+        table = new int[capacity << 1];
+        relinkAll();
+    }
+
+    private void compact() {
+        int j = 0;
+        for (int i = 0; i < count; ++i) {
+            if (names[i] != null) {
+                names[j] = names[i];
+                values[j] = values[i];
+                hashes[j] = hashes[i];
+                ++j;
+            }
+        }
+        fill(names, j, count, null);
+        fill(values, j, count, null);
+        count = j;
+        ++compactions;
+        fill(table, 0);
+        relinkAll();
+    }
+
+    private void relinkAll() {
+        for (int i = 0; i < count; ++i) {
+            if (names[i] != null) {
+                link(i);
+            }
+        }
+    }
+
+    /**
+     * Remove entry {@code e} from the chain of entries with the same name.
+     *
+     * @param slot the hash table slot of the first entry with the same name.
+     * @param prev the previous entry in the chain or {@link #NONE} if {@code e} is the first entry.
+     * @param e the entry to remove.
+     */
+    private void removeEntry(final int slot, final int prev, final int e) {
+        final int next = nexts[e];
+        if (prev < 0) {
+            if (next < 0) {
+                table[slot] = TOMBSTONE;
+            } else {
+                table[slot] = next + 1;
+                tails[next] = tails[e];
+            }
+        } else {
+            nexts[prev] = next;
+            final int head = table[slot] - 1;
+            if (tails[head] == e) {
+                tails[head] = prev;
+            }
+        }
+        names[e] = null;
+        values[e] = null;
+        --size;
+    }
+
+    private void removeEntry(final int e) {
+        final int slot = findSlot(names[e], hashes[e]);
+        assert slot >= 0;
+        int prev = NONE;
+        for (int i = table[slot] - 1; i != e; i = nexts[i]) {
+            prev = i;
+        }
+        removeEntry(slot, prev, e);
+    }
+
+    private boolean removeIf(final CharSequence name, final Predicate<CharSequence> valuePredicate) {
+        final int slot = findSlot(name, hash(name));
+        if (slot < 0) {
+            return false;
+        }
+        final int sizeBefore = size;
+        int prev = NONE;
+        for (int e = table[slot] - 1; e >= 0;) {
+            final int next = nexts[e];
+            if (valuePredicate.test(values[e])) {
+                removeEntry(slot, prev, e);
+            } else {
+                prev = e;
+            }
+            e = next;
+        }
+        return sizeBefore != size;
+    }
+
+    private CharSequence validateName(@Nullable final CharSequence name) {
+        if (name == null || name.length() == 0) {
+            throw new IllegalArgumentException("Empty header names are not allowed");
+        }
+        if (validateNames) {
+            validateCookieTokenAndHeaderName(name);
+        }
+        return name;
+    }
+
+    private CharSequence validateValue(final CharSequence value) {
+        requireNonNull(value);
+        if (validateValues) {
+            HeaderUtils.validateHeaderValue(value);
+        }
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public CharSequence get(final CharSequence name) {
+        final int e = first(name);
+        return e < 0 ? null : values[e];
+    }
+
+    @Nullable
+    @Override
+    public CharSequence getAndRemove(final CharSequence name) {
+        final int slot = findSlot(name, hash(name));
+        if (slot < 0) {
+            return null;
+        }
+        final int first = table[slot] - 1;
+        final CharSequence value = values[first];
+        for (int e = first; e >= 0; e = nexts[e]) {
+            names[e] = null;
+            values[e] = null;
+            --size;
+        }
+        table[slot] = TOMBSTONE;
+        return value;
+    }
+
+    @Override
+    public Iterator<? extends CharSequence> valuesIterator(final CharSequence name) {
+        final int e = first(name);
+        return e < 0 ? emptyIterator() : new ValuesIterator(e);
+    }
+
+    @Override
+    public boolean contains(final CharSequence name) {
+        return first(name) >= 0;
+    }
+
+    @Override
+    public boolean contains(final CharSequence name, final CharSequence value) {
+        for (int e = first(name); e >= 0; e = nexts[e]) {
+            if (contentEquals(value, values[e])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsIgnoreCase(final CharSequence name, final CharSequence value) {
+        for (int e = first(name); e >= 0; e = nexts[e]) {
+            if (contentEqualsIgnoreCase(value, values[e])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<? extends CharSequence> names() {
+        final Set<CharSequence> names = new LinkedHashSet<>(size << 1);
+        for (int e = 0; e < count; ++e) {
+            final CharSequence name = this.names[e];
+            // Only the first entry of every name is in the hash table.
+            if (name != null && table[findSlot(name, hashes[e])] == e + 1) {
+                names.add(name);
+            }
+        }
+        return unmodifiableSet(names);
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence value) {
+        addEntry(validateName(name), validateValue(value));
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        validateName(name);
+        for (CharSequence value : values) {
+            addEntry(name, validateValue(value));
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence... values) {
+        validateName(name);
+        for (CharSequence value : values) {
+            addEntry(name, validateValue(value));
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final HttpHeaders headers) {
+        if (headers == this) {
+            return this;
+        }
+        for (Map.Entry<CharSequence, CharSequence> header : headers) {
+            add(header.getKey(), header.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence value) {
+        validateName(name);
+        validateValue(value);
+        remove(name);
+        addEntry(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        validateName(name);
+        remove(name);
+        for (CharSequence value : values) {
+            addEntry(name, validateValue(value));
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence... values) {
+        validateName(name);
+        remove(name);
+        for (CharSequence value : values) {
+            addEntry(name, validateValue(value));
+        }
+        return this;
+    }
+
+    @Override
+    public boolean remove(final CharSequence name) {
+        return getAndRemove(name) != null;
+    }
+
+    @Override
+    public boolean remove(final CharSequence name, final CharSequence value) {
+        return removeIf(name, v -> contentEquals(value, v));
+    }
+
+    @Override
+    public boolean removeIgnoreCase(final CharSequence name, final CharSequence value) {
+        return removeIf(name, v -> contentEqualsIgnoreCase(value, v));
+    }
+
+    @Override
+    public HttpHeaders clear() {
+        fill(names, 0, count, null);
+        fill(values, 0, count, null);
+        fill(table, 0);
+        count = 0;
+        size = 0;
+        ++compactions;
+        return this;
+    }
+
+    @Override
+    public Iterator<Map.Entry<CharSequence, CharSequence>> iterator() {
+        return size == 0 ? emptyIterator() : new EntryIterator();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof HttpHeaders && HeaderUtils.equals(this, (HttpHeaders) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return HeaderUtils.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return toString(DEFAULT_HEADER_FILTER);
+    }
+
+    @Nullable
+    @Override
+    public HttpCookiePair getCookie(final CharSequence name) {
+        for (int e = first(COOKIE); e >= 0; e = nexts[e]) {
+            final HttpCookiePair cookiePair = parseCookiePair(values[e], name);
+            if (cookiePair != null) {
+                return cookiePair;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public HttpSetCookie getSetCookie(final CharSequence name) {
+        for (int e = first(SET_COOKIE); e >= 0; e = nexts[e]) {
+            final HttpSetCookie setCookie = HeaderUtils.parseSetCookie(values[e], name, validateCookies);
+            if (setCookie != null) {
+                return setCookie;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator() {
+        final int e = first(COOKIE);
+        return e < 0 ? emptyIterator() : new CookiesIterator(e);
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator(final CharSequence name) {
+        final int e = first(COOKIE);
+        return e < 0 ? emptyIterator() : new CookiesByNameIterator(e, name);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator() {
+        return newSetCookiesIterator(null, null, null);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name) {
+        return newSetCookiesIterator(name, null, null);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name, final CharSequence domain,
+                                                                   final CharSequence path) {
+        return newSetCookiesIterator(name, domain, path);
+    }
+
+    private Iterator<? extends HttpSetCookie> newSetCookiesIterator(@Nullable final CharSequence name,
+                                                                     @Nullable final CharSequence domain,
+                                                                     @Nullable final CharSequence path) {
+        final int e = first(SET_COOKIE);
+        if (e < 0) {
+            return emptyIterator();
+        }
+        final SetCookiesIterator iterator = new SetCookiesIterator(name, domain, path);
+        iterator.findNext(e);
+        return iterator.hasNext() ? iterator : emptyIterator();
+    }
+
+    @Override
+    public HttpHeaders addCookie(final HttpCookiePair cookie) {
+        // HTTP/1.x requires that all cookies/crumbs are combined into a single Cookie header.
+        // https://tools.ietf.org/html/rfc6265#section-5.4
+        final CharSequence encoded = cookie.encoded();
+        final int e = first(COOKIE);
+        if (e >= 0) {
+            values[e] = values[e] + "; " + encoded;
+        } else {
+            add(COOKIE, encoded);
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders addSetCookie(final HttpSetCookie cookie) {
+        add(SET_COOKIE, cookie.encoded());
+        return this;
+    }
+
+    @Override
+    public boolean removeCookies(final CharSequence name) {
+        final int slot = findSlot(COOKIE, hash(COOKIE));
+        if (slot < 0) {
+            return false;
+        }
+        boolean removed = false;
+        int prev = NONE;
+        for (int e = table[slot] - 1; e >= 0;) {
+            final int next = nexts[e];
+            final CharSequence newHeaderValue = HeaderUtils.removeCookiePairs(values[e], name);
+            if (newHeaderValue != null) {
+                removed = true;
+                if (newHeaderValue.length() == 0) {
+                    removeEntry(slot, prev, e);
+                } else {
+                    values[e] = newHeaderValue;
+                    prev = e;
+                }
+            } else {
+                prev = e;
+            }
+            e = next;
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name) {
+        return removeIf(SET_COOKIE, v -> isSetCookieNameMatches(v, name));
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name, final CharSequence domain, final CharSequence path) {
+        return removeIf(SET_COOKIE, v -> {
+            // In the future we could attempt to delay full parsing of the cookie until after the domain/path have
+            // been matched, but for simplicity just do the parsing ahead of time.
+            final HttpSetCookie setCookie = HeaderUtils.parseSetCookie(v, name, false);
+            return setCookie != null && domainMatches(domain, setCookie.domain()) &&
+                    pathMatches(path, setCookie.path());
+        });
+    }
+
+    private void checkCompactions(final int expectedCompactions) {
+        if (compactions != expectedCompactions) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private void checkRemoved(final int e, final int expectedCompactions) {
+        checkCompactions(expectedCompactions);
+        if (names[e] == null) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<CharSequence, CharSequence>> {
+        private final int expectedCompactions = compactions;
+        private int next;
+        private int lastReturned = NONE;
+
+        EntryIterator() {
+            next = skipRemoved(0);
+        }
+
+        private int skipRemoved(int i) {
+            while (i < count && names[i] == null) {
+                ++i;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public Map.Entry<CharSequence, CharSequence> next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            checkCompactions(expectedCompactions);
+            lastReturned = next;
+            next = skipRemoved(next + 1);
+            return new Entry(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkRemoved(lastReturned, expectedCompactions);
+            removeEntry(lastReturned);
+            lastReturned = NONE;
+        }
+    }
+
+    private final class Entry implements Map.Entry<CharSequence, CharSequence> {
+        private final int index;
+        private final CharSequence name;
+        private CharSequence value;
+
+        Entry(final int index) {
+            this.index = index;
+            this.name = names[index];
+            this.value = values[index];
+        }
+
+        @Override
+        public CharSequence getKey() {
+            return name;
+        }
+
+        @Override
+        public CharSequence getValue() {
+            return value;
+        }
+
+        @Override
+        public CharSequence setValue(final CharSequence value) {
+            final CharSequence oldValue = this.value;
+            this.value = validateValue(value);
+            if (names[index] == name) {
+                values[index] = value;
+            }
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return name.equals(other.getKey()) && value.equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + getValue();
+        }
+    }
+
+    private final class ValuesIterator implements Iterator<CharSequence> {
+        private final int expectedCompactions = compactions;
+        private int next;
+        @Nullable
+        private CharSequence nextValue;
+        private int lastReturned = NONE;
+
+        ValuesIterator(final int first) {
+            next = first;
+            nextValue = values[first];
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public CharSequence next() {
+            final CharSequence current = nextValue;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            checkCompactions(expectedCompactions);
+            lastReturned = next;
+            next = nexts[next];
+            nextValue = next < 0 ? null : values[next];
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkRemoved(lastReturned, expectedCompactions);
+            removeEntry(lastReturned);
+            lastReturned = NONE;
+        }
+    }
+
+    private final class SetCookiesIterator implements Iterator<HttpSetCookie> {
+        @Nullable
+        private final CharSequence name;
+        @Nullable
+        private final CharSequence domain;
+        @Nullable
+        private final CharSequence path;
+        private final int expectedCompactions = compactions;
+        @Nullable
+        private HttpSetCookie next;
+        private int nextEntry = NONE;
+        private int lastReturned = NONE;
+
+        SetCookiesIterator(@Nullable final CharSequence name, @Nullable final CharSequence domain,
+                           @Nullable final CharSequence path) {
+            this.name = name;
+            this.domain = domain;
+            this.path = path;
+        }
+
+        void findNext(int e) {
+            next = null;
+            nextEntry = NONE;
+            for (; e >= 0; e = nexts[e]) {
+                final HttpSetCookie setCookie = name == null ? parseSetCookie(values[e], validateCookies) :
+                        HeaderUtils.parseSetCookie(values[e], name, validateCookies);
+                if (setCookie != null && (domain == null || domainMatches(domain, setCookie.domain())) &&
+                        (path == null || pathMatches(path, setCookie.path()))) {
+                    next = setCookie;
+                    nextEntry = e;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public HttpSetCookie next() {
+            final HttpSetCookie current = next;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            checkCompactions(expectedCompactions);
+            lastReturned = nextEntry;
+            findNext(nexts[nextEntry]);
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkRemoved(lastReturned, expectedCompactions);
+            removeEntry(lastReturned);
+            lastReturned = NONE;
+        }
+    }
+
+    private final class CookiesIterator extends HeaderUtils.CookiesIterator {
+        private int current;
+
+        CookiesIterator(final int first) {
+            current = first;
+            initNext(values[first]);
+        }
+
+        @Nullable
+        @Override
+        protected CharSequence cookieHeaderValue() {
+            return current < 0 ? null : values[current];
+        }
+
+        @Override
+        protected void advanceCookieHeaderValue() {
+            current = nexts[current];
+        }
+    }
+
+    private final class CookiesByNameIterator extends HeaderUtils.CookiesByNameIterator {
+        private int current;
+
+        CookiesByNameIterator(final int first, final CharSequence name) {
+            super(name);
+            current = first;
+            initNext(values[first]);
+        }
+
+        @Nullable
+        @Override
+        protected CharSequence cookieHeaderValue() {
+            return current < 0 ? null : values[current];
+        }
+
+        @Override
+        protected void advanceCookieHeaderValue() {
+            current = nexts[current];
+        }
+    }
+}
@@ -17,6 +17,7 @@ package io.servicetalk.http.api;
 
 import io.servicetalk.buffer.api.CharSequences;
 import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.encoding.api.AdaptiveBufferEncoder;
 import io.servicetalk.encoding.api.BufferDecoder;
 import io.servicetalk.encoding.api.BufferDecoderGroup;
 import io.servicetalk.encoding.api.BufferEncoder;
@@ -28,13 +29,17 @@ import java.util.List;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.buffer.api.CharSequences.parseLong;
 import static io.servicetalk.buffer.api.CharSequences.regionMatches;
 import static io.servicetalk.concurrent.api.Single.succeeded;
 import static io.servicetalk.encoding.api.Identity.identityEncoder;
 import static io.servicetalk.encoding.api.internal.HeaderUtils.negotiateAcceptedEncodingRaw;
 import static io.servicetalk.http.api.HeaderUtils.addContentEncoding;
+import static io.servicetalk.http.api.HttpApiConversions.isSafeToAggregate;
 import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
 import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
 import static io.servicetalk.http.api.HttpRequestMethod.CONNECT;
 import static io.servicetalk.http.api.HttpRequestMethod.HEAD;
 import static io.servicetalk.http.api.HttpResponseStatus.NOT_MODIFIED;
@@ -51,6 +56,13 @@ import static java.util.Objects.requireNonNull;
  * <p>
  * Append this filter before others that are expected to to see compressed content for this request/response, and after
  * other filters that expect to see/manipulate the original payload.
+ * <p>
+ * If the negotiated compressor is an {@link AdaptiveBufferEncoder}, responses are only compressed if their
+ * {@link HttpHeaderNames#CONTENT_TYPE} and length satisfy its policy. The length is taken from
+ * {@link HttpHeaderNames#CONTENT_LENGTH} or, for responses which were aggregated before being returned, from the
+ * aggregated payload body. Streaming responses of unknown length are always compressed.
+ * <p>
+ * Responses which already have a {@link HttpHeaderNames#CONTENT_ENCODING} are not compressed again.
  */
 public final class ContentEncodingHttpServiceFilter implements StreamingHttpServiceFilterFactory {
     private final BufferDecoderGroup decompressors;
@@ -105,22 +117,41 @@ public final class ContentEncodingHttpServiceFilter implements StreamingHttpServ
                         requestDecompressed = request;
                     }
 
-                    return super.handle(ctx, requestDecompressed, responseFactory).map(response -> {
+                    return super.handle(ctx, requestDecompressed, responseFactory).flatMap(response -> {
                         final CharSequence reqAcceptEncoding;
                         if (isPassThrough(request.method(), response) ||
+                                // Already encoded, e.g. by a PrecompressedResponseCacheHttpServiceFilter.
+                                response.headers().contains(CONTENT_ENCODING) ||
                                 (reqAcceptEncoding = request.headers().get(ACCEPT_ENCODING)) == null) {
-                            return response;
+                            return succeeded(response);
                         }
 
                         BufferEncoder encoder = negotiateAcceptedEncodingRaw(reqAcceptEncoding, compressors,
                                 BufferEncoder::encodingName);
                         if (encoder == null || identityEncoder().equals(encoder)) {
-                            return response;
+                            return succeeded(response);
+                        }
+                        if (!(encoder instanceof AdaptiveBufferEncoder)) {
+                            return succeeded(encode(response, encoder, ctx));
                         }
 
-                        addContentEncoding(response.headers(), encoder.encodingName());
-                        return response.transformPayloadBody(bufPub ->
-                                encoder.streamingEncoder().serialize(bufPub, ctx.executionContext().bufferAllocator()));
+                        final AdaptiveBufferEncoder adaptiveEncoder = (AdaptiveBufferEncoder) encoder;
+                        if (!adaptiveEncoder.shouldEncodeContentType(response.headers().get(CONTENT_TYPE))) {
+                            return succeeded(response);
+                        }
+                        final long contentLength = contentLength(response.headers());
+                        if (contentLength < 0 && adaptiveEncoder.minContentLength() > 0 &&
+                                isSafeToAggregate(response)) {
+                            // The payload body is already in memory, aggregate it to learn its length.
+                            return response.toResponse().map(aggregated -> {
+                                final StreamingHttpResponse streaming = aggregated.toStreamingResponse();
+                                return adaptiveEncoder.shouldEncodeContentLength(
+                                        aggregated.payloadBody().readableBytes()) ?
+                                        encode(streaming, adaptiveEncoder.select(), ctx) : streaming;
+                            });
+                        }
+                        return succeeded(adaptiveEncoder.shouldEncodeContentLength(contentLength) ?
+                                encode(response, adaptiveEncoder.select(), ctx) : response);
                     }).subscribeShareContext();
                 });
             }
@@ -133,6 +164,27 @@ public final class ContentEncodingHttpServiceFilter implements StreamingHttpServ
         return HttpExecutionStrategies.anyStrategy();
     }
 
+    private static StreamingHttpResponse encode(final StreamingHttpResponse response, final BufferEncoder encoder,
+                                                final HttpServiceContext ctx) {
+        addContentEncoding(response.headers(), encoder.encodingName());
+        // The length of the encoded payload body is not known upfront.
+        response.headers().remove(CONTENT_LENGTH);
+        return response.transformPayloadBody(bufPub ->
+                encoder.streamingEncoder().serialize(bufPub, ctx.executionContext().bufferAllocator()));
+    }
+
+    private static long contentLength(final HttpHeaders headers) {
+        final CharSequence contentLength = headers.get(CONTENT_LENGTH);
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return parseLong(contentLength);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private static boolean isPassThrough(final HttpRequestMethod method, final StreamingHttpResponse response) {
         // see. https://tools.ietf.org/html/rfc7230#section-3.3.3
         // The length of a message body is determined by one of the following
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018, 2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ public final class DefaultHttpHeadersFactory implements HttpHeadersFactory {
     private final boolean validateValues;
     private final int headersArraySizeHint;
     private final int trailersArraySizeHint;
+    private final boolean lazyParsing;
 
     /**
      * Create an instance of the factory with the default array size hint.
@@ -79,11 +80,30 @@ public final class DefaultHttpHeadersFactory implements HttpHeadersFactory {
     public DefaultHttpHeadersFactory(final boolean validateNames, final boolean validateCookies,
                                      final boolean validateValues,
                                      final int headersArraySizeHint, final int trailersArraySizeHint) {
+        this(validateNames, validateCookies, validateValues, headersArraySizeHint, trailersArraySizeHint, false);
+    }
+
+    /**
+     * Create an instance of the factory.
+     *
+     * @param validateNames {@code true} to validate header/trailer names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header/trailer values.
+     * @param headersArraySizeHint A hint as to how large the hash data structure should be for the headers.
+     * @param trailersArraySizeHint A hint as to how large the hash data structure should be for the trailers.
+     * @param lazyParsing {@code true} to allow protocol decoders to defer parsing of received headers until they are
+     * accessed. See {@link HttpHeadersFactory#lazyParsing()}.
+     */
+    public DefaultHttpHeadersFactory(final boolean validateNames, final boolean validateCookies,
+                                     final boolean validateValues,
+                                     final int headersArraySizeHint, final int trailersArraySizeHint,
+                                     final boolean lazyParsing) {
         this.validateNames = validateNames;
         this.validateCookies = validateCookies;
         this.validateValues = validateValues;
         this.headersArraySizeHint = headersArraySizeHint;
         this.trailersArraySizeHint = trailersArraySizeHint;
+        this.lazyParsing = lazyParsing;
     }
 
     @Override
@@ -110,4 +130,9 @@ public final class DefaultHttpHeadersFactory implements HttpHeadersFactory {
     public boolean validateValues() {
         return validateValues;
     }
+
+    @Override
+    public boolean lazyParsing() {
+        return lazyParsing;
+    }
 }
@@ -27,6 +27,10 @@ public final class HttpHeaderValues {
      * {@code "application/json"}
      */
     public static final CharSequence APPLICATION_JSON = newAsciiString("application/json");
+    /**
+     * {@code "application/x-ndjson"}
+     */
+    public static final CharSequence APPLICATION_X_NDJSON = newAsciiString("application/x-ndjson");
     /**
      * {@code "application/x-www-form-urlencoded"}
      */
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018, 2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,4 +60,18 @@ public interface HttpHeadersFactory {
      * @return {@code true} if header values should be validated during parsing into {@link HttpHeaders}s.
      */
     boolean validateValues();
+
+    /**
+     * Determine if protocol decoders may defer parsing of received headers until they are accessed.
+     * <p>
+     * If {@code true}, an HTTP/1.x decoder validates the received header block and keeps it in its original form.
+     * Individual headers are only materialized into an {@link HttpHeaders} instance created by {@link #newHeaders()}
+     * when the headers are iterated or modified. Headers which are forwarded unmodified are written out verbatim,
+     * which saves both parsing and encoding for pass-through traffic (e.g. proxies).
+     *
+     * @return {@code true} if protocol decoders may defer parsing of received headers until they are accessed.
+     */
+    default boolean lazyParsing() {
+        return false;
+    }
 }
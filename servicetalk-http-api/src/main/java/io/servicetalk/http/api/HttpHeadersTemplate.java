@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import java.util.Map;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.ReadOnlyBufferAllocators.PREFER_DIRECT_RO_ALLOCATOR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable set of {@link HttpHeaders} which is encoded once, when the template is created.
+ * <p>
+ * {@link HttpHeaders} created via {@link #newHeaders(HttpHeadersFactory)} contain all headers of the template and
+ * can be modified like any other {@link HttpHeaders}. As long as the headers of the template are not modified, the
+ * HTTP/1.x encoder writes the pre-encoded template with a single bulk copy and only encodes headers that were added
+ * on top of it (e.g. {@link HttpHeaderNames#DATE} or {@link HttpHeaderNames#CONTENT_LENGTH}). Templates created via
+ * {@link #newResponseTemplate(HttpProtocolVersion, HttpResponseStatus, HttpHeaders)} additionally include the
+ * status-line, which is used for responses with the same {@link HttpProtocolVersion} and {@link HttpResponseStatus}.
+ * <p>
+ * Templates are intended to be created once and shared for all requests or responses which use the same set of fixed
+ * headers.
+ */
+public final class HttpHeadersTemplate {
+    private static final String CRLF = "\r\n";
+
+    private final HttpHeaders headers;
+    @Nullable
+    private final HttpProtocolVersion version;
+    @Nullable
+    private final HttpResponseStatus status;
+    /**
+     * The encoded status-line (if any) followed by the encoded header lines, without the trailing empty line.
+     */
+    private final Buffer encoded;
+    private final int headersOffset;
+
+    private HttpHeadersTemplate(final HttpHeaders headers, @Nullable final HttpProtocolVersion version,
+                                @Nullable final HttpResponseStatus status) {
+        final CharSequence[] keyValuePairs = new CharSequence[headers.size() << 1];
+        final StringBuilder sb = new StringBuilder(headers.size() * 32);
+        if (version != null && status != null) {
+            sb.append(version).append(' ').append(status.code()).append(' ').append(status.reasonPhrase())
+                    .append(CRLF);
+        }
+        headersOffset = sb.length();
+        int i = 0;
+        for (Map.Entry<CharSequence, CharSequence> header : headers) {
+            // Copy the names and values to make sure the template is not affected by changes of the original headers.
+            final String name = header.getKey().toString();
+            final String value = header.getValue().toString();
+            keyValuePairs[i++] = name;
+            keyValuePairs[i++] = value;
+            sb.append(name).append(": ").append(value).append(CRLF);
+        }
+        this.headers = new ReadOnlyHttpHeaders(keyValuePairs);
+        this.version = version;
+        this.status = status;
+        encoded = PREFER_DIRECT_RO_ALLOCATOR.fromAscii(sb);
+    }
+
+    /**
+     * Create a new {@link HttpHeadersTemplate} which contains a copy of {@code headers}.
+     *
+     * @param headers the {@link HttpHeaders} to include in the template.
+     * @return a new {@link HttpHeadersTemplate}.
+     */
+    public static HttpHeadersTemplate newHeadersTemplate(final HttpHeaders headers) {
+        return new HttpHeadersTemplate(headers, null, null);
+    }
+
+    /**
+     * Create a new {@link HttpHeadersTemplate} for responses which contains a copy of {@code headers} and the
+     * status-line for {@code version} and {@code status}.
+     *
+     * @param version the {@link HttpProtocolVersion} of the status-line.
+     * @param status the {@link HttpResponseStatus} of the status-line.
+     * @param headers the {@link HttpHeaders} to include in the template.
+     * @return a new {@link HttpHeadersTemplate}.
+     */
+    public static HttpHeadersTemplate newResponseTemplate(final HttpProtocolVersion version,
+                                                          final HttpResponseStatus status,
+                                                          final HttpHeaders headers) {
+        return new HttpHeadersTemplate(headers, requireNonNull(version), requireNonNull(status));
+    }
+
+    /**
+     * Create new {@link HttpHeaders} which contain all headers of this template.
+     *
+     * @param headersFactory the {@link HttpHeadersFactory} used for headers added on top of this template, and for
+     * all headers once a header of this template is modified.
+     * @return new {@link HttpHeaders} which contain all headers of this template.
+     */
+    public HttpHeaders newHeaders(final HttpHeadersFactory headersFactory) {
+        return new TemplateHttpHeaders(this, headersFactory);
+    }
+
+    /**
+     * Get the headers of this template.
+     *
+     * @return the read-only headers of this template.
+     */
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    /**
+     * Get the encoded header lines of this template, each terminated by {@code CRLF}.
+     *
+     * @return the encoded header lines of this template. The returned {@link Buffer} is read-only and its indexes
+     * are independent of this template.
+     */
+    public Buffer encodedHeaders() {
+        return encoded.slice(encoded.readerIndex() + headersOffset, encoded.readableBytes() - headersOffset);
+    }
+
+    /**
+     * Get the encoded status-line followed by the encoded header lines of this template, if this template was
+     * created for {@code version} and {@code status}.
+     *
+     * @param version the {@link HttpProtocolVersion} of the response to encode.
+     * @param status the {@link HttpResponseStatus} of the response to encode.
+     * @return the encoded status-line and header lines of this template, or {@code null} if this template does not
+     * include a status-line for {@code version} and {@code status}. The returned {@link Buffer} is read-only and its
+     * indexes are independent of this template.
+     */
+    @Nullable
+    public Buffer encodedResponseHead(final HttpProtocolVersion version, final HttpResponseStatus status) {
+        if (this.status == null || !this.status.equals(status) ||
+                !this.status.reasonPhrase().equals(status.reasonPhrase()) || !version.equals(this.version)) {
+            return null;
+        }
+        return encoded.duplicate();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{version=" + version + ", status=" + status + ", headers=" + headers +
+                '}';
+    }
+}
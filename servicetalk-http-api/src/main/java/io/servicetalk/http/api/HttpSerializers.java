@@ -34,6 +34,7 @@ import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
 import static io.servicetalk.http.api.HeaderUtils.hasContentType;
 import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
 import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_X_NDJSON;
 import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED;
 import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED_UTF_8;
 import static io.servicetalk.http.api.HttpHeaderValues.TEXT_PLAIN;
@@ -327,6 +328,10 @@ public final class HttpSerializers {
 
     /**
      * Creates an {@link HttpStreamingSerializerDeserializer} that targets {@link HttpHeaderValues#APPLICATION_JSON}.
+     * <p>
+     * The framing of the JSON values is defined by {@code serializer}. Use
+     * {@link #jsonArrayStreamingSerializer(StreamingSerializerDeserializer)} to stream the elements of a top-level
+     * JSON array.
      *
      * @param serializer Used to serialize each {@link T}.
      * @param <T> Type of object to serialize.
@@ -339,6 +344,38 @@ public final class HttpSerializers {
                 headers -> hasContentType(headers, APPLICATION_JSON, null));
     }
 
+    /**
+     * Creates an {@link HttpStreamingSerializerDeserializer} that targets {@link HttpHeaderValues#APPLICATION_JSON}
+     * content which is a single top-level JSON array ({@code [{...},{...}]}), streamed one element at a time.
+     * <p>
+     * Arrays of any size are serialized and deserialized without being aggregated, e.g. with a
+     * {@code serializer} created by {@code JacksonSerializerFactory#arrayStreamingSerializerDeserializer}.
+     *
+     * @param serializer Used to serialize each {@link T} as an element of a top-level JSON array.
+     * @param <T> Type of object to serialize.
+     * @return {@link HttpStreamingSerializerDeserializer} that targets {@link HttpHeaderValues#APPLICATION_JSON}.
+     */
+    public static <T> HttpStreamingSerializerDeserializer<T> jsonArrayStreamingSerializer(
+            StreamingSerializerDeserializer<T> serializer) {
+        return jsonStreamingSerializer(serializer);
+    }
+
+    /**
+     * Creates an {@link HttpStreamingSerializerDeserializer} that targets
+     * {@link HttpHeaderValues#APPLICATION_X_NDJSON newline delimited JSON}.
+     *
+     * @param serializer Used to serialize each {@link T}, delimiting them with newlines.
+     * @param <T> Type of object to serialize.
+     * @return {@link HttpStreamingSerializerDeserializer} that targets
+     * {@link HttpHeaderValues#APPLICATION_X_NDJSON}.
+     */
+    public static <T> HttpStreamingSerializerDeserializer<T> ndJsonStreamingSerializer(
+            StreamingSerializerDeserializer<T> serializer) {
+        return new DefaultHttpStreamingSerializerDeserializer<>(serializer,
+                headers -> headers.set(CONTENT_TYPE, APPLICATION_X_NDJSON),
+                headers -> hasContentType(headers, APPLICATION_X_NDJSON, null));
+    }
+
     /**
      * Creates an {@link HttpSerializerDeserializer} that uses {@link SerializerDeserializer} for serialization.
      *
@@ -149,6 +149,22 @@ public interface HttpServerBuilder {
      */
     HttpServerBuilder allowDropRequestTrailers(boolean allowDrop);
 
+    /**
+     * Configure automatic addition of the <a href="https://tools.ietf.org/html/rfc7231#section-7.1.1.2">Date</a>
+     * header to responses which do not already contain it.
+     * <p>
+     * The value of the header is formatted once per second by a timer which is shared by all servers that enable this
+     * option, so adding it to a response does not require formatting the current time.
+     *
+     * @param enable {@code true} to add the {@link HttpHeaderNames#DATE date} header to responses which do not
+     * contain it.
+     * @return {@code this}.
+     */
+    default HttpServerBuilder addDateHeader(boolean enable) {
+        throw new UnsupportedOperationException("Adding the date header is not yet supported by " +
+                getClass().getName());
+    }
+
     /**
      * Appends the filter to the chain of filters used to decorate the {@link ConnectionAcceptor} used by this builder.
      * <p>
@@ -0,0 +1,414 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.encoding.api.AdaptiveBufferEncoder;
+import io.servicetalk.encoding.api.BufferEncoder;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.contentEquals;
+import static io.servicetalk.buffer.api.CharSequences.indexOf;
+import static io.servicetalk.buffer.api.CharSequences.parseLong;
+import static io.servicetalk.buffer.api.CharSequences.regionMatches;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.encoding.api.Identity.identityEncoder;
+import static io.servicetalk.encoding.api.internal.HeaderUtils.negotiateAcceptedEncodingRaw;
+import static io.servicetalk.http.api.HeaderUtils.addContentEncoding;
+import static io.servicetalk.http.api.HeaderUtils.containsCommaSeparatedValueIgnoreCase;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.api.HttpResponseStatus.NOT_MODIFIED;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link StreamingHttpService} filter which caches the encoded variants of responses that are served repeatedly,
+ * like configuration blobs or schema documents, so that they are not compressed again for every request.
+ * <p>
+ * A {@link HttpRequestMethod#GET GET} response is cached if it has a {@link HttpResponseStatus#OK 200} status, an
+ * {@link HttpHeaderNames#ETAG ETag} and no {@link HttpHeaderNames#CONTENT_ENCODING Content-Encoding}. Entries are
+ * keyed by the {@link HttpRequestMetaData#requestTarget() request target} and are replaced when the service returns
+ * a different {@link HttpHeaderNames#ETAG ETag}. The service is still invoked for every request and remains the
+ * source of truth for the {@link HttpHeaderNames#ETAG ETag} and the response meta-data, only its payload body is
+ * replaced with the cached variant which matches {@link HttpHeaderNames#ACCEPT_ENCODING Accept-Encoding}. Services
+ * should therefore produce the payload body lazily or cheaply, e.g. from an in-memory {@link Buffer}.
+ * <p>
+ * Requests with an {@link HttpHeaderNames#IF_NONE_MATCH If-None-Match} header that matches the current
+ * {@link HttpHeaderNames#ETAG ETag} are answered with {@link HttpResponseStatus#NOT_MODIFIED 304}. Responses which
+ * are served from the cache or answered with {@link HttpResponseStatus#NOT_MODIFIED 304} carry
+ * {@link HttpHeaderNames#VARY Vary}: {@link HttpHeaderNames#ACCEPT_ENCODING Accept-Encoding}, so shared caches keep
+ * the encoded variants apart.
+ * <p>
+ * Memory is bounded by the total size of all cached variants, least recently used entries are evicted first.
+ * Responses whose {@link HttpHeaderNames#CONTENT_LENGTH Content-Length} exceeds the maximum size are passed through
+ * without being aggregated, responses without a {@link HttpHeaderNames#CONTENT_LENGTH Content-Length} are aggregated
+ * to learn their size. Append
+ * this filter after a {@link ContentEncodingHttpServiceFilter}, which passes through responses that are already
+ * encoded.
+ */
+public final class PrecompressedResponseCacheHttpServiceFilter implements StreamingHttpServiceFilterFactory {
+    private final List<BufferEncoder> compressors;
+    private final Predicate<StreamingHttpRequest> cacheable;
+    private final long maxSizeBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+    private long hits;
+    private long misses;
+    private long notModified;
+    private long evictions;
+
+    /**
+     * Create a new instance which caches responses to all {@link HttpRequestMethod#GET GET} requests.
+     *
+     * @param compressors used to encode cached responses if the client accepts them (matched against
+     * {@link HttpHeaderNames#ACCEPT_ENCODING}). The order of entries may impact the selection preference.
+     * @param maxSizeBytes the maximum total size in bytes of all cached variants.
+     */
+    public PrecompressedResponseCacheHttpServiceFilter(final List<BufferEncoder> compressors,
+                                                       final long maxSizeBytes) {
+        this(compressors, maxSizeBytes, request -> true);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param compressors used to encode cached responses if the client accepts them (matched against
+     * {@link HttpHeaderNames#ACCEPT_ENCODING}). The order of entries may impact the selection preference.
+     * @param maxSizeBytes the maximum total size in bytes of all cached variants.
+     * @param cacheable selects the {@link HttpRequestMethod#GET GET} requests whose responses are cached. Responses
+     * which depend on anything but the {@link HttpRequestMetaData#requestTarget() request target} (e.g. the
+     * authenticated user) must not be selected.
+     */
+    public PrecompressedResponseCacheHttpServiceFilter(final List<BufferEncoder> compressors,
+                                                       final long maxSizeBytes,
+                                                       final Predicate<StreamingHttpRequest> cacheable) {
+        if (maxSizeBytes <= 0) {
+            throw new IllegalArgumentException("maxSizeBytes: " + maxSizeBytes + " (expected > 0)");
+        }
+        this.compressors = requireNonNull(compressors);
+        this.maxSizeBytes = maxSizeBytes;
+        this.cacheable = requireNonNull(cacheable);
+    }
+
+    @Override
+    public StreamingHttpServiceFilter create(final StreamingHttpService service) {
+        return new StreamingHttpServiceFilter(service) {
+            @Override
+            public Single<StreamingHttpResponse> handle(final HttpServiceContext ctx,
+                                                        final StreamingHttpRequest request,
+                                                        final StreamingHttpResponseFactory responseFactory) {
+                if (!GET.equals(request.method()) || !cacheable.test(request)) {
+                    return delegate().handle(ctx, request, responseFactory);
+                }
+                final String key = request.requestTarget();
+                final CharSequence ifNoneMatch = request.headers().get(IF_NONE_MATCH);
+                final CharSequence acceptEncoding = request.headers().get(ACCEPT_ENCODING);
+                return delegate().handle(ctx, request, responseFactory).flatMap(response -> {
+                    final CharSequence etag = response.headers().get(ETAG);
+                    if (etag == null || response.status().code() != OK.code() ||
+                            response.headers().contains(CONTENT_ENCODING)) {
+                        return succeeded(response);
+                    }
+                    if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+                        recordNotModified();
+                        response.status(NOT_MODIFIED);
+                        removeRepresentationHeaders(response.headers());
+                        addVaryAcceptEncoding(response.headers());
+                        return succeeded(response.transformMessageBody(pub -> pub.ignoreElements().toPublisher()));
+                    }
+
+                    final BufferEncoder encoder = negotiate(acceptEncoding, response.headers().get(CONTENT_TYPE));
+                    final BufferAllocator allocator = ctx.executionContext().bufferAllocator();
+                    final Entry entry = lookup(key, etag);
+                    if (entry != null) {
+                        return succeeded(serve(response, encoder, variant(key, entry, encoder, allocator)));
+                    }
+                    if (tooLargeToCache(response.headers())) {
+                        return succeeded(response);
+                    }
+                    return response.toResponse().map(aggregated -> {
+                        final Buffer payload = aggregated.payloadBody();
+                        final StreamingHttpResponse streaming = aggregated.toStreamingResponse();
+                        if (payload.readableBytes() > maxSizeBytes) {
+                            return streaming;
+                        }
+                        // Copy, the service may reuse its buffer and aggregated buffers may be composite.
+                        final Entry newEntry = store(key, new Entry(etag.toString(),
+                                allocator.newBuffer(payload.readableBytes()).writeBytes(payload.duplicate())));
+                        return serve(streaming, encoder, variant(key, newEntry, encoder, allocator));
+                    });
+                }).subscribeShareContext();
+            }
+        };
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        // No influence since we do not block.
+        return HttpExecutionStrategies.anyStrategy();
+    }
+
+    /**
+     * Get the number of requests which were served from the cache.
+     *
+     * @return the number of requests which were served from the cache.
+     */
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    /**
+     * Get the number of cacheable requests which were not served from the cache, because their response was not
+     * cached yet or its {@link HttpHeaderNames#ETAG ETag} changed.
+     *
+     * @return the number of cacheable requests which were not served from the cache.
+     */
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /**
+     * Get the number of requests which were answered with {@link HttpResponseStatus#NOT_MODIFIED 304}.
+     *
+     * @return the number of requests which were answered with {@link HttpResponseStatus#NOT_MODIFIED 304}.
+     */
+    public synchronized long notModifiedCount() {
+        return notModified;
+    }
+
+    /**
+     * Get the number of entries which were evicted to stay within the maximum size.
+     *
+     * @return the number of entries which were evicted to stay within the maximum size.
+     */
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Get the total size in bytes of all cached variants.
+     *
+     * @return the total size in bytes of all cached variants.
+     */
+    public synchronized long sizeBytes() {
+        return sizeBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getClass().getSimpleName() + "{entries=" + entries.size() +
+                ", sizeBytes=" + sizeBytes +
+                ", maxSizeBytes=" + maxSizeBytes +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", notModified=" + notModified +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    private BufferEncoder negotiate(@Nullable final CharSequence acceptEncoding,
+                                    @Nullable final CharSequence contentType) {
+        final BufferEncoder encoder = negotiateAcceptedEncodingRaw(acceptEncoding, compressors,
+                BufferEncoder::encodingName);
+        if (encoder == null) {
+            return identityEncoder();
+        }
+        if (encoder instanceof AdaptiveBufferEncoder) {
+            // The cost of encoding is paid once per variant, so only the content type policy applies.
+            final AdaptiveBufferEncoder adaptiveEncoder = (AdaptiveBufferEncoder) encoder;
+            return adaptiveEncoder.shouldEncodeContentType(contentType) ? adaptiveEncoder.select() : identityEncoder();
+        }
+        return encoder;
+    }
+
+    @Nullable
+    private synchronized Entry lookup(final String key, final CharSequence etag) {
+        final Entry entry = entries.get(key);
+        if (entry != null && contentEquals(entry.etag, etag)) {
+            ++hits;
+            return entry;
+        }
+        ++misses;
+        return null;
+    }
+
+    private synchronized Entry store(final String key, final Entry entry) {
+        final Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            sizeBytes -= previous.sizeBytes;
+        }
+        sizeBytes += entry.sizeBytes;
+        evict();
+        return entry;
+    }
+
+    private synchronized void recordNotModified() {
+        ++notModified;
+    }
+
+    private Buffer variant(final String key, final Entry entry, final BufferEncoder encoder,
+                           final BufferAllocator allocator) {
+        if (identityEncoder().equals(encoder)) {
+            return entry.identity.duplicate();
+        }
+        final String name = encoder.encodingName().toString();
+        final Buffer cached;
+        synchronized (this) {
+            cached = entry.variants.get(name);
+        }
+        if (cached != null) {
+            return cached.duplicate();
+        }
+        // Encode outside of the lock, concurrent requests may encode the same variant but only one is kept.
+        final Buffer encoded = encoder.encoder().serialize(entry.identity.duplicate(), allocator);
+        synchronized (this) {
+            // Only account for the variant if the entry was not replaced or evicted in the meantime.
+            if (entries.get(key) == entry && entry.sizeBytes + encoded.readableBytes() <= maxSizeBytes) {
+                final Buffer previous = entry.variants.putIfAbsent(name, encoded);
+                if (previous != null) {
+                    return previous.duplicate();
+                }
+                entry.sizeBytes += encoded.readableBytes();
+                sizeBytes += encoded.readableBytes();
+                evict();
+            }
+        }
+        return encoded.duplicate();
+    }
+
+    private void evict() {
+        assert Thread.holdsLock(this);
+        // The most recently used entry is last, it is never evicted as it fits within maxSizeBytes on its own.
+        final Iterator<Entry> itr = entries.values().iterator();
+        while (sizeBytes > maxSizeBytes && entries.size() > 1) {
+            sizeBytes -= itr.next().sizeBytes;
+            itr.remove();
+            ++evictions;
+        }
+    }
+
+    private boolean tooLargeToCache(final HttpHeaders headers) {
+        final CharSequence contentLength = headers.get(CONTENT_LENGTH);
+        if (contentLength == null) {
+            return false;
+        }
+        try {
+            return parseLong(contentLength) > maxSizeBytes;
+        } catch (NumberFormatException e) {
+            // Leave malformed values to the protocol layer, the size of the body is unknown anyway.
+            return true;
+        }
+    }
+
+    private StreamingHttpResponse serve(final StreamingHttpResponse response, final BufferEncoder encoder,
+                                        final Buffer variant) {
+        final HttpHeaders headers = response.headers();
+        if (!identityEncoder().equals(encoder)) {
+            addContentEncoding(headers, encoder.encodingName());
+        }
+        addVaryAcceptEncoding(headers);
+        headers.remove(TRANSFER_ENCODING);
+        headers.set(CONTENT_LENGTH, Integer.toString(variant.readableBytes()));
+        // The service's payload body is drained, so it completes as usual, and replaced with the cached variant.
+        return response.transformPayloadBody(pub -> pub.ignoreElements().concat(from(variant)));
+    }
+
+    private void addVaryAcceptEncoding(final HttpHeaders headers) {
+        // Without compressors every client gets the identity variant.
+        if (!compressors.isEmpty() && !containsCommaSeparatedValueIgnoreCase(headers, VARY, ACCEPT_ENCODING)) {
+            headers.add(VARY, ACCEPT_ENCODING);
+        }
+    }
+
+    private static void removeRepresentationHeaders(final HttpHeaders headers) {
+        // https://datatracker.ietf.org/doc/html/rfc7232#section-4.1
+        headers.remove(CONTENT_LENGTH);
+        headers.remove(CONTENT_TYPE);
+        headers.remove(TRANSFER_ENCODING);
+    }
+
+    /**
+     * Weak comparison of the {@link HttpHeaderNames#ETAG ETag} with the entity tags of an
+     * {@link HttpHeaderNames#IF_NONE_MATCH If-None-Match} header, see
+     * <a href="https://datatracker.ietf.org/doc/html/rfc7232#section-3.2">RFC 7232</a>.
+     */
+    static boolean matches(final CharSequence ifNoneMatch, final CharSequence etag) {
+        final int etagStart = isWeak(etag, 0) ? 2 : 0;
+        final int etagLength = etag.length() - etagStart;
+        int i = 0;
+        while (i < ifNoneMatch.length()) {
+            int j = indexOf(ifNoneMatch, ',', i);
+            if (j < 0) {
+                j = ifNoneMatch.length();
+            }
+            int start = i;
+            int end = j;
+            while (start < end && ifNoneMatch.charAt(start) == ' ') {
+                ++start;
+            }
+            while (end > start && ifNoneMatch.charAt(end - 1) == ' ') {
+                --end;
+            }
+            if (end - start == 1 && ifNoneMatch.charAt(start) == '*') {
+                return true;
+            }
+            if (isWeak(ifNoneMatch, start)) {
+                start += 2;
+            }
+            if (end - start == etagLength && regionMatches(ifNoneMatch, false, start, etag, etagStart, etagLength)) {
+                return true;
+            }
+            i = j + 1;
+        }
+        return false;
+    }
+
+    private static boolean isWeak(final CharSequence entityTag, final int index) {
+        return entityTag.length() > index + 1 && entityTag.charAt(index) == 'W' && entityTag.charAt(index + 1) == '/';
+    }
+
+    private static final class Entry {
+        final String etag;
+        final Buffer identity;
+        // Guarded by the filter's lock.
+        final Map<String, Buffer> variants = new HashMap<>(4);
+        long sizeBytes;
+
+        Entry(final String etag, final Buffer identity) {
+            this.etag = etag;
+            this.identity = identity;
+            sizeBytes = identity.readableBytes();
+        }
+    }
+}
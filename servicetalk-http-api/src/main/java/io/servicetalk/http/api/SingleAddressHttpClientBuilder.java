@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,6 +82,23 @@ public interface SingleAddressHttpClientBuilder<U, R> extends HttpClientBuilder<
     SingleAddressHttpClientBuilder<U, R> enableWireLogging(String loggerName,
                                                            LogLevel logLevel, BooleanSupplier logUserData);
 
+    /**
+     * Configures whether new connections should be created on the calling IO thread when they are requested from one
+     * of the IO threads of this client's {@link io.servicetalk.transport.api.IoExecutor}, instead of being spread over
+     * all IO threads. This keeps request and response processing on the same thread when requests are issued from an IO
+     * thread (e.g. a server proxying requests without offloading).
+     * <p>
+     * To also prefer existing connections bound to the calling IO thread, use a {@link HttpLoadBalancerFactory} which
+     * supports it, for example {@code RoundRobinLoadBalancerFactory.Builder#ioThreadAffinity(Predicate)}.
+     *
+     * @param ioThreadAffinity {@code true} to create new connections on the calling IO thread.
+     * @return {@code this}.
+     */
+    default SingleAddressHttpClientBuilder<U, R> ioThreadAffinity(boolean ioThreadAffinity) {
+        throw new UnsupportedOperationException("Setting IO thread affinity is not yet supported by "
+                + getClass().getName());
+    }
+
     /**
      * Configurations of various HTTP protocol versions.
      * <p>
@@ -0,0 +1,358 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.http.api.HeaderUtils.DEFAULT_HEADER_FILTER;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.SET_COOKIE;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * {@link HttpHeaders} which consist of the headers of a {@link HttpHeadersTemplate} and headers added on top of them.
+ * <p>
+ * Lookups and modifications of names which are not part of the template only touch the {@link #addedHeaders() added
+ * headers}. Any other modification, and iteration over all headers, copies the headers of the template into headers
+ * created by the {@link HttpHeadersFactory}, after which the template is no longer used.
+ */
+public final class TemplateHttpHeaders implements HttpHeaders {
+    private final HttpHeadersFactory headersFactory;
+    @Nullable
+    private HttpHeadersTemplate template;
+    /**
+     * Headers added on top of the template, no name of the template is present. Once the template is no longer used
+     * contains all headers.
+     */
+    private HttpHeaders added;
+
+    TemplateHttpHeaders(final HttpHeadersTemplate template, final HttpHeadersFactory headersFactory) {
+        this.template = template;
+        this.headersFactory = headersFactory;
+        added = headersFactory.newHeaders();
+    }
+
+    /**
+     * Get the {@link HttpHeadersTemplate} these headers were created from, if none of its headers were modified.
+     *
+     * @return the {@link HttpHeadersTemplate} these headers were created from, or {@code null} if the headers of the
+     * template were modified.
+     */
+    @Nullable
+    public HttpHeadersTemplate template() {
+        return template;
+    }
+
+    /**
+     * Get the headers added on top of the {@link #template()}. If {@link #template()} is {@code null} all headers are
+     * returned.
+     *
+     * @return the headers added on top of the {@link #template()}.
+     */
+    public HttpHeaders addedHeaders() {
+        return added;
+    }
+
+    private boolean inTemplate(final CharSequence name) {
+        final HttpHeadersTemplate template = this.template;
+        return template != null && template.headers().contains(name);
+    }
+
+    private HttpHeaders materialize() {
+        final HttpHeadersTemplate template = this.template;
+        if (template != null) {
+            final HttpHeaders materialized = headersFactory.newHeaders();
+            materialized.add(template.headers());
+            materialized.add(added);
+            added = materialized;
+            this.template = null;
+        }
+        return added;
+    }
+
+    /**
+     * Get the headers which contain {@code name} and which are safe to modify for {@code name}.
+     */
+    private HttpHeaders headersFor(final CharSequence name) {
+        return inTemplate(name) ? materialize() : added;
+    }
+
+    @Nullable
+    @Override
+    public CharSequence get(final CharSequence name) {
+        final HttpHeadersTemplate template = this.template;
+        if (template != null) {
+            final CharSequence value = template.headers().get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return added.get(name);
+    }
+
+    @Nullable
+    @Override
+    public CharSequence getAndRemove(final CharSequence name) {
+        return headersFor(name).getAndRemove(name);
+    }
+
+    @Override
+    public Iterator<? extends CharSequence> valuesIterator(final CharSequence name) {
+        return inTemplate(name) ? new TemplateValuesIterator(name) : added.valuesIterator(name);
+    }
+
+    @Override
+    public boolean contains(final CharSequence name, final CharSequence value) {
+        final HttpHeadersTemplate template = this.template;
+        return (template != null && template.headers().contains(name, value)) || added.contains(name, value);
+    }
+
+    @Override
+    public boolean containsIgnoreCase(final CharSequence name, final CharSequence value) {
+        final HttpHeadersTemplate template = this.template;
+        return (template != null && template.headers().containsIgnoreCase(name, value)) ||
+                added.containsIgnoreCase(name, value);
+    }
+
+    @Override
+    public int size() {
+        final HttpHeadersTemplate template = this.template;
+        return template == null ? added.size() : template.headers().size() + added.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Set<? extends CharSequence> names() {
+        final HttpHeadersTemplate template = this.template;
+        if (template == null) {
+            return added.names();
+        }
+        final Set<CharSequence> names = new LinkedHashSet<>(template.headers().names());
+        names.addAll(added.names());
+        return unmodifiableSet(names);
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence value) {
+        headersFor(name).add(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        headersFor(name).add(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence... values) {
+        headersFor(name).add(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final HttpHeaders headers) {
+        if (headers == this) {
+            return this;
+        }
+        for (Entry<CharSequence, CharSequence> header : headers) {
+            add(header.getKey(), header.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence value) {
+        headersFor(name).set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        headersFor(name).set(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence... values) {
+        headersFor(name).set(name, values);
+        return this;
+    }
+
+    @Override
+    public boolean remove(final CharSequence name) {
+        return headersFor(name).remove(name);
+    }
+
+    @Override
+    public boolean remove(final CharSequence name, final CharSequence value) {
+        return headersFor(name).remove(name, value);
+    }
+
+    @Override
+    public boolean removeIgnoreCase(final CharSequence name, final CharSequence value) {
+        return headersFor(name).removeIgnoreCase(name, value);
+    }
+
+    @Override
+    public HttpHeaders clear() {
+        template = null;
+        added.clear();
+        return this;
+    }
+
+    @Override
+    public Iterator<Entry<CharSequence, CharSequence>> iterator() {
+        return materialize().iterator();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof HttpHeaders && HeaderUtils.equals(this, (HttpHeaders) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return HeaderUtils.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return toString(DEFAULT_HEADER_FILTER);
+    }
+
+    @Nullable
+    @Override
+    public HttpCookiePair getCookie(final CharSequence name) {
+        return headersFor(COOKIE).getCookie(name);
+    }
+
+    @Nullable
+    @Override
+    public HttpSetCookie getSetCookie(final CharSequence name) {
+        return headersFor(SET_COOKIE).getSetCookie(name);
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator() {
+        return headersFor(COOKIE).getCookiesIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator(final CharSequence name) {
+        return headersFor(COOKIE).getCookiesIterator(name);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator() {
+        return headersFor(SET_COOKIE).getSetCookiesIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name) {
+        return headersFor(SET_COOKIE).getSetCookiesIterator(name);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name, final CharSequence domain,
+                                                                   final CharSequence path) {
+        return headersFor(SET_COOKIE).getSetCookiesIterator(name, domain, path);
+    }
+
+    @Override
+    public HttpHeaders addCookie(final HttpCookiePair cookie) {
+        headersFor(COOKIE).addCookie(cookie);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders addSetCookie(final HttpSetCookie cookie) {
+        headersFor(SET_COOKIE).addSetCookie(cookie);
+        return this;
+    }
+
+    @Override
+    public boolean removeCookies(final CharSequence name) {
+        return headersFor(COOKIE).removeCookies(name);
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name) {
+        return headersFor(SET_COOKIE).removeSetCookies(name);
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name, final CharSequence domain, final CharSequence path) {
+        return headersFor(SET_COOKIE).removeSetCookies(name, domain, path);
+    }
+
+    /**
+     * Iterates over the values of a name which is part of the template. If a value is removed the headers are
+     * materialized and the iteration continues over the materialized headers.
+     */
+    private final class TemplateValuesIterator implements Iterator<CharSequence> {
+        private final CharSequence name;
+        private Iterator<? extends CharSequence> delegate;
+        private boolean materialized;
+        private int returned;
+
+        TemplateValuesIterator(final CharSequence name) {
+            this.name = name;
+            assert template != null;
+            delegate = template.headers().valuesIterator(name);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public CharSequence next() {
+            if (!delegate.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ++returned;
+            return delegate.next();
+        }
+
+        @Override
+        public void remove() {
+            if (!materialized) {
+                if (returned == 0) {
+                    throw new IllegalStateException();
+                }
+                // Skip the values that were already returned, the materialized headers contain the same values of
+                // the template in the same order.
+                delegate = materialize().valuesIterator(name);
+                for (int i = 0; i < returned; ++i) {
+                    delegate.next();
+                }
+                materialized = true;
+            }
+            delegate.remove();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArrayHttpHeadersTest extends AbstractHttpHeadersTest {
+    @Override
+    protected HttpHeaders newHeaders() {
+        return ArrayHttpHeadersFactory.INSTANCE.newHeaders();
+    }
+
+    @Override
+    protected HttpHeaders newHeaders(final int initialSizeHint) {
+        return new ArrayHttpHeaders(initialSizeHint, true, true, true);
+    }
+
+    @Test
+    void iterationFollowsInsertionOrder() {
+        final HttpHeaders headers = newHeaders(0);
+        headers.add("name1", "value1");
+        headers.add("name2", "value2");
+        headers.add("NAME1", "value3");
+        headers.add("name3", "value4");
+        headers.remove("name2");
+        headers.add("name2", "value5");
+        assertThat(entries(headers), contains("name1=value1", "NAME1=value3", "name3=value4", "name2=value5"));
+        assertThat(headers.names(), contains("name1", "name3", "name2"));
+    }
+
+    @Test
+    void removedEntriesAreReclaimed() {
+        final HttpHeaders headers = newHeaders(2);
+        for (int i = 0; i < 100; ++i) {
+            headers.add("name" + i, "value" + i);
+            headers.add("other", "value" + i);
+            headers.remove("name" + i);
+        }
+        assertThat(headers.size(), is(100));
+        assertThat(headers.get("other").toString(), is("value0"));
+        assertThat(headers.names(), contains("other"));
+        Iterator<? extends CharSequence> itr = headers.valuesIterator("other");
+        for (int i = 0; i < 100; ++i) {
+            assertThat(itr.next().toString(), is("value" + i));
+        }
+        assertThat(itr.hasNext(), is(false));
+    }
+
+    @Test
+    void compactionInvalidatesIterators() {
+        final HttpHeaders headers = newHeaders(2);
+        headers.add("name1", "value1");
+        headers.add("name2", "value2");
+        final Iterator<Entry<CharSequence, CharSequence>> itr = headers.iterator();
+        headers.remove("name1");
+        headers.remove("name2");
+        headers.add("name3", "value3");
+        assertThrows(ConcurrentModificationException.class, itr::next);
+    }
+
+    @Test
+    void addCookieAppendsToFirstCookieHeader() {
+        final HttpHeaders headers = newHeaders();
+        headers.addCookie("name1", "value1");
+        headers.addCookie("name2", "value2");
+        assertThat(headers.size(), is(1));
+        assertThat(headers.get("cookie").toString(), is("name1=value1; name2=value2"));
+        assertThat(headers.getCookie("name2").value().toString(), is("value2"));
+        headers.removeCookies("name1");
+        assertThat(headers.get("cookie").toString(), is("name2=value2"));
+    }
+
+    private static List<String> entries(final HttpHeaders headers) {
+        final List<String> entries = new ArrayList<>(headers.size());
+        for (Entry<CharSequence, CharSequence> entry : headers) {
+            entries.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return entries;
+    }
+}
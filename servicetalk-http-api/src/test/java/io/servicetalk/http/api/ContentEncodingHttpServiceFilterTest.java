@@ -15,7 +15,13 @@
  */
 package io.servicetalk.http.api;
 
+import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.buffer.api.CharSequences;
+import io.servicetalk.encoding.api.AdaptiveBufferEncoder;
+import io.servicetalk.encoding.api.AdaptiveBufferEncoderBuilder;
+import io.servicetalk.encoding.api.BufferEncoder;
+import io.servicetalk.serializer.api.Serializer;
+import io.servicetalk.serializer.api.StreamingSerializer;
 
 import org.junit.jupiter.api.Test;
 
@@ -23,14 +29,45 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.encoding.api.Identity.identityEncoder;
 import static io.servicetalk.http.api.ContentEncodingHttpServiceFilter.matchAndRemoveEncoding;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
 import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static java.util.Collections.singletonList;
 import static java.util.function.Function.identity;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class ContentEncodingHttpServiceFilterTest {
+    private static final StreamingHttpRequestResponseFactory REQ_RESP_FACTORY =
+            new DefaultStreamingHttpRequestResponseFactory(DEFAULT_ALLOCATOR, DefaultHttpHeadersFactory.INSTANCE,
+                    HTTP_1_1);
+    private static final BufferEncoder GZIP = new BufferEncoder() {
+        @Override
+        public Serializer<Buffer> encoder() {
+            return identityEncoder().encoder();
+        }
+
+        @Override
+        public StreamingSerializer<Buffer> streamingEncoder() {
+            return identityEncoder().streamingEncoder();
+        }
+
+        @Override
+        public CharSequence encodingName() {
+            return "gzip";
+        }
+    };
+
     @Test
     void testMatchAndRemoveEncodingFirst() {
         List<CharSequence> supportedDecoders = new ArrayList<>();
@@ -73,4 +110,74 @@ class ContentEncodingHttpServiceFilterTest {
         assertThat("unexpected header: " + contentEncoding,
                 contentEqualsIgnoreCase(contentEncoding, " deflate , foo , gzip "), is(true));
     }
+
+    @Test
+    void adaptiveEncoderSkipsSmallAggregatedResponse() throws Exception {
+        final StreamingHttpResponse response = REQ_RESP_FACTORY.ok()
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello"))).toResponse().toFuture().get()
+                .toStreamingResponse();
+        assertThat(handle(new AdaptiveBufferEncoderBuilder(GZIP).build(), response).headers().get(CONTENT_ENCODING),
+                nullValue());
+    }
+
+    @Test
+    void adaptiveEncoderCompressesLargeAggregatedResponse() throws Exception {
+        final StreamingHttpResponse response = REQ_RESP_FACTORY.ok()
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello"))).toResponse().toFuture().get()
+                .toStreamingResponse();
+        final StreamingHttpResponse filtered = handle(new AdaptiveBufferEncoderBuilder(GZIP).minContentLength(5)
+                .build(), response);
+        assertThat(filtered.headers().get(CONTENT_ENCODING, "").toString(), is("gzip"));
+    }
+
+    @Test
+    void adaptiveEncoderUsesContentLength() throws Exception {
+        final AdaptiveBufferEncoder encoder = new AdaptiveBufferEncoderBuilder(GZIP).minContentLength(100).build();
+        StreamingHttpResponse response = REQ_RESP_FACTORY.ok();
+        response.headers().set(CONTENT_LENGTH, "99");
+        assertThat(handle(encoder, response).headers().get(CONTENT_ENCODING), nullValue());
+
+        response = REQ_RESP_FACTORY.ok();
+        response.headers().set(CONTENT_LENGTH, "100");
+        response = handle(encoder, response);
+        assertThat(response.headers().get(CONTENT_ENCODING, "").toString(), is("gzip"));
+        assertThat(response.headers().get(CONTENT_LENGTH), nullValue());
+    }
+
+    @Test
+    void adaptiveEncoderCompressesStreamingResponseOfUnknownLength() throws Exception {
+        assertThat(handle(new AdaptiveBufferEncoderBuilder(GZIP).build(), REQ_RESP_FACTORY.ok()).headers()
+                .get(CONTENT_ENCODING, "").toString(), is("gzip"));
+    }
+
+    @Test
+    void adaptiveEncoderSkipsDeniedContentType() throws Exception {
+        final StreamingHttpResponse response = REQ_RESP_FACTORY.ok();
+        response.headers().set(CONTENT_TYPE, "image/png");
+        assertThat(handle(new AdaptiveBufferEncoderBuilder(GZIP).minContentLength(0).build(), response).headers()
+                .get(CONTENT_ENCODING), nullValue());
+    }
+
+    @Test
+    void alreadyEncodedResponseIsNotEncodedAgain() throws Exception {
+        final StreamingHttpResponse response = REQ_RESP_FACTORY.ok();
+        response.headers().set(CONTENT_ENCODING, "deflate");
+        response.headers().set(CONTENT_LENGTH, "10");
+        final StreamingHttpResponse filtered = handle(GZIP, response);
+        assertThat(filtered.headers().get(CONTENT_ENCODING, "").toString(), is("deflate"));
+        assertThat(filtered.headers().get(CONTENT_LENGTH, "").toString(), is("10"));
+    }
+
+    private static StreamingHttpResponse handle(final BufferEncoder encoder, final StreamingHttpResponse response)
+            throws Exception {
+        final HttpServiceContext ctx = mock(HttpServiceContext.class);
+        final HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
+        when(ctx.executionContext()).thenReturn(executionContext);
+        when(executionContext.bufferAllocator()).thenReturn(DEFAULT_ALLOCATOR);
+        final StreamingHttpRequest request = REQ_RESP_FACTORY.get("/");
+        request.headers().set(ACCEPT_ENCODING, "gzip");
+        return new ContentEncodingHttpServiceFilter(singletonList(encoder))
+                .create((context, req, factory) -> succeeded(response))
+                .handle(ctx, request, REQ_RESP_FACTORY).toFuture().get();
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.encoding.api.BufferEncoder;
+import io.servicetalk.serializer.api.Serializer;
+import io.servicetalk.serializer.api.StreamingSerializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.encoding.api.Identity.identityEncoder;
+import static io.servicetalk.http.api.HeaderUtils.containsCommaSeparatedValueIgnoreCase;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpResponseStatus.NOT_MODIFIED;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.api.PrecompressedResponseCacheHttpServiceFilter.matches;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrecompressedResponseCacheHttpServiceFilterTest {
+    private static final StreamingHttpRequestResponseFactory REQ_RESP_FACTORY =
+            new DefaultStreamingHttpRequestResponseFactory(DEFAULT_ALLOCATOR, DefaultHttpHeadersFactory.INSTANCE,
+                    HTTP_1_1);
+
+    private final AtomicInteger encodeCount = new AtomicInteger();
+    private final AtomicInteger serviceCount = new AtomicInteger();
+    private final AtomicBoolean bodySubscribed = new AtomicBoolean();
+    private final BufferEncoder gzip = new BufferEncoder() {
+        @Override
+        public Serializer<Buffer> encoder() {
+            return (toSerialize, allocator, buffer) -> {
+                encodeCount.incrementAndGet();
+                buffer.writeAscii("gz:").writeBytes(toSerialize);
+            };
+        }
+
+        @Override
+        public StreamingSerializer<Buffer> streamingEncoder() {
+            return identityEncoder().streamingEncoder();
+        }
+
+        @Override
+        public CharSequence encodingName() {
+            return "gzip";
+        }
+    };
+    @Nullable
+    private String etag;
+    @Nullable
+    private String contentLength;
+    private StreamingHttpServiceFilter filter;
+    private PrecompressedResponseCacheHttpServiceFilter cache;
+
+    @BeforeEach
+    void setUp() {
+        etag = "\"v1\"";
+        newFilter(1024);
+    }
+
+    private void newFilter(final long maxSizeBytes) {
+        cache = new PrecompressedResponseCacheHttpServiceFilter(asList(gzip, identityEncoder()), maxSizeBytes);
+        filter = cache.create((ctx, request, factory) -> {
+            serviceCount.incrementAndGet();
+            final StreamingHttpResponse response = factory.ok()
+                    .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("body of " + request.requestTarget()))
+                            .beforeOnSubscribe(__ -> bodySubscribed.set(true)));
+            if (etag != null) {
+                response.headers().set(ETAG, etag);
+            }
+            if (contentLength != null) {
+                response.headers().set(CONTENT_LENGTH, contentLength);
+            }
+            return succeeded(response);
+        });
+    }
+
+    @Test
+    void cachesEncodedVariants() throws Exception {
+        for (int i = 0; i < 3; ++i) {
+            final HttpResponse response = get("/config", "gzip", null);
+            assertThat(response.headers().get(CONTENT_ENCODING, "").toString(), is("gzip"));
+            assertThat(response.headers().get(CONTENT_LENGTH, "").toString(), is("18"));
+            assertThat(response.payloadBody().toString(US_ASCII), is("gz:body of /config"));
+            assertThat(varyAcceptEncoding(response), is(true));
+        }
+        final HttpResponse identity = get("/config", null, null);
+        assertThat(identity.headers().get(CONTENT_ENCODING), nullValue());
+        assertThat(varyAcceptEncoding(identity), is(true));
+        assertThat(identity.payloadBody().toString(US_ASCII), is("body of /config"));
+
+        assertThat(encodeCount.get(), is(1));
+        assertThat(serviceCount.get(), is(4));
+        assertThat(cache.missCount(), is(1L));
+        assertThat(cache.hitCount(), is(3L));
+        assertThat(cache.sizeBytes(), is(15L + 18L));
+    }
+
+    @Test
+    void changedEtagReplacesEntry() throws Exception {
+        get("/config", "gzip", null);
+        etag = "\"v2\"";
+        get("/config", "gzip", null);
+        get("/config", "gzip", null);
+        assertThat(encodeCount.get(), is(2));
+        assertThat(cache.missCount(), is(2L));
+        assertThat(cache.hitCount(), is(1L));
+        assertThat(cache.sizeBytes(), is(15L + 18L));
+    }
+
+    @Test
+    void notModified() throws Exception {
+        final HttpResponse response = get("/config", "gzip", "\"v0\", W/\"v1\"");
+        assertThat(response.status(), is(NOT_MODIFIED));
+        assertThat(response.headers().get(ETAG, "").toString(), is("\"v1\""));
+        assertThat(response.headers().get(CONTENT_ENCODING), nullValue());
+        assertThat(response.payloadBody().readableBytes(), is(0));
+        assertThat(varyAcceptEncoding(response), is(true));
+        assertThat(cache.notModifiedCount(), is(1L));
+        assertThat(get("/config", "gzip", "\"v0\"").status(), is(OK));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws Exception {
+        newFilter(25);
+        get("/a", null, null);
+        get("/b", null, null);
+        get("/a", null, null);
+        // Evicts "/b", which was used least recently.
+        get("/c", null, null);
+        get("/a", null, null);
+        assertThat(cache.evictionCount(), is(1L));
+        assertThat(cache.hitCount(), is(2L));
+        assertThat(cache.sizeBytes(), lessThanOrEqualTo(25L));
+        get("/b", null, null);
+        assertThat(cache.missCount(), is(4L));
+    }
+
+    @Test
+    void responseWithoutEtagIsNotCached() throws Exception {
+        etag = null;
+        assertThat(get("/config", "gzip", null).headers().get(CONTENT_ENCODING), nullValue());
+        assertThat(cache.missCount(), is(0L));
+        assertThat(cache.sizeBytes(), is(0L));
+    }
+
+    @Test
+    void tooLargeContentLengthIsNotAggregated() throws Exception {
+        contentLength = "2048";
+        final StreamingHttpResponse response = filter.handle(newContext(), REQ_RESP_FACTORY.get("/config"),
+                REQ_RESP_FACTORY).toFuture().get();
+        assertThat(bodySubscribed.get(), is(false));
+        assertThat(response.toResponse().toFuture().get().payloadBody().toString(US_ASCII), is("body of /config"));
+        assertThat(cache.missCount(), is(1L));
+        assertThat(cache.sizeBytes(), is(0L));
+    }
+
+    @Test
+    void entityTagMatching() {
+        assertThat(matches("*", "\"a\""), is(true));
+        assertThat(matches("\"a\"", "W/\"a\""), is(true));
+        assertThat(matches(" \"b\" ,W/\"a\"", "\"a\""), is(true));
+        assertThat(matches("\"a\"", "\"ab\""), is(false));
+        assertThat(matches("", "\"a\""), is(false));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PrecompressedResponseCacheHttpServiceFilter(asList(gzip), 0));
+    }
+
+    private HttpResponse get(final String target, @Nullable final String acceptEncoding,
+                             @Nullable final String ifNoneMatch) throws Exception {
+        final StreamingHttpRequest request = REQ_RESP_FACTORY.get(target);
+        if (acceptEncoding != null) {
+            request.headers().set(ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.headers().set(IF_NONE_MATCH, ifNoneMatch);
+        }
+        return filter.handle(newContext(), request, REQ_RESP_FACTORY).toFuture().get().toResponse().toFuture().get();
+    }
+
+    private static HttpServiceContext newContext() {
+        final HttpServiceContext ctx = mock(HttpServiceContext.class);
+        final HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
+        when(ctx.executionContext()).thenReturn(executionContext);
+        when(executionContext.bufferAllocator()).thenReturn(DEFAULT_ALLOCATOR);
+        return ctx;
+    }
+
+    private static boolean varyAcceptEncoding(final HttpResponse response) {
+        return containsCommaSeparatedValueIgnoreCase(response.headers(), VARY, ACCEPT_ENCODING);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static io.servicetalk.http.api.DefaultHttpHeadersFactory.INSTANCE;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.api.HttpHeaderValues.TEXT_PLAIN;
+import static io.servicetalk.http.api.HttpHeadersTemplate.newHeadersTemplate;
+import static io.servicetalk.http.api.HttpHeadersTemplate.newResponseTemplate;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_0;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpResponseStatus.NOT_FOUND;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class TemplateHttpHeadersTest {
+
+    private final HttpHeadersTemplate template = newResponseTemplate(HTTP_1_1, OK, INSTANCE.newHeaders()
+            .add(CONTENT_TYPE, TEXT_PLAIN)
+            .add(SERVER, "servicetalk"));
+
+    @Test
+    void templateIsCopied() {
+        final HttpHeaders original = INSTANCE.newHeaders().add(SERVER, "servicetalk");
+        final HttpHeadersTemplate template = newHeadersTemplate(original);
+        original.set(SERVER, "other");
+        assertThat(template.headers().get(SERVER).toString(), is("servicetalk"));
+        assertThat(template.encodedHeaders().toString(US_ASCII), is("server: servicetalk\r\n"));
+    }
+
+    @Test
+    void encodedResponseHead() {
+        assertThat(template.encodedResponseHead(HTTP_1_1, OK).toString(US_ASCII),
+                is("HTTP/1.1 200 OK\r\n" + template.encodedHeaders().toString(US_ASCII)));
+        assertThat(template.encodedResponseHead(HTTP_1_0, OK), is(nullValue()));
+        assertThat(template.encodedResponseHead(HTTP_1_1, NOT_FOUND), is(nullValue()));
+        assertThat(newHeadersTemplate(template.headers()).encodedResponseHead(HTTP_1_1, OK), is(nullValue()));
+    }
+
+    @Test
+    void addedHeadersDoNotModifyTemplate() {
+        final TemplateHttpHeaders headers = (TemplateHttpHeaders) template.newHeaders(INSTANCE);
+        headers.add(CONTENT_LENGTH, "10");
+        headers.remove("absent");
+        assertThat(headers.template(), is(sameInstance(template)));
+        assertThat(headers.size(), is(3));
+        assertThat(headers.get(SERVER).toString(), is("servicetalk"));
+        assertThat(headers.get(CONTENT_LENGTH).toString(), is("10"));
+        assertThat(headers.contains(CONTENT_TYPE, TEXT_PLAIN), is(true));
+        assertThat(headers.names().stream().map(CharSequence::toString).collect(toList()),
+                containsInAnyOrder("content-type", "server", "content-length"));
+        assertThat(headers.addedHeaders().size(), is(1));
+        assertThat(headers.getAndRemove(CONTENT_LENGTH).toString(), is("10"));
+        assertThat(headers.template(), is(sameInstance(template)));
+    }
+
+    @Test
+    void modifyingTemplateHeaderMaterializes() {
+        final TemplateHttpHeaders headers = (TemplateHttpHeaders) template.newHeaders(INSTANCE);
+        headers.add(CONTENT_LENGTH, "10");
+        headers.set(SERVER, "other");
+        assertThat(headers.template(), is(nullValue()));
+        assertThat(headers.size(), is(3));
+        assertThat(headers.get(SERVER).toString(), is("other"));
+        assertThat(headers.get(CONTENT_TYPE).toString(), is("text/plain"));
+        assertThat(headers.addedHeaders(), is(INSTANCE.newHeaders()
+                .add(CONTENT_TYPE, TEXT_PLAIN)
+                .add(SERVER, "other")
+                .add(CONTENT_LENGTH, "10")));
+        assertThat(template.headers().get(SERVER).toString(), is("servicetalk"));
+    }
+
+    @Test
+    void valuesIteratorRemoveMaterializes() {
+        final TemplateHttpHeaders headers = (TemplateHttpHeaders) template.newHeaders(INSTANCE);
+        final Iterator<? extends CharSequence> values = headers.valuesIterator(SERVER);
+        assertThat(values.next().toString(), is("servicetalk"));
+        values.remove();
+        assertThat(values.hasNext(), is(false));
+        assertThat(headers.template(), is(nullValue()));
+        assertThat(headers.contains(SERVER), is(false));
+        assertThat(headers.size(), is(1));
+    }
+}
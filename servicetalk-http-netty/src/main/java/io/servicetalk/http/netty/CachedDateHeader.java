@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.concurrent.api.DefaultThreadFactory;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static java.lang.Thread.NORM_PRIORITY;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Value of the <a href="https://tools.ietf.org/html/rfc7231#section-7.1.1.2">Date</a> header, formatted as
+ * <a href="https://tools.ietf.org/html/rfc7231#section-7.1.1.1">IMF-fixdate</a> once per second by a timer which is
+ * shared by all servers that use it.
+ * <p>
+ * The timer is started when the first server {@link #acquire() acquires} the value and stopped when the last server
+ * {@link #release() releases} it.
+ */
+final class CachedDateHeader {
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH).withZone(ZoneOffset.UTC);
+
+    private static volatile CharSequence value = format(System.currentTimeMillis());
+    @Nullable
+    private static ScheduledExecutorService timer;
+    private static int refCount;
+
+    private CachedDateHeader() {
+        // no instances
+    }
+
+    /**
+     * Get the current value of the {@code date} header. The value is up to date only while at least one user has
+     * {@link #acquire() acquired} it.
+     *
+     * @return the current value of the {@code date} header.
+     */
+    static CharSequence value() {
+        return value;
+    }
+
+    /**
+     * Start refreshing the {@link #value()} once per second, if it is not already refreshed. Each call must be
+     * followed by a call to {@link #release()}.
+     */
+    static synchronized void acquire() {
+        if (refCount++ == 0) {
+            final ScheduledExecutorService timer = newSingleThreadScheduledExecutor(
+                    new DefaultThreadFactory("servicetalk-date-header", true, NORM_PRIORITY));
+            final long nowMs = System.currentTimeMillis();
+            value = format(nowMs);
+            // Align the refresh with the start of the next second, so that the value is never more than a few
+            // milliseconds behind the clock.
+            timer.scheduleAtFixedRate(CachedDateHeader::refresh, SECONDS.toMillis(1) - nowMs % SECONDS.toMillis(1),
+                    SECONDS.toMillis(1), MILLISECONDS);
+            CachedDateHeader.timer = timer;
+        }
+    }
+
+    /**
+     * Stop refreshing the {@link #value()} if this is the last user which {@link #acquire() acquired} it.
+     */
+    static synchronized void release() {
+        if (refCount <= 0) {
+            throw new IllegalStateException("refCount: " + refCount + " (expected > 0)");
+        }
+        if (--refCount == 0) {
+            final ScheduledExecutorService timer = CachedDateHeader.timer;
+            assert timer != null;
+            CachedDateHeader.timer = null;
+            timer.shutdownNow();
+        }
+    }
+
+    private static void refresh() {
+        value = format(System.currentTimeMillis());
+    }
+
+    // Visible for testing
+    static CharSequence format(final long epochMillis) {
+        return newAsciiString(FORMATTER.format(Instant.ofEpochMilli(epochMillis)));
+    }
+}
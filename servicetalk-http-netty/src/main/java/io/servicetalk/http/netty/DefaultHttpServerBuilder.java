@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package io.servicetalk.http.netty;
 import io.servicetalk.buffer.api.BufferAllocator;
 import io.servicetalk.concurrent.api.Executor;
 import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.SingleTerminalSignalConsumer;
 import io.servicetalk.http.api.BlockingHttpService;
 import io.servicetalk.http.api.BlockingStreamingHttpService;
 import io.servicetalk.http.api.HttpApiConversions;
@@ -227,6 +228,12 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
         return this;
     }
 
+    @Override
+    public HttpServerBuilder addDateHeader(final boolean enable) {
+        config.httpConfig().addDateHeader(enable);
+        return this;
+    }
+
     @Override
     public HttpServerBuilder executor(final Executor executor) {
         executionContextBuilder.executor(executor);
@@ -282,7 +289,36 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
                                            final boolean drainRequestPayloadBody) {
         final ReadOnlyHttpServerConfig roConfig = this.config.asReadOnly();
         service = applyInternalFilters(service, roConfig.lifecycleObserver());
+        final Single<ServerContext> bind = bind(context, roConfig, connectionAcceptor, service,
+                drainRequestPayloadBody);
+        if (!roConfig.addDateHeader()) {
+            return bind;
+        }
+        return Single.defer(() -> {
+            CachedDateHeader.acquire();
+            return bind.whenFinally(new SingleTerminalSignalConsumer<ServerContext>() {
+                @Override
+                public void onSuccess(@Nullable final ServerContext serverContext) {
+                    assert serverContext != null;
+                    serverContext.onClose().whenFinally(CachedDateHeader::release).subscribe();
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    CachedDateHeader.release();
+                }
+
+                @Override
+                public void cancel() {
+                    CachedDateHeader.release();
+                }
+            });
+        });
+    }
 
+    private Single<ServerContext> bind(final HttpExecutionContext context, final ReadOnlyHttpServerConfig roConfig,
+                                       @Nullable final ConnectionAcceptor connectionAcceptor,
+                                       final StreamingHttpService service, final boolean drainRequestPayloadBody) {
         if (roConfig.tcpConfig().isAlpnConfigured()) {
             return DeferredServerChannelBinder.bind(context, roConfig, address, connectionAcceptor,
                     service, drainRequestPayloadBody, false);
@@ -441,6 +441,12 @@ final class DefaultSingleAddressHttpClientBuilder<U, R> implements SingleAddress
         return this;
     }
 
+    @Override
+    public SingleAddressHttpClientBuilder<U, R> ioThreadAffinity(final boolean ioThreadAffinity) {
+        config.tcpConfig().ioThreadAffinity(ioThreadAffinity);
+        return this;
+    }
+
     @Override
     public DefaultSingleAddressHttpClientBuilder<U, R> protocols(final HttpProtocolConfig... protocols) {
         config.protocolConfigs().protocols(protocols);
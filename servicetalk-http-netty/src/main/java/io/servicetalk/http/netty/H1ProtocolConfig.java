@@ -1,5 +1,5 @@
 /*
- * Copyright © 2019-2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2019-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package io.servicetalk.http.netty;
 import io.servicetalk.http.api.HttpClient;
 import io.servicetalk.http.api.HttpProtocolConfig;
 
+import java.time.Duration;
+
 /**
  * Configuration for <a href="https://tools.ietf.org/html/rfc7230">HTTP/1.1</a> protocol.
  *
@@ -42,6 +44,22 @@ public interface H1ProtocolConfig extends HttpProtocolConfig {
      */
     int maxPipelinedRequests();
 
+    /**
+     * Maximum age of the request at the head of the queue of a pipelined connection before new requests are no longer
+     * queued on that connection.
+     * <p>
+     * The age is the time since the connection last made progress, either since the last response completed or since
+     * the queue became non-empty. A connection whose head request exceeds this age is skipped when selecting a
+     * connection for a new request, and a new connection is opened if all connections exceed it. Only applies to
+     * clients when {@link #maxPipelinedRequests()} is greater than {@code 1}.
+     *
+     * @return maximum age of the request at the head of the queue of a pipelined connection or {@link Duration#ZERO}
+     * to not consider the age
+     */
+    default Duration maxPipelinedHeadOfLineAge() {
+        return Duration.ZERO;
+    }
+
     /**
      * Maximum length of the HTTP <a href="https://tools.ietf.org/html/rfc7230#section-3.1">start line</a> for an HTTP
      * message.
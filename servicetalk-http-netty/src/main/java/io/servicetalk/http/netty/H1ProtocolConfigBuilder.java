@@ -1,5 +1,5 @@
 /*
- * Copyright © 2019-2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2019-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import io.servicetalk.http.api.HttpClient;
 import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpHeadersFactory;
 
+import java.time.Duration;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -32,6 +34,7 @@ public final class H1ProtocolConfigBuilder {
     private static final H1SpecExceptions DEFAULT_H1_SPEC_EXCEPTIONS = new H1SpecExceptions.Builder().build();
 
     private int maxPipelinedRequests = 1;
+    private Duration maxPipelinedHeadOfLineAge = Duration.ZERO;
     private int maxStartLineLength = 4096;
     private int maxHeaderFieldLength = 8192;
     private HttpHeadersFactory headersFactory = DefaultHttpHeadersFactory.INSTANCE;
@@ -70,6 +73,28 @@ public final class H1ProtocolConfigBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum age of the request at the head of the queue of a pipelined connection before new requests are
+     * no longer queued on that connection.
+     * <p>
+     * Requests on a pipelined connection complete in order, so a slow request delays all requests queued behind it.
+     * With this setting, connections whose head request exceeds the age are skipped by the load balancer and a new
+     * connection is opened when all connections are stalled.
+     *
+     * @param maxPipelinedHeadOfLineAge maximum age of the request at the head of the queue of a pipelined connection.
+     * {@link Duration#ZERO} disables the age check.
+     * @return {@code this}
+     * @see H1ProtocolConfig#maxPipelinedHeadOfLineAge()
+     */
+    public H1ProtocolConfigBuilder maxPipelinedHeadOfLineAge(final Duration maxPipelinedHeadOfLineAge) {
+        if (maxPipelinedHeadOfLineAge.isNegative()) {
+            throw new IllegalArgumentException("maxPipelinedHeadOfLineAge: " + maxPipelinedHeadOfLineAge +
+                    " (expected >= 0)");
+        }
+        this.maxPipelinedHeadOfLineAge = maxPipelinedHeadOfLineAge;
+        return this;
+    }
+
     /**
      * Sets the maximum length of the HTTP <a href="https://tools.ietf.org/html/rfc7230#section-3.1">start line</a> for
      * an HTTP message.
@@ -150,14 +175,16 @@ public final class H1ProtocolConfigBuilder {
      * @return a new {@link H1ProtocolConfig}
      */
     public H1ProtocolConfig build() {
-        return new DefaultH1ProtocolConfig(headersFactory, maxPipelinedRequests, maxStartLineLength,
-                maxHeaderFieldLength, headersEncodedSizeEstimate, trailersEncodedSizeEstimate, specExceptions);
+        return new DefaultH1ProtocolConfig(headersFactory, maxPipelinedRequests, maxPipelinedHeadOfLineAge,
+                maxStartLineLength, maxHeaderFieldLength, headersEncodedSizeEstimate, trailersEncodedSizeEstimate,
+                specExceptions);
     }
 
     private static final class DefaultH1ProtocolConfig implements H1ProtocolConfig {
 
         private final HttpHeadersFactory headersFactory;
         private final int maxPipelinedRequests;
+        private final Duration maxPipelinedHeadOfLineAge;
         private final int maxStartLineLength;
         private final int maxHeaderFieldLength;
         private final int headersEncodedSizeEstimate;
@@ -165,11 +192,13 @@ public final class H1ProtocolConfigBuilder {
         private final H1SpecExceptions specExceptions;
 
         DefaultH1ProtocolConfig(final HttpHeadersFactory headersFactory, final int maxPipelinedRequests,
-                                final int maxStartLineLength, final int maxHeaderFieldLength,
+                                final Duration maxPipelinedHeadOfLineAge, final int maxStartLineLength,
+                                final int maxHeaderFieldLength,
                                 final int headersEncodedSizeEstimate, final int trailersEncodedSizeEstimate,
                                 final H1SpecExceptions specExceptions) {
             this.headersFactory = headersFactory;
             this.maxPipelinedRequests = maxPipelinedRequests;
+            this.maxPipelinedHeadOfLineAge = maxPipelinedHeadOfLineAge;
             this.maxStartLineLength = maxStartLineLength;
             this.maxHeaderFieldLength = maxHeaderFieldLength;
             this.headersEncodedSizeEstimate = headersEncodedSizeEstimate;
@@ -187,6 +216,11 @@ public final class H1ProtocolConfigBuilder {
             return maxPipelinedRequests;
         }
 
+        @Override
+        public Duration maxPipelinedHeadOfLineAge() {
+            return maxPipelinedHeadOfLineAge;
+        }
+
         @Override
         public int maxStartLineLength() {
             return maxStartLineLength;
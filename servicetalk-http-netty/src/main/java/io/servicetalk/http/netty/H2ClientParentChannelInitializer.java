@@ -25,10 +25,12 @@ import io.netty.handler.codec.http2.DefaultHttp2GoAwayFrame;
 import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
 import io.netty.handler.codec.http2.Http2MultiplexHandler;
 
-import java.util.function.BiPredicate;
-
 import static io.netty.handler.codec.http2.Http2Error.PROTOCOL_ERROR;
+import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.initFlowControl;
+import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.initFlushCoalescing;
 import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.initFrameLogger;
+import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.initHpack;
+import static io.servicetalk.http.netty.H2ServerParentChannelInitializer.initSettings;
 
 final class H2ClientParentChannelInitializer implements ChannelInitializer {
 
@@ -56,16 +58,17 @@ final class H2ClientParentChannelInitializer implements ChannelInitializer {
         // Notify server that this client does not support server push and request it to be disabled.
         multiplexCodecBuilder.initialSettings().pushEnabled(false).maxConcurrentStreams(0L);
 
-        final BiPredicate<CharSequence, CharSequence> headersSensitivityDetector =
-                config.headersSensitivityDetector();
-        multiplexCodecBuilder.headerSensitivityDetector(headersSensitivityDetector::test);
+        initHpack(multiplexCodecBuilder, config);
+        initSettings(multiplexCodecBuilder, config, false);
 
         initFrameLogger(multiplexCodecBuilder, config.frameLoggerConfig());
 
         // TODO(scott): more configuration. header validation, settings stream, etc...
 
-        channel.pipeline().addLast(multiplexCodecBuilder.build(),
-                new Http2MultiplexHandler(H2PushStreamHandler.INSTANCE));
+        initFlushCoalescing(channel, config.flushCoalescingThreshold());
+        channel.pipeline().addLast(multiplexCodecBuilder.build());
+        initFlowControl(channel, config);
+        channel.pipeline().addLast(new Http2MultiplexHandler(H2PushStreamHandler.INSTANCE));
     }
 
     @ChannelHandler.Sharable
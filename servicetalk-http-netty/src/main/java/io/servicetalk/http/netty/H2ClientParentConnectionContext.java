@@ -86,6 +86,7 @@ import static io.servicetalk.http.netty.HttpDebugUtils.showPipeline;
 import static io.servicetalk.transport.netty.internal.ChannelCloseUtils.close;
 import static io.servicetalk.transport.netty.internal.ChannelSet.CHANNEL_CLOSEABLE_KEY;
 import static io.servicetalk.transport.netty.internal.CloseHandler.forNonPipelined;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
 final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
@@ -129,7 +130,8 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
                     pipeline = channel.pipeline();
                     parentChannelInitializer = new DefaultH2ClientParentConnection(connection, subscriber,
                             delayedCancellable, NettyPipelineSslUtils.isSslEnabled(pipeline),
-                            allowDropTrailersReadFromTransport, config.headersFactory(), reqRespFactory, observer);
+                            allowDropTrailersReadFromTransport, config.headersFactory(), reqRespFactory, observer,
+                            config.maxActiveStreamsPerConnection());
                 } catch (Throwable cause) {
                     close(channel, cause);
                     deliverErrorFromSource(subscriber, cause);
@@ -156,6 +158,7 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
         private final StreamingHttpRequestResponseFactory reqRespFactory;
         private final Processor<ConsumableEvent<Integer>, ConsumableEvent<Integer>> maxConcurrencyProcessor;
         private final boolean allowDropTrailersReadFromTransport;
+        private final int maxActiveStreams;
         @Nullable
         private Subscriber<? super H2ClientParentConnection> subscriber;
         private MultiplexedObserver multiplexedObserver = NoopMultiplexedObserver.INSTANCE;
@@ -167,15 +170,18 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
                                         boolean allowDropTrailersReadFromTransport,
                                         HttpHeadersFactory headersFactory,
                                         StreamingHttpRequestResponseFactory reqRespFactory,
-                                        ConnectionObserver observer) {
+                                        ConnectionObserver observer,
+                                        int maxActiveStreams) {
             super(connection, delayedCancellable, waitForSslHandshake, observer);
             this.subscriber = requireNonNull(subscriber);
             this.headersFactory = requireNonNull(headersFactory);
             this.reqRespFactory = requireNonNull(reqRespFactory);
             this.allowDropTrailersReadFromTransport = allowDropTrailersReadFromTransport;
+            this.maxActiveStreams = maxActiveStreams;
             maxConcurrencyProcessor = newPublisherProcessor(16);
             // Set maxConcurrency to the initial value recommended by the HTTP/2 spec
-            maxConcurrencyProcessor.onNext(DEFAULT_H2_MAX_CONCURRENCY_EVENT);
+            maxConcurrencyProcessor.onNext(maxActiveStreams < SMALLEST_MAX_CONCURRENT_STREAMS ?
+                    new IgnoreConsumedEvent<>(maxActiveStreams) : DEFAULT_H2_MAX_CONCURRENCY_EVENT);
             bs = new Http2StreamChannelBootstrap(connection.channel());
         }
 
@@ -211,8 +217,10 @@ final class H2ClientParentConnectionContext extends H2ParentConnectionContext {
                 return true;
             }
 
+            // A connection which reached the configured limit is considered busy by the load balancer, which then
+            // selects or opens another connection to the same host.
             maxConcurrencyProcessor.onNext(new MaxConcurrencyConsumableEvent(
-                    maxConcurrentStreams.intValue(), ctx.channel()));
+                    (int) min(maxConcurrentStreams, maxActiveStreams), ctx.channel()));
             return false;
         }
 
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http2.DefaultHttp2PingFrame;
+import io.netty.handler.codec.http2.DefaultHttp2SettingsFrame;
+import io.netty.handler.codec.http2.DefaultHttp2WindowUpdateFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2PingFrame;
+import io.netty.handler.codec.http2.Http2Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_WINDOW_SIZE;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Manages the flow-control windows of an HTTP/2 connection on behalf of the peer which receives data.
+ * <p>
+ * Grows the connection window to the configured size once the connection is active and, if automatic tuning is
+ * enabled, estimates the bandwidth-delay product (BDP) of the connection: a PING is sent when data is received and no
+ * other estimate is in progress, all data received until the PING is acknowledged is a sample of the BDP. If the
+ * sample is close to the current window size, the window limits the throughput and the stream and connection windows
+ * are grown to twice the sample, as long as the measured bandwidth keeps increasing.
+ * <p>
+ * Must be placed after the {@link io.netty.handler.codec.http2.Http2FrameCodec} and before the
+ * {@link io.netty.handler.codec.http2.Http2MultiplexHandler} to observe all DATA frames of the connection.
+ */
+final class H2FlowControlHandler extends ChannelInboundHandlerAdapter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(H2FlowControlHandler.class);
+    private static final long BDP_PING_CONTENT = ThreadLocalRandom.current().nextLong();
+
+    private final int targetConnectionWindowSize;
+    private final int maxWindowSize;
+    private int streamWindowSize;
+    private int connectionWindowSize;
+    private boolean initialized;
+    // BDP estimation state:
+    private boolean pingPending;
+    private long pingSentNs;
+    private long sample;
+    private double maxBandwidth;
+
+    /**
+     * Create a new instance.
+     *
+     * @param initialStreamWindowSize the initial window size of each stream advertised in the initial SETTINGS.
+     * @param connectionWindowSize the target window size of the connection.
+     * @param maxWindowSize the maximum size up to which the windows are grown automatically or {@code 0} to disable
+     * automatic tuning.
+     */
+    H2FlowControlHandler(final int initialStreamWindowSize, final int connectionWindowSize,
+                         final int maxWindowSize) {
+        this.streamWindowSize = initialStreamWindowSize;
+        this.targetConnectionWindowSize = connectionWindowSize;
+        this.maxWindowSize = maxWindowSize;
+        // Http2FrameCodec grows the connection window by twice the difference between the initial stream window and
+        // the default window on its own, take it into account to only send the missing part.
+        this.connectionWindowSize = DEFAULT_WINDOW_SIZE +
+                (initialStreamWindowSize > DEFAULT_WINDOW_SIZE ?
+                        (int) min(Integer.MAX_VALUE - DEFAULT_WINDOW_SIZE,
+                                2L * (initialStreamWindowSize - DEFAULT_WINDOW_SIZE)) : 0);
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) {
+        if (ctx.channel().isActive()) {
+            init(ctx);
+        }
+    }
+
+    @Override
+    public void channelActive(final ChannelHandlerContext ctx) {
+        init(ctx);
+        ctx.fireChannelActive();
+    }
+
+    private void init(final ChannelHandlerContext ctx) {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        if (growConnectionWindow(ctx, targetConnectionWindowSize)) {
+            ctx.flush();
+        }
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+        if (maxWindowSize > 0) {
+            if (msg instanceof Http2DataFrame) {
+                dataReceived(ctx, ((Http2DataFrame) msg).initialFlowControlledBytes());
+            } else if (msg instanceof Http2PingFrame) {
+                final Http2PingFrame pingFrame = (Http2PingFrame) msg;
+                if (pingFrame.ack() && pingFrame.content() == BDP_PING_CONTENT) {
+                    pingAckReceived(ctx);
+                    return;
+                }
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    private void dataReceived(final ChannelHandlerContext ctx, final int bytes) {
+        if (streamWindowSize >= maxWindowSize && connectionWindowSize >= maxWindowSize) {
+            // Nothing left to tune.
+            return;
+        }
+        if (!pingPending) {
+            pingPending = true;
+            sample = 0;
+            pingSentNs = System.nanoTime();
+            ctx.writeAndFlush(new DefaultHttp2PingFrame(BDP_PING_CONTENT, false));
+        }
+        sample += bytes;
+    }
+
+    private void pingAckReceived(final ChannelHandlerContext ctx) {
+        if (!pingPending) {
+            return;
+        }
+        pingPending = false;
+        final long rttNs = max(1, System.nanoTime() - pingSentNs);
+        final double bandwidth = (double) sample / rttNs;
+        // Only grow if the window limits the throughput (the sample is close to the window size) and the bandwidth
+        // increased since the last time the window was grown. Otherwise a larger window does not help.
+        if (sample < streamWindowSize * 2L / 3 || bandwidth < maxBandwidth) {
+            return;
+        }
+        maxBandwidth = bandwidth;
+        final int newWindowSize = (int) min(maxWindowSize, 2 * sample);
+        boolean flush = false;
+        if (newWindowSize > streamWindowSize) {
+            LOGGER.debug("{} growing stream window from {} to {} bytes, bdp sample={} bytes, rtt={}ns",
+                    ctx.channel(), streamWindowSize, newWindowSize, sample, rttNs);
+            streamWindowSize = newWindowSize;
+            // Applied to all streams by the local flow controller once the peer acknowledges the SETTINGS.
+            ctx.write(new DefaultHttp2SettingsFrame(new Http2Settings().initialWindowSize(newWindowSize)));
+            flush = true;
+        }
+        flush |= growConnectionWindow(ctx, newWindowSize);
+        if (flush) {
+            ctx.flush();
+        }
+    }
+
+    private boolean growConnectionWindow(final ChannelHandlerContext ctx, final int windowSize) {
+        final int delta = windowSize - connectionWindowSize;
+        if (delta <= 0) {
+            return false;
+        }
+        connectionWindowSize = windowSize;
+        // A WINDOW_UPDATE frame without a stream is applied to the connection window by Http2FrameCodec.
+        ctx.write(new DefaultHttp2WindowUpdateFrame(delta));
+        return true;
+    }
+
+    // Visible for testing
+    int streamWindowSize() {
+        return streamWindowSize;
+    }
+
+    // Visible for testing
+    int connectionWindowSize() {
+        return connectionWindowSize;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+import javax.annotation.Nullable;
+
+/**
+ * Coalesces flushes issued by the HTTP/2 parent channel on behalf of its child streams.
+ * <p>
+ * Each {@link io.netty.handler.codec.http2.Http2StreamChannel} flushes according to its own
+ * {@link io.servicetalk.transport.netty.internal.FlushStrategy}, which results in a flush of the parent channel for
+ * every stream. This handler sits between the transport and the HTTP/2 codec and defers those flushes until either:
+ * <ul>
+ *     <li>the end of the current read loop, if the flush was requested while reading,</li>
+ *     <li>the end of the current event loop task, otherwise,</li>
+ *     <li>or the number of written but not yet flushed bytes reaches {@code maxPendingBytes}.</li>
+ * </ul>
+ * Pending flushes are always forwarded when the channel becomes unwritable, is closed, or this handler is removed.
+ */
+final class H2FlushCoalescingHandler extends ChannelDuplexHandler {
+
+    private final int maxPendingBytes;
+    private final Runnable flushTask;
+    @Nullable
+    private ChannelHandlerContext ctx;
+    private long pendingBytes;
+    private boolean flushPending;
+    private boolean flushScheduled;
+    private boolean readInProgress;
+
+    H2FlushCoalescingHandler(final int maxPendingBytes) {
+        if (maxPendingBytes <= 0) {
+            throw new IllegalArgumentException("maxPendingBytes: " + maxPendingBytes + " (expected > 0)");
+        }
+        this.maxPendingBytes = maxPendingBytes;
+        this.flushTask = () -> {
+            flushScheduled = false;
+            final ChannelHandlerContext context = ctx;
+            if (context != null) {
+                flushIfPending(context);
+            }
+        };
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) {
+        flushIfPending(ctx);
+        this.ctx = null;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+        readInProgress = true;
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelReadComplete(final ChannelHandlerContext ctx) {
+        // Child streams flush from Http2MultiplexHandler#channelReadComplete, so let the event propagate first and
+        // then issue a single flush for everything written during this read loop.
+        try {
+            ctx.fireChannelReadComplete();
+        } finally {
+            readInProgress = false;
+            flushIfPending(ctx);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable()) {
+            // Writability only changes based on flushed bytes, holding on to a flush here may stall all streams.
+            flushIfPending(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+        flushIfPending(ctx);
+        ctx.fireExceptionCaught(cause);
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+        if (msg instanceof ByteBuf) {
+            pendingBytes += ((ByteBuf) msg).readableBytes();
+        } else if (msg instanceof ByteBufHolder) {
+            pendingBytes += ((ByteBufHolder) msg).content().readableBytes();
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(final ChannelHandlerContext ctx) {
+        if (pendingBytes >= maxPendingBytes) {
+            flushNow(ctx);
+            return;
+        }
+        flushPending = true;
+        if (!readInProgress && !flushScheduled) {
+            flushScheduled = true;
+            ctx.channel().eventLoop().execute(flushTask);
+        }
+    }
+
+    @Override
+    public void disconnect(final ChannelHandlerContext ctx, final ChannelPromise promise) {
+        flushIfPending(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(final ChannelHandlerContext ctx, final ChannelPromise promise) {
+        flushIfPending(ctx);
+        ctx.close(promise);
+    }
+
+    private void flushIfPending(final ChannelHandlerContext ctx) {
+        if (flushPending) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(final ChannelHandlerContext ctx) {
+        flushPending = false;
+        pendingBytes = 0;
+        ctx.flush();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2019-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,13 @@ import java.time.Duration;
 import java.util.function.BiPredicate;
 import javax.annotation.Nullable;
 
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_HEADER_LIST_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_HEADER_TABLE_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_MAX_FRAME_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_WINDOW_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MAX_CONCURRENT_STREAMS;
+import static io.servicetalk.http.netty.H2HeadersFactory.DEFAULT_INDEXING_POLICY;
+
 /**
  * Configuration for <a href="https://tools.ietf.org/html/rfc7540">HTTP/2</a> protocol.
  *
@@ -44,6 +51,121 @@ public interface H2ProtocolConfig extends HttpProtocolConfig {
      */
     BiPredicate<CharSequence, CharSequence> headersSensitivityDetector();
 
+    /**
+     * Policy to determine if a header {@code name}/{@code value} pair may be added to the
+     * <a href="https://tools.ietf.org/html/rfc7541#section-2.3.2">dynamic table</a> of the HPACK encoder.
+     * <p>
+     * Pairs which are not indexed are encoded as
+     * <a href="https://tools.ietf.org/html/rfc7541#section-6.2.3">literals never indexed</a>, which avoids evicting
+     * frequently repeated pairs from the dynamic table by pairs which are unlikely to repeat (e.g. request ids).
+     *
+     * @return {@link BiPredicate}&lt;{@link CharSequence}, {@link CharSequence}&gt; that returns {@code true} if a
+     * header &lt;{@code name}, {@code value}&gt; pair may be added to the dynamic table, {@code false} otherwise
+     */
+    default BiPredicate<CharSequence, CharSequence> headersIndexingPolicy() {
+        return DEFAULT_INDEXING_POLICY;
+    }
+
+    /**
+     * Maximum size in bytes of the <a href="https://tools.ietf.org/html/rfc7541#section-4.2">dynamic table</a> used
+     * by the HPACK decoder, which is advertised to the peer via
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_HEADER_TABLE_SIZE</a>.
+     *
+     * @return maximum size in bytes of the dynamic table used by the HPACK decoder.
+     */
+    default long headerTableSize() {
+        return DEFAULT_HEADER_TABLE_SIZE;
+    }
+
+    /**
+     * Initial <a href="https://tools.ietf.org/html/rfc7540#section-6.9.2">flow-control window</a> size in bytes of
+     * each stream, which is advertised to the peer via
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_INITIAL_WINDOW_SIZE</a>.
+     *
+     * @return initial flow-control window size in bytes of each stream.
+     */
+    default int initialStreamWindowSize() {
+        return DEFAULT_WINDOW_SIZE;
+    }
+
+    /**
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.9">Flow-control window</a> size in bytes of the
+     * connection, which is shared by all streams.
+     * <p>
+     * The connection window is never smaller than twice the amount by which {@link #initialStreamWindowSize()}
+     * exceeds the default window size, so that a single stream can not exhaust it.
+     *
+     * @return flow-control window size in bytes of the connection.
+     */
+    default int connectionWindowSize() {
+        return DEFAULT_WINDOW_SIZE;
+    }
+
+    /**
+     * Maximum size in bytes of a frame payload the peer is allowed to send, which is advertised via
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_FRAME_SIZE</a>.
+     *
+     * @return maximum size in bytes of a frame payload the peer is allowed to send.
+     */
+    default int maxFrameSize() {
+        return DEFAULT_MAX_FRAME_SIZE;
+    }
+
+    /**
+     * Maximum number of concurrent streams the peer is allowed to open, which is advertised via
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_CONCURRENT_STREAMS</a>.
+     * <p>
+     * Only applies to servers. Clients do not accept server push and always advertise {@code 0}.
+     *
+     * @return maximum number of concurrent streams the peer is allowed to open.
+     */
+    default long maxConcurrentStreams() {
+        return MAX_CONCURRENT_STREAMS;
+    }
+
+    /**
+     * Maximum number of concurrent streams a client opens on a single connection before the load balancer selects or
+     * opens another connection to the same host.
+     * <p>
+     * Only applies to clients. The effective limit per connection is the smaller of this value and
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_CONCURRENT_STREAMS</a> advertised by the
+     * peer. A lower limit spreads concurrent requests across multiple connections, which helps when a single TCP
+     * connection (its congestion window or the event loop serving it) becomes the bottleneck. Connections opened this
+     * way are closed by the {@link io.servicetalk.transport.api.ServiceTalkSocketOptions#IDLE_TIMEOUT idle timeout}
+     * once they are no longer used.
+     *
+     * @return maximum number of concurrent streams a client opens on a single connection.
+     */
+    default int maxActiveStreamsPerConnection() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Maximum size in bytes of the uncompressed header list the peer is allowed to send, which is advertised via
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_HEADER_LIST_SIZE</a>.
+     *
+     * @return maximum size in bytes of the uncompressed header list the peer is allowed to send.
+     */
+    default long maxHeaderListSize() {
+        return DEFAULT_HEADER_LIST_SIZE;
+    }
+
+    /**
+     * Maximum size in bytes up to which the stream and connection flow-control windows are grown automatically,
+     * based on the bandwidth-delay product measured with
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.7">PING frames</a>.
+     * <p>
+     * When enabled, a PING is sent when data is received and no other measurement is in progress. If the data
+     * received until the PING is acknowledged is close to the current window size, and the throughput increased, the
+     * windows are grown to twice the data received during the round-trip.
+     *
+     * @return maximum size in bytes up to which the flow-control windows are grown automatically or {@code 0} if
+     * automatic tuning is disabled.
+     */
+    default int flowControlAutoTuningMaxWindowSize() {
+        return 0;
+    }
+
     /**
      * Get the logger configuration for HTTP/2 frames.
      *
@@ -60,6 +182,20 @@ public interface H2ProtocolConfig extends HttpProtocolConfig {
     @Nullable
     KeepAlivePolicy keepAlivePolicy();
 
+    /**
+     * Maximum number of bytes that may be written to the connection without being flushed while flushes requested by
+     * individual streams are coalesced at the connection level.
+     * <p>
+     * When enabled, flushes of all streams on the same connection are deferred until the end of the current
+     * event loop iteration or until this number of bytes is pending, whichever comes first.
+     *
+     * @return maximum number of bytes that may be pending before a coalesced flush is forced or {@code 0} if flushes
+     * are not coalesced at the connection level.
+     */
+    default int flushCoalescingThreshold() {
+        return 0;
+    }
+
     /**
      * A policy for sending <a href="https://tools.ietf.org/html/rfc7540#section-6.7">PING frames</a> to the peer.
      */
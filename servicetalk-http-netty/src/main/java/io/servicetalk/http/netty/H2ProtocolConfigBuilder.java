@@ -1,5 +1,5 @@
 /*
- * Copyright © 2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2019-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,20 @@ import java.util.function.BiPredicate;
 import java.util.function.BooleanSupplier;
 import javax.annotation.Nullable;
 
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_HEADER_LIST_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_HEADER_TABLE_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_MAX_FRAME_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_WINDOW_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MAX_CONCURRENT_STREAMS;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MAX_FRAME_SIZE_LOWER_BOUND;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MAX_FRAME_SIZE_UPPER_BOUND;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MAX_HEADER_LIST_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MAX_HEADER_TABLE_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MIN_CONCURRENT_STREAMS;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MIN_HEADER_LIST_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MIN_HEADER_TABLE_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MIN_INITIAL_WINDOW_SIZE;
+import static io.servicetalk.http.netty.H2HeadersFactory.DEFAULT_INDEXING_POLICY;
 import static io.servicetalk.http.netty.H2HeadersFactory.DEFAULT_SENSITIVITY_DETECTOR;
 import static io.servicetalk.http.netty.H2KeepAlivePolicies.DISABLE_KEEP_ALIVE;
 import static java.util.Objects.requireNonNull;
@@ -39,10 +53,20 @@ public final class H2ProtocolConfigBuilder {
 
     private HttpHeadersFactory headersFactory = H2HeadersFactory.INSTANCE;
     private BiPredicate<CharSequence, CharSequence> headersSensitivityDetector = DEFAULT_SENSITIVITY_DETECTOR;
+    private BiPredicate<CharSequence, CharSequence> headersIndexingPolicy = DEFAULT_INDEXING_POLICY;
+    private long headerTableSize = DEFAULT_HEADER_TABLE_SIZE;
+    private int initialStreamWindowSize = DEFAULT_WINDOW_SIZE;
+    private int connectionWindowSize = DEFAULT_WINDOW_SIZE;
+    private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+    private long maxConcurrentStreams = MAX_CONCURRENT_STREAMS;
+    private long maxHeaderListSize = DEFAULT_HEADER_LIST_SIZE;
+    private int maxActiveStreamsPerConnection = Integer.MAX_VALUE;
+    private int flowControlAutoTuningMaxWindowSize;
     @Nullable
     private UserDataLoggerConfig frameLoggerConfig;
     @Nullable
     private KeepAlivePolicy keepAlivePolicy;
+    private int flushCoalescingThreshold;
 
     H2ProtocolConfigBuilder() {
     }
@@ -74,6 +98,163 @@ public final class H2ProtocolConfigBuilder {
         return this;
     }
 
+    /**
+     * Sets the policy to determine if a header {@code name}/{@code value} pair may be added to the
+     * <a href="https://tools.ietf.org/html/rfc7541#section-2.3.2">dynamic table</a> of the HPACK encoder.
+     *
+     * @param headersIndexingPolicy the {@link BiPredicate}&lt;{@link CharSequence}, {@link CharSequence}&gt; that
+     * returns {@code true} if a header &lt;{@code name}, {@code value}&gt; pair may be added to the dynamic table,
+     * {@code false} otherwise
+     * @return {@code this}
+     * @see H2ProtocolConfig#headersIndexingPolicy()
+     */
+    public H2ProtocolConfigBuilder headersIndexingPolicy(
+            final BiPredicate<CharSequence, CharSequence> headersIndexingPolicy) {
+        this.headersIndexingPolicy = requireNonNull(headersIndexingPolicy);
+        return this;
+    }
+
+    /**
+     * Sets the maximum size in bytes of the <a href="https://tools.ietf.org/html/rfc7541#section-4.2">dynamic
+     * table</a> used by the HPACK decoder.
+     *
+     * @param headerTableSize maximum size in bytes of the dynamic table used by the HPACK decoder. {@code 0} disables
+     * the dynamic table.
+     * @return {@code this}
+     * @see H2ProtocolConfig#headerTableSize()
+     */
+    public H2ProtocolConfigBuilder headerTableSize(final long headerTableSize) {
+        if (headerTableSize < MIN_HEADER_TABLE_SIZE || headerTableSize > MAX_HEADER_TABLE_SIZE) {
+            throw new IllegalArgumentException("headerTableSize: " + headerTableSize + " (expected [" +
+                    MIN_HEADER_TABLE_SIZE + ", " + MAX_HEADER_TABLE_SIZE + "])");
+        }
+        this.headerTableSize = headerTableSize;
+        return this;
+    }
+
+    /**
+     * Sets the initial <a href="https://tools.ietf.org/html/rfc7540#section-6.9.2">flow-control window</a> size in
+     * bytes of each stream.
+     * <p>
+     * The default window of 64 KiB limits the throughput of a single stream to 64 KiB per round-trip, larger windows
+     * are required to saturate links with a large bandwidth-delay product.
+     *
+     * @param initialStreamWindowSize initial flow-control window size in bytes of each stream.
+     * @return {@code this}
+     * @see H2ProtocolConfig#initialStreamWindowSize()
+     */
+    public H2ProtocolConfigBuilder initialStreamWindowSize(final int initialStreamWindowSize) {
+        if (initialStreamWindowSize < MIN_INITIAL_WINDOW_SIZE) {
+            throw new IllegalArgumentException("initialStreamWindowSize: " + initialStreamWindowSize +
+                    " (expected >= " + MIN_INITIAL_WINDOW_SIZE + ")");
+        }
+        this.initialStreamWindowSize = initialStreamWindowSize;
+        return this;
+    }
+
+    /**
+     * Sets the <a href="https://tools.ietf.org/html/rfc7540#section-6.9">flow-control window</a> size in bytes of the
+     * connection.
+     *
+     * @param connectionWindowSize flow-control window size in bytes of the connection.
+     * @return {@code this}
+     * @see H2ProtocolConfig#connectionWindowSize()
+     */
+    public H2ProtocolConfigBuilder connectionWindowSize(final int connectionWindowSize) {
+        if (connectionWindowSize < DEFAULT_WINDOW_SIZE) {
+            throw new IllegalArgumentException("connectionWindowSize: " + connectionWindowSize +
+                    " (expected >= " + DEFAULT_WINDOW_SIZE + ")");
+        }
+        this.connectionWindowSize = connectionWindowSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a frame payload the peer is allowed to send.
+     *
+     * @param maxFrameSize maximum size in bytes of a frame payload the peer is allowed to send.
+     * @return {@code this}
+     * @see H2ProtocolConfig#maxFrameSize()
+     */
+    public H2ProtocolConfigBuilder maxFrameSize(final int maxFrameSize) {
+        if (maxFrameSize < MAX_FRAME_SIZE_LOWER_BOUND || maxFrameSize > MAX_FRAME_SIZE_UPPER_BOUND) {
+            throw new IllegalArgumentException("maxFrameSize: " + maxFrameSize + " (expected [" +
+                    MAX_FRAME_SIZE_LOWER_BOUND + ", " + MAX_FRAME_SIZE_UPPER_BOUND + "])");
+        }
+        this.maxFrameSize = maxFrameSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrent streams the peer is allowed to open. Only applies to servers.
+     *
+     * @param maxConcurrentStreams maximum number of concurrent streams the peer is allowed to open.
+     * @return {@code this}
+     * @see H2ProtocolConfig#maxConcurrentStreams()
+     */
+    public H2ProtocolConfigBuilder maxConcurrentStreams(final long maxConcurrentStreams) {
+        if (maxConcurrentStreams < MIN_CONCURRENT_STREAMS || maxConcurrentStreams > MAX_CONCURRENT_STREAMS) {
+            throw new IllegalArgumentException("maxConcurrentStreams: " + maxConcurrentStreams + " (expected [" +
+                    MIN_CONCURRENT_STREAMS + ", " + MAX_CONCURRENT_STREAMS + "])");
+        }
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        return this;
+    }
+
+    /**
+     * Sets the maximum size in bytes of the uncompressed header list the peer is allowed to send.
+     *
+     * @param maxHeaderListSize maximum size in bytes of the uncompressed header list the peer is allowed to send.
+     * @return {@code this}
+     * @see H2ProtocolConfig#maxHeaderListSize()
+     */
+    public H2ProtocolConfigBuilder maxHeaderListSize(final long maxHeaderListSize) {
+        if (maxHeaderListSize < MIN_HEADER_LIST_SIZE || maxHeaderListSize > MAX_HEADER_LIST_SIZE) {
+            throw new IllegalArgumentException("maxHeaderListSize: " + maxHeaderListSize + " (expected [" +
+                    MIN_HEADER_LIST_SIZE + ", " + MAX_HEADER_LIST_SIZE + "])");
+        }
+        this.maxHeaderListSize = maxHeaderListSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrent streams a client opens on a single connection before the load balancer
+     * selects or opens another connection to the same host.
+     * <p>
+     * Only applies to clients. Combine with
+     * {@link io.servicetalk.transport.api.ServiceTalkSocketOptions#IDLE_TIMEOUT} to close the additional connections
+     * when the load decreases.
+     *
+     * @param maxActiveStreamsPerConnection maximum number of concurrent streams a client opens on a single connection.
+     * @return {@code this}
+     * @see H2ProtocolConfig#maxActiveStreamsPerConnection()
+     */
+    public H2ProtocolConfigBuilder maxActiveStreamsPerConnection(final int maxActiveStreamsPerConnection) {
+        if (maxActiveStreamsPerConnection <= 0) {
+            throw new IllegalArgumentException("maxActiveStreamsPerConnection: " + maxActiveStreamsPerConnection +
+                    " (expected > 0)");
+        }
+        this.maxActiveStreamsPerConnection = maxActiveStreamsPerConnection;
+        return this;
+    }
+
+    /**
+     * Enables automatic growth of the stream and connection flow-control windows based on the bandwidth-delay product
+     * measured with <a href="https://tools.ietf.org/html/rfc7540#section-6.7">PING frames</a>.
+     *
+     * @param maxWindowSize maximum size in bytes up to which the flow-control windows are grown. {@code 0} disables
+     * automatic tuning.
+     * @return {@code this}
+     * @see H2ProtocolConfig#flowControlAutoTuningMaxWindowSize()
+     */
+    public H2ProtocolConfigBuilder flowControlAutoTuning(final int maxWindowSize) {
+        if (maxWindowSize < 0) {
+            throw new IllegalArgumentException("maxWindowSize: " + maxWindowSize + " (expected >= 0)");
+        }
+        this.flowControlAutoTuningMaxWindowSize = maxWindowSize;
+        return this;
+    }
+
     /**
      * Enables a logger for HTTP/2 frames.
      *
@@ -102,33 +283,86 @@ public final class H2ProtocolConfigBuilder {
         return this;
     }
 
+    /**
+     * Enables coalescing of flushes requested by individual streams at the connection level.
+     * <p>
+     * By default, every stream flushes the connection according to its own flush strategy, which may result in a
+     * syscall per small frame when many streams are active concurrently. When enabled, these flushes are deferred
+     * until the end of the current event loop iteration or until {@code maxPendingBytes} are written but not flushed,
+     * whichever comes first.
+     *
+     * @param maxPendingBytes maximum number of bytes that may be written to the connection without being flushed.
+     * {@code 0} disables coalescing.
+     * @return {@code this}
+     * @see H2ProtocolConfig#flushCoalescingThreshold()
+     */
+    public H2ProtocolConfigBuilder flushCoalescingThreshold(final int maxPendingBytes) {
+        if (maxPendingBytes < 0) {
+            throw new IllegalArgumentException("maxPendingBytes: " + maxPendingBytes + " (expected >= 0)");
+        }
+        this.flushCoalescingThreshold = maxPendingBytes;
+        return this;
+    }
+
     /**
      * Builds {@link H2ProtocolConfig}.
      *
      * @return {@link H2ProtocolConfig}
      */
     public H2ProtocolConfig build() {
-        return new DefaultH2ProtocolConfig(headersFactory, headersSensitivityDetector, frameLoggerConfig,
-                keepAlivePolicy);
+        return new DefaultH2ProtocolConfig(headersFactory, headersSensitivityDetector, headersIndexingPolicy,
+                headerTableSize, initialStreamWindowSize, connectionWindowSize, maxFrameSize, maxConcurrentStreams,
+                maxHeaderListSize, maxActiveStreamsPerConnection, flowControlAutoTuningMaxWindowSize,
+                frameLoggerConfig, keepAlivePolicy, flushCoalescingThreshold);
     }
 
     private static final class DefaultH2ProtocolConfig implements H2ProtocolConfig {
 
         private final HttpHeadersFactory headersFactory;
         private final BiPredicate<CharSequence, CharSequence> headersSensitivityDetector;
+        private final BiPredicate<CharSequence, CharSequence> headersIndexingPolicy;
+        private final long headerTableSize;
+        private final int initialStreamWindowSize;
+        private final int connectionWindowSize;
+        private final int maxFrameSize;
+        private final long maxConcurrentStreams;
+        private final long maxHeaderListSize;
+        private final int maxActiveStreamsPerConnection;
+        private final int flowControlAutoTuningMaxWindowSize;
         @Nullable
         private final UserDataLoggerConfig frameLoggerConfig;
         @Nullable
         private final KeepAlivePolicy keepAlivePolicy;
+        private final int flushCoalescingThreshold;
 
         DefaultH2ProtocolConfig(final HttpHeadersFactory headersFactory,
                                 final BiPredicate<CharSequence, CharSequence> headersSensitivityDetector,
+                                final BiPredicate<CharSequence, CharSequence> headersIndexingPolicy,
+                                final long headerTableSize,
+                                final int initialStreamWindowSize,
+                                final int connectionWindowSize,
+                                final int maxFrameSize,
+                                final long maxConcurrentStreams,
+                                final long maxHeaderListSize,
+                                final int maxActiveStreamsPerConnection,
+                                final int flowControlAutoTuningMaxWindowSize,
                                 @Nullable final UserDataLoggerConfig frameLoggerConfig,
-                                @Nullable final KeepAlivePolicy keepAlivePolicy) {
+                                @Nullable final KeepAlivePolicy keepAlivePolicy,
+                                final int flushCoalescingThreshold) {
             this.headersFactory = headersFactory;
             this.headersSensitivityDetector = headersSensitivityDetector;
+            this.headersIndexingPolicy = headersIndexingPolicy;
+            this.headerTableSize = headerTableSize;
+            this.initialStreamWindowSize = initialStreamWindowSize;
+            this.connectionWindowSize = connectionWindowSize;
+            this.maxFrameSize = maxFrameSize;
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            this.maxHeaderListSize = maxHeaderListSize;
+            this.maxActiveStreamsPerConnection = maxActiveStreamsPerConnection;
+            this.flowControlAutoTuningMaxWindowSize = flowControlAutoTuningMaxWindowSize;
             this.frameLoggerConfig = frameLoggerConfig;
             this.keepAlivePolicy = keepAlivePolicy;
+            this.flushCoalescingThreshold = flushCoalescingThreshold;
         }
 
         @Override
@@ -141,6 +375,51 @@ public final class H2ProtocolConfigBuilder {
             return headersSensitivityDetector;
         }
 
+        @Override
+        public BiPredicate<CharSequence, CharSequence> headersIndexingPolicy() {
+            return headersIndexingPolicy;
+        }
+
+        @Override
+        public long headerTableSize() {
+            return headerTableSize;
+        }
+
+        @Override
+        public int initialStreamWindowSize() {
+            return initialStreamWindowSize;
+        }
+
+        @Override
+        public int connectionWindowSize() {
+            return connectionWindowSize;
+        }
+
+        @Override
+        public int maxFrameSize() {
+            return maxFrameSize;
+        }
+
+        @Override
+        public long maxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        @Override
+        public long maxHeaderListSize() {
+            return maxHeaderListSize;
+        }
+
+        @Override
+        public int maxActiveStreamsPerConnection() {
+            return maxActiveStreamsPerConnection;
+        }
+
+        @Override
+        public int flowControlAutoTuningMaxWindowSize() {
+            return flowControlAutoTuningMaxWindowSize;
+        }
+
         @Nullable
         @Override
         public UserDataLoggerConfig frameLoggerConfig() {
@@ -152,5 +431,10 @@ public final class H2ProtocolConfigBuilder {
         public KeepAlivePolicy keepAlivePolicy() {
             return keepAlivePolicy;
         }
+
+        @Override
+        public int flushCoalescingThreshold() {
+            return flushCoalescingThreshold;
+        }
     }
 }
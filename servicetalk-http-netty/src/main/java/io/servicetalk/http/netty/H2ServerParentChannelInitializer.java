@@ -21,11 +21,18 @@ import io.servicetalk.transport.netty.internal.ChannelInitializer;
 import io.netty.channel.Channel;
 import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
 import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2Settings;
 import io.netty.handler.codec.http2.Http2StreamChannel;
 
 import java.util.function.BiPredicate;
 import javax.annotation.Nullable;
 
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_HEADER_LIST_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_HEADER_TABLE_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_MAX_FRAME_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_WINDOW_SIZE;
+import static io.netty.handler.codec.http2.Http2CodecUtil.MAX_CONCURRENT_STREAMS;
+import static io.servicetalk.http.netty.H2HeadersFactory.DEFAULT_INDEXING_POLICY;
 import static io.servicetalk.logging.slf4j.internal.Slf4jFixedLevelLoggers.newLogger;
 
 final class H2ServerParentChannelInitializer implements ChannelInitializer {
@@ -51,15 +58,64 @@ final class H2ServerParentChannelInitializer implements ChannelInitializer {
                 // the user to apply their own timeout at the call site.
                 .gracefulShutdownTimeoutMillis(-1);
 
-        final BiPredicate<CharSequence, CharSequence> headersSensitivityDetector =
-                config.headersSensitivityDetector();
-        multiplexCodecBuilder.headerSensitivityDetector(headersSensitivityDetector::test);
+        initHpack(multiplexCodecBuilder, config);
+        initSettings(multiplexCodecBuilder, config, true);
 
         initFrameLogger(multiplexCodecBuilder, config.frameLoggerConfig());
 
         // TODO(scott): more configuration. header validation, settings stream, etc...
 
-        channel.pipeline().addLast(multiplexCodecBuilder.build(), new Http2MultiplexHandler(streamChannelInitializer));
+        initFlushCoalescing(channel, config.flushCoalescingThreshold());
+        channel.pipeline().addLast(multiplexCodecBuilder.build());
+        initFlowControl(channel, config);
+        channel.pipeline().addLast(new Http2MultiplexHandler(streamChannelInitializer));
+    }
+
+    static void initHpack(final Http2FrameCodecBuilder multiplexCodecBuilder, final H2ProtocolConfig config) {
+        final BiPredicate<CharSequence, CharSequence> sensitivityDetector = config.headersSensitivityDetector();
+        final BiPredicate<CharSequence, CharSequence> indexingPolicy = config.headersIndexingPolicy();
+        // Netty's HPACK encoder only distinguishes sensitive pairs from pairs which may be indexed, so pairs which must
+        // not be indexed are encoded as "never indexed" literals.
+        multiplexCodecBuilder.headerSensitivityDetector(indexingPolicy == DEFAULT_INDEXING_POLICY ?
+                sensitivityDetector::test :
+                (name, value) -> sensitivityDetector.test(name, value) || !indexingPolicy.test(name, value));
+        if (config.headerTableSize() != DEFAULT_HEADER_TABLE_SIZE) {
+            // Applied to the HPACK decoder once the peer acknowledges the SETTINGS frame.
+            multiplexCodecBuilder.initialSettings().headerTableSize(config.headerTableSize());
+        }
+    }
+
+    static void initSettings(final Http2FrameCodecBuilder multiplexCodecBuilder, final H2ProtocolConfig config,
+                             final boolean server) {
+        final Http2Settings settings = multiplexCodecBuilder.initialSettings();
+        if (config.initialStreamWindowSize() != DEFAULT_WINDOW_SIZE) {
+            settings.initialWindowSize(config.initialStreamWindowSize());
+        }
+        if (config.maxFrameSize() != DEFAULT_MAX_FRAME_SIZE) {
+            settings.maxFrameSize(config.maxFrameSize());
+        }
+        if (config.maxHeaderListSize() != DEFAULT_HEADER_LIST_SIZE) {
+            settings.maxHeaderListSize(config.maxHeaderListSize());
+        }
+        // Clients don't accept server push, the limit of concurrent streams initiated by the server is always 0.
+        if (server && config.maxConcurrentStreams() != MAX_CONCURRENT_STREAMS) {
+            settings.maxConcurrentStreams(config.maxConcurrentStreams());
+        }
+    }
+
+    static void initFlowControl(final Channel channel, final H2ProtocolConfig config) {
+        if (config.connectionWindowSize() > DEFAULT_WINDOW_SIZE || config.flowControlAutoTuningMaxWindowSize() > 0) {
+            // Must be placed after the codec and before the multiplex handler to observe all DATA frames.
+            channel.pipeline().addLast(new H2FlowControlHandler(config.initialStreamWindowSize(),
+                    config.connectionWindowSize(), config.flowControlAutoTuningMaxWindowSize()));
+        }
+    }
+
+    static void initFlushCoalescing(final Channel channel, final int flushCoalescingThreshold) {
+        if (flushCoalescingThreshold > 0) {
+            // Must be placed before the codec to observe the parent channel flushes triggered by all streams.
+            channel.pipeline().addLast(new H2FlushCoalescingHandler(flushCoalescingThreshold));
+        }
     }
 
     static void initFrameLogger(final Http2FrameCodecBuilder multiplexCodecBuilder,
@@ -176,7 +176,8 @@ final class H2ServerParentConnectionContext extends H2ParentConnectionContext im
                                 // ServiceTalk HTTP service handler
                                 new NettyHttpServerConnection(streamConnection, service, HTTP_2_0,
                                         h2ServerConfig.headersFactory(), drainRequestPayloadBody,
-                                        config.allowDropTrailersReadFromTransport()).process(false);
+                                        config.allowDropTrailersReadFromTransport(), config.addDateHeader())
+                                        .process(false);
                             }
                     }).init(channel);
                 } catch (Throwable cause) {
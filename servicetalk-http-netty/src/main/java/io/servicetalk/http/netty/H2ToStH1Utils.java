@@ -1,5 +1,5 @@
 /*
- * Copyright © 2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2019-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import io.servicetalk.http.api.HttpHeaders;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http2.DefaultHttp2Headers;
 import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.util.AsciiString;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -28,6 +29,7 @@ import java.util.Map;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.TE;
 import static io.netty.handler.codec.http.HttpHeaderValues.TRAILERS;
+import static io.netty.util.AsciiString.isUpperCase;
 import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
 import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
 import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
@@ -177,12 +179,37 @@ final class H2ToStH1Utils {
             return new DefaultHttp2Headers(false, 0);
         }
 
-        DefaultHttp2Headers http2Headers = new DefaultHttp2Headers(false);
+        DefaultHttp2Headers http2Headers = new DefaultHttp2Headers(false, h1Headers.size());
         for (Map.Entry<CharSequence, CharSequence> h1Entry : h1Headers) {
             // header field names MUST be converted to lowercase prior to their encoding in HTTP/2
             // https://tools.ietf.org/html/rfc7540#section-8.1.2
-            http2Headers.add(h1Entry.getKey().toString().toLowerCase(), h1Entry.getValue());
+            http2Headers.add(toLowerCase(h1Entry.getKey()), h1Entry.getValue());
         }
         return http2Headers;
     }
+
+    /**
+     * Convert a header name to lowercase, without copying it if it is already lowercase (the common case for
+     * well-known header names).
+     *
+     * @param name the header name.
+     * @return {@code name} if it is already lowercase, or a lowercase copy of {@code name} otherwise.
+     * @throws IllegalArgumentException if {@code name} contains a non-ASCII character, which can not be a token
+     * character and would be mangled by the conversion to {@link AsciiString}.
+     */
+    static CharSequence toLowerCase(final CharSequence name) {
+        if (name instanceof AsciiString) {
+            return ((AsciiString) name).toLowerCase();
+        }
+        boolean upperCase = false;
+        for (int i = 0; i < name.length(); ++i) {
+            final char c = name.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Header name contains a non-ASCII character at index " + i +
+                        ": " + name);
+            }
+            upperCase |= isUpperCase(c);
+        }
+        return upperCase ? AsciiString.of(name).toLowerCase() : name;
+    }
 }
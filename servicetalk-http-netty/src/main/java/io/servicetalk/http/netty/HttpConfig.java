@@ -1,5 +1,5 @@
 /*
- * Copyright © 2019-2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2019-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ final class HttpConfig {
     private H2ProtocolConfig h2Config;
     private List<String> supportedAlpnProtocols;
     private boolean allowDropTrailers;
+    private boolean addDateHeader;
 
     HttpConfig() {
         h1Config = h1Default();
@@ -46,6 +47,7 @@ final class HttpConfig {
         this.h2Config = from.h2Config;
         this.supportedAlpnProtocols = from.supportedAlpnProtocols;
         this.allowDropTrailers = from.allowDropTrailers;
+        this.addDateHeader = from.addDateHeader;
     }
 
     @Nullable
@@ -70,6 +72,14 @@ final class HttpConfig {
         this.allowDropTrailers = allowDrop;
     }
 
+    boolean addDateHeader() {
+        return addDateHeader;
+    }
+
+    void addDateHeader(boolean enable) {
+        this.addDateHeader = enable;
+    }
+
     void protocols(final HttpProtocolConfig... protocols) {
         requireNonNull(protocols);
         if (protocols.length < 1) {
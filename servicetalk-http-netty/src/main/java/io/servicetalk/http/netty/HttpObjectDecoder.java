@@ -61,7 +61,6 @@ import static io.netty.handler.codec.http.HttpConstants.CR;
 import static io.netty.handler.codec.http.HttpConstants.HT;
 import static io.netty.handler.codec.http.HttpConstants.LF;
 import static io.netty.handler.codec.http.HttpConstants.SP;
-import static io.netty.util.ByteProcessor.FIND_LF;
 import static io.servicetalk.buffer.api.CharSequences.emptyAsciiString;
 import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
 import static io.servicetalk.buffer.netty.BufferUtils.newBufferFrom;
@@ -79,6 +78,14 @@ import static io.servicetalk.http.api.HttpRequestMethod.GET;
 import static io.servicetalk.http.api.HttpResponseStatus.SWITCHING_PROTOCOLS;
 import static io.servicetalk.http.netty.HeaderUtils.removeTransferEncodingChunked;
 import static io.servicetalk.http.netty.HttpKeepAlive.shouldClose;
+import static io.servicetalk.http.netty.KnownHttpHeaders.knownHeaderName;
+import static io.servicetalk.http.netty.KnownHttpHeaders.knownHeaderValue;
+import static io.servicetalk.http.netty.LazyHttpHeaders.validateHeaderName;
+import static io.servicetalk.http.netty.LazyHttpHeaders.validateHeaderValue;
+import static io.servicetalk.http.netty.SwarUtils.compilePattern;
+import static io.servicetalk.http.netty.SwarUtils.indexOf;
+import static io.servicetalk.http.netty.SwarUtils.indexOfNonVCHAR;
+import static io.servicetalk.http.netty.SwarUtils.indexOfWS;
 import static java.lang.Character.isISOControl;
 import static java.lang.Character.isWhitespace;
 import static java.lang.Long.parseUnsignedLong;
@@ -99,17 +106,8 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         throw new StacklessDecoderException("Invalid preface character before the start-line of the HTTP message",
                 new IllegalCharacterException(value, "CR (0x0d), LF (0x0a)"));
     };
-    private static final ByteProcessor FIND_WS = value -> !isWS(value);
-    private static final ByteProcessor FIND_VCHAR_END = value -> {
-        if (isVCHAR(value)) {
-            return true;
-        }
-        if (isWS(value)) {
-            return false;
-        }
-        throw new IllegalCharacterException(value, "VCHAR (0x21-0x7e)");
-    };
-    private static final ByteProcessor FIND_COLON = value -> value != COLON;
+    private static final long COLON_PATTERN = compilePattern(COLON);
+    private static final long LF_PATTERN = compilePattern(LF);
     private static final ByteProcessor FIND_FIELD_VALUE = value -> {
         // Skip preceded and/or followed OWS
         if (isWS(value)) {
@@ -130,6 +128,7 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
     private final int maxHeaderFieldLength;
 
     private final HttpHeadersFactory headersFactory;
+    private final boolean lazyHeaders;
     private final CloseHandler closeHandler;
     private final boolean allowPrematureClosureBeforePayloadBody;
     /**
@@ -192,12 +191,23 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         this.maxHeaderFieldLength = maxHeaderFieldLength;
         this.allowPrematureClosureBeforePayloadBody = allowPrematureClosureBeforePayloadBody;
         this.allowLFWithoutCR = allowLFWithoutCR;
+        // The raw header block is forwarded verbatim, hence it is kept only if every line is terminated with CRLF.
+        this.lazyHeaders = headersFactory.lazyParsing() && !allowLFWithoutCR;
     }
 
     final HttpHeadersFactory headersFactory() {
         return headersFactory;
     }
 
+    /**
+     * Creates a new {@link HttpHeaders} instance for a decoded message.
+     *
+     * @return a new {@link HttpHeaders} instance for a decoded message.
+     */
+    final HttpHeaders newHeaders() {
+        return lazyHeaders ? new LazyHttpHeaders(headersFactory) : headersFactory.newHeaders();
+    }
+
     /**
      * Determine if this {@link HttpObjectDecoder} is responsible for decoding requests or not. Behavior may differ
      * if a request/response is being parsed around request/response termination. See
@@ -257,19 +267,23 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
                 final int nonControlIndex = crlfBeforeIndex(longLFIndex);
                 final int aStart = buffer.readerIndex();    // We already skipped all preface control chars
                 // Look only for a WS, other checks will be done later by request/response decoder
-                final int aEnd = buffer.forEachByte(aStart + 1, nonControlIndex - aStart, FIND_WS);
+                final int aEnd = indexOfWS(buffer, aStart + 1, nonControlIndex + 1);
                 if (aEnd < 0) {
                     throw newStartLineError("first");
                 }
 
                 final int bStart = aEnd + 1;    // Expect a single WS
                 final int bEnd;
-                try {
-                    bEnd = buffer.forEachByte(bStart, nonControlIndex - bStart + 1,
-                            isDecodingRequest() ? FIND_VCHAR_END : FIND_WS);
-                } catch (IllegalCharacterException cause) {
-                    throw new StacklessDecoderException(
-                            "Invalid start-line: HTTP request-target contains an illegal character", cause);
+                if (isDecodingRequest()) {
+                    bEnd = indexOfNonVCHAR(buffer, bStart, nonControlIndex + 1);
+                    final byte value;
+                    if (bEnd >= 0 && !isWS(value = buffer.getByte(bEnd))) {
+                        throw new StacklessDecoderException(
+                                "Invalid start-line: HTTP request-target contains an illegal character",
+                                new IllegalCharacterException(value, "VCHAR (0x21-0x7e)"));
+                    }
+                } else {
+                    bEnd = indexOfWS(buffer, bStart, nonControlIndex + 1);
                 }
                 if (bEnd < 0 || bEnd == bStart) {
                     throw newStartLineError("second");
@@ -624,16 +638,20 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         // Additional checks will be done by header validator
 
         final int nameStart = buffer.readerIndex();
-        final int nameEnd = buffer.forEachByte(nameStart, nonControlIndex - nameStart + 1, FIND_COLON);
+        final int nameEnd = indexOf(buffer, nameStart, nonControlIndex + 1, COLON_PATTERN, COLON);
         if (nameEnd < 0) {
             throw newDecoderExceptionAtLine("Unable to find end of a header name in line ", parsingLine);
         }
         if (nameEnd == nameStart) {
             throw newDecoderExceptionAtLine("Empty header name in line ", parsingLine);
         }
-        // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
-        final CharSequence name = newAsciiString(newBufferFrom(buffer.retainedSlice(nameStart, nameEnd - nameStart)));
-        final CharSequence value;
+        final int nameLength = nameEnd - nameStart;
+        CharSequence name = knownHeaderName(buffer, nameStart, nameLength);
+        if (name == null) {
+            // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
+            name = newAsciiString(newBufferFrom(buffer.retainedSlice(nameStart, nameLength)));
+        }
+        CharSequence value;
         try {
             final int valueStart;
             if (nameEnd >= nonControlIndex || (valueStart =
@@ -642,8 +660,12 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
             } else {
                 final int valueEnd =
                         buffer.forEachByteDesc(valueStart, nonControlIndex - valueStart + 1, FIND_FIELD_VALUE);
-                // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
-                value = newAsciiString(newBufferFrom(buffer.retainedSlice(valueStart, valueEnd - valueStart + 1)));
+                final int valueLength = valueEnd - valueStart + 1;
+                value = knownHeaderValue(buffer, valueStart, valueLength);
+                if (value == null) {
+                    // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
+                    value = newAsciiString(newBufferFrom(buffer.retainedSlice(valueStart, valueLength)));
+                }
             }
         } catch (IllegalCharacterException cause) {
             throw invalidHeaderValue(name, parsingLine, cause);
@@ -680,7 +702,9 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         }
         final T message = this.message;
         assert message != null;
-        if (!parseAllHeaders(buffer, message.headers(), longLFIndex)) {
+        final HttpHeaders headers = message.headers();
+        if (!(headers instanceof LazyHttpHeaders ? parseAllHeaders(buffer, (LazyHttpHeaders) headers, longLFIndex) :
+                parseAllHeaders(buffer, headers, longLFIndex))) {
             return null;
         }
 
@@ -758,6 +782,77 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         }
     }
 
+    /**
+     * Index the HTTP headers from a buffer without materializing them.
+     * <p>
+     * The header block is kept as a whole, so it is indexed only when it is complete. If it is not complete yet, the
+     * buffer is rewound and the block will be indexed again when more data is available.
+     *
+     * @param buffer source of the headers
+     * @param headers destination for indexed headers
+     * @param longLFIndex result of {@link #findCRLF(ByteBuf, int, int, int, boolean)}
+     * @return true if complete headers were processed otherwise false indicates incomplete parsing or error.
+     */
+    private boolean parseAllHeaders(final ByteBuf buffer, final LazyHttpHeaders headers, long longLFIndex) {
+        final int blockStart = buffer.readerIndex();
+        final int blockStartLine = parsingLine;
+        for (;;) {
+            final int lfIndex = crlfIndex(longLFIndex);
+            final int nonControlIndex = crlfBeforeIndex(longLFIndex);
+            if (nonControlIndex < buffer.readerIndex()) {
+                headers.rawHeaders(buffer.retainedSlice(blockStart, buffer.readerIndex() - blockStart), blockStart);
+                consumeCRLF(buffer, lfIndex);
+                return true;
+            }
+            longLFIndex = findCRLF(buffer, lfIndex + 1, maxHeaderFieldLength, parsingLine, allowLFWithoutCR);
+            indexHeaderLine(headers, buffer, lfIndex, nonControlIndex);
+            if (longLFIndex < 0) {
+                headers.resetEntries();
+                buffer.readerIndex(blockStart);
+                parsingLine = blockStartLine;
+                return false;
+            }
+            ++parsingLine;
+        }
+    }
+
+    private void indexHeaderLine(final LazyHttpHeaders headers, final ByteBuf buffer, final int lfIndex,
+                                 final int nonControlIndex) throws DecoderException {
+        // Same grammar as parseHeaderLine, but the name and value are validated here because there is no header
+        // validator until the headers are materialized, and the raw header block may be written out verbatim.
+        final int nameStart = buffer.readerIndex();
+        final int nameEnd = indexOf(buffer, nameStart, nonControlIndex + 1, COLON_PATTERN, COLON);
+        if (nameEnd < 0) {
+            throw newDecoderExceptionAtLine("Unable to find end of a header name in line ", parsingLine);
+        }
+        if (nameEnd == nameStart) {
+            throw newDecoderExceptionAtLine("Empty header name in line ", parsingLine);
+        }
+        final int nameLength = nameEnd - nameStart;
+        try {
+            validateHeaderName(buffer, nameStart, nameLength);
+        } catch (IllegalCharacterException cause) {
+            throw invalidHeaderName(buffer.toString(nameStart, nameLength, US_ASCII), parsingLine, cause);
+        }
+        try {
+            final int valueStart;
+            if (nameEnd >= nonControlIndex || (valueStart =
+                    buffer.forEachByte(nameEnd + 1, nonControlIndex - nameEnd, FIND_FIELD_VALUE)) < 0) {
+                headers.addEntry(nameStart, nameLength, nameEnd, 0);
+            } else {
+                final int valueEnd =
+                        buffer.forEachByteDesc(valueStart, nonControlIndex - valueStart + 1, FIND_FIELD_VALUE);
+                final int valueLength = valueEnd - valueStart + 1;
+                validateHeaderValue(buffer, valueStart, valueLength);
+                headers.addEntry(nameStart, nameLength, valueStart, valueLength);
+            }
+        } catch (IllegalCharacterException cause) {
+            throw invalidHeaderValue(buffer.toString(nameStart, nameLength, US_ASCII), parsingLine, cause);
+        }
+        // Consume the header line bytes from the buffer.
+        consumeCRLF(buffer, lfIndex);
+    }
+
     private static long getChunkSize(final ByteBuf buffer, final int lfIndex) {
         if (lfIndex - 2 < buffer.readerIndex()) {
             throw new DecoderException("Chunked encoding specified but chunk-size not found");
@@ -873,7 +968,7 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         if (fromIndex >= toIndex) {
             return -1;
         }
-        return buffer.forEachByte(fromIndex, toIndex - fromIndex, FIND_LF);
+        return indexOf(buffer, fromIndex, toIndex, LF_PATTERN, LF);
     }
 
     private DecoderException newStartLineError(final String place) {
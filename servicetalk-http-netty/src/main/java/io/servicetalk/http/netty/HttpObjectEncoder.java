@@ -35,7 +35,9 @@ import io.servicetalk.http.api.EmptyHttpHeaders;
 import io.servicetalk.http.api.HttpHeaderNames;
 import io.servicetalk.http.api.HttpHeaderValues;
 import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpHeadersTemplate;
 import io.servicetalk.http.api.HttpMetaData;
+import io.servicetalk.http.api.TemplateHttpHeaders;
 import io.servicetalk.transport.netty.internal.CloseHandler;
 
 import io.netty.buffer.ByteBuf;
@@ -47,6 +49,7 @@ import io.netty.util.concurrent.PromiseCombiner;
 
 import java.io.IOException;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 import static io.netty.buffer.ByteBufUtil.writeMediumBE;
 import static io.netty.buffer.ByteBufUtil.writeShortBE;
@@ -145,8 +148,13 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
             try {
                 Buffer stBuf = newBufferFrom(byteBuf);
 
-                // Encode the message.
-                encodeInitialLine(stBuf, metaData);
+                // Encode the message. If the headers were created from a template which includes the initial line,
+                // the initial line is written together with the headers of the template.
+                final HttpHeadersTemplate template = template(metaData.headers());
+                final Buffer encodedHead = template == null ? null : encodedInitialLineAndHeaders(metaData, template);
+                if (encodedHead == null) {
+                    encodeInitialLine(stBuf, metaData);
+                }
                 if (isContentAlwaysEmpty(metaData)) {
                     state = CONTENT_LEN_EMPTY;
                     closeHandler.protocolPayloadEndOutbound(ctx, promise);
@@ -163,7 +171,17 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
 
                 sanitizeHeadersBeforeEncode(metaData);
 
-                encodeHeaders(metaData.headers(), byteBuf, stBuf);
+                final HttpHeaders headers = metaData.headers();
+                if (encodedHead != null && template(headers) == template) {
+                    writeBuffer(encodedHead, byteBuf, stBuf);
+                    encodeHeaders(((TemplateHttpHeaders) headers).addedHeaders(), byteBuf, stBuf);
+                } else {
+                    if (encodedHead != null) {
+                        // Sanitizing modified the headers of the template, so the initial line was not written yet.
+                        encodeInitialLine(stBuf, metaData);
+                    }
+                    encodeHeaders(headers, byteBuf, stBuf);
+                }
                 writeShortBE(byteBuf, CRLF_SHORT);
                 headersEncodedSizeAccumulator = HEADERS_WEIGHT_NEW * padSizeForAccumulation(byteBuf.readableBytes()) +
                                                 HEADERS_WEIGHT_HISTORICAL * headersEncodedSizeAccumulator;
@@ -310,6 +328,24 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
      */
     protected abstract long getContentLength(T message);
 
+    /**
+     * Get the encoded initial line followed by the encoded headers of {@code template} for {@code message}.
+     *
+     * @param message the message to encode.
+     * @param template the {@link HttpHeadersTemplate} the headers of {@code message} were created from.
+     * @return the encoded initial line and headers of {@code template}, or {@code null} if {@code template} doesn't
+     * include the initial line of {@code message}.
+     */
+    @Nullable
+    protected Buffer encodedInitialLineAndHeaders(T message, HttpHeadersTemplate template) {
+        return null;
+    }
+
+    @Nullable
+    private static HttpHeadersTemplate template(HttpHeaders headers) {
+        return headers instanceof TemplateHttpHeaders ? ((TemplateHttpHeaders) headers).template() : null;
+    }
+
     /**
      * Encode the {@link HttpHeaders} into a {@link ByteBuf}.
      */
@@ -323,6 +359,22 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
      * necessary for optimized data transfer to have an instance of {@link Buffer}.
      */
     private static void encodeHeaders(HttpHeaders headers, ByteBuf byteBuf, Buffer buffer) {
+        if (headers instanceof LazyHttpHeaders) {
+            final ByteBuf rawHeaders = ((LazyHttpHeaders) headers).rawHeaders();
+            if (rawHeaders != null) {
+                // Headers were received from the network and were not modified, write them out verbatim.
+                byteBuf.writeBytes(rawHeaders, rawHeaders.readerIndex(), rawHeaders.readableBytes());
+                return;
+            }
+        } else if (headers instanceof TemplateHttpHeaders) {
+            final TemplateHttpHeaders templateHeaders = (TemplateHttpHeaders) headers;
+            final HttpHeadersTemplate template = templateHeaders.template();
+            if (template != null) {
+                // The headers of the template were not modified, copy them pre-encoded.
+                writeBuffer(template.encodedHeaders(), byteBuf, buffer);
+                headers = templateHeaders.addedHeaders();
+            }
+        }
         for (Map.Entry<CharSequence, CharSequence> header : headers) {
             encodeHeader(header.getKey(), header.getValue(), byteBuf, buffer);
         }
@@ -407,6 +459,14 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
         }
     }
 
+    private static void writeBuffer(Buffer src, ByteBuf dstByteBuf, Buffer dstBuffer) {
+        final int length = src.readableBytes();
+        dstByteBuf.ensureWritable(length);
+        final int offset = dstByteBuf.writerIndex();
+        writeBufferToByteBuf(src, dstByteBuf, dstBuffer, offset);
+        dstByteBuf.writerIndex(offset + length);
+    }
+
     private static void writeBufferToByteBuf(Buffer src, ByteBuf dstByteBuf, Buffer dstBuffer, int dstOffset) {
         ByteBuf byteBuf = toByteBufNoThrow(src);
         if (byteBuf != null) {
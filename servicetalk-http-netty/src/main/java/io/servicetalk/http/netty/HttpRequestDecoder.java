@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -93,7 +93,7 @@ final class HttpRequestDecoder extends HttpObjectDecoder<HttpRequestMetaData> {
         return newRequestMetaData(nettyBufferToHttpVersion(buffer, thirdStart, thirdLength),
                 decodeHttpMethod(buffer, firstStart, firstLength),
                 buffer.toString(secondStart, secondLength, US_ASCII),
-                headersFactory().newHeaders());
+                newHeaders());
     }
 
     private static HttpRequestMethod decodeHttpMethod(final ByteBuf buffer, final int start, final int length) {
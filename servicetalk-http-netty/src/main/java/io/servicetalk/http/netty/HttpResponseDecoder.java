@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -104,7 +104,7 @@ final class HttpResponseDecoder extends HttpObjectDecoder<HttpResponseMetaData>
         return newResponseMetaData(nettyBufferToHttpVersion(buffer, firstStart, firstLength),
                 HttpResponseStatus.of(nettyBufferToStatusCode(buffer, secondStart, secondLength),
                         reasonPhrase(buffer, thirdStart, thirdLength)),
-                headersFactory().newHeaders());
+                newHeaders());
     }
 
     private static String reasonPhrase(final ByteBuf buffer, final int start, final int length) {
@@ -32,12 +32,14 @@ package io.servicetalk.http.netty;
 
 import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpHeadersTemplate;
 import io.servicetalk.http.api.HttpRequestMethod;
 import io.servicetalk.http.api.HttpResponseMetaData;
 import io.servicetalk.http.api.HttpResponseStatus;
 import io.servicetalk.transport.netty.internal.CloseHandler;
 
 import java.util.Queue;
+import javax.annotation.Nullable;
 
 import static io.netty.handler.codec.http.HttpConstants.SP;
 import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
@@ -98,6 +100,13 @@ final class HttpResponseEncoder extends HttpObjectEncoder<HttpResponseMetaData>
         stBuffer.writeShort(CRLF_SHORT);
     }
 
+    @Nullable
+    @Override
+    protected Buffer encodedInitialLineAndHeaders(final HttpResponseMetaData message,
+                                                  final HttpHeadersTemplate template) {
+        return template.encodedResponseHead(message.version(), message.status());
+    }
+
     @Override
     protected long getContentLength(final HttpResponseMetaData message) {
         return HttpObjectDecoder.getContentLength(message);
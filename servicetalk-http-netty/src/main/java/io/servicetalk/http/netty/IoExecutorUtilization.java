@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.encoding.api.AdaptiveBufferEncoderBuilder;
+import io.servicetalk.encoding.api.BufferEncoder;
+import io.servicetalk.transport.api.IoExecutorMetrics;
+import io.servicetalk.transport.api.IoExecutorMetrics.IoThreadMetrics;
+import io.servicetalk.transport.api.MonitoredIoExecutor;
+
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Factory methods for utilization {@link DoubleSupplier}s derived from {@link IoExecutorMetrics}, which can be used to
+ * select a cheaper encoder while IO threads are busy, see
+ * {@link AdaptiveBufferEncoderBuilder#highUtilizationEncoder(BufferEncoder, DoubleSupplier, double)}.
+ */
+public final class IoExecutorUtilization {
+
+    private IoExecutorUtilization() {
+        // No instances
+    }
+
+    /**
+     * Returns a {@link DoubleSupplier} of the highest {@link IoThreadMetrics#utilization() utilization} among the IO
+     * threads of the passed {@link MonitoredIoExecutor}.
+     *
+     * @param ioExecutor the {@link MonitoredIoExecutor} used by the server.
+     * @return a {@link DoubleSupplier} of the highest utilization among the IO threads of {@code ioExecutor}.
+     * @see #maxIoThreadUtilization(IoExecutorMetrics)
+     */
+    public static DoubleSupplier maxIoThreadUtilization(final MonitoredIoExecutor ioExecutor) {
+        return maxIoThreadUtilization(ioExecutor.metrics());
+    }
+
+    /**
+     * Returns a {@link DoubleSupplier} of the highest {@link IoThreadMetrics#utilization() utilization} among the IO
+     * threads described by the passed {@link IoExecutorMetrics}.
+     * <p>
+     * The returned value is computed from the most recent samples every time it is requested, IO threads which can
+     * not be measured are ignored. If none of the IO threads can be measured, {@code 0} is returned.
+     *
+     * @param metrics the {@link IoExecutorMetrics} of the {@link MonitoredIoExecutor} used by the server.
+     * @return a {@link DoubleSupplier} of the highest utilization among the IO threads described by {@code metrics}.
+     */
+    public static DoubleSupplier maxIoThreadUtilization(final IoExecutorMetrics metrics) {
+        requireNonNull(metrics);
+        return () -> {
+            final List<IoThreadMetrics> threads = metrics.ioThreadMetrics();
+            double max = 0;
+            for (int i = 0; i < threads.size(); ++i) {
+                final double utilization = threads.get(i).utilization();
+                // NaN fails the comparison and is skipped.
+                if (utilization > max) {
+                    max = utilization;
+                }
+            }
+            return max;
+        };
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.HttpHeaderNames;
+import io.servicetalk.http.api.HttpHeaderValues;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+
+/**
+ * Resolves well-known header names and values to shared constants directly from the bytes of a {@link ByteBuf}, so
+ * {@link HttpObjectDecoder} does not need to allocate (and retain a slice) for every header it parses.
+ * <p>
+ * Matching is case-sensitive, decoded headers always preserve the exact bytes received from the peer. Header names are
+ * known in lower-case (as defined by {@link HttpHeaderNames}) and in the canonical capitalized form (e.g.
+ * {@code Content-Type}), which covers the vast majority of HTTP/1.x peers.
+ */
+final class KnownHttpHeaders {
+
+    private static final CharSequence[] LOWER_CASE_NAMES = {
+            HttpHeaderNames.ACCEPT, HttpHeaderNames.ACCEPT_CHARSET, HttpHeaderNames.ACCEPT_ENCODING,
+            HttpHeaderNames.ACCEPT_LANGUAGE, HttpHeaderNames.ACCEPT_RANGES, HttpHeaderNames.ACCEPT_PATCH,
+            HttpHeaderNames.ACCESS_CONTROL_ALLOW_CREDENTIALS, HttpHeaderNames.ACCESS_CONTROL_ALLOW_HEADERS,
+            HttpHeaderNames.ACCESS_CONTROL_ALLOW_METHODS, HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN,
+            HttpHeaderNames.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaderNames.ACCESS_CONTROL_MAX_AGE,
+            HttpHeaderNames.ACCESS_CONTROL_REQUEST_HEADERS, HttpHeaderNames.ACCESS_CONTROL_REQUEST_METHOD,
+            HttpHeaderNames.AGE, HttpHeaderNames.ALLOW, HttpHeaderNames.AUTHORIZATION, HttpHeaderNames.CACHE_CONTROL,
+            HttpHeaderNames.CONNECTION, HttpHeaderNames.CONTENT_BASE, HttpHeaderNames.CONTENT_ENCODING,
+            HttpHeaderNames.CONTENT_LANGUAGE, HttpHeaderNames.CONTENT_LENGTH, HttpHeaderNames.CONTENT_LOCATION,
+            HttpHeaderNames.CONTENT_TRANSFER_ENCODING, HttpHeaderNames.CONTENT_DISPOSITION, HttpHeaderNames.CONTENT_MD5,
+            HttpHeaderNames.CONTENT_RANGE, HttpHeaderNames.CONTENT_SECURITY_POLICY, HttpHeaderNames.CONTENT_TYPE,
+            HttpHeaderNames.COOKIE, HttpHeaderNames.DATE, HttpHeaderNames.ETAG, HttpHeaderNames.EXPECT,
+            HttpHeaderNames.EXPIRES, HttpHeaderNames.FORWARDED, HttpHeaderNames.FROM, HttpHeaderNames.HOST,
+            HttpHeaderNames.IF_MATCH, HttpHeaderNames.IF_MODIFIED_SINCE, HttpHeaderNames.IF_NONE_MATCH,
+            HttpHeaderNames.IF_RANGE, HttpHeaderNames.IF_UNMODIFIED_SINCE, HttpHeaderNames.LAST_MODIFIED,
+            HttpHeaderNames.LOCATION, HttpHeaderNames.MAX_FORWARDS, HttpHeaderNames.ORIGIN, HttpHeaderNames.PRAGMA,
+            HttpHeaderNames.PROXY_AUTHENTICATE, HttpHeaderNames.PROXY_AUTHORIZATION, HttpHeaderNames.RANGE,
+            HttpHeaderNames.REFERER, HttpHeaderNames.RETRY_AFTER, HttpHeaderNames.SEC_WEBSOCKET_KEY1,
+            HttpHeaderNames.SEC_WEBSOCKET_KEY2, HttpHeaderNames.SEC_WEBSOCKET_LOCATION,
+            HttpHeaderNames.SEC_WEBSOCKET_ORIGIN, HttpHeaderNames.SEC_WEBSOCKET_PROTOCOL,
+            HttpHeaderNames.SEC_WEBSOCKET_VERSION, HttpHeaderNames.SEC_WEBSOCKET_KEY,
+            HttpHeaderNames.SEC_WEBSOCKET_ACCEPT, HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS, HttpHeaderNames.SERVER,
+            HttpHeaderNames.SET_COOKIE, HttpHeaderNames.SET_COOKIE2, HttpHeaderNames.TE, HttpHeaderNames.TRAILER,
+            HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderNames.UPGRADE, HttpHeaderNames.USER_AGENT,
+            HttpHeaderNames.VARY, HttpHeaderNames.VIA, HttpHeaderNames.WARNING, HttpHeaderNames.WEBSOCKET_LOCATION,
+            HttpHeaderNames.WEBSOCKET_ORIGIN, HttpHeaderNames.WEBSOCKET_PROTOCOL, HttpHeaderNames.WWW_AUTHENTICATE,
+            HttpHeaderNames.X_FORWARDED_FOR, HttpHeaderNames.X_FORWARDED_HOST, HttpHeaderNames.X_FORWARDED_PROTO,
+            HttpHeaderNames.X_REQUESTED_WITH
+    };
+
+    private static final CharSequence[] VALUES = {
+            HttpHeaderValues.APPLICATION_JSON, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED,
+            HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED_UTF_8, HttpHeaderValues.BASE64, HttpHeaderValues.BINARY,
+            HttpHeaderValues.BOUNDARY, HttpHeaderValues.BYTES, HttpHeaderValues.CHARSET, HttpHeaderValues.CHUNKED,
+            HttpHeaderValues.CLOSE, HttpHeaderValues.COMPRESS, HttpHeaderValues.CONTINUE, HttpHeaderValues.DEFLATE,
+            HttpHeaderValues.GZIP, HttpHeaderValues.IDENTITY, HttpHeaderValues.KEEP_ALIVE, HttpHeaderValues.MAX_AGE,
+            HttpHeaderValues.MAX_STALE, HttpHeaderValues.MIN_FRESH, HttpHeaderValues.MULTIPART_FORM_DATA,
+            HttpHeaderValues.MUST_REVALIDATE, HttpHeaderValues.NO_CACHE, HttpHeaderValues.NO_STORE,
+            HttpHeaderValues.NO_TRANSFORM, HttpHeaderValues.NONE, HttpHeaderValues.ONLY_IF_CACHED,
+            HttpHeaderValues.PRIVATE, HttpHeaderValues.PROXY_REVALIDATE, HttpHeaderValues.PUBLIC,
+            HttpHeaderValues.QUOTED_PRINTABLE, HttpHeaderValues.S_MAXAGE, HttpHeaderValues.TEXT_PLAIN,
+            HttpHeaderValues.TEXT_PLAIN_US_ASCII, HttpHeaderValues.TEXT_PLAIN_UTF_8, HttpHeaderValues.TRAILERS,
+            HttpHeaderValues.UPGRADE, HttpHeaderValues.WEBSOCKET, HttpHeaderValues.XML_HTTP_REQUEST,
+            HttpHeaderValues.ZERO,
+            newAsciiString("*/*"), newAsciiString("application/grpc"), newAsciiString("application/octet-stream"),
+            newAsciiString("application/json; charset=utf-8"), newAsciiString("text/html"),
+            newAsciiString("text/html; charset=utf-8"), newAsciiString("gzip, deflate"),
+            newAsciiString("gzip, deflate, br")
+    };
+
+    private static final AsciiTable NAMES_TABLE;
+    private static final AsciiTable VALUES_TABLE = new AsciiTable(VALUES);
+
+    static {
+        final List<CharSequence> names = new ArrayList<>(LOWER_CASE_NAMES.length * 2);
+        for (CharSequence name : LOWER_CASE_NAMES) {
+            names.add(name);
+            names.add(newAsciiString(capitalize(name)));
+        }
+        NAMES_TABLE = new AsciiTable(names.toArray(new CharSequence[0]));
+    }
+
+    private KnownHttpHeaders() {
+        // no instances
+    }
+
+    /**
+     * Returns a shared constant for the header name in the specified region of the {@link ByteBuf}.
+     *
+     * @param buffer the {@link ByteBuf} that contains the header name.
+     * @param index the index of the first byte of the header name.
+     * @param length the length of the header name.
+     * @return a shared constant for the header name, or {@code null} if the header name is not known.
+     */
+    @Nullable
+    static CharSequence knownHeaderName(final ByteBuf buffer, final int index, final int length) {
+        return NAMES_TABLE.get(buffer, index, length);
+    }
+
+    /**
+     * Returns a shared constant for the header value in the specified region of the {@link ByteBuf}.
+     *
+     * @param buffer the {@link ByteBuf} that contains the header value.
+     * @param index the index of the first byte of the header value.
+     * @param length the length of the header value.
+     * @return a shared constant for the header value, or {@code null} if the header value is not known.
+     */
+    @Nullable
+    static CharSequence knownHeaderValue(final ByteBuf buffer, final int index, final int length) {
+        return VALUES_TABLE.get(buffer, index, length);
+    }
+
+    private static String capitalize(final CharSequence name) {
+        final StringBuilder sb = new StringBuilder(name.length());
+        boolean upper = true;
+        for (int i = 0; i < name.length(); ++i) {
+            final char c = name.charAt(i);
+            sb.append(upper ? Character.toUpperCase(c) : c);
+            upper = c == '-';
+        }
+        return sb.toString();
+    }
+
+    /**
+     * An immutable open-addressing hash table keyed by ASCII bytes. The hash only samples the length and a few bytes
+     * of the key, which is enough to spread a small set of known keys, while a lookup for an unknown key reads at most
+     * the bytes of the candidate keys it is compared with.
+     */
+    static final class AsciiTable {
+        private final byte[][] keys;
+        private final CharSequence[] values;
+        private final int mask;
+        private final int maxLength;
+
+        AsciiTable(final CharSequence... entries) {
+            // Keep the load factor at or below 0.25 to keep probe sequences short.
+            final int size = highestOneBit(max(entries.length, 1) * 4) << 1;
+            keys = new byte[size][];
+            values = new CharSequence[size];
+            mask = size - 1;
+            int maxLength = 0;
+            for (CharSequence entry : entries) {
+                final byte[] key = new byte[entry.length()];
+                for (int i = 0; i < key.length; ++i) {
+                    key[i] = (byte) entry.charAt(i);
+                }
+                int i = hash(key) & mask;
+                while (keys[i] != null && !Arrays.equals(keys[i], key)) {
+                    i = (i + 1) & mask;
+                }
+                if (keys[i] == null) {
+                    keys[i] = key;
+                    values[i] = entry;
+                    maxLength = max(maxLength, key.length);
+                }
+            }
+            this.maxLength = maxLength;
+        }
+
+        @Nullable
+        CharSequence get(final ByteBuf buffer, final int index, final int length) {
+            if (length <= 0 || length > maxLength) {
+                return null;
+            }
+            for (int i = hash(buffer, index, length) & mask;; i = (i + 1) & mask) {
+                final byte[] key = keys[i];
+                if (key == null) {
+                    return null;
+                }
+                if (key.length == length && contentEquals(key, buffer, index)) {
+                    return values[i];
+                }
+            }
+        }
+
+        private static boolean contentEquals(final byte[] key, final ByteBuf buffer, final int index) {
+            for (int i = 0; i < key.length; ++i) {
+                if (key[i] != buffer.getByte(index + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(final byte[] key) {
+            return hash(key.length, key[0], key[key.length >>> 1], key[key.length - 1]);
+        }
+
+        private static int hash(final ByteBuf buffer, final int index, final int length) {
+            return hash(length, buffer.getByte(index), buffer.getByte(index + (length >>> 1)),
+                    buffer.getByte(index + length - 1));
+        }
+
+        private static int hash(final int length, final byte first, final byte middle, final byte last) {
+            int h = length;
+            h = 31 * h + first;
+            h = 31 * h + middle;
+            h = 31 * h + last;
+            return h ^ (h >>> 7) ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,537 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.HttpCookiePair;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpHeadersFactory;
+import io.servicetalk.http.api.HttpSetCookie;
+import io.servicetalk.utils.internal.IllegalCharacterException;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.contentEquals;
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.buffer.api.CharSequences.emptyAsciiString;
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static io.servicetalk.buffer.netty.BufferUtils.newBufferFrom;
+import static io.servicetalk.http.netty.KnownHttpHeaders.knownHeaderName;
+import static io.servicetalk.http.netty.KnownHttpHeaders.knownHeaderValue;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link HttpHeaders} backed by the raw header block received from the network.
+ * <p>
+ * The decoder validates the header block and records offsets of names and values, but does not create
+ * {@link CharSequence}s or insert them into a hash table. Lookups ({@link #get(CharSequence)},
+ * {@link #valuesIterator(CharSequence)}, {@link #contains(CharSequence, CharSequence)}, etc.) linearly scan the
+ * recorded offsets. Any other operation (iteration, modification, cookies) materializes the headers into an instance
+ * created by {@link HttpHeadersFactory#newHeaders()} and delegates to it from then on. While the headers are not
+ * materialized, the encoder writes out the {@link #rawHeaders() raw header block} verbatim.
+ * <p>
+ * A linear scan is efficient for the typical number of headers and avoids work for headers which are never accessed.
+ */
+final class LazyHttpHeaders implements HttpHeaders {
+    private static final int ENTRY_SIZE = 4;
+    private static final boolean[] TCHAR = new boolean[128];
+
+    static {
+        for (char c = '0'; c <= '9'; ++c) {
+            TCHAR[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; ++c) {
+            TCHAR[c] = true;
+            TCHAR[c - 'a' + 'A'] = true;
+        }
+        for (char c : "!#$%&'*+-.^_`|~".toCharArray()) {
+            TCHAR[c] = true;
+        }
+    }
+
+    private final HttpHeadersFactory headersFactory;
+    @Nullable
+    private ByteBuf block;
+    /**
+     * Every header takes {@link #ENTRY_SIZE} elements: name offset, name length, value offset, value length. Offsets
+     * are relative to the reader index of the {@link #block}.
+     */
+    private int[] entries = new int[8 * ENTRY_SIZE];
+    private int size;
+    @Nullable
+    private HttpHeaders materialized;
+
+    LazyHttpHeaders(final HttpHeadersFactory headersFactory) {
+        this.headersFactory = requireNonNull(headersFactory);
+    }
+
+    /**
+     * Validates a header name parsed by the decoder.
+     *
+     * @param buffer the buffer which contains the name.
+     * @param index the index of the first byte of the name.
+     * @param length the length of the name.
+     * @throws IllegalCharacterException if the name contains a byte which is not a
+     * <a href="https://tools.ietf.org/html/rfc7230#section-3.2.6">tchar</a>.
+     */
+    static void validateHeaderName(final ByteBuf buffer, final int index, final int length) {
+        for (int i = index, end = index + length; i < end; ++i) {
+            final byte value = buffer.getByte(i);
+            if (value < 0 || !TCHAR[value]) {
+                throw new IllegalCharacterException(value,
+                        "! / # / $ / % / & / ' / * / + / - / . / ^ / _ / ` / | / ~ / DIGIT / ALPHA");
+            }
+        }
+    }
+
+    /**
+     * Validates a header value parsed by the decoder. Values are always validated, regardless of
+     * {@link HttpHeadersFactory#validateValues()}, because the encoder writes out the raw header block verbatim.
+     *
+     * @param buffer the buffer which contains the value.
+     * @param index the index of the first byte of the value.
+     * @param length the length of the value.
+     * @throws IllegalCharacterException if the value contains a control character other than HTAB, or DEL.
+     */
+    static void validateHeaderValue(final ByteBuf buffer, final int index, final int length) {
+        for (int i = index, end = index + length; i < end; ++i) {
+            final byte value = buffer.getByte(i);
+            // obs-text (0x80-0xFF) is negative and allowed.
+            if ((value >= 0 && value < ' ' && value != '\t') || value == 0x7F) {
+                throw new IllegalCharacterException(value,
+                        "(VCHAR / obs-text) [ 1*(SP / HTAB) (VCHAR / obs-text) ]");
+            }
+        }
+    }
+
+    /**
+     * Records a header parsed by the decoder. Offsets are absolute indexes in the buffer which is later passed to
+     * {@link #rawHeaders(ByteBuf, int)}.
+     */
+    void addEntry(final int nameIndex, final int nameLength, final int valueIndex, final int valueLength) {
+        assert materialized == null && block == null;
+        final int offset = size * ENTRY_SIZE;
+        if (offset == entries.length) {
+            entries = copyOf(entries, entries.length << 1);
+        }
+        entries[offset] = nameIndex;
+        entries[offset + 1] = nameLength;
+        entries[offset + 2] = valueIndex;
+        entries[offset + 3] = valueLength;
+        ++size;
+    }
+
+    /**
+     * Discards all headers recorded by {@link #addEntry(int, int, int, int)}, used when the header block is incomplete
+     * and will be parsed again.
+     */
+    void resetEntries() {
+        assert materialized == null && block == null;
+        size = 0;
+    }
+
+    /**
+     * Sets the raw header block after all headers have been recorded.
+     *
+     * @param block the header lines (including their CRLF), the ownership is transferred to this object.
+     * @param blockIndex the index in the buffer which was used for {@link #addEntry(int, int, int, int)} that
+     * corresponds to the reader index of the {@code block}.
+     */
+    void rawHeaders(final ByteBuf block, final int blockIndex) {
+        assert materialized == null && this.block == null;
+        final int delta = block.readerIndex() - blockIndex;
+        if (delta != 0) {
+            for (int i = 0; i < size * ENTRY_SIZE; i += 2) {
+                entries[i] += delta;
+            }
+        }
+        this.block = block;
+    }
+
+    /**
+     * Returns the raw header lines as received from the network if these headers were not modified.
+     *
+     * @return the raw header lines as received from the network (including their CRLF) or {@code null} if these
+     * headers were modified or do not originate from the network.
+     */
+    @Nullable
+    ByteBuf rawHeaders() {
+        return materialized == null ? block : null;
+    }
+
+    private HttpHeaders materialize() {
+        HttpHeaders materialized = this.materialized;
+        if (materialized == null) {
+            materialized = headersFactory.newHeaders();
+            final ByteBuf block = this.block;
+            if (block != null) {
+                for (int i = 0; i < size; ++i) {
+                    materialized.add(name(block, i), value(block, i));
+                }
+            }
+            this.materialized = materialized;
+            // Values created before materialization (and iterators which are in progress) keep using the block and the
+            // recorded offsets, the same way as slices created by the decoder keep the cumulation buffer alive.
+            this.block = null;
+        }
+        return materialized;
+    }
+
+    private CharSequence name(final ByteBuf block, final int i) {
+        final int offset = i * ENTRY_SIZE;
+        final int index = entries[offset];
+        final int length = entries[offset + 1];
+        final CharSequence name = knownHeaderName(block, index, length);
+        // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
+        return name != null ? name : newAsciiString(newBufferFrom(block.retainedSlice(index, length)));
+    }
+
+    private CharSequence value(final ByteBuf block, final int i) {
+        final int offset = i * ENTRY_SIZE + 2;
+        final int index = entries[offset];
+        final int length = entries[offset + 1];
+        if (length == 0) {
+            return emptyAsciiString();
+        }
+        final CharSequence value = knownHeaderValue(block, index, length);
+        // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
+        return value != null ? value : newAsciiString(newBufferFrom(block.retainedSlice(index, length)));
+    }
+
+    private boolean nameEquals(final ByteBuf block, final int i, final CharSequence name) {
+        final int offset = i * ENTRY_SIZE;
+        final int length = entries[offset + 1];
+        if (length != name.length()) {
+            return false;
+        }
+        final int index = entries[offset];
+        for (int j = 0; j < length; ++j) {
+            if (!equalsIgnoreCase(block.getByte(index + j), name.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(final byte a, final char b) {
+        if (a == b) {
+            return true;
+        }
+        final char lowerA = (char) (a | 0x20);
+        return lowerA == (b | 0x20) && lowerA >= 'a' && lowerA <= 'z';
+    }
+
+    private int indexOf(final ByteBuf block, final CharSequence name, final int fromEntry) {
+        for (int i = fromEntry; i < size; ++i) {
+            if (nameEquals(block, i, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Nullable
+    @Override
+    public CharSequence get(final CharSequence name) {
+        final ByteBuf block = this.block;
+        if (block == null) {
+            return materialize().get(name);
+        }
+        final int i = indexOf(block, name, 0);
+        return i < 0 ? null : value(block, i);
+    }
+
+    @Nullable
+    @Override
+    public CharSequence getAndRemove(final CharSequence name) {
+        final ByteBuf block = this.block;
+        if (block != null && indexOf(block, name, 0) < 0) {
+            return null;
+        }
+        return materialize().getAndRemove(name);
+    }
+
+    @Override
+    public Iterator<? extends CharSequence> valuesIterator(final CharSequence name) {
+        final ByteBuf block = this.block;
+        if (block == null) {
+            return materialize().valuesIterator(name);
+        }
+        final int first = indexOf(block, name, 0);
+        return first < 0 ? emptyIterator() : new LazyValuesIterator(block, name, first);
+    }
+
+    @Override
+    public boolean contains(final CharSequence name) {
+        final ByteBuf block = this.block;
+        return block == null ? materialize().contains(name) : indexOf(block, name, 0) >= 0;
+    }
+
+    @Override
+    public boolean contains(final CharSequence name, final CharSequence value) {
+        final ByteBuf block = this.block;
+        if (block == null) {
+            return materialize().contains(name, value);
+        }
+        for (int i = indexOf(block, name, 0); i >= 0; i = indexOf(block, name, i + 1)) {
+            if (contentEquals(value(block, i), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsIgnoreCase(final CharSequence name, final CharSequence value) {
+        final ByteBuf block = this.block;
+        if (block == null) {
+            return materialize().containsIgnoreCase(name, value);
+        }
+        for (int i = indexOf(block, name, 0); i >= 0; i = indexOf(block, name, i + 1)) {
+            if (contentEqualsIgnoreCase(value(block, i), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return materialized == null ? size : materialized.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Set<? extends CharSequence> names() {
+        return materialize().names();
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence value) {
+        materialize().add(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        materialize().add(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence... values) {
+        materialize().add(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final HttpHeaders headers) {
+        materialize().add(headers);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence value) {
+        materialize().set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        materialize().set(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence... values) {
+        materialize().set(name, values);
+        return this;
+    }
+
+    @Override
+    public boolean remove(final CharSequence name) {
+        final ByteBuf block = this.block;
+        return (block == null || indexOf(block, name, 0) >= 0) && materialize().remove(name);
+    }
+
+    @Override
+    public boolean remove(final CharSequence name, final CharSequence value) {
+        return contains(name, value) && materialize().remove(name, value);
+    }
+
+    @Override
+    public boolean removeIgnoreCase(final CharSequence name, final CharSequence value) {
+        return containsIgnoreCase(name, value) && materialize().removeIgnoreCase(name, value);
+    }
+
+    @Override
+    public HttpHeaders clear() {
+        materialize().clear();
+        return this;
+    }
+
+    @Override
+    public Iterator<Entry<CharSequence, CharSequence>> iterator() {
+        return materialize().iterator();
+    }
+
+    @Nullable
+    @Override
+    public HttpCookiePair getCookie(final CharSequence name) {
+        return materialize().getCookie(name);
+    }
+
+    @Nullable
+    @Override
+    public HttpSetCookie getSetCookie(final CharSequence name) {
+        return materialize().getSetCookie(name);
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator() {
+        return materialize().getCookiesIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator(final CharSequence name) {
+        return materialize().getCookiesIterator(name);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator() {
+        return materialize().getSetCookiesIterator();
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name) {
+        return materialize().getSetCookiesIterator(name);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name, final CharSequence domain,
+                                                                   final CharSequence path) {
+        return materialize().getSetCookiesIterator(name, domain, path);
+    }
+
+    @Override
+    public HttpHeaders addCookie(final HttpCookiePair cookie) {
+        materialize().addCookie(cookie);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders addSetCookie(final HttpSetCookie cookie) {
+        materialize().addSetCookie(cookie);
+        return this;
+    }
+
+    @Override
+    public boolean removeCookies(final CharSequence name) {
+        return materialize().removeCookies(name);
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name) {
+        return materialize().removeSetCookies(name);
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name, final CharSequence domain, final CharSequence path) {
+        return materialize().removeSetCookies(name, domain, path);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof LazyHttpHeaders ? materialize().equals(((LazyHttpHeaders) o).materialize()) :
+                materialize().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return materialize().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return materialize().toString();
+    }
+
+    /**
+     * Iterates values of a header over the recorded offsets. If {@link #remove()} is invoked, the headers are
+     * materialized and the iteration continues over the materialized headers.
+     */
+    private final class LazyValuesIterator implements Iterator<CharSequence> {
+        private final ByteBuf block;
+        private final CharSequence name;
+        private int next;
+        private int returned;
+        @Nullable
+        private Iterator<? extends CharSequence> delegate;
+
+        LazyValuesIterator(final ByteBuf block, final CharSequence name, final int first) {
+            this.block = block;
+            this.name = name;
+            next = first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate != null ? delegate.hasNext() : next >= 0;
+        }
+
+        @Override
+        public CharSequence next() {
+            if (delegate != null) {
+                return delegate.next();
+            }
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            final CharSequence value = value(block, next);
+            ++returned;
+            next = indexOf(block, name, next + 1);
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            Iterator<? extends CharSequence> delegate = this.delegate;
+            if (delegate == null) {
+                if (returned == 0) {
+                    throw new IllegalStateException();
+                }
+                // Materialized headers preserve the order of values, position the delegate at the same element.
+                delegate = materialize().valuesIterator(name);
+                for (int i = 0; i < returned; ++i) {
+                    delegate.next();
+                }
+                this.delegate = delegate;
+            }
+            delegate.remove();
+        }
+    }
+}
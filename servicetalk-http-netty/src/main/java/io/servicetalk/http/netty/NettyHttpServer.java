@@ -88,6 +88,7 @@ import static io.servicetalk.concurrent.api.Completable.defer;
 import static io.servicetalk.concurrent.api.Single.failed;
 import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
 import static io.servicetalk.http.api.HeaderUtils.isTransferEncodingChunked;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_2_0;
 import static io.servicetalk.http.api.HttpRequestMethod.HEAD;
@@ -176,7 +177,7 @@ final class NettyHttpServer {
                         h1Config, closeHandler)), httpExecutionContext.executionStrategy(), HTTP_1_1, observer, false)
                 .map(conn -> new NettyHttpServerConnection(conn, service,
                         HTTP_1_1, h1Config.headersFactory(), drainRequestPayloadBody,
-                        config.allowDropTrailersReadFromTransport())), HTTP_1_1, channel);
+                        config.allowDropTrailersReadFromTransport(), config.addDateHeader())), HTTP_1_1, channel);
     }
 
     private static ChannelInitializer getChannelInitializer(final ByteBufAllocator alloc, final H1ProtocolConfig config,
@@ -250,13 +251,15 @@ final class NettyHttpServer {
         private final SplittingFlushStrategy splittingFlushStrategy;
         private final boolean drainRequestPayloadBody;
         private final boolean requireTrailerHeader;
+        private final boolean addDateHeader;
 
         NettyHttpServerConnection(final NettyConnection<Object, Object> connection,
                                   final StreamingHttpService service,
                                   final HttpProtocolVersion version,
                                   final HttpHeadersFactory headersFactory,
                                   final boolean drainRequestPayloadBody,
-                                  final boolean requireTrailerHeader) {
+                                  final boolean requireTrailerHeader,
+                                  final boolean addDateHeader) {
             super(headersFactory,
                     new DefaultHttpResponseFactory(headersFactory, connection.executionContext().bufferAllocator(),
                             version),
@@ -307,6 +310,7 @@ final class NettyHttpServer {
             }
             this.drainRequestPayloadBody = drainRequestPayloadBody;
             this.requireTrailerHeader = requireTrailerHeader;
+            this.addDateHeader = addDateHeader;
         }
 
         void process(final boolean handleMultipleRequests) {
@@ -402,6 +406,9 @@ final class NettyHttpServer {
                                     }
                                 }
                             }
+                            if (addDateHeader && !response.headers().contains(DATE)) {
+                                response.headers().add(DATE, CachedDateHeader.value());
+                            }
                             return handleResponse(protocol(), requestMethod, response);
                         });
 
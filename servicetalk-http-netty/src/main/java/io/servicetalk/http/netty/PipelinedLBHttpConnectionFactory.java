@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,8 +60,13 @@ final class PipelinedLBHttpConnectionFactory<ResolvedAddress> extends AbstractLB
     @Override
     ReservableRequestConcurrencyController newConcurrencyController(final FilterableStreamingHttpConnection connection,
                                                                     Completable onClosing) {
-        assert config.h1Config() != null;
-        return newController(connection.transportEventStream(MAX_CONCURRENCY), onClosing,
-                config.h1Config().maxPipelinedRequests());
+        final H1ProtocolConfig h1Config = config.h1Config();
+        assert h1Config != null;
+        final ReservableRequestConcurrencyController controller =
+                newController(connection.transportEventStream(MAX_CONCURRENCY), onClosing,
+                        h1Config.maxPipelinedRequests());
+        return h1Config.maxPipelinedRequests() <= 1 ? controller :
+                new PipelinedRequestConcurrencyController(controller,
+                        h1Config.maxPipelinedHeadOfLineAge().toNanos());
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.client.api.ScoreSupplier;
+import io.servicetalk.client.api.internal.ReservableRequestConcurrencyController;
+import io.servicetalk.concurrent.api.Completable;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static io.servicetalk.client.api.internal.RequestConcurrencyController.Result.Accepted;
+import static io.servicetalk.client.api.internal.RequestConcurrencyController.Result.RejectedTemporary;
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.System.nanoTime;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+
+/**
+ * A {@link ReservableRequestConcurrencyController} for pipelined HTTP/1.x connections which tracks the depth of the
+ * request queue and the age of the request at its head.
+ * <p>
+ * Responses on a pipelined connection are delivered in order, so the head of the queue is the request which the
+ * connection is currently waiting for. Its age is the time since the connection last made progress: since the last
+ * response completed or since the queue became non-empty. A connection whose head is older than the configured
+ * threshold is temporarily rejected for new requests, so that they are not queued behind a stalled request and a new
+ * connection is opened if all connections are stalled. The {@link #score() score} decreases with the queue depth for
+ * load balancers to prefer the shortest queue.
+ */
+final class PipelinedRequestConcurrencyController implements ReservableRequestConcurrencyController, ScoreSupplier {
+    private static final AtomicIntegerFieldUpdater<PipelinedRequestConcurrencyController> queueDepthUpdater =
+            newUpdater(PipelinedRequestConcurrencyController.class, "queueDepth");
+
+    private final ReservableRequestConcurrencyController delegate;
+    private final long maxHeadOfLineAgeNs;
+    private volatile int queueDepth;
+    private volatile long lastProgressNs;
+
+    /**
+     * Create a new instance.
+     *
+     * @param delegate the {@link ReservableRequestConcurrencyController} which enforces the maximum number of
+     * pipelined requests.
+     * @param maxHeadOfLineAgeNs maximum age in nanoseconds of the request at the head of the queue before new requests
+     * are rejected or {@code 0} to not reject requests based on age.
+     */
+    PipelinedRequestConcurrencyController(final ReservableRequestConcurrencyController delegate,
+                                          final long maxHeadOfLineAgeNs) {
+        this.delegate = requireNonNull(delegate);
+        this.maxHeadOfLineAgeNs = maxHeadOfLineAgeNs;
+    }
+
+    @Override
+    public Result tryRequest() {
+        if (maxHeadOfLineAgeNs > 0 && headOfLineAgeNs() > maxHeadOfLineAgeNs) {
+            return RejectedTemporary;
+        }
+        final Result result = delegate.tryRequest();
+        if (result == Accepted && queueDepthUpdater.getAndIncrement(this) == 0) {
+            lastProgressNs = nanoTime();
+        }
+        return result;
+    }
+
+    @Override
+    public void requestFinished() {
+        lastProgressNs = nanoTime();
+        queueDepthUpdater.decrementAndGet(this);
+        delegate.requestFinished();
+    }
+
+    @Override
+    public boolean tryReserve() {
+        return delegate.tryReserve();
+    }
+
+    @Override
+    public Completable releaseAsync() {
+        return delegate.releaseAsync();
+    }
+
+    @Override
+    public int score() {
+        return MAX_VALUE - queueDepth;
+    }
+
+    /**
+     * Number of requests which were written or are waiting to be written and whose responses are not yet complete.
+     *
+     * @return number of requests queued on the connection.
+     */
+    int queueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Age in nanoseconds of the request at the head of the queue.
+     *
+     * @return age in nanoseconds of the request at the head of the queue or {@code 0} if the queue is empty.
+     */
+    long headOfLineAgeNs() {
+        return queueDepth <= 0 ? 0 : nanoTime() - lastProgressNs;
+    }
+}
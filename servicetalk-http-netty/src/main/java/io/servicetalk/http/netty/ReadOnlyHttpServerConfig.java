@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ final class ReadOnlyHttpServerConfig {
     @Nullable
     private final H2ProtocolConfig h2Config;
     private final boolean allowDropTrailers;
+    private final boolean addDateHeader;
     @Nullable
     private final HttpLifecycleObserver lifecycleObserver;
 
@@ -37,6 +38,7 @@ final class ReadOnlyHttpServerConfig {
         h1Config = configs.h1Config();
         h2Config = configs.h2Config();
         allowDropTrailers = configs.allowDropTrailersReadFromTransport();
+        addDateHeader = configs.addDateHeader();
         lifecycleObserver = from.lifecycleObserver();
     }
 
@@ -58,6 +60,10 @@ final class ReadOnlyHttpServerConfig {
         return allowDropTrailers;
     }
 
+    boolean addDateHeader() {
+        return addDateHeader;
+    }
+
     boolean isH2PriorKnowledge() {
         return h2Config != null && h1Config == null && !tcpConfig.isAlpnConfigured();
     }
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+
+import static io.netty.handler.codec.http.HttpConstants.HT;
+import static io.netty.handler.codec.http.HttpConstants.SP;
+import static java.lang.Long.numberOfLeadingZeros;
+
+/**
+ * <a href="https://en.wikipedia.org/wiki/SWAR">SWAR</a> (SIMD within a register) utilities to scan a {@link ByteBuf}
+ * 8 bytes at a time.
+ * <p>
+ * Words are read with {@link ByteBuf#getLong(int)} (big-endian), so the byte at the lowest index is the most significant
+ * byte of a word and the first match is found with {@link Long#numberOfLeadingZeros(long)}. All byte masks computed
+ * here are exact: the high bit of a byte in the result is set if and only if that byte matches, there is no carry or
+ * borrow between bytes.
+ */
+final class SwarUtils {
+    private static final long LOW_7_BITS = 0x7f7f7f7f7f7f7f7fL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long SP_PATTERN = compilePattern(SP);
+    private static final long HT_PATTERN = compilePattern(HT);
+
+    private SwarUtils() {
+        // no instances
+    }
+
+    /**
+     * Creates a pattern for {@link #indexOf(ByteBuf, int, int, long, byte)} which has {@code value} in every byte.
+     *
+     * @param value the byte to search for.
+     * @return a pattern which has {@code value} in every byte.
+     */
+    static long compilePattern(final byte value) {
+        return (value & 0xffL) * 0x0101010101010101L;
+    }
+
+    /**
+     * Finds the first occurrence of the {@code value} in the specified range.
+     *
+     * @param buffer the {@link ByteBuf} to scan.
+     * @param fromIndex the start index (inclusive).
+     * @param toIndex the end index (exclusive).
+     * @param pattern the result of {@link #compilePattern(byte)} for the {@code value}.
+     * @param value the byte to search for.
+     * @return the index of the first occurrence of the {@code value} or {@code -1} if not found.
+     */
+    static int indexOf(final ByteBuf buffer, final int fromIndex, final int toIndex, final long pattern,
+                       final byte value) {
+        int i = fromIndex;
+        for (final int lastWordIndex = toIndex - Long.BYTES; i <= lastWordIndex; i += Long.BYTES) {
+            final long matches = zeroBytes(buffer.getLong(i) ^ pattern);
+            if (matches != 0) {
+                return i + firstByte(matches);
+            }
+        }
+        for (; i < toIndex; ++i) {
+            if (buffer.getByte(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first SP or HTAB in the specified range.
+     *
+     * @param buffer the {@link ByteBuf} to scan.
+     * @param fromIndex the start index (inclusive).
+     * @param toIndex the end index (exclusive).
+     * @return the index of the first SP or HTAB or {@code -1} if not found.
+     */
+    static int indexOfWS(final ByteBuf buffer, final int fromIndex, final int toIndex) {
+        int i = fromIndex;
+        for (final int lastWordIndex = toIndex - Long.BYTES; i <= lastWordIndex; i += Long.BYTES) {
+            final long word = buffer.getLong(i);
+            final long matches = zeroBytes(word ^ SP_PATTERN) | zeroBytes(word ^ HT_PATTERN);
+            if (matches != 0) {
+                return i + firstByte(matches);
+            }
+        }
+        for (; i < toIndex; ++i) {
+            final byte value = buffer.getByte(i);
+            if (value == SP || value == HT) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first byte that is not a VCHAR (0x21-0x7e) in the specified range.
+     *
+     * @param buffer the {@link ByteBuf} to scan.
+     * @param fromIndex the start index (inclusive).
+     * @param toIndex the end index (exclusive).
+     * @return the index of the first byte that is not a VCHAR or {@code -1} if not found.
+     */
+    static int indexOfNonVCHAR(final ByteBuf buffer, final int fromIndex, final int toIndex) {
+        int i = fromIndex;
+        for (final int lastWordIndex = toIndex - Long.BYTES; i <= lastWordIndex; i += Long.BYTES) {
+            final long word = buffer.getLong(i);
+            final long matches = lessThan(word, 0x21) | greaterThan(word, 0x7e);
+            if (matches != 0) {
+                return i + firstByte(matches);
+            }
+        }
+        for (; i < toIndex; ++i) {
+            final byte value = buffer.getByte(i);
+            if (value < 0x21 || value > 0x7e) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a mask with the high bit set in every byte of the {@code word} that is zero.
+     *
+     * @param word the word to check.
+     * @return a mask with the high bit set in every byte of the {@code word} that is zero.
+     */
+    static long zeroBytes(final long word) {
+        return ~(((word & LOW_7_BITS) + LOW_7_BITS) | word | LOW_7_BITS);
+    }
+
+    /**
+     * Returns a mask with the high bit set in every (unsigned) byte of the {@code word} that is less than {@code n}.
+     *
+     * @param word the word to check.
+     * @param n the exclusive upper bound, must be in range {@code [0, 128]}.
+     * @return a mask with the high bit set in every byte of the {@code word} that is less than {@code n}.
+     */
+    static long lessThan(final long word, final int n) {
+        return ~(((word & LOW_7_BITS) + compilePattern((byte) (128 - n))) | word) & HIGH_BITS;
+    }
+
+    /**
+     * Returns a mask with the high bit set in every (unsigned) byte of the {@code word} that is greater than
+     * {@code n}.
+     *
+     * @param word the word to check.
+     * @param n the exclusive lower bound, must be in range {@code [0, 127]}.
+     * @return a mask with the high bit set in every byte of the {@code word} that is greater than {@code n}.
+     */
+    static long greaterThan(final long word, final int n) {
+        return (((word & LOW_7_BITS) + compilePattern((byte) (127 - n))) | word) & HIGH_BITS;
+    }
+
+    /**
+     * Returns the position of the first (most significant) matching byte in a mask.
+     *
+     * @param mask a non-zero mask produced by one of the methods of this class.
+     * @return the position of the first (most significant) matching byte in a mask.
+     */
+    static int firstByte(final long mask) {
+        return numberOfLeadingZeros(mask) >>> 3;
+    }
+}
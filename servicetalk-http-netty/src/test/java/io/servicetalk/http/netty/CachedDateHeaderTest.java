@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class CachedDateHeaderTest {
+
+    @Test
+    void formatIsImfFixdate() {
+        assertThat(CachedDateHeader.format(784111777000L).toString(), is("Sun, 06 Nov 1994 08:49:37 GMT"));
+        assertThat(CachedDateHeader.format(1609459200000L).toString(), is("Fri, 01 Jan 2021 00:00:00 GMT"));
+    }
+
+    @Test
+    void valueIsRefreshedWhileAcquired() throws Exception {
+        CachedDateHeader.acquire();
+        try {
+            final CharSequence first = CachedDateHeader.value();
+            Thread.sleep(1100);
+            final CharSequence second = CachedDateHeader.value();
+            assertThat(ZonedDateTime.parse(first, RFC_1123_DATE_TIME).toEpochSecond(),
+                    is(lessThanOrEqualTo(ZonedDateTime.parse(second, RFC_1123_DATE_TIME).toEpochSecond() - 1)));
+        } finally {
+            CachedDateHeader.release();
+        }
+    }
+
+    @Test
+    void serverAddsDateHeader() throws Exception {
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .addDateHeader(true)
+                .listenAndAwait((ctx, request, responseFactory) -> succeeded(
+                        request.path().equals("/date") ? responseFactory.ok().setHeader(DATE, "custom") :
+                                responseFactory.ok()));
+             BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .buildBlocking()) {
+            HttpResponse response = client.request(client.get("/"));
+            final CharSequence date = response.headers().get(DATE);
+            assertThat(date, is(notNullValue()));
+            assertThat(ZonedDateTime.parse(date, RFC_1123_DATE_TIME), is(notNullValue()));
+
+            response = client.request(client.get("/date"));
+            assertThat(response.headers().get(DATE).toString(), is("custom"));
+        }
+    }
+
+    @Test
+    void serverDoesNotAddDateHeaderByDefault() throws Exception {
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .listenAndAwait((ctx, request, responseFactory) -> succeeded(responseFactory.ok()));
+             BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .buildBlocking()) {
+            assertThat(client.request(client.get("/")).headers().get(DATE), is(nullValue()));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class H2FlowControlConfigTest {
+
+    private static final int PAYLOAD_SIZE = 4 << 20;
+
+    @Test
+    void invalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> h2().initialStreamWindowSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> h2().connectionWindowSize(1024));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxFrameSize(1024));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxFrameSize(1 << 24));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxConcurrentStreams(-1));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxHeaderListSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> h2().flowControlAutoTuning(-1));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] autoTuning={0}")
+    @ValueSource(booleans = {false, true})
+    void largePayloadIsTransferred(final boolean autoTuning) throws Exception {
+        final H2ProtocolConfigBuilder builder = h2()
+                .initialStreamWindowSize(1 << 20)
+                .connectionWindowSize(2 << 20)
+                .maxFrameSize(1 << 16)
+                .maxConcurrentStreams(16)
+                .maxHeaderListSize(16 << 10);
+        if (autoTuning) {
+            builder.flowControlAutoTuning(8 << 20);
+        }
+        final H2ProtocolConfig config = builder.build();
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .protocols(config)
+                .listenBlockingAndAwait((ctx, request, responseFactory) ->
+                        responseFactory.ok().payloadBody(request.payloadBody()));
+             BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .protocols(config)
+                     .buildBlocking()) {
+            final Buffer payload = client.executionContext().bufferAllocator().newBuffer(PAYLOAD_SIZE)
+                    .writerIndex(PAYLOAD_SIZE);
+            for (int i = 0; i < 3; ++i) {
+                final HttpResponse response = client.request(client.post("/").payloadBody(payload.duplicate()));
+                assertThat(response.payloadBody().readableBytes(), is(PAYLOAD_SIZE));
+            }
+        }
+    }
+}
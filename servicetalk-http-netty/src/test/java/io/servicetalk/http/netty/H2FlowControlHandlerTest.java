@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2PingFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2PingFrame;
+import io.netty.handler.codec.http2.Http2SettingsFrame;
+import io.netty.handler.codec.http2.Http2WindowUpdateFrame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static io.netty.handler.codec.http2.Http2CodecUtil.DEFAULT_WINDOW_SIZE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class H2FlowControlHandlerTest {
+
+    private static final int MAX_WINDOW_SIZE = 1 << 20;
+
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    private H2FlowControlHandler newHandler(final int initialStreamWindowSize, final int connectionWindowSize,
+                                            final int maxWindowSize) {
+        final H2FlowControlHandler handler = new H2FlowControlHandler(initialStreamWindowSize,
+                connectionWindowSize, maxWindowSize);
+        channel.pipeline().addLast(handler);
+        return handler;
+    }
+
+    @Test
+    void connectionWindowGrownWhenActive() {
+        final H2FlowControlHandler handler = newHandler(DEFAULT_WINDOW_SIZE, MAX_WINDOW_SIZE, 0);
+        final Http2WindowUpdateFrame windowUpdate = channel.readOutbound();
+        assertThat(windowUpdate.stream(), is(nullValue()));
+        assertThat(windowUpdate.windowSizeIncrement(), is(MAX_WINDOW_SIZE - DEFAULT_WINDOW_SIZE));
+        assertThat(handler.connectionWindowSize(), is(MAX_WINDOW_SIZE));
+        assertThat(channel.readOutbound(), is(nullValue()));
+    }
+
+    @Test
+    void connectionWindowGrownByCodecIsNotGrownAgain() {
+        // The codec grows the connection window by twice the increase of the initial stream window.
+        final H2FlowControlHandler handler = newHandler(MAX_WINDOW_SIZE, MAX_WINDOW_SIZE, 0);
+        assertThat(channel.readOutbound(), is(nullValue()));
+        assertThat(handler.connectionWindowSize(),
+                is(DEFAULT_WINDOW_SIZE + 2 * (MAX_WINDOW_SIZE - DEFAULT_WINDOW_SIZE)));
+    }
+
+    @Test
+    void windowsGrownWhenSampleIsCloseToWindow() {
+        final H2FlowControlHandler handler = newHandler(DEFAULT_WINDOW_SIZE, DEFAULT_WINDOW_SIZE, MAX_WINDOW_SIZE);
+        final int sample = dataReceived(60_000);
+
+        channel.writeInbound(new DefaultHttp2PingFrame(bdpPingContent(), true));
+        assertThat("BDP PING ack must not be propagated.", channel.readInbound(), is(nullValue()));
+
+        final Http2SettingsFrame settings = channel.readOutbound();
+        assertThat(settings.settings().initialWindowSize(), is(2 * sample));
+        final Http2WindowUpdateFrame windowUpdate = channel.readOutbound();
+        assertThat(windowUpdate.windowSizeIncrement(), is(2 * sample - DEFAULT_WINDOW_SIZE));
+        assertThat(handler.streamWindowSize(), is(2 * sample));
+        assertThat(handler.connectionWindowSize(), is(2 * sample));
+    }
+
+    @Test
+    void windowsNotGrownWhenSampleIsSmall() {
+        final H2FlowControlHandler handler = newHandler(DEFAULT_WINDOW_SIZE, DEFAULT_WINDOW_SIZE, MAX_WINDOW_SIZE);
+        dataReceived(1_000);
+
+        channel.writeInbound(new DefaultHttp2PingFrame(bdpPingContent(), true));
+        assertThat(channel.readOutbound(), is(nullValue()));
+        assertThat(handler.streamWindowSize(), is(DEFAULT_WINDOW_SIZE));
+        assertThat(handler.connectionWindowSize(), is(DEFAULT_WINDOW_SIZE));
+    }
+
+    @Test
+    void windowsNotGrownBeyondMax() {
+        final H2FlowControlHandler handler = newHandler(DEFAULT_WINDOW_SIZE, DEFAULT_WINDOW_SIZE, 100_000);
+        dataReceived(60_000);
+
+        channel.writeInbound(new DefaultHttp2PingFrame(bdpPingContent(), true));
+        final Http2SettingsFrame settings = channel.readOutbound();
+        assertThat(settings.settings().initialWindowSize(), is(100_000));
+        assertThat(handler.streamWindowSize(), is(100_000));
+        assertThat(handler.connectionWindowSize(), is(100_000));
+    }
+
+    @Test
+    void otherPingAcksArePropagated() {
+        newHandler(DEFAULT_WINDOW_SIZE, DEFAULT_WINDOW_SIZE, MAX_WINDOW_SIZE);
+        dataReceived(60_000);
+        final long otherContent = bdpPingContent() + 1;
+        channel.writeInbound(new DefaultHttp2PingFrame(otherContent, true));
+        final Http2PingFrame ping = channel.readInbound();
+        assertThat(ping.content(), is(otherContent));
+    }
+
+    private int dataReceived(final int size) {
+        channel.writeInbound(new DefaultHttp2DataFrame(wrappedBuffer(new byte[size])));
+        final Http2DataFrame data = channel.readInbound();
+        assertThat(data.content().readableBytes(), is(size));
+        data.release();
+        return size;
+    }
+
+    private long bdpPingContent() {
+        final Object ping = channel.readOutbound();
+        assertThat(ping, is(instanceOf(Http2PingFrame.class)));
+        assertThat(((Http2PingFrame) ping).ack(), is(false));
+        return ((Http2PingFrame) ping).content();
+    }
+}
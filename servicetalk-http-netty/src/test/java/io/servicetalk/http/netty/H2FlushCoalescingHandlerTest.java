@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class H2FlushCoalescingHandlerTest {
+
+    private static final int THRESHOLD = 16;
+
+    private final EmbeddedChannel channel = new EmbeddedChannel(new H2FlushCoalescingHandler(THRESHOLD));
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void invalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new H2FlushCoalescingHandler(0));
+    }
+
+    @Test
+    void flushDeferredToEndOfTask() {
+        channel.write(newFrame(4));
+        channel.flush();
+        channel.write(newFrame(4));
+        channel.flush();
+        assertThat("Unexpected flush before the end of the task.", channel.outboundMessages().isEmpty(), is(true));
+
+        channel.runPendingTasks();
+        assertThat(channel.outboundMessages().size(), is(2));
+    }
+
+    @Test
+    void flushWhenThresholdReached() {
+        channel.write(newFrame(THRESHOLD - 1));
+        channel.flush();
+        assertThat(channel.outboundMessages().isEmpty(), is(true));
+
+        channel.write(newFrame(1));
+        channel.flush();
+        assertThat(channel.outboundMessages().size(), is(2));
+    }
+
+    @Test
+    void flushDeferredToEndOfReadLoop() {
+        channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+                ctx.writeAndFlush(msg);
+            }
+        });
+        channel.pipeline().fireChannelRead(newFrame(1));
+        channel.pipeline().fireChannelRead(newFrame(1));
+        assertThat("Unexpected flush while reading.", channel.outboundMessages().isEmpty(), is(true));
+
+        channel.pipeline().fireChannelReadComplete();
+        assertThat(channel.outboundMessages().size(), is(2));
+    }
+
+    @Test
+    void flushOnClose() {
+        channel.write(newFrame(1));
+        channel.flush();
+        assertThat(channel.outboundMessages().isEmpty(), is(true));
+
+        channel.close();
+        assertThat(channel.outboundMessages().size(), is(1));
+    }
+
+    private static ByteBuf newFrame(int size) {
+        return wrappedBuffer(new byte[size]);
+    }
+}
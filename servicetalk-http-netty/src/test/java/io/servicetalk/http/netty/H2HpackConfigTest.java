@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class H2HpackConfigTest {
+
+    private static final String REQUEST_ID = "x-request-id";
+
+    @Test
+    void invalidHeaderTableSize() {
+        assertThrows(IllegalArgumentException.class, () -> h2().headerTableSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> h2().headerTableSize(0x1_0000_0000L));
+    }
+
+    @Test
+    void defaults() {
+        final H2ProtocolConfig config = h2().build();
+        assertThat(config.headerTableSize(), is(4096L));
+        assertThat(config.headersIndexingPolicy().test(REQUEST_ID, "1"), is(true));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] headerTableSize={0}")
+    @ValueSource(longs = {0, 64, 65536})
+    void headersAreExchanged(final long headerTableSize) throws Exception {
+        final H2ProtocolConfig config = h2()
+                .headerTableSize(headerTableSize)
+                .headersIndexingPolicy((name, value) -> !contentEqualsIgnoreCase(name, REQUEST_ID))
+                .build();
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .protocols(config)
+                .listenBlockingAndAwait((ctx, request, responseFactory) -> {
+                    final HttpResponse response = responseFactory.ok();
+                    final CharSequence requestId = request.headers().get(REQUEST_ID);
+                    if (requestId != null) {
+                        response.headers().set(REQUEST_ID, requestId);
+                    }
+                    return response;
+                });
+             BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .protocols(config)
+                     .buildBlocking()) {
+            for (int i = 0; i < 10; ++i) {
+                final HttpResponse response = client.request(client.get("/")
+                        .setHeader("x-static", "static-value")
+                        .setHeader(REQUEST_ID, Integer.toString(i)));
+                assertThat(response.headers().get(REQUEST_ID).toString(), is(Integer.toString(i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.http.api.HttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class H2MaxActiveStreamsPerConnectionTest {
+
+    private static final int CONCURRENT_REQUESTS = 3;
+
+    @Test
+    void invalidMaxActiveStreams() {
+        assertThrows(IllegalArgumentException.class, () -> h2().maxActiveStreamsPerConnection(0));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] maxActiveStreamsPerConnection={0}")
+    @ValueSource(ints = {1, Integer.MAX_VALUE})
+    void concurrentRequestsSpreadAcrossConnections(final int maxActiveStreams) throws Exception {
+        final CountDownLatch allReceived = new CountDownLatch(CONCURRENT_REQUESTS);
+        final Set<SocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .protocols(h2().build())
+                .listenBlockingAndAwait((ctx, request, responseFactory) -> {
+                    if ("/concurrent".equals(request.path())) {
+                        clientAddresses.add(ctx.remoteAddress());
+                        allReceived.countDown();
+                        // Keep all streams active until every request reached the server.
+                        allReceived.await();
+                    }
+                    return responseFactory.ok();
+                });
+             HttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .protocols(h2().maxActiveStreamsPerConnection(maxActiveStreams).build())
+                     .build()) {
+            // Establish the first connection and receive the peer's SETTINGS.
+            assertThat(client.request(client.get("/")).toFuture().get().status(), is(OK));
+
+            final List<Single<HttpResponse>> responses = new ArrayList<>(CONCURRENT_REQUESTS);
+            for (int i = 0; i < CONCURRENT_REQUESTS; ++i) {
+                responses.add(client.request(client.get("/concurrent")));
+            }
+            for (HttpResponse response : Single.collectUnordered(responses, CONCURRENT_REQUESTS).toFuture().get()) {
+                assertThat(response.status(), is(OK));
+            }
+            assertThat(clientAddresses.size(), is(maxActiveStreams == 1 ? CONCURRENT_REQUESTS : 1));
+        }
+    }
+}
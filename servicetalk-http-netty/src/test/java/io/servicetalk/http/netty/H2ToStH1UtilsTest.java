@@ -21,6 +21,8 @@ import io.servicetalk.http.api.HttpCookiePair;
 import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpHeadersFactory;
 
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.util.AsciiString;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -32,10 +34,15 @@ import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_PATCH;
 import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
 import static io.servicetalk.http.api.HttpHeaderNames.EXPIRES;
 import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersSplitCookieCrumbs;
+import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersToH2Headers;
+import static io.servicetalk.http.netty.H2ToStH1Utils.toLowerCase;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class H2ToStH1UtilsTest {
 
@@ -81,4 +88,32 @@ class H2ToStH1UtilsTest {
                 new DefaultHttpCookiePair("e", "f")));
         assertThat(headers.get(secondHeaderName), equalTo(secondHeaderValue));
     }
+
+    @Test
+    void toLowerCaseDoesNotCopyLowerCaseNames() {
+        final String lowerCase = "x-custom-header";
+        assertThat(toLowerCase(lowerCase), is(sameInstance(lowerCase)));
+        assertThat(toLowerCase(COOKIE), is(sameInstance(COOKIE)));
+        final AsciiString asciiLowerCase = AsciiString.of(lowerCase);
+        assertThat(toLowerCase(asciiLowerCase), is(sameInstance(asciiLowerCase)));
+        assertThat(toLowerCase("X-Custom-Header").toString(), is(lowerCase));
+        assertThat(toLowerCase(AsciiString.of("X-Custom-Header")).toString(), is(lowerCase));
+    }
+
+    @Test
+    void toLowerCaseRejectsNonAsciiNames() {
+        assertThrows(IllegalArgumentException.class, () -> toLowerCase("x-\u00e9t\u00e9"));
+        assertThrows(IllegalArgumentException.class, () -> toLowerCase("X-\u0130"));
+    }
+
+    @Test
+    void h1HeadersToH2HeadersLowerCasesNames() {
+        final HttpHeaders headers = H1_FACTORY.newHeaders()
+                .add("X-Custom-Header", "value1")
+                .add("x-other-header", "value2");
+        final Http2Headers h2Headers = h1HeadersToH2Headers(headers);
+        assertThat(h2Headers.size(), is(2));
+        assertThat(h2Headers.get("x-custom-header").toString(), is("value1"));
+        assertThat(h2Headers.get("x-other-header").toString(), is("value2"));
+    }
 }
@@ -16,6 +16,7 @@
 package io.servicetalk.http.netty;
 
 import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpMetaData;
 import io.servicetalk.http.api.HttpProtocolVersion;
 import io.servicetalk.http.api.HttpRequestMetaData;
@@ -28,10 +29,14 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
 import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
 import static io.servicetalk.buffer.netty.BufferUtils.getByteBufAllocator;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
 import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
 import static io.servicetalk.http.api.HttpRequestMethod.GET;
 import static io.servicetalk.http.api.HttpRequestMethod.POST;
@@ -43,6 +48,7 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -267,6 +273,26 @@ class HttpRequestDecoderTest extends HttpObjectDecoderTest {
         assertFalse(channel.finishAndReleaseAll());
     }
 
+    @Test
+    void knownHeadersAreShared() {
+        writeMsg("GET / HTTP/1.1" + "\r\n" +
+                "host: servicetalk.io" + "\r\n" +
+                "Connection: keep-alive" + "\r\n" + "\r\n");
+
+        HttpHeaders headers = assertStartLine(channel).headers();
+        assertStandardHeaders(headers);
+        assertThat(headers.get(CONNECTION), is(sameInstance(KEEP_ALIVE)));
+        for (Map.Entry<CharSequence, CharSequence> entry : headers) {
+            if (contentEqualsIgnoreCase(entry.getKey(), HOST)) {
+                assertThat(entry.getKey(), is(sameInstance(HOST)));
+            } else {
+                assertThat(entry.getKey().toString(), is("Connection"));
+            }
+        }
+        assertEmptyTrailers(channel);
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
     @Test
     void unexpectedContentAfterNoContentHeaders() {
         writeMsg("POST /some/path HTTP/1.1" + "\r\n" +
@@ -19,6 +19,7 @@ import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.http.api.DefaultHttpHeadersFactory;
 import io.servicetalk.http.api.EmptyHttpHeaders;
 import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpHeadersTemplate;
 import io.servicetalk.http.api.HttpResponseMetaData;
 
 import io.netty.buffer.ByteBuf;
@@ -40,8 +41,11 @@ import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
 import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
 import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
 import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
+import static io.servicetalk.http.api.HttpHeadersTemplate.newHeadersTemplate;
+import static io.servicetalk.http.api.HttpHeadersTemplate.newResponseTemplate;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
 import static io.servicetalk.http.api.HttpResponseMetaDataFactory.newResponseMetaData;
+import static io.servicetalk.http.api.HttpResponseStatus.CREATED;
 import static io.servicetalk.http.api.HttpResponseStatus.OK;
 import static java.lang.Integer.toHexString;
 import static java.lang.String.valueOf;
@@ -294,6 +298,65 @@ class HttpResponseEncoderTest extends HttpEncoderTest<HttpResponseMetaData> {
         assertFalse(channel.finishAndReleaseAll());
     }
 
+    @Test
+    void responseTemplateWithAddedHeaders() {
+        EmbeddedChannel channel = newEmbeddedChannel();
+        byte[] content = new byte[128];
+        ThreadLocalRandom.current().nextBytes(content);
+        Buffer buffer = DEFAULT_ALLOCATOR.wrap(content);
+        HttpHeadersTemplate template = newResponseTemplate(HTTP_1_1, OK, INSTANCE.newHeaders()
+                .add(CONNECTION, KEEP_ALIVE)
+                .add(SERVER, "unit-test"));
+        HttpResponseMetaData response = newResponseMetaData(HTTP_1_1, OK, template.newHeaders(INSTANCE));
+        response.headers().add(CONTENT_LENGTH, valueOf(content.length));
+        channel.writeOutbound(response);
+        channel.writeOutbound(buffer.duplicate());
+        channel.writeOutbound(EmptyHttpHeaders.INSTANCE);
+        String metaData = verifyHttpResponse(channel, buffer, TransferEncoding.ContentLength, false);
+        // Headers added on top of the template are encoded after the headers of the template.
+        assertTrue(metaData.startsWith("HTTP/1.1 200 OK" + "\r\n"), () -> "unexpected metadata: " + metaData);
+        assertTrue(metaData.endsWith("\r\n" + CONTENT_LENGTH + ": " + content.length + "\r\n" + "\r\n"),
+                () -> "unexpected metadata: " + metaData);
+        consumeEmptyBufferFromTrailers(channel);
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
+    @Test
+    void responseTemplateForDifferentStatus() {
+        EmbeddedChannel channel = newEmbeddedChannel();
+        HttpHeadersTemplate template = newResponseTemplate(HTTP_1_1, CREATED, INSTANCE.newHeaders()
+                .add(SERVER, "unit-test"));
+        HttpResponseMetaData response = newResponseMetaData(HTTP_1_1, OK, template.newHeaders(INSTANCE));
+        response.headers().add(CONTENT_LENGTH, "0");
+        channel.writeOutbound(response);
+        ByteBuf byteBuf = channel.readOutbound();
+        String metaData = byteBuf.toString(US_ASCII);
+        byteBuf.release();
+        assertEquals("HTTP/1.1 200 OK" + "\r\n" + SERVER + ": unit-test" + "\r\n" +
+                CONTENT_LENGTH + ": 0" + "\r\n" + "\r\n", metaData);
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
+    @Test
+    void headersTemplateModified() {
+        EmbeddedChannel channel = newEmbeddedChannel();
+        HttpHeadersTemplate template = newHeadersTemplate(INSTANCE.newHeaders()
+                .add(CONNECTION, KEEP_ALIVE)
+                .add(SERVER, "unit-test")
+                .add(CONTENT_LENGTH, "10"));
+        HttpResponseMetaData response = newResponseMetaData(HTTP_1_1, OK, template.newHeaders(INSTANCE));
+        response.headers().set(CONTENT_LENGTH, "0");
+        channel.writeOutbound(response);
+        ByteBuf byteBuf = channel.readOutbound();
+        String metaData = byteBuf.toString(US_ASCII);
+        byteBuf.release();
+        assertTrue(metaData.startsWith("HTTP/1.1 200 OK" + "\r\n"), () -> "unexpected metadata: " + metaData);
+        assertTrue(metaData.contains(CONTENT_LENGTH + ": 0" + "\r\n"), () -> "unexpected metadata: " + metaData);
+        assertFalse(metaData.contains(CONTENT_LENGTH + ": 10"), () -> "unexpected metadata: " + metaData);
+        assertTrue(metaData.contains(SERVER + ": unit-test" + "\r\n"), () -> "unexpected metadata: " + metaData);
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
     private static String verifyHttpResponse(EmbeddedChannel channel, Buffer buffer, TransferEncoding encoding,
                                              boolean trailers) {
         ByteBuf byteBuf = channel.readOutbound();
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.encoding.api.AdaptiveBufferEncoder;
+import io.servicetalk.encoding.api.AdaptiveBufferEncoderBuilder;
+import io.servicetalk.encoding.api.BufferEncoder;
+import io.servicetalk.transport.api.IoExecutorMetrics;
+import io.servicetalk.transport.api.IoExecutorMetrics.IoThreadMetrics;
+import io.servicetalk.transport.api.MonitoredIoExecutor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.DoubleSupplier;
+
+import static io.servicetalk.encoding.netty.NettyBufferEncoders.bufferEncoder;
+import static io.servicetalk.encoding.netty.NettyBufferEncoders.gzipDefault;
+import static io.servicetalk.encoding.netty.NettyCompression.gzip;
+import static io.servicetalk.http.netty.IoExecutorUtilization.maxIoThreadUtilization;
+import static io.servicetalk.transport.netty.NettyIoExecutors.createMonitoredIoExecutor;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class IoExecutorUtilizationTest {
+
+    @Test
+    void maxOfMeasuredThreads() {
+        final List<IoThreadMetrics> threads = new ArrayList<>(asList(new TestIoThreadMetrics(0.2),
+                new TestIoThreadMetrics(Double.NaN), new TestIoThreadMetrics(0.7)));
+        final DoubleSupplier utilization = maxIoThreadUtilization(() -> threads);
+        assertThat(utilization.getAsDouble(), is(0.7));
+        threads.set(2, new TestIoThreadMetrics(0.1));
+        assertThat(utilization.getAsDouble(), is(0.2));
+    }
+
+    @Test
+    void noMeasuredThreads() {
+        assertThat(maxIoThreadUtilization(() -> emptyList()).getAsDouble(), is(0.0));
+        final IoExecutorMetrics metrics = () -> asList(new TestIoThreadMetrics(Double.NaN));
+        assertThat(maxIoThreadUtilization(metrics).getAsDouble(), is(0.0));
+    }
+
+    @Test
+    @Timeout(30)
+    void busyIoThreadSelectsHighUtilizationEncoder() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean().isThreadCpuTimeSupported(),
+                "Thread CPU time is not supported");
+        final BufferEncoder gzipDefault = gzipDefault();
+        final BufferEncoder gzipFast = bufferEncoder(gzip().withCompressionLevel(1).build(),
+                gzip().withCompressionLevel(1).buildStreaming(), "gzip");
+        final MonitoredIoExecutor ioExecutor = createMonitoredIoExecutor(1, "utilization-io", ofMillis(10),
+                ofSeconds(30), (thread, blockedNanos, stackTrace) -> { });
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            final AdaptiveBufferEncoder encoder = new AdaptiveBufferEncoderBuilder(gzipDefault)
+                    .highUtilizationEncoder(gzipFast, maxIoThreadUtilization(ioExecutor), 0.5)
+                    .build();
+            ioExecutor.asExecutor().execute(() -> {
+                // Keep the IO thread busy until the sampled utilization crosses the threshold.
+                while (release.getCount() > 0) {
+                    // spin
+                }
+            });
+            while (encoder.select() != gzipFast) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            while (encoder.select() == gzipFast) {
+                Thread.sleep(10);
+            }
+            assertThat(encoder.select(), is(sameInstance(gzipDefault)));
+        } finally {
+            release.countDown();
+            ioExecutor.closeAsync().toFuture().get();
+        }
+    }
+
+    private static final class TestIoThreadMetrics implements IoThreadMetrics {
+        private final double utilization;
+
+        TestIoThreadMetrics(final double utilization) {
+            this.utilization = utilization;
+        }
+
+        @Override
+        public String threadName() {
+            return "test";
+        }
+
+        @Override
+        public double utilization() {
+            return utilization;
+        }
+
+        @Override
+        public int pendingTasks() {
+            return 0;
+        }
+
+        @Override
+        public long taskQueueLatencyNanos() {
+            return 0;
+        }
+
+        @Override
+        public long longRunningTasks() {
+            return 0;
+        }
+    }
+}
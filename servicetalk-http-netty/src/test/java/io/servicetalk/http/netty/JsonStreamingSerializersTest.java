@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.api.HttpStreamingSerializerDeserializer;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.data.jackson.JacksonSerializerFactory.JACKSON;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_X_NDJSON;
+import static io.servicetalk.http.api.HttpSerializers.jsonArrayStreamingSerializer;
+import static io.servicetalk.http.api.HttpSerializers.ndJsonStreamingSerializer;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+class JsonStreamingSerializersTest {
+
+    @Test
+    void jsonArray() throws Exception {
+        assertRoundTrip(jsonArrayStreamingSerializer(JACKSON.arrayStreamingSerializerDeserializer(String.class)),
+                APPLICATION_JSON, "[\"a\",\"b\",\"c\"]");
+    }
+
+    @Test
+    void ndJson() throws Exception {
+        assertRoundTrip(ndJsonStreamingSerializer(JACKSON.ndJsonStreamingSerializerDeserializer(String.class)),
+                APPLICATION_X_NDJSON, "\"a\"\n\"b\"\n\"c\"\n");
+    }
+
+    private static void assertRoundTrip(HttpStreamingSerializerDeserializer<String> serializer,
+                                        CharSequence expectedContentType, String expectedPayload) throws Exception {
+        try (ServerContext srv = HttpServers.forAddress(localAddress(0))
+                .listenStreamingAndAwait((ctx, request, responseFactory) ->
+                        succeeded(responseFactory.ok().payloadBody(from("a", "b", "c"), serializer)));
+             BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(srv)).buildBlocking()) {
+            HttpResponse response = client.request(client.get("/"));
+            assertThat(response.headers().contains(CONTENT_TYPE, expectedContentType), is(true));
+            assertThat(response.payloadBody().toString(UTF_8), is(expectedPayload));
+            assertThat(response.toStreamingResponse().payloadBody(serializer).toIterable(), contains("a", "b", "c"));
+        }
+    }
+}
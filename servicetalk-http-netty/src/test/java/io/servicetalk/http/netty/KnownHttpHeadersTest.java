@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+
+import static io.netty.buffer.Unpooled.copiedBuffer;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.TE;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
+import static io.servicetalk.http.netty.KnownHttpHeaders.knownHeaderName;
+import static io.servicetalk.http.netty.KnownHttpHeaders.knownHeaderValue;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class KnownHttpHeadersTest {
+
+    @Test
+    void lowerCaseName() {
+        assertThat(knownName("content-type"), is(sameInstance(CONTENT_TYPE)));
+        assertThat(knownName("te"), is(sameInstance(TE)));
+    }
+
+    @Test
+    void capitalizedNameIsSharedAndPreservesCase() {
+        final CharSequence name = knownName("Content-Type");
+        assertThat(name, is(notNullValue()));
+        assertThat(name.toString(), is("Content-Type"));
+        assertThat(knownName("Content-Type"), is(sameInstance(name)));
+    }
+
+    @Test
+    void unknownName() {
+        assertThat(knownName("CONTENT-TYPE"), is(nullValue()));
+        assertThat(knownName("content-typ"), is(nullValue()));
+        assertThat(knownName("x-custom-header"), is(nullValue()));
+    }
+
+    @Test
+    void knownValue() {
+        assertThat(knownValue("keep-alive"), is(sameInstance(KEEP_ALIVE)));
+        assertThat(knownValue("application/json"), is(sameInstance(APPLICATION_JSON)));
+        assertThat(knownValue("Keep-Alive"), is(nullValue()));
+        assertThat(knownValue("application/jsoN"), is(nullValue()));
+    }
+
+    @Test
+    void regionOfBuffer() {
+        final ByteBuf buffer = copiedBuffer("Connection: keep-alive\r\n", US_ASCII);
+        try {
+            assertThat(knownHeaderName(buffer, 0, 10).toString(), is("Connection"));
+            assertThat(knownHeaderValue(buffer, 12, 10), is(sameInstance(KEEP_ALIVE)));
+            assertThat(knownHeaderValue(buffer, 12, 9), is(nullValue()));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void emptyAndTooLong() {
+        assertThat(knownName(""), is(nullValue()));
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1024; ++i) {
+            sb.append('a');
+        }
+        assertThat(knownName(sb.toString()), is(nullValue()));
+    }
+
+    private static CharSequence knownName(final String name) {
+        final ByteBuf buffer = copiedBuffer(name, US_ASCII);
+        try {
+            return knownHeaderName(buffer, buffer.readerIndex(), buffer.readableBytes());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static CharSequence knownValue(final String value) {
+        final ByteBuf buffer = copiedBuffer(value, US_ASCII);
+        try {
+            return knownHeaderValue(buffer, buffer.readerIndex(), buffer.readableBytes());
+        } finally {
+            buffer.release();
+        }
+    }
+}
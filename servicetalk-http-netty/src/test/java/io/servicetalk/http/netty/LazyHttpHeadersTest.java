@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpRequestMetaData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import static io.netty.buffer.Unpooled.copiedBuffer;
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.buffer.netty.BufferUtils.getByteBufAllocator;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
+import static io.servicetalk.transport.netty.internal.CloseHandler.UNSUPPORTED_PROTOCOL_CLOSE_HANDLER;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LazyHttpHeadersTest {
+
+    private static final String HEADERS = "Host: servicetalk.io" + "\r\n" +
+            "X-Multi:  first " + "\r\n" +
+            "connection: keep-alive" + "\r\n" +
+            "x-multi: second" + "\r\n" +
+            "X-Empty:" + "\r\n";
+
+    private final EmbeddedChannel decoder = new EmbeddedChannel(new HttpRequestDecoder(new ArrayDeque<>(),
+            getByteBufAllocator(DEFAULT_ALLOCATOR), new DefaultHttpHeadersFactory(true, true, true, 16, 4, true),
+            8192, 8192, false, false, UNSUPPORTED_PROTOCOL_CLOSE_HANDLER));
+    private final EmbeddedChannel encoder = new EmbeddedChannel(new HttpRequestEncoder(new ArrayDeque<>(), 256, 256));
+
+    @AfterEach
+    void tearDown() {
+        decoder.finishAndReleaseAll();
+        encoder.finishAndReleaseAll();
+    }
+
+    @Test
+    void lookupsDoNotMaterialize() {
+        HttpHeaders headers = decode("GET / HTTP/1.1" + "\r\n" + HEADERS + "\r\n");
+        assertThat(headers, is(instanceOf(LazyHttpHeaders.class)));
+        assertThat(headers.size(), is(5));
+        assertThat(headers.get(HOST).toString(), is("servicetalk.io"));
+        assertThat(headers.get(CONNECTION), is(sameInstance(KEEP_ALIVE)));
+        assertThat(headers.get("x-empty").length(), is(0));
+        assertThat(headers.get(CONTENT_LENGTH), is(nullValue()));
+        assertThat(headers.contains("X-MULTI", "second"), is(true));
+        assertThat(headers.containsIgnoreCase("x-multi", "FIRST"), is(true));
+        assertFalse(headers.remove(CONTENT_LENGTH));
+
+        Iterator<? extends CharSequence> values = headers.valuesIterator("x-multi");
+        assertThat(values.next().toString(), is("first"));
+        assertThat(values.next().toString(), is("second"));
+        assertFalse(values.hasNext());
+        assertThat(((LazyHttpHeaders) headers).rawHeaders(), is(notNullValue()));
+    }
+
+    @Test
+    void unmodifiedHeadersAreEncodedVerbatim() {
+        HttpRequestMetaData request = decodeRequest("GET / HTTP/1.1" + "\r\n" + HEADERS + "\r\n");
+        assertThat(request.headers().get(HOST).toString(), is("servicetalk.io"));
+        assertThat(encode(request), is("GET / HTTP/1.1" + "\r\n" + HEADERS + "\r\n"));
+    }
+
+    @Test
+    void modificationMaterializes() {
+        HttpRequestMetaData request = decodeRequest("GET / HTTP/1.1" + "\r\n" + HEADERS + "\r\n");
+        HttpHeaders headers = request.headers();
+        headers.set(HOST, "example.com");
+        assertThat(((LazyHttpHeaders) headers).rawHeaders(), is(nullValue()));
+        assertThat(headers.size(), is(5));
+        String encoded = encode(request);
+        assertThat(encoded, startsWith("GET / HTTP/1.1" + "\r\n"));
+        assertThat(encoded, endsWith("\r\n" + "\r\n"));
+        assertThat(encoded, containsString("Host: example.com" + "\r\n"));
+        assertThat(encoded, containsString("X-Multi: first" + "\r\n"));
+        assertThat(encoded, containsString("X-Empty: " + "\r\n"));
+        assertThat(encoded, not(containsString("servicetalk.io")));
+    }
+
+    @Test
+    void valuesIteratorRemoveMaterializes() {
+        HttpHeaders headers = decode("GET / HTTP/1.1" + "\r\n" + HEADERS + "\r\n");
+        Iterator<? extends CharSequence> values = headers.valuesIterator("x-multi");
+        assertThat(values.next().toString(), is("first"));
+        values.remove();
+        assertThat(values.next().toString(), is("second"));
+        assertFalse(values.hasNext());
+        assertThat(headers.size(), is(4));
+        assertThat(headers.get("x-multi").toString(), is("second"));
+    }
+
+    @Test
+    void headerBlockSplitAcrossReads() {
+        decoder.writeInbound(copiedBuffer("GET / HTTP/1.1" + "\r\n" + "Host: servicetalk.io" + "\r\n" + "X-Mu",
+                US_ASCII));
+        assertThat(decoder.readInbound(), is(nullValue()));
+        decoder.writeInbound(copiedBuffer("lti: first" + "\r\n" + "\r\n", US_ASCII));
+        HttpRequestMetaData request = decoder.readInbound();
+        assertThat(request.headers().size(), is(2));
+        assertThat(request.headers().get("x-multi").toString(), is("first"));
+        assertThat(encode(request), is("GET / HTTP/1.1" + "\r\n" +
+                "Host: servicetalk.io" + "\r\n" + "X-Multi: first" + "\r\n" + "\r\n"));
+    }
+
+    @Test
+    void invalidHeaderName() {
+        assertThrows(DecoderException.class, () -> decoder.writeInbound(copiedBuffer("GET / HTTP/1.1" + "\r\n" +
+                "Transfer-Encoding : chunked" + "\r\n" + "\r\n", US_ASCII)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a\rb", "a\u0000b", "a\u007fb", "a\u000bb"})
+    void invalidHeaderValue(final String value) {
+        assertThrows(DecoderException.class, () -> decoder.writeInbound(copiedBuffer("GET / HTTP/1.1" + "\r\n" +
+                "Host: servicetalk.io" + "\r\n" + "X-Invalid: " + value + "\r\n" + "\r\n", US_ASCII)));
+    }
+
+    @Test
+    void invalidHeaderValueWithoutValueValidation() {
+        // The raw header block is written out verbatim, so values are validated even if the factory does not
+        // validate values.
+        final EmbeddedChannel nonValidating = new EmbeddedChannel(new HttpRequestDecoder(new ArrayDeque<>(),
+                getByteBufAllocator(DEFAULT_ALLOCATOR), new DefaultHttpHeadersFactory(true, true, false, 16, 4, true),
+                8192, 8192, false, false, UNSUPPORTED_PROTOCOL_CLOSE_HANDLER));
+        try {
+            assertThrows(DecoderException.class, () -> nonValidating.writeInbound(copiedBuffer("GET / HTTP/1.1" +
+                    "\r\n" + "X-Invalid: a\rTransfer-Encoding: chunked" + "\r\n" + "\r\n", US_ASCII)));
+        } finally {
+            nonValidating.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    void tabInHeaderValue() {
+        HttpRequestMetaData request = decodeRequest("GET / HTTP/1.1" + "\r\n" + "X-Text: a\tb" + "\r\n" + "\r\n");
+        assertThat(request.headers().get("x-text").toString(), is("a\tb"));
+    }
+
+    private HttpHeaders decode(final String request) {
+        return decodeRequest(request).headers();
+    }
+
+    private HttpRequestMetaData decodeRequest(final String request) {
+        decoder.writeInbound(copiedBuffer(request, US_ASCII));
+        return decoder.readInbound();
+    }
+
+    private String encode(final HttpRequestMetaData request) {
+        encoder.writeOutbound(request);
+        ByteBuf byteBuf = encoder.readOutbound();
+        try {
+            return byteBuf.toString(US_ASCII);
+        } finally {
+            byteBuf.release();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.Publisher;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static io.servicetalk.client.api.internal.ReservableRequestConcurrencyControllers.newController;
+import static io.servicetalk.client.api.internal.RequestConcurrencyController.Result.Accepted;
+import static io.servicetalk.client.api.internal.RequestConcurrencyController.Result.RejectedTemporary;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h1;
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PipelinedRequestConcurrencyControllerTest {
+
+    private static final int MAX_PIPELINED_REQUESTS = 4;
+
+    private static PipelinedRequestConcurrencyController newPipelinedController(final long maxHeadOfLineAgeNs) {
+        return new PipelinedRequestConcurrencyController(newController(Publisher.never(), Completable.never(),
+                MAX_PIPELINED_REQUESTS), maxHeadOfLineAgeNs);
+    }
+
+    @Test
+    void invalidMaxHeadOfLineAge() {
+        assertThrows(IllegalArgumentException.class, () -> h1().maxPipelinedHeadOfLineAge(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void queueDepthAndScore() {
+        final PipelinedRequestConcurrencyController controller = newPipelinedController(0);
+        assertThat(controller.queueDepth(), is(0));
+        assertThat(controller.headOfLineAgeNs(), is(0L));
+        assertThat(controller.score(), is(MAX_VALUE));
+
+        assertThat(controller.tryRequest(), is(Accepted));
+        assertThat(controller.tryRequest(), is(Accepted));
+        assertThat(controller.queueDepth(), is(2));
+        assertThat(controller.score(), is(MAX_VALUE - 2));
+
+        controller.requestFinished();
+        controller.requestFinished();
+        assertThat(controller.queueDepth(), is(0));
+        assertThat(controller.headOfLineAgeNs(), is(0L));
+        assertThat(controller.score(), is(MAX_VALUE));
+    }
+
+    @Test
+    void maxPipelinedRequestsEnforced() {
+        final PipelinedRequestConcurrencyController controller = newPipelinedController(0);
+        for (int i = 0; i < MAX_PIPELINED_REQUESTS; ++i) {
+            assertThat(controller.tryRequest(), is(Accepted));
+        }
+        assertThat(controller.tryRequest(), is(RejectedTemporary));
+        assertThat(controller.queueDepth(), is(MAX_PIPELINED_REQUESTS));
+    }
+
+    @Test
+    void stalledHeadOfLineRejectsNewRequests() throws Exception {
+        final PipelinedRequestConcurrencyController controller =
+                newPipelinedController(MILLISECONDS.toNanos(1));
+        assertThat(controller.tryRequest(), is(Accepted));
+        Thread.sleep(10);
+        assertThat(controller.headOfLineAgeNs(), is(greaterThan(MILLISECONDS.toNanos(1))));
+        assertThat(controller.tryRequest(), is(RejectedTemporary));
+
+        // Once the head completes, the connection made progress and accepts requests again.
+        controller.requestFinished();
+        assertThat(controller.tryRequest(), is(Accepted));
+    }
+}
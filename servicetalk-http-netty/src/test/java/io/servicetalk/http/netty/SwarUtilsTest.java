@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static io.netty.handler.codec.http.HttpConstants.COLON;
+import static io.servicetalk.http.netty.SwarUtils.compilePattern;
+import static io.servicetalk.http.netty.SwarUtils.greaterThan;
+import static io.servicetalk.http.netty.SwarUtils.indexOf;
+import static io.servicetalk.http.netty.SwarUtils.indexOfNonVCHAR;
+import static io.servicetalk.http.netty.SwarUtils.indexOfWS;
+import static io.servicetalk.http.netty.SwarUtils.lessThan;
+import static io.servicetalk.http.netty.SwarUtils.zeroBytes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SwarUtilsTest {
+
+    private static final int LENGTH = 24;
+
+    @Test
+    void byteMasksAreExactForAllByteValues() {
+        for (int b = 0; b < 256; ++b) {
+            // Surround the tested byte with neighbours that could cause a carry or borrow.
+            for (int neighbour : new int[] {0x00, 0x7f, 0x80, 0xff}) {
+                final long word = word(b, neighbour);
+                assertThat(firstByte(zeroBytes(word)), is(expectedFirst(b == 0, neighbour == 0)));
+                assertThat(firstByte(lessThan(word, 0x21)), is(expectedFirst(b < 0x21, neighbour < 0x21)));
+                assertThat(firstByte(greaterThan(word, 0x7e)), is(expectedFirst(b > 0x7e, neighbour > 0x7e)));
+            }
+        }
+    }
+
+    @Test
+    void indexOfMatchesByteByByteScan() {
+        final byte[] bytes = new byte[LENGTH];
+        for (int position = 0; position < LENGTH; ++position) {
+            fill(bytes, (byte) 'a');
+            bytes[position] = COLON;
+            assertAllRanges(bytes, Scan.FIND_COLON);
+        }
+        fill(bytes, (byte) 'a');
+        assertAllRanges(bytes, Scan.FIND_COLON);
+    }
+
+    @Test
+    void indexOfWSMatchesByteByByteScan() {
+        final byte[] bytes = new byte[LENGTH];
+        for (byte ws : new byte[] {' ', '\t'}) {
+            for (int position = 0; position < LENGTH; ++position) {
+                fill(bytes, (byte) 'a');
+                bytes[position] = ws;
+                assertAllRanges(bytes, Scan.FIND_WS);
+            }
+        }
+    }
+
+    @Test
+    void indexOfNonVCHARMatchesByteByByteScan() {
+        final byte[] bytes = new byte[LENGTH];
+        for (int value = 0; value < 256; ++value) {
+            for (int position = 0; position < LENGTH; position += 5) {
+                fill(bytes, (byte) '~');
+                bytes[position] = (byte) value;
+                assertAllRanges(bytes, Scan.FIND_NON_VCHAR);
+            }
+        }
+    }
+
+    private static void assertAllRanges(final byte[] bytes, final Scan scan) {
+        final ByteBuf buffer = wrappedBuffer(bytes);
+        for (int from = 0; from <= bytes.length; ++from) {
+            for (int to = from; to <= bytes.length; ++to) {
+                assertThat("from=" + from + ", to=" + to, scan.swar(buffer, from, to),
+                        is(scan.naive(buffer, from, to)));
+            }
+        }
+    }
+
+    private static long word(final int b, final int neighbour) {
+        long word = 0;
+        for (int i = 0; i < Long.BYTES; ++i) {
+            word = (word << 8) | (i == 3 ? b : neighbour);
+        }
+        return word;
+    }
+
+    private static int expectedFirst(final boolean byteMatches, final boolean neighbourMatches) {
+        // The tested byte is at position 3, surrounded by neighbours.
+        return neighbourMatches ? 0 : byteMatches ? 3 : Long.BYTES;
+    }
+
+    private static int firstByte(final long mask) {
+        return mask == 0 ? Long.BYTES : SwarUtils.firstByte(mask);
+    }
+
+    private static void fill(final byte[] bytes, final byte value) {
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = value;
+        }
+    }
+
+    private enum Scan {
+        FIND_COLON {
+            @Override
+            int swar(final ByteBuf buffer, final int from, final int to) {
+                return indexOf(buffer, from, to, compilePattern(COLON), COLON);
+            }
+
+            @Override
+            boolean matches(final byte value) {
+                return value == ':';
+            }
+        },
+        FIND_WS {
+            @Override
+            int swar(final ByteBuf buffer, final int from, final int to) {
+                return indexOfWS(buffer, from, to);
+            }
+
+            @Override
+            boolean matches(final byte value) {
+                return value == ' ' || value == '\t';
+            }
+        },
+        FIND_NON_VCHAR {
+            @Override
+            int swar(final ByteBuf buffer, final int from, final int to) {
+                return indexOfNonVCHAR(buffer, from, to);
+            }
+
+            @Override
+            boolean matches(final byte value) {
+                return (value & 0xff) < 0x21 || (value & 0xff) > 0x7e;
+            }
+        };
+
+        abstract int swar(ByteBuf buffer, int from, int to);
+
+        abstract boolean matches(byte value);
+
+        int naive(final ByteBuf buffer, final int from, final int to) {
+            for (int i = from; i < to; ++i) {
+                if (matches(buffer.getByte(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -75,6 +75,7 @@ import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_
 import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_INTERVAL;
 import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.EAGER_CONNECTION_SHUTDOWN_ENABLED;
 import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.FACTORY_COUNT;
+import static io.servicetalk.transport.api.IoThreadFactory.IoThread.currentThreadIsIoThread;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
@@ -131,6 +132,8 @@ public final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalance
     private final SequentialCancellable discoveryCancellable = new SequentialCancellable();
     private final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory;
     private final ListenableAsyncCloseable asyncCloseable;
+    @Nullable
+    private final Predicate<? super C> ioThreadAffinity;
 
     /**
      * Creates a new instance.
@@ -194,7 +197,36 @@ public final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalance
             final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory,
             final boolean eagerConnectionShutdown,
             @Nullable final HealthCheckConfig healthCheckConfig) {
+        this(targetResource, eventPublisher, connectionFactory, eagerConnectionShutdown, healthCheckConfig, null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param targetResource {@link String} representation of the target resource for which this instance
+     * is performing load balancing.
+     * @param eventPublisher provides a stream of addresses to connect to.
+     * @param connectionFactory a function which creates new connections.
+     * @param eagerConnectionShutdown whether connections with {@link ServiceDiscovererEvent#isAvailable()} flag
+     * set to {@code false} should be eagerly closed. When {@code false}, the expired addresses will be used
+     * for sending requests, but new connections will not be requested, allowing the server to drive
+     * the connection closure and shifting traffic to other addresses.
+     * @param healthCheckConfig configuration for the health checking mechanism, which monitors hosts that
+     * are unable to have a connection established. Providing {@code null} disables this mechanism (meaning the host
+     * continues being eligible for connecting on the request path).
+     * @param ioThreadAffinity {@link Predicate} that tests whether a connection is bound to the calling IO thread, or
+     * {@code null} to select connections regardless of the calling thread.
+     * @see io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory
+     */
+    RoundRobinLoadBalancer(
+            final String targetResource,
+            final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
+            final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory,
+            final boolean eagerConnectionShutdown,
+            @Nullable final HealthCheckConfig healthCheckConfig,
+            @Nullable final Predicate<? super C> ioThreadAffinity) {
         this.targetResource = requireNonNull(targetResource);
+        this.ioThreadAffinity = ioThreadAffinity;
         Processor<Object, Object> eventStreamProcessor = newPublisherProcessorDropHeadOnOverflow(32);
         this.eventStream = fromSource(eventStreamProcessor);
         this.connectionFactory = requireNonNull(connectionFactory);
@@ -414,6 +446,8 @@ public final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalance
         // try one loop over hosts and if all are expired, give up
         final int cursor = (indexUpdater.getAndIncrement(this) & Integer.MAX_VALUE) % usedHosts.size();
         final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        // Affinity only makes sense for IO threads, other threads would otherwise keep creating new connections.
+        final Predicate<? super C> ioThreadAffinity = currentThreadIsIoThread() ? this.ioThreadAffinity : null;
         Host<ResolvedAddress, C> pickedHost = null;
         for (int i = 0; i < usedHosts.size(); ++i) {
             // for a particular iteration we maintain a local cursor without contention with other requests
@@ -423,13 +457,41 @@ public final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalance
 
             // Try first to see if an existing connection can be used
             final Object[] connections = host.connState.connections;
+            if (ioThreadAffinity != null && host.isActiveAndHealthy()) {
+                // Only consider connections bound to the calling IO thread, and if there are none available, create a
+                // new one which is expected to be bound to the calling IO thread too.
+                for (Object o : connections) {
+                    @SuppressWarnings("unchecked")
+                    final C connection = (C) o;
+                    if (ioThreadAffinity.test(connection) && selector.test(connection)) {
+                        return succeeded(connection);
+                    }
+                }
+                pickedHost = host;
+                break;
+            }
             // With small enough search space, attempt all connections.
             // Back off after exploring most of the search space, it gives diminishing returns.
             final int attempts = connections.length < MIN_SEARCH_SPACE ?
                     connections.length : (int) (connections.length * SEARCH_FACTOR);
-            for (int j = 0; j < attempts; ++j) {
+            // Power of two choices: of two random candidates, try the one with the higher score first (e.g. the
+            // connection with the shorter queue) and fall back to the other one.
+            for (int j = 0; j < attempts; j += 2) {
                 @SuppressWarnings("unchecked")
-                final C connection = (C) connections[rnd.nextInt(connections.length)];
+                C connection = (C) connections[rnd.nextInt(connections.length)];
+                if (j + 1 < attempts) {
+                    @SuppressWarnings("unchecked")
+                    C other = (C) connections[rnd.nextInt(connections.length)];
+                    if (other.score() > connection.score()) {
+                        final C tmp = connection;
+                        connection = other;
+                        other = tmp;
+                    }
+                    if (selector.test(connection)) {
+                        return succeeded(connection);
+                    }
+                    connection = other;
+                }
                 if (selector.test(connection)) {
                     return succeeded(connection);
                 }
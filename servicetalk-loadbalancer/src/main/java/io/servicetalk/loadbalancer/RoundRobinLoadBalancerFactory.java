@@ -29,6 +29,7 @@ import io.servicetalk.transport.api.ExecutionStrategy;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
@@ -44,7 +45,8 @@ import static java.util.Objects.requireNonNull;
  * This can lead to over-provisioning connections when dealing with a requests surge.</li>
  * <li>Existing connections are reused unless a selector passed to {@link LoadBalancer#selectConnection(Predicate)}
  * suggests otherwise. This can lead to situations where connections will be used to their maximum capacity
- * (for example in the context of pipelining) before new connections are created.</li>
+ * (for example in the context of pipelining) before new connections are created. Of two randomly picked connections,
+ * the one with the higher {@link io.servicetalk.client.api.ScoreSupplier#score() score} is tried first.</li>
  * <li>Closed connections are automatically pruned.</li>
  * <li>If {@link #eagerConnectionShutdown} is set to {@code true}, connections are immediately closed
  * for an {@link ServiceDiscovererEvent#isAvailable() unavailable} address. When {@code false} is used, connections
@@ -74,19 +76,24 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
 
     @Nullable
     private final HealthCheckConfig healthCheckConfig;
+    @Nullable
+    private final Predicate<? super C> ioThreadAffinity;
 
     private RoundRobinLoadBalancerFactory(boolean eagerConnectionShutdown,
-                                          @Nullable HealthCheckConfig healthCheckConfig) {
+                                          @Nullable HealthCheckConfig healthCheckConfig,
+                                          @Nullable Predicate<? super C> ioThreadAffinity) {
         this.eagerConnectionShutdown = eagerConnectionShutdown;
         this.healthCheckConfig = healthCheckConfig;
+        this.ioThreadAffinity = ioThreadAffinity;
     }
 
     @Override
     public <T extends C> LoadBalancer<T> newLoadBalancer(
             final Publisher<? extends ServiceDiscovererEvent<ResolvedAddress>> eventPublisher,
             final ConnectionFactory<ResolvedAddress, T> connectionFactory) {
-        return new RoundRobinLoadBalancer<>(
-                eventPublisher, connectionFactory, eagerConnectionShutdown, healthCheckConfig);
+        return new RoundRobinLoadBalancer<>("unknown#" + FACTORY_COUNT.incrementAndGet(),
+                eventPublisher.map(Collections::singletonList), connectionFactory, eagerConnectionShutdown,
+                healthCheckConfig, ioThreadAffinity);
     }
 
     @Override
@@ -95,7 +102,7 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
             final ConnectionFactory<ResolvedAddress, T> connectionFactory) {
         return new RoundRobinLoadBalancer<>(requireNonNull(targetResource) + '#' + FACTORY_COUNT.incrementAndGet(),
-                eventPublisher, connectionFactory, eagerConnectionShutdown, healthCheckConfig);
+                eventPublisher, connectionFactory, eagerConnectionShutdown, healthCheckConfig, ioThreadAffinity);
     }
 
     @Override
@@ -116,6 +123,8 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
         private Executor backgroundExecutor;
         private Duration healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
         private int healthCheckFailedConnectionsThreshold = DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD;
+        @Nullable
+        private Predicate<? super C> ioThreadAffinity;
 
         /**
          * Creates a new instance with default settings.
@@ -203,6 +212,27 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             return this;
         }
 
+        /**
+         * Configures the {@link LoadBalancer} to prefer connections bound to the calling IO thread. When a connection
+         * is selected from an {@link io.servicetalk.transport.api.IoThreadFactory.IoThread IO thread}, only connections
+         * for which {@code ioThreadAffinity} returns {@code true} are considered and if none of them is available a new
+         * connection is created. Selection from other threads is not affected.
+         * <p>
+         * This avoids a thread hop per request when requests are issued from IO threads (e.g. a server proxying
+         * requests without offloading), at the cost of keeping up to one set of connections per IO thread. It is
+         * expected to be used with a connection factory that creates new connections on the calling IO thread.
+         *
+         * @param ioThreadAffinity {@link Predicate} that returns {@code true} if the passed connection is bound to the
+         * calling IO thread, for example by checking
+         * {@link io.servicetalk.transport.api.IoExecutor#isCurrentThreadEventLoop()} of the connection's IO executor.
+         * @return {@code this}.
+         */
+        public RoundRobinLoadBalancerFactory.Builder<ResolvedAddress, C> ioThreadAffinity(
+                Predicate<? super C> ioThreadAffinity) {
+            this.ioThreadAffinity = requireNonNull(ioThreadAffinity);
+            return this;
+        }
+
         /**
          * Builds the {@link RoundRobinLoadBalancerFactory} configured by this builder.
          *
@@ -210,14 +240,14 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
          */
         public RoundRobinLoadBalancerFactory<ResolvedAddress, C> build() {
             if (this.healthCheckFailedConnectionsThreshold < 0) {
-                return new RoundRobinLoadBalancerFactory<>(eagerConnectionShutdown, null);
+                return new RoundRobinLoadBalancerFactory<>(eagerConnectionShutdown, null, ioThreadAffinity);
             }
 
             HealthCheckConfig healthCheckConfig = new HealthCheckConfig(
                             this.backgroundExecutor == null ? SharedExecutor.getInstance() : this.backgroundExecutor,
                     healthCheckInterval, healthCheckFailedConnectionsThreshold);
 
-            return new RoundRobinLoadBalancerFactory<>(eagerConnectionShutdown, healthCheckConfig);
+            return new RoundRobinLoadBalancerFactory<>(eagerConnectionShutdown, healthCheckConfig, ioThreadAffinity);
         }
     }
 
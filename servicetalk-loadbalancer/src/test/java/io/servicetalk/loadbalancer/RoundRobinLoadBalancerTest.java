@@ -24,6 +24,7 @@ import io.servicetalk.client.api.NoAvailableHostException;
 import io.servicetalk.client.api.ServiceDiscovererEvent;
 import io.servicetalk.concurrent.PublisherSource.Subscriber;
 import io.servicetalk.concurrent.PublisherSource.Subscription;
+import io.servicetalk.concurrent.api.AsyncContextMap;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.DelegatingExecutor;
 import io.servicetalk.concurrent.api.Executor;
@@ -37,6 +38,7 @@ import io.servicetalk.concurrent.api.TestPublisher;
 import io.servicetalk.concurrent.api.TestSubscription;
 import io.servicetalk.concurrent.internal.DeliberateException;
 import io.servicetalk.concurrent.test.internal.TestSingleSubscriber;
+import io.servicetalk.transport.api.IoThreadFactory;
 import io.servicetalk.transport.api.TransportObserver;
 
 import org.hamcrest.Matcher;
@@ -53,6 +55,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -61,6 +64,7 @@ import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -69,6 +73,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import javax.annotation.Nullable;
 
 import static io.servicetalk.concurrent.api.AsyncCloseables.emptyAsyncCloseable;
 import static io.servicetalk.concurrent.api.BlockingTestUtils.awaitIndefinitely;
@@ -80,12 +85,14 @@ import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
 import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
 import static io.servicetalk.concurrent.internal.TestTimeoutConstants.DEFAULT_TIMEOUT_SECONDS;
 import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD;
+import static java.util.Arrays.asList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.either;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.equalTo;
@@ -95,6 +102,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -327,6 +335,64 @@ abstract class RoundRobinLoadBalancerTest {
         assertThat(connectionsCreated, hasSize(2));
     }
 
+    @Test
+    void ioThreadAffinity() throws Exception {
+        serviceDiscoveryPublisher.onComplete();
+        final Map<TestLoadBalancedConnection, Thread> connectionThreads = new ConcurrentHashMap<>();
+        connectionFactory = new DelegatingConnectionFactory(address -> {
+            final TestLoadBalancedConnection cnx = newConnection(address);
+            connectionThreads.put(cnx, Thread.currentThread());
+            return succeeded(cnx);
+        });
+        lb = (RoundRobinLoadBalancer<String, TestLoadBalancedConnection>)
+                new RoundRobinLoadBalancerFactory.Builder<String, TestLoadBalancedConnection>()
+                        .eagerConnectionShutdown(eagerConnectionShutdown())
+                        .backgroundExecutor(testExecutor)
+                        .ioThreadAffinity(cnx -> connectionThreads.get(cnx) == Thread.currentThread())
+                        .build()
+                        .newLoadBalancer(serviceDiscoveryPublisher, connectionFactory);
+        sendServiceDiscoveryEvents(upEvent("address-1"));
+
+        final List<TestLoadBalancedConnection> ioThread1 = selectTwiceOnIoThread();
+        final List<TestLoadBalancedConnection> ioThread2 = selectTwiceOnIoThread();
+        assertThat(ioThread1.get(1), is(ioThread1.get(0)));
+        assertThat(ioThread2.get(1), is(ioThread2.get(0)));
+        assertThat(ioThread2.get(0), is(not(ioThread1.get(0))));
+        assertThat(connectionsCreated, hasSize(2));
+
+        // Selection from other threads is not affected by affinity and reuses existing connections.
+        final TestLoadBalancedConnection connection = awaitIndefinitely(lb.selectConnection(any()));
+        assertThat(connection, is(either(is(ioThread1.get(0))).or(is(ioThread2.get(0)))));
+        assertThat(connectionsCreated, hasSize(2));
+    }
+
+    private List<TestLoadBalancedConnection> selectTwiceOnIoThread() throws Exception {
+        final FutureTask<List<TestLoadBalancedConnection>> task = new FutureTask<>(() -> asList(
+                awaitIndefinitely(lb.selectConnection(any())), awaitIndefinitely(lb.selectConnection(any()))));
+        new TestIoThread(task).start();
+        return task.get();
+    }
+
+    @Test
+    void higherScoreIsPreferred() throws Exception {
+        sendServiceDiscoveryEvents(upEvent("address-1"));
+        final TestLoadBalancedConnection low = awaitIndefinitely(lb.selectConnection(alwaysNewConnectionFilter()));
+        final TestLoadBalancedConnection high = awaitIndefinitely(lb.selectConnection(alwaysNewConnectionFilter()));
+        assert low != null && high != null;
+        when(low.score()).thenReturn(1);
+        when(high.score()).thenReturn(2);
+
+        int highSelected = 0;
+        for (int i = 0; i < 100; ++i) {
+            if (awaitIndefinitely(lb.selectConnection(any())) == high) {
+                ++highSelected;
+            }
+        }
+        // The lower score is only selected if it is randomly picked as both candidates.
+        assertThat(highSelected, is(greaterThan(50)));
+        assertThat(connectionsCreated, hasSize(2));
+    }
+
     @Test
     void closedConnectionPruning() throws Exception {
         sendServiceDiscoveryEvents(upEvent("address-1"));
@@ -725,6 +791,26 @@ abstract class RoundRobinLoadBalancerTest {
         String address();
     }
 
+    private static final class TestIoThread extends Thread implements IoThreadFactory.IoThread {
+        @Nullable
+        private AsyncContextMap asyncContextMap;
+
+        TestIoThread(final Runnable runnable) {
+            super(runnable, "test-io-thread");
+        }
+
+        @Override
+        public void asyncContextMap(@Nullable final AsyncContextMap asyncContextMap) {
+            this.asyncContextMap = asyncContextMap;
+        }
+
+        @Nullable
+        @Override
+        public AsyncContextMap asyncContextMap() {
+            return asyncContextMap;
+        }
+    }
+
     static class DelegatingConnectionFactory implements
                                                        ConnectionFactory<String, TestLoadBalancedConnection> {
 
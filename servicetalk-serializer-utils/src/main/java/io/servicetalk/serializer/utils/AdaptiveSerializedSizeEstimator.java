@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.serializer.utils;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.ToIntFunction;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.min;
+import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
+
+/**
+ * Estimates the serialized size in bytes of objects of a single type by learning from the sizes of objects which
+ * have previously been serialized.
+ * <p>
+ * The estimate is an exponentially weighted moving average of the serialized sizes plus four times their exponentially
+ * weighted mean deviation, in the same way as the retransmission timeout of TCP is derived from round-trip time
+ * samples (<a href="https://tools.ietf.org/html/rfc6298">RFC 6298</a>). This covers most objects of a type with a
+ * single allocation, without reserving a large fixed amount of memory for types that are always small.
+ * <p>
+ * Serializers which allocate buffers based on the estimate report the actual size via
+ * {@link #record(int, int)}. Concurrent reports may overwrite each other, which only affects the accuracy of the
+ * estimate.
+ * @param <T> The type of objects to estimate the size of.
+ */
+public final class AdaptiveSerializedSizeEstimator<T> implements ToIntFunction<T> {
+    private static final int DEFAULT_INITIAL_ESTIMATE = 256;
+    private static final int DEFAULT_MAX_ESTIMATE = 1 << 20;
+    // The mean is scaled by 8 and the deviation by 4, so the averages with gains of 1/8 and 1/4 can be updated with
+    // shifts while keeping their fractional part.
+    private static final int MEAN_SHIFT = 3;
+    private static final int DEVIATION_SHIFT = 2;
+    private static final AtomicLongFieldUpdater<AdaptiveSerializedSizeEstimator> sampleCountUpdater =
+            newUpdater(AdaptiveSerializedSizeEstimator.class, "sampleCount");
+    private static final AtomicLongFieldUpdater<AdaptiveSerializedSizeEstimator> resizeCountUpdater =
+            newUpdater(AdaptiveSerializedSizeEstimator.class, "resizeCount");
+
+    private final int maxEstimate;
+    private volatile long scaledMean = -1;
+    private volatile long scaledDeviation;
+    private volatile int estimate;
+    private volatile long sampleCount;
+    private volatile long resizeCount;
+
+    /**
+     * Create a new instance which estimates {@code 256} bytes until the first size is recorded, and never estimates
+     * more than {@code 1 MiB}.
+     */
+    public AdaptiveSerializedSizeEstimator() {
+        this(DEFAULT_INITIAL_ESTIMATE, DEFAULT_MAX_ESTIMATE);
+    }
+
+    /**
+     * Create a new instance.
+     * @param initialEstimate The estimate until the first size is recorded.
+     * @param maxEstimate The maximum estimate. Larger objects are still serialized, but their buffers have to grow.
+     */
+    public AdaptiveSerializedSizeEstimator(final int initialEstimate, final int maxEstimate) {
+        if (maxEstimate <= 0) {
+            throw new IllegalArgumentException("maxEstimate: " + maxEstimate + " (expected > 0)");
+        }
+        if (initialEstimate < 0 || initialEstimate > maxEstimate) {
+            throw new IllegalArgumentException("initialEstimate: " + initialEstimate + " (expected [0, " +
+                    maxEstimate + "])");
+        }
+        this.maxEstimate = maxEstimate;
+        estimate = initialEstimate;
+    }
+
+    @Override
+    public int applyAsInt(final T value) {
+        return estimate;
+    }
+
+    /**
+     * Get the current estimate in bytes.
+     * @return the current estimate in bytes.
+     */
+    public int estimate() {
+        return estimate;
+    }
+
+    /**
+     * Record the actual size of a serialized object.
+     * @param estimate The estimate that was used to allocate the buffer the object was serialized to.
+     * @param serializedSize The size in bytes of the serialized object.
+     */
+    public void record(final int estimate, final int serializedSize) {
+        sampleCountUpdater.incrementAndGet(this);
+        if (serializedSize > estimate) {
+            resizeCountUpdater.incrementAndGet(this);
+        }
+        long mean = scaledMean;
+        long deviation = scaledDeviation;
+        if (mean < 0) {
+            mean = (long) serializedSize << MEAN_SHIFT;
+            // Start with a deviation of a quarter of the size, so the first estimate is twice the first size.
+            deviation = serializedSize;
+        } else {
+            final long error = serializedSize - (mean >> MEAN_SHIFT);
+            mean += error;
+            deviation += abs(error) - (deviation >> DEVIATION_SHIFT);
+        }
+        scaledMean = mean;
+        scaledDeviation = deviation;
+        // The scaled deviation is four times the deviation.
+        this.estimate = (int) min(maxEstimate, (mean >> MEAN_SHIFT) + deviation);
+    }
+
+    /**
+     * Get the number of sizes which have been recorded.
+     * @return the number of sizes which have been recorded.
+     */
+    public long sampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Get the number of recorded sizes which exceeded the estimate, which means the buffer had to grow while
+     * serializing.
+     * @return the number of recorded sizes which exceeded the estimate.
+     */
+    public long resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Record the actual size of a serialized object if {@code estimator} is an
+     * {@link AdaptiveSerializedSizeEstimator}.
+     * @param estimator The estimator that provided {@code estimate}.
+     * @param estimate The estimate that was used to allocate the buffer the object was serialized to.
+     * @param serializedSize The size in bytes of the serialized object.
+     * @see #record(int, int)
+     */
+    public static void recordSerializedSize(final ToIntFunction<?> estimator, final int estimate,
+                                            final int serializedSize) {
+        if (estimator instanceof AdaptiveSerializedSizeEstimator) {
+            ((AdaptiveSerializedSizeEstimator<?>) estimator).record(estimate, serializedSize);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{estimate=" + estimate + ", sampleCount=" + sampleCount +
+                ", resizeCount=" + resizeCount + '}';
+    }
+}
@@ -26,6 +26,7 @@ import java.util.function.BiFunction;
 import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator.recordSerializedSize;
 import static java.lang.Integer.BYTES;
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
@@ -41,8 +42,11 @@ public final class FixedLengthStreamingSerializer<T> implements StreamingSeriali
 
     /**
      * Create a new instance.
-     * @param serializer The {@link SerializerDeserializer} used to serialize/deserialize individual objects.
+     * @param serializer The {@link SerializerDeserializer} used to serialize/deserialize individual objects. Its
+     * {@link SerializerDeserializer#deserialize(Buffer, BufferAllocator) deserialize} method is given views of the
+     * received data instead of copies, see {@link FramedDeserializerOperator}.
      * @param bytesEstimator Provides the length in bytes for each {@link T} being serialized.
+     * An {@link AdaptiveSerializedSizeEstimator} is informed about the actual lengths.
      */
     public FixedLengthStreamingSerializer(final SerializerDeserializer<T> serializer,
                                           final ToIntFunction<T> bytesEstimator) {
@@ -59,11 +63,14 @@ public final class FixedLengthStreamingSerializer<T> implements StreamingSeriali
     @Override
     public Publisher<Buffer> serialize(final Publisher<T> toSerialize, final BufferAllocator allocator) {
         return toSerialize.map(t -> {
-            Buffer buffer = allocator.newBuffer(BYTES + bytesEstimator.applyAsInt(t));
+            final int sizeEstimate = bytesEstimator.applyAsInt(t);
+            Buffer buffer = allocator.newBuffer(BYTES + sizeEstimate);
             final int beforeWriterIndex = buffer.writerIndex();
             buffer.writerIndex(beforeWriterIndex + BYTES);
             serializer.serialize(t, allocator, buffer);
-            buffer.setInt(beforeWriterIndex, buffer.writerIndex() - beforeWriterIndex - BYTES);
+            final int length = buffer.writerIndex() - beforeWriterIndex - BYTES;
+            buffer.setInt(beforeWriterIndex, length);
+            recordSerializedSize(bytesEstimator, sizeEstimate, length);
             return buffer;
         });
     }
@@ -86,7 +93,7 @@ public final class FixedLengthStreamingSerializer<T> implements StreamingSeriali
             if (buffer.readableBytes() < expectedLength) {
                 return null;
             }
-            Buffer result = buffer.readBytes(expectedLength);
+            Buffer result = buffer.readSlice(expectedLength);
             expectedLength = -1;
             return result;
         }
@@ -40,6 +40,11 @@ import static java.util.Objects.requireNonNull;
 /**
  * Utility which helps implementations of {@link StreamingDeserializer} leverage a {@link Deserializer} and apply a
  * framing to define the boundaries of each object.
+ * <p>
+ * {@link Buffer}s which don't contain a complete frame are aggregated in a {@link CompositeBuffer} without copying
+ * their content. The frames provided by the deframer may be views (e.g. {@link Buffer#readSlice(int)}) of the
+ * received data, which share its content instead of copying it. A {@link CompositeBuffer} is not modified once frames
+ * have been read from it, so a {@link Deserializer} may retain these views.
  * @param <T> The type to serialize/deserialize.
  */
 public final class FramedDeserializerOperator<T> implements PublisherOperator<Buffer, Iterable<T>> {
@@ -133,7 +138,15 @@ public final class FramedDeserializerOperator<T> implements PublisherOperator<Bu
                     } while ((buff2 = deframer.apply(input, allocator)) != null);
                 }
                 if (input == compositeBuffer) {
-                    compositeBuffer.discardSomeReadBytes();
+                    // The frames may be views of the aggregated data which the Deserializer may retain, discarding
+                    // read bytes would shift their content. Instead the CompositeBuffer is dropped, and a remaining
+                    // partial frame is copied, so each byte is copied at most once.
+                    final Buffer partialFrame = compositeBuffer.readableBytes() == 0 ? null :
+                            allocator.newBuffer(compositeBuffer.readableBytes()).writeBytes(compositeBuffer);
+                    compositeBuffer = null;
+                    if (partialFrame != null) {
+                        addBuffer(partialFrame);
+                    }
                 } else if (input.readableBytes() != 0) {
                     addBuffer(input);
                 }
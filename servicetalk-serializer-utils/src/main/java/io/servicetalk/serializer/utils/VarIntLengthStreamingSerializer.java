@@ -26,6 +26,7 @@ import java.util.function.BiFunction;
 import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.serializer.utils.AdaptiveSerializedSizeEstimator.recordSerializedSize;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
@@ -52,8 +53,11 @@ public final class VarIntLengthStreamingSerializer<T> implements StreamingSerial
     /**
      * Create a new instance.
      *
-     * @param serializer The {@link SerializerDeserializer} used to serialize/deserialize individual objects.
+     * @param serializer The {@link SerializerDeserializer} used to serialize/deserialize individual objects. Its
+     * {@link SerializerDeserializer#deserialize(Buffer, BufferAllocator) deserialize} method is given views of the
+     * received data instead of copies, see {@link FramedDeserializerOperator}.
      * @param bytesEstimator Estimates the length in bytes for each {@link T} being serialized.
+     * An {@link AdaptiveSerializedSizeEstimator} is informed about the actual lengths.
      */
     public VarIntLengthStreamingSerializer(final SerializerDeserializer<T> serializer,
                                            final ToIntFunction<T> bytesEstimator) {
@@ -70,12 +74,14 @@ public final class VarIntLengthStreamingSerializer<T> implements StreamingSerial
     @Override
     public Publisher<Buffer> serialize(final Publisher<T> toSerialize, final BufferAllocator allocator) {
         return toSerialize.map(t -> {
-            Buffer buffer = allocator.newBuffer(MAX_LENGTH_BYTES + bytesEstimator.applyAsInt(t));
+            final int sizeEstimate = bytesEstimator.applyAsInt(t);
+            Buffer buffer = allocator.newBuffer(MAX_LENGTH_BYTES + sizeEstimate);
             final int beforeWriterIndex = buffer.writerIndex();
             buffer.writerIndex(beforeWriterIndex + MAX_LENGTH_BYTES);
             serializer.serialize(t, allocator, buffer);
             final int length = buffer.writerIndex() - beforeWriterIndex - MAX_LENGTH_BYTES;
             setVarInt(length, buffer, beforeWriterIndex);
+            recordSerializedSize(bytesEstimator, sizeEstimate, length);
             return buffer;
         });
     }
@@ -95,7 +101,7 @@ public final class VarIntLengthStreamingSerializer<T> implements StreamingSerial
             if (buffer.readableBytes() < expectedLength) {
                 return null;
             }
-            Buffer result = buffer.readBytes(expectedLength);
+            Buffer result = buffer.readSlice(expectedLength);
             expectedLength = -1;
             return result;
         }
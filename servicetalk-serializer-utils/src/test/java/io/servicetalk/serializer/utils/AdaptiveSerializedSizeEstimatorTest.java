@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.serializer.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.serializer.utils.StringSerializer.stringSerializer;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveSerializedSizeEstimatorTest {
+    @Test
+    void convergesToConstantSize() {
+        final AdaptiveSerializedSizeEstimator<Object> estimator = new AdaptiveSerializedSizeEstimator<>();
+        assertThat(estimator.estimate(), is(256));
+        estimator.record(estimator.estimate(), 1000);
+        assertThat(estimator.estimate(), is(2000));
+        for (int i = 0; i < 50; ++i) {
+            estimator.record(estimator.estimate(), 1000);
+        }
+        assertThat(estimator.estimate(), allOf(greaterThanOrEqualTo(1000), lessThanOrEqualTo(1010)));
+        assertThat(estimator.sampleCount(), is(51L));
+        assertThat(estimator.resizeCount(), is(1L));
+    }
+
+    @Test
+    void coversVaryingSizes() {
+        final AdaptiveSerializedSizeEstimator<Object> estimator = new AdaptiveSerializedSizeEstimator<>();
+        final Random random = new Random(0);
+        for (int i = 0; i < 1000; ++i) {
+            estimator.record(estimator.estimate(), 900 + random.nextInt(200));
+        }
+        assertThat(estimator.estimate(), allOf(greaterThanOrEqualTo(1100), lessThan(1500)));
+        assertThat(estimator.resizeCount(), lessThan(10L));
+    }
+
+    @Test
+    void adaptsToSmallerSizes() {
+        final AdaptiveSerializedSizeEstimator<Object> estimator = new AdaptiveSerializedSizeEstimator<>();
+        for (int i = 0; i < 20; ++i) {
+            estimator.record(estimator.estimate(), 10_000);
+        }
+        for (int i = 0; i < 100; ++i) {
+            estimator.record(estimator.estimate(), 100);
+        }
+        assertThat(estimator.estimate(), lessThan(200));
+    }
+
+    @Test
+    void boundedByMaxEstimate() {
+        final AdaptiveSerializedSizeEstimator<Object> estimator = new AdaptiveSerializedSizeEstimator<>(16, 1024);
+        assertThat(estimator.applyAsInt("ignored"), is(16));
+        estimator.record(estimator.estimate(), 1 << 20);
+        assertThat(estimator.estimate(), is(1024));
+        assertThat(estimator.resizeCount(), is(1L));
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSerializedSizeEstimator<>(16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSerializedSizeEstimator<>(-1, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSerializedSizeEstimator<>(2048, 1024));
+    }
+
+    @Test
+    void streamingSerializerRecordsLengths() throws Exception {
+        final AdaptiveSerializedSizeEstimator<String> estimator = new AdaptiveSerializedSizeEstimator<>();
+        final VarIntLengthStreamingSerializer<String> serializer =
+                new VarIntLengthStreamingSerializer<>(stringSerializer(US_ASCII), estimator);
+        final Buffer result = serializer.serialize(from("hello", "world!"), DEFAULT_ALLOCATOR)
+                .reduce(DEFAULT_ALLOCATOR::newBuffer, Buffer::writeBytes).toFuture().get();
+        assertThat(result.readableBytes(), is(2 + 5 + 6));
+        assertThat(estimator.sampleCount(), is(2L));
+        assertThat(estimator.resizeCount(), is(0L));
+        assertThat(estimator.estimate(), allOf(greaterThanOrEqualTo(6), lessThan(256)));
+    }
+}
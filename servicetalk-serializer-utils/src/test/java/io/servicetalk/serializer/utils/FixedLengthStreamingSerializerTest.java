@@ -15,14 +15,27 @@
  */
 package io.servicetalk.serializer.utils;
 
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
 import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Publisher.fromIterable;
 import static io.servicetalk.serializer.utils.StringSerializer.stringSerializer;
+import static java.lang.Math.min;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
 
 class FixedLengthStreamingSerializerTest {
     @Test
@@ -33,4 +46,74 @@ class FixedLengthStreamingSerializerTest {
         assertThat(serializer.deserialize(serializer.serialize(from("foo", "bar"), DEFAULT_ALLOCATOR),
                 DEFAULT_ALLOCATOR).toFuture().get(), contains("foo", "bar"));
     }
+
+    @Test
+    void framesSpanningManyBuffers() throws Exception {
+        FixedLengthStreamingSerializer<String> serializer = new FixedLengthStreamingSerializer<>(
+                stringSerializer(UTF_8), String::length);
+        final String large = newString(100_000);
+        final Buffer serialized = DEFAULT_ALLOCATOR.newBuffer();
+        for (Buffer buffer : serializer.serialize(from("foo", large, "bar", large), DEFAULT_ALLOCATOR)
+                .toFuture().get()) {
+            serialized.writeBytes(buffer);
+        }
+        // Chunks which neither align with the frames nor with their length prefix.
+        final List<Buffer> chunks = new ArrayList<>();
+        while (serialized.readableBytes() > 0) {
+            chunks.add(serialized.readBytes(min(serialized.readableBytes(), 1001)));
+        }
+
+        assertThat(serializer.deserialize(fromIterable(chunks), DEFAULT_ALLOCATOR).toFuture().get(),
+                contains("foo", large, "bar", large));
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] varInt={0}")
+    @ValueSource(booleans = {true, false})
+    void deserializerRetainsFrames(boolean varInt) throws Exception {
+        // Returns the frame itself, which stays referenced after later frames were deserialized.
+        final SerializerDeserializer<Buffer> passThrough = new SerializerDeserializer<Buffer>() {
+            @Override
+            public void serialize(final Buffer toSerialize, final BufferAllocator allocator, final Buffer buffer) {
+                buffer.writeBytes(toSerialize);
+            }
+
+            @Override
+            public Buffer deserialize(final Buffer serializedData, final BufferAllocator allocator) {
+                return serializedData;
+            }
+        };
+        final StreamingSerializerDeserializer<Buffer> serializer = varInt ?
+                new VarIntLengthStreamingSerializer<>(passThrough, Buffer::readableBytes) :
+                new FixedLengthStreamingSerializer<>(passThrough, Buffer::readableBytes);
+        final List<String> expected = new ArrayList<>();
+        final Buffer serialized = DEFAULT_ALLOCATOR.newBuffer();
+        for (int i = 0; i < 20; ++i) {
+            final String frame = i + newString(50 + i * 97);
+            expected.add(frame);
+            for (Buffer buffer : serializer.serialize(from(DEFAULT_ALLOCATOR.fromUtf8(frame)), DEFAULT_ALLOCATOR)
+                    .toFuture().get()) {
+                serialized.writeBytes(buffer);
+            }
+        }
+        // Chunks which neither align with the frames nor with their length prefix, so frames are read from
+        // aggregated data which is followed by partial frames.
+        final List<Buffer> chunks = new ArrayList<>();
+        while (serialized.readableBytes() > 0) {
+            chunks.add(serialized.readBytes(min(serialized.readableBytes(), 333)));
+        }
+
+        final List<String> actual = new ArrayList<>();
+        for (Buffer frame : serializer.deserialize(fromIterable(chunks), DEFAULT_ALLOCATOR).toFuture().get()) {
+            actual.add(frame.toString(UTF_8));
+        }
+        assertThat(actual, is(expected));
+    }
+
+    private static String newString(int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('a' + i % 26));
+        }
+        return sb.toString();
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,9 +32,11 @@ public final class ReadOnlyTcpClientConfig extends AbstractReadOnlyTcpConfig<Cli
     private final SslContext sslContext;
     @Nullable
     private final ClientSslConfig sslConfig;
+    private final boolean ioThreadAffinity;
 
     ReadOnlyTcpClientConfig(final TcpClientConfig from) {
         super(from);
+        ioThreadAffinity = from.ioThreadAffinity();
         sslConfig = from.sslConfig();
         sslContext = sslConfig == null ? null : forClient(sslConfig);
     }
@@ -68,4 +70,14 @@ public final class ReadOnlyTcpClientConfig extends AbstractReadOnlyTcpConfig<Cli
     public ClientSslConfig sslConfig() {
         return sslConfig;
     }
+
+    /**
+     * Returns whether new connections should be created on the calling IO thread.
+     *
+     * @return {@code true} if new connections should be created on the calling IO thread.
+     * @see TcpClientConfig#ioThreadAffinity(boolean)
+     */
+    public boolean ioThreadAffinity() {
+        return ioThreadAffinity;
+    }
 }
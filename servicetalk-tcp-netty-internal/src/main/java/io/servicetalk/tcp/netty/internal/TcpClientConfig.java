@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018-2019 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import io.servicetalk.transport.api.ClientSslConfig;
  */
 public final class TcpClientConfig extends AbstractTcpConfig<ClientSslConfig> {
 
+    private boolean ioThreadAffinity;
+
     /**
      * New instance.
      */
@@ -35,6 +37,28 @@ public final class TcpClientConfig extends AbstractTcpConfig<ClientSslConfig> {
      */
     public TcpClientConfig(final TcpClientConfig from) {
         super(from);
+        ioThreadAffinity = from.ioThreadAffinity;
+    }
+
+    /**
+     * Returns whether new connections should be created on the calling IO thread.
+     *
+     * @return {@code true} if new connections should be created on the calling IO thread.
+     * @see #ioThreadAffinity(boolean)
+     */
+    public boolean ioThreadAffinity() {
+        return ioThreadAffinity;
+    }
+
+    /**
+     * Configures whether new connections should be registered with the calling IO thread when the connection is
+     * requested from one of the IO threads of the client's {@link io.servicetalk.transport.api.IoExecutor}.
+     * Connections requested from any other thread are always spread over all IO threads.
+     *
+     * @param ioThreadAffinity {@code true} to create new connections on the calling IO thread.
+     */
+    public void ioThreadAffinity(final boolean ioThreadAffinity) {
+        this.ioThreadAffinity = ioThreadAffinity;
     }
 
     /**
@@ -35,6 +35,7 @@ import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ConnectTimeoutException;
 import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
 import io.netty.resolver.AbstractAddressResolver;
 import io.netty.resolver.AddressResolver;
 import io.netty.resolver.AddressResolverGroup;
@@ -136,7 +137,8 @@ public final class TcpConnector {
             }
         };
 
-        EventLoop loop = toEventLoopAwareNettyIoExecutor(executionContext.ioExecutor()).eventLoopGroup().next();
+        final EventLoopGroup group = toEventLoopAwareNettyIoExecutor(executionContext.ioExecutor()).eventLoopGroup();
+        final EventLoop loop = config.ioThreadAffinity() ? currentOrNextEventLoop(group) : group.next();
         if (!(resolvedRemoteAddress instanceof FileDescriptorSocketAddress)) {
             return connectWithBootstrap(localAddress, resolvedRemoteAddress, config, autoRead, loop, handler);
         }
@@ -152,6 +154,20 @@ public final class TcpConnector {
         return initFileDescriptorBasedChannel(config, autoRead, loop, channel, handler);
     }
 
+    /**
+     * Returns the {@link EventLoop} of the calling thread if it belongs to the passed {@link EventLoopGroup}, which
+     * keeps processing of the new connection on the same thread as its caller (e.g. a server IO thread proxying a
+     * request). Otherwise, falls back to {@link EventLoopGroup#next()}.
+     */
+    static EventLoop currentOrNextEventLoop(final EventLoopGroup group) {
+        for (EventExecutor executor : group) {
+            if (executor.inEventLoop() && executor instanceof EventLoop) {
+                return (EventLoop) executor;
+            }
+        }
+        return group.next();
+    }
+
     private static ChannelFuture connectWithBootstrap(
             @Nullable SocketAddress localAddress, Object resolvedRemoteAddress, ReadOnlyTcpClientConfig config,
             boolean autoRead, EventLoop loop, ChannelHandler handler) {
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2018 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2018, 2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,19 @@ public interface IoExecutor extends ListenableAsyncCloseable {
      */
     boolean isIoThreadSupported();
 
+    /**
+     * Determine if the calling thread is the only IO thread used by this {@link IoExecutor}.
+     * <p>
+     * {@link IoExecutor}s that are backed by more than one thread (e.g. a group of event loops) always return
+     * {@code false}, while {@link IoExecutor}s bound to a single event loop (e.g. the one of a connection) return
+     * {@code true} only when called from that event loop.
+     *
+     * @return {@code true} if the calling thread is the only IO thread used by this {@link IoExecutor}.
+     */
+    default boolean isCurrentThreadEventLoop() {
+        return false;
+    }
+
     /**
      * Returns a boolean supplier, if this IoExecutor supports {@link IoThreadFactory.IoThread} markers, that
      * conditionally recommends offloading if the current thread is an IO thread. If this IoExecutor does not support
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.api;
+
+import java.util.List;
+
+/**
+ * Provides visibility into utilization of the threads of an {@link IoExecutor}.
+ *
+ * @see MonitoredIoExecutor
+ */
+public interface IoExecutorMetrics {
+
+    /**
+     * Returns the most recent metrics for each IO thread of the {@link IoExecutor}.
+     *
+     * @return the most recent metrics for each IO thread of the {@link IoExecutor}
+     */
+    List<IoThreadMetrics> ioThreadMetrics();
+
+    /**
+     * Metrics of a single IO thread, as observed during the most recent sampling interval.
+     */
+    interface IoThreadMetrics {
+
+        /**
+         * Returns the name of the IO thread.
+         *
+         * @return the name of the IO thread or an empty {@link String} if the thread was not yet observed
+         */
+        String threadName();
+
+        /**
+         * Returns the ratio of CPU time consumed by the IO thread to the wall clock time of the most recent sampling
+         * interval. A value close to {@code 1} means the IO thread is saturated.
+         *
+         * @return the ratio in range {@code [0, 1]} or {@link Double#NaN} if it can not be measured
+         */
+        double utilization();
+
+        /**
+         * Returns the number of tasks pending execution by the IO thread.
+         *
+         * @return the number of tasks pending execution by the IO thread or {@code -1} if it can not be measured
+         */
+        int pendingTasks();
+
+        /**
+         * Returns the time a task most recently waited in the task queue before being executed by the IO thread.
+         *
+         * @return the time in nanoseconds a task most recently waited in the task queue before being executed
+         */
+        long taskQueueLatencyNanos();
+
+        /**
+         * Returns the number of times the IO thread was observed to be blocked for longer than the configured
+         * threshold.
+         *
+         * @return the number of times the IO thread was observed to be blocked for longer than the configured
+         * threshold
+         */
+        long longRunningTasks();
+    }
+
+    /**
+     * A listener that is notified when an IO thread does not pick up new tasks for longer than the configured
+     * threshold, which means it is running a long task or is blocked.
+     */
+    @FunctionalInterface
+    interface LongRunningTaskListener {
+
+        /**
+         * Invoked when {@code ioThread} did not pick up new tasks for {@code blockedNanos}.
+         * <p>
+         * This method is invoked from a monitoring thread and must not block.
+         *
+         * @param ioThread the IO thread which is blocked
+         * @param blockedNanos the time in nanoseconds since the IO thread was asked to execute a new task
+         * @param stackTrace a sample of the stack trace of {@code ioThread} taken at the time of detection
+         */
+        void onLongRunningTask(Thread ioThread, long blockedNanos, StackTraceElement[] stackTrace);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.api;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * An immutable snapshot of a histogram of latencies in nanoseconds.
+ * <p>
+ * Values are recorded into log-linear buckets (similar to
+ * <a href="http://hdrhistogram.org/">HdrHistogram</a>), every power of two is divided into
+ * {@value #SUB_BUCKETS} linear buckets. Hence, reported values have a relative error of at most
+ * {@code 1/}{@value #SUB_BUCKETS}.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+    static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final long MAX_TRACKABLE_NANOS = (1L << (Long.SIZE - 2)) - 1;
+
+    private final long[] counts;
+    private final long totalCount;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    private LatencyHistogram(final long[] counts, final long totalCount, final long totalNanos,
+                             final long maxNanos) {
+        this.counts = counts;
+        this.totalCount = totalCount;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Returns the total number of recorded values.
+     *
+     * @return the total number of recorded values.
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the largest recorded value in nanoseconds.
+     *
+     * @return the largest recorded value in nanoseconds or {@code 0} if no values were recorded.
+     */
+    public long maxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the arithmetic mean of all recorded values in nanoseconds.
+     *
+     * @return the arithmetic mean of all recorded values in nanoseconds or {@code 0} if no values were recorded.
+     */
+    public double meanNanos() {
+        return totalCount == 0 ? 0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * Returns the value in nanoseconds at the given percentile.
+     *
+     * @param percentile the percentile in range {@code [0, 100]}.
+     * @return the value in nanoseconds at the given percentile or {@code 0} if no values were recorded.
+     */
+    public long valueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile: " + percentile + " (expected [0, 100])");
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        final long countAtPercentile = max(1, (long) ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            seen += counts[i];
+            if (seen >= countAtPercentile) {
+                return min(highestEquivalentValue(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Returns a new {@link LatencyHistogram} that contains values of this and the {@code other} histogram.
+     *
+     * @param other {@link LatencyHistogram} to merge with.
+     * @return a new {@link LatencyHistogram} that contains values of this and the {@code other} histogram.
+     */
+    public LatencyHistogram merge(final LatencyHistogram other) {
+        final long[] merged = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            merged[i] = counts[i] + other.counts[i];
+        }
+        return new LatencyHistogram(merged, totalCount + other.totalCount, totalNanos + other.totalNanos,
+                max(maxNanos, other.maxNanos));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() +
+                "{count=" + totalCount +
+                ", mean=" + meanNanos() +
+                ", p50=" + valueAtPercentile(50) +
+                ", p99=" + valueAtPercentile(99) +
+                ", max=" + maxNanos +
+                '}';
+    }
+
+    static int bucketIndex(final long valueNanos) {
+        if (valueNanos < SUB_BUCKETS) {
+            return (int) max(valueNanos, 0);
+        }
+        final int msb = Long.SIZE - 1 - numberOfLeadingZeros(valueNanos);
+        final int shift = msb - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((valueNanos >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    static long highestEquivalentValue(final int bucketIndex) {
+        if (bucketIndex < SUB_BUCKETS) {
+            return bucketIndex;
+        }
+        final int shift = (bucketIndex - SUB_BUCKETS) / SUB_BUCKETS;
+        final long lowest = (long) (SUB_BUCKETS | (bucketIndex & SUB_BUCKET_MASK)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Lock-free recorder of latencies, which can be converted to a {@link LatencyHistogram} snapshot.
+     * <p>
+     * Recording does not allocate. Taking a {@link #snapshot()} concurrently with recording is safe, but the snapshot
+     * may not include values recorded concurrently.
+     */
+    static final class Recorder {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        // [0] - total nanos, [1] - max nanos
+        private final AtomicLongArray totals = new AtomicLongArray(2);
+
+        void record(final long valueNanos) {
+            final long value = min(max(valueNanos, 0), MAX_TRACKABLE_NANOS);
+            counts.incrementAndGet(bucketIndex(value));
+            totals.addAndGet(0, value);
+            long currentMax;
+            while (value > (currentMax = totals.get(1))) {
+                if (totals.compareAndSet(1, currentMax, value)) {
+                    break;
+                }
+            }
+        }
+
+        LatencyHistogram snapshot() {
+            final long[] snapshot = new long[BUCKETS];
+            long totalCount = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                snapshot[i] = counts.get(i);
+                totalCount += snapshot[i];
+            }
+            return new LatencyHistogram(snapshot, totalCount, totals.get(0), totals.get(1));
+        }
+    }
+}
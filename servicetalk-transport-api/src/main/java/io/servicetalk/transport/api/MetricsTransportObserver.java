@@ -0,0 +1,635 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.api;
+
+import io.servicetalk.concurrent.internal.FlowControlUtils;
+import io.servicetalk.transport.api.ConnectionObserver.DataObserver;
+import io.servicetalk.transport.api.ConnectionObserver.MultiplexedObserver;
+import io.servicetalk.transport.api.ConnectionObserver.ReadObserver;
+import io.servicetalk.transport.api.ConnectionObserver.SecurityHandshakeObserver;
+import io.servicetalk.transport.api.ConnectionObserver.StreamObserver;
+import io.servicetalk.transport.api.ConnectionObserver.WriteObserver;
+import io.servicetalk.transport.api.NoopTransportObserver.NoopReadObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLSession;
+
+import static io.servicetalk.transport.api.IoThreadFactory.IoThread.isIoThread;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A {@link TransportObserver} that aggregates transport events into metrics.
+ * <p>
+ * Metrics are kept per {@link IoThreadFactory.IoThread IO thread} in lock-free counters and latency histograms, so
+ * that imbalance between event loops becomes visible. Events reported from non-IO threads (e.g. when writes are
+ * offloaded) are aggregated into a single shared set of metrics. Additionally, metrics are kept for every open
+ * connection, so that hot connections can be identified.
+ * <p>
+ * Recording of events does not allocate, snapshots are only created when {@link #ioThreadMetrics()},
+ * {@link #totalMetrics()} or {@link #connectionMetrics()} is called.
+ *
+ * @see TransportObservers#newMetricsObserver()
+ */
+public final class MetricsTransportObserver implements TransportObserver {
+
+    private static final String NON_IO_THREADS = "non-io-threads";
+
+    private static final int BYTES_READ = 0;
+    private static final int BYTES_WRITTEN = 1;
+    private static final int FLUSHES = 2;
+    private static final int CONNECTIONS_OPENED = 3;
+    private static final int CONNECTIONS_CLOSED = 4;
+    private static final int STREAMS_OPENED = 5;
+    private static final int STREAMS_CLOSED = 6;
+    private static final int HANDSHAKES_FAILED = 7;
+    private static final int COUNTERS = 8;
+
+    private final List<Stripe> ioThreadStripes = new CopyOnWriteArrayList<>();
+    private final Stripe nonIoThreadStripe = new Stripe(NON_IO_THREADS);
+    private final ThreadLocal<Stripe> stripes = ThreadLocal.withInitial(this::newStripe);
+    private final Set<MetricsConnectionObserver> connections = ConcurrentHashMap.newKeySet();
+
+    MetricsTransportObserver() {
+    }
+
+    @Override
+    public ConnectionObserver onNewConnection() {
+        final Stripe stripe = stripes.get();
+        stripe.add(CONNECTIONS_OPENED, 1);
+        final MetricsConnectionObserver observer = new MetricsConnectionObserver(this, stripe.name);
+        connections.add(observer);
+        return observer;
+    }
+
+    /**
+     * Returns a snapshot of metrics for every {@link IoThreadFactory.IoThread IO thread} which reported events so
+     * far, and a single entry for all non-IO threads, if any.
+     *
+     * @return a snapshot of metrics for every {@link IoThreadFactory.IoThread IO thread} which reported events so
+     * far
+     */
+    public List<Metrics> ioThreadMetrics() {
+        final List<Metrics> result = new ArrayList<>(ioThreadStripes.size() + 1);
+        for (Stripe stripe : ioThreadStripes) {
+            result.add(stripe.snapshot());
+        }
+        final Metrics nonIo = nonIoThreadStripe.snapshot();
+        if (!nonIo.isEmpty()) {
+            result.add(nonIo);
+        }
+        return unmodifiableList(result);
+    }
+
+    /**
+     * Returns a snapshot of metrics aggregated across all threads.
+     *
+     * @return a snapshot of metrics aggregated across all threads
+     */
+    public Metrics totalMetrics() {
+        Metrics total = nonIoThreadStripe.snapshot();
+        for (Stripe stripe : ioThreadStripes) {
+            total = total.merge(stripe.snapshot());
+        }
+        return total;
+    }
+
+    /**
+     * Returns a snapshot of metrics for every currently open connection.
+     *
+     * @return a snapshot of metrics for every currently open connection
+     */
+    public List<ConnectionMetrics> connectionMetrics() {
+        final List<ConnectionMetrics> result = new ArrayList<>(connections.size());
+        final long nowNs = nanoTime();
+        for (MetricsConnectionObserver connection : connections) {
+            result.add(connection.snapshot(nowNs));
+        }
+        return unmodifiableList(result);
+    }
+
+    private Stripe newStripe() {
+        final Thread thread = Thread.currentThread();
+        if (!isIoThread(thread)) {
+            return nonIoThreadStripe;
+        }
+        final Stripe stripe = new Stripe(thread.getName());
+        ioThreadStripes.add(stripe);
+        return stripe;
+    }
+
+    /**
+     * A snapshot of transport metrics for a thread or a group of threads.
+     */
+    public static final class Metrics {
+        private final String name;
+        private final long[] counters;
+        private final LatencyHistogram handshakeTime;
+        private final LatencyHistogram writeBackpressureTime;
+
+        Metrics(final String name, final long[] counters, final LatencyHistogram handshakeTime,
+                final LatencyHistogram writeBackpressureTime) {
+            this.name = name;
+            this.counters = counters;
+            this.handshakeTime = handshakeTime;
+            this.writeBackpressureTime = writeBackpressureTime;
+        }
+
+        /**
+         * Returns the name of the thread or group of threads these metrics belong to.
+         *
+         * @return the name of the thread or group of threads these metrics belong to
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the number of bytes read.
+         *
+         * @return the number of bytes read
+         */
+        public long bytesRead() {
+            return counters[BYTES_READ];
+        }
+
+        /**
+         * Returns the number of bytes written.
+         *
+         * @return the number of bytes written
+         */
+        public long bytesWritten() {
+            return counters[BYTES_WRITTEN];
+        }
+
+        /**
+         * Returns the number of flushes.
+         *
+         * @return the number of flushes
+         */
+        public long flushes() {
+            return counters[FLUSHES];
+        }
+
+        /**
+         * Returns the number of opened connections.
+         *
+         * @return the number of opened connections
+         */
+        public long connectionsOpened() {
+            return counters[CONNECTIONS_OPENED];
+        }
+
+        /**
+         * Returns the number of closed connections.
+         *
+         * @return the number of closed connections
+         */
+        public long connectionsClosed() {
+            return counters[CONNECTIONS_CLOSED];
+        }
+
+        /**
+         * Returns the number of opened streams on multiplexed connections.
+         *
+         * @return the number of opened streams on multiplexed connections
+         */
+        public long streamsOpened() {
+            return counters[STREAMS_OPENED];
+        }
+
+        /**
+         * Returns the number of closed streams on multiplexed connections.
+         *
+         * @return the number of closed streams on multiplexed connections
+         */
+        public long streamsClosed() {
+            return counters[STREAMS_CLOSED];
+        }
+
+        /**
+         * Returns the number of failed security handshakes.
+         *
+         * @return the number of failed security handshakes
+         */
+        public long handshakesFailed() {
+            return counters[HANDSHAKES_FAILED];
+        }
+
+        /**
+         * Returns the distribution of security handshake durations.
+         *
+         * @return the distribution of security handshake durations
+         */
+        public LatencyHistogram handshakeTime() {
+            return handshakeTime;
+        }
+
+        /**
+         * Returns the distribution of durations writers had to wait for more demand because the write buffer of the
+         * connection was full.
+         *
+         * @return the distribution of durations writers had to wait for more demand because the write buffer of the
+         * connection was full
+         */
+        public LatencyHistogram writeBackpressureTime() {
+            return writeBackpressureTime;
+        }
+
+        boolean isEmpty() {
+            for (long counter : counters) {
+                if (counter != 0) {
+                    return false;
+                }
+            }
+            return handshakeTime.count() == 0 && writeBackpressureTime.count() == 0;
+        }
+
+        Metrics merge(final Metrics other) {
+            final long[] merged = new long[COUNTERS];
+            for (int i = 0; i < COUNTERS; ++i) {
+                merged[i] = counters[i] + other.counters[i];
+            }
+            return new Metrics("total", merged, handshakeTime.merge(other.handshakeTime),
+                    writeBackpressureTime.merge(other.writeBackpressureTime));
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() +
+                    "{name=" + name +
+                    ", bytesRead=" + bytesRead() +
+                    ", bytesWritten=" + bytesWritten() +
+                    ", flushes=" + flushes() +
+                    ", connectionsOpened=" + connectionsOpened() +
+                    ", connectionsClosed=" + connectionsClosed() +
+                    ", streamsOpened=" + streamsOpened() +
+                    ", streamsClosed=" + streamsClosed() +
+                    ", handshakesFailed=" + handshakesFailed() +
+                    ", handshakeTime=" + handshakeTime +
+                    ", writeBackpressureTime=" + writeBackpressureTime +
+                    '}';
+        }
+    }
+
+    /**
+     * A snapshot of metrics for a single connection.
+     */
+    public static final class ConnectionMetrics {
+        @Nullable
+        private final ConnectionInfo connectionInfo;
+        private final String ioThreadName;
+        private final long ageNanos;
+        private final long bytesRead;
+        private final long bytesWritten;
+        private final long flushes;
+        private final long activeStreams;
+
+        ConnectionMetrics(@Nullable final ConnectionInfo connectionInfo, final String ioThreadName,
+                          final long ageNanos, final long bytesRead, final long bytesWritten, final long flushes,
+                          final long activeStreams) {
+            this.connectionInfo = connectionInfo;
+            this.ioThreadName = ioThreadName;
+            this.ageNanos = ageNanos;
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+            this.flushes = flushes;
+            this.activeStreams = activeStreams;
+        }
+
+        /**
+         * Returns the {@link ConnectionInfo} of the connection.
+         *
+         * @return the {@link ConnectionInfo} of the connection or {@code null} if it is not yet established
+         */
+        @Nullable
+        public ConnectionInfo connectionInfo() {
+            return connectionInfo;
+        }
+
+        /**
+         * Returns the name of the thread that initialized the connection.
+         *
+         * @return the name of the thread that initialized the connection
+         */
+        public String ioThreadName() {
+            return ioThreadName;
+        }
+
+        /**
+         * Returns the time in nanoseconds since the connection was initialized.
+         *
+         * @return the time in nanoseconds since the connection was initialized
+         */
+        public long ageNanos() {
+            return ageNanos;
+        }
+
+        /**
+         * Returns the number of bytes read from the connection.
+         *
+         * @return the number of bytes read from the connection
+         */
+        public long bytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * Returns the number of bytes written to the connection.
+         *
+         * @return the number of bytes written to the connection
+         */
+        public long bytesWritten() {
+            return bytesWritten;
+        }
+
+        /**
+         * Returns the number of flushes of the connection.
+         *
+         * @return the number of flushes of the connection
+         */
+        public long flushes() {
+            return flushes;
+        }
+
+        /**
+         * Returns the number of currently active streams, if the connection is multiplexed.
+         *
+         * @return the number of currently active streams, if the connection is multiplexed
+         */
+        public long activeStreams() {
+            return activeStreams;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() +
+                    "{connectionInfo=" + connectionInfo +
+                    ", ioThreadName=" + ioThreadName +
+                    ", ageNanos=" + ageNanos +
+                    ", bytesRead=" + bytesRead +
+                    ", bytesWritten=" + bytesWritten +
+                    ", flushes=" + flushes +
+                    ", activeStreams=" + activeStreams +
+                    '}';
+        }
+    }
+
+    private static final class Stripe {
+        final String name;
+        private final AtomicLongArray counters = new AtomicLongArray(COUNTERS);
+        final LatencyHistogram.Recorder handshakeTime = new LatencyHistogram.Recorder();
+        final LatencyHistogram.Recorder writeBackpressureTime = new LatencyHistogram.Recorder();
+
+        Stripe(final String name) {
+            this.name = name;
+        }
+
+        void add(final int counter, final long delta) {
+            counters.addAndGet(counter, delta);
+        }
+
+        Metrics snapshot() {
+            final long[] snapshot = new long[COUNTERS];
+            for (int i = 0; i < COUNTERS; ++i) {
+                snapshot[i] = counters.get(i);
+            }
+            return new Metrics(name, snapshot, handshakeTime.snapshot(), writeBackpressureTime.snapshot());
+        }
+    }
+
+    private static final class MetricsConnectionObserver
+            implements ConnectionObserver, DataObserver, MultiplexedObserver {
+        private static final AtomicLongFieldUpdater<MetricsConnectionObserver> bytesReadUpdater =
+                AtomicLongFieldUpdater.newUpdater(MetricsConnectionObserver.class, "bytesRead");
+        private static final AtomicLongFieldUpdater<MetricsConnectionObserver> bytesWrittenUpdater =
+                AtomicLongFieldUpdater.newUpdater(MetricsConnectionObserver.class, "bytesWritten");
+        private static final AtomicLongFieldUpdater<MetricsConnectionObserver> flushesUpdater =
+                AtomicLongFieldUpdater.newUpdater(MetricsConnectionObserver.class, "flushes");
+        private static final AtomicLongFieldUpdater<MetricsConnectionObserver> activeStreamsUpdater =
+                AtomicLongFieldUpdater.newUpdater(MetricsConnectionObserver.class, "activeStreams");
+
+        private final ThreadLocal<Stripe> stripes;
+        private final Set<MetricsConnectionObserver> connections;
+        private final String ioThreadName;
+        private final long startNs = nanoTime();
+        @Nullable
+        private volatile ConnectionInfo connectionInfo;
+        // Connection level events are reported by the IO thread of the connection only, hence a single writer.
+        private volatile long bytesRead;
+        private volatile long bytesWritten;
+        private volatile long flushes;
+        private volatile long activeStreams;
+
+        MetricsConnectionObserver(final MetricsTransportObserver parent, final String ioThreadName) {
+            this.stripes = parent.stripes;
+            this.connections = parent.connections;
+            this.ioThreadName = ioThreadName;
+        }
+
+        @Override
+        public void onDataRead(final int size) {
+            bytesReadUpdater.lazySet(this, bytesRead + size);
+            stripes.get().add(BYTES_READ, size);
+        }
+
+        @Override
+        public void onDataWrite(final int size) {
+            bytesWrittenUpdater.lazySet(this, bytesWritten + size);
+            stripes.get().add(BYTES_WRITTEN, size);
+        }
+
+        @Override
+        public void onFlush() {
+            flushesUpdater.lazySet(this, flushes + 1);
+            stripes.get().add(FLUSHES, 1);
+        }
+
+        @Override
+        public SecurityHandshakeObserver onSecurityHandshake() {
+            return new MetricsSecurityHandshakeObserver(stripes);
+        }
+
+        @Override
+        public DataObserver connectionEstablished(final ConnectionInfo info) {
+            connectionInfo = info;
+            return this;
+        }
+
+        @Override
+        public MultiplexedObserver multiplexedConnectionEstablished(final ConnectionInfo info) {
+            connectionInfo = info;
+            return this;
+        }
+
+        @Override
+        public void connectionClosed(final Throwable error) {
+            connectionClosed();
+        }
+
+        @Override
+        public void connectionClosed() {
+            if (connections.remove(this)) {
+                stripes.get().add(CONNECTIONS_CLOSED, 1);
+            }
+        }
+
+        @Override
+        public ReadObserver onNewRead() {
+            return NoopReadObserver.INSTANCE;
+        }
+
+        @Override
+        public WriteObserver onNewWrite() {
+            return new MetricsWriteObserver(stripes);
+        }
+
+        @Override
+        public StreamObserver onNewStream() {
+            // Streams may be requested from any thread, hence use atomic operations.
+            activeStreamsUpdater.incrementAndGet(this);
+            stripes.get().add(STREAMS_OPENED, 1);
+            return new MetricsStreamObserver(this);
+        }
+
+        void streamClosed() {
+            activeStreamsUpdater.decrementAndGet(this);
+            stripes.get().add(STREAMS_CLOSED, 1);
+        }
+
+        ConnectionMetrics snapshot(final long nowNs) {
+            return new ConnectionMetrics(connectionInfo, ioThreadName, nowNs - startNs, bytesRead, bytesWritten,
+                    flushes, activeStreams);
+        }
+    }
+
+    private static final class MetricsSecurityHandshakeObserver implements SecurityHandshakeObserver {
+        private final ThreadLocal<Stripe> stripes;
+        private final long startNs = nanoTime();
+
+        MetricsSecurityHandshakeObserver(final ThreadLocal<Stripe> stripes) {
+            this.stripes = stripes;
+        }
+
+        @Override
+        public void handshakeFailed(final Throwable cause) {
+            final Stripe stripe = stripes.get();
+            stripe.add(HANDSHAKES_FAILED, 1);
+            stripe.handshakeTime.record(nanoTime() - startNs);
+        }
+
+        @Override
+        public void handshakeComplete(final SSLSession sslSession) {
+            stripes.get().handshakeTime.record(nanoTime() - startNs);
+        }
+    }
+
+    private static final class MetricsStreamObserver implements StreamObserver {
+        private final MetricsConnectionObserver connection;
+        private boolean closed;
+
+        MetricsStreamObserver(final MetricsConnectionObserver connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public DataObserver streamEstablished() {
+            return connection;
+        }
+
+        @Override
+        public void streamClosed(final Throwable error) {
+            streamClosed();
+        }
+
+        @Override
+        public void streamClosed() {
+            if (!closed) {
+                closed = true;
+                connection.streamClosed();
+            }
+        }
+    }
+
+    /**
+     * Measures time during which the writer had no outstanding demand, i.e. all requested items were received and
+     * the connection waits for write buffer capacity before requesting more. Demand and items may be reported from
+     * different threads, hence the measurement is approximate under races.
+     */
+    private static final class MetricsWriteObserver implements WriteObserver {
+        private static final AtomicLongFieldUpdater<MetricsWriteObserver> outstandingUpdater =
+                AtomicLongFieldUpdater.newUpdater(MetricsWriteObserver.class, "outstanding");
+        private static final AtomicLongFieldUpdater<MetricsWriteObserver> waitingSinceNsUpdater =
+                AtomicLongFieldUpdater.newUpdater(MetricsWriteObserver.class, "waitingSinceNs");
+
+        private final ThreadLocal<Stripe> stripes;
+        private volatile long outstanding;
+        private volatile long waitingSinceNs;
+
+        MetricsWriteObserver(final ThreadLocal<Stripe> stripes) {
+            this.stripes = stripes;
+        }
+
+        @Override
+        public void requestedToWrite(final long n) {
+            if (n <= 0) {
+                return;
+            }
+            final long previous = outstandingUpdater.getAndAccumulate(this, n,
+                    FlowControlUtils::addWithOverflowProtection);
+            if (previous == 0) {
+                final long since = waitingSinceNsUpdater.getAndSet(this, 0);
+                if (since != 0) {
+                    stripes.get().writeBackpressureTime.record(nanoTime() - since);
+                }
+            }
+        }
+
+        @Override
+        public void itemReceived() {
+            if (outstandingUpdater.decrementAndGet(this) == 0) {
+                waitingSinceNs = nanoTime();
+            }
+        }
+
+        @Override
+        public void onFlushRequest() {
+        }
+
+        @Override
+        public void itemWritten() {
+        }
+
+        @Override
+        public void writeFailed(final Throwable cause) {
+        }
+
+        @Override
+        public void writeComplete() {
+        }
+
+        @Override
+        public void writeCancelled() {
+        }
+    }
+}
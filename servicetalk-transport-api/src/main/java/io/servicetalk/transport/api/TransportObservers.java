@@ -1,5 +1,5 @@
 /*
- * Copyright © 2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2020-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,16 @@ public final class TransportObservers {
         return new CatchAllTransportObserver(observer);
     }
 
+    /**
+     * Creates a new {@link MetricsTransportObserver} that aggregates transport events into per-thread and
+     * per-connection metrics.
+     *
+     * @return a new {@link MetricsTransportObserver}
+     */
+    public static MetricsTransportObserver newMetricsObserver() {
+        return new MetricsTransportObserver();
+    }
+
     /**
      * Combines multiple {@link TransportObserver}s into a single {@link TransportObserver}.
      *
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.api;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.transport.api.LatencyHistogram.BUCKETS;
+import static io.servicetalk.transport.api.LatencyHistogram.bucketIndex;
+import static io.servicetalk.transport.api.LatencyHistogram.highestEquivalentValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundaries() {
+        for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456_789, 1L << 40, (1L << 62) - 1}) {
+            final int index = bucketIndex(value);
+            assertThat("Unexpected bucket index for " + value, index, lessThan(BUCKETS));
+            assertThat("Value exceeds its bucket: " + value, value, lessThanOrEqualTo(highestEquivalentValue(index)));
+            if (index > 0) {
+                assertThat("Value belongs to a lower bucket: " + value, highestEquivalentValue(index - 1),
+                        lessThan(value));
+            }
+        }
+    }
+
+    @Test
+    void emptySnapshot() {
+        LatencyHistogram histogram = new LatencyHistogram.Recorder().snapshot();
+        assertThat(histogram.count(), is(0L));
+        assertThat(histogram.maxNanos(), is(0L));
+        assertThat(histogram.valueAtPercentile(99), is(0L));
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram.Recorder recorder = new LatencyHistogram.Recorder();
+        for (int i = 1; i <= 100; ++i) {
+            recorder.record(i * 1000L);
+        }
+        LatencyHistogram histogram = recorder.snapshot();
+        assertThat(histogram.count(), is(100L));
+        assertThat(histogram.maxNanos(), is(100_000L));
+        assertThat(histogram.meanNanos(), is(50_500d));
+        assertWithinPrecision(histogram.valueAtPercentile(50), 50_000);
+        assertWithinPrecision(histogram.valueAtPercentile(99), 99_000);
+        assertThat(histogram.valueAtPercentile(100), is(100_000L));
+    }
+
+    @Test
+    void merge() {
+        LatencyHistogram.Recorder first = new LatencyHistogram.Recorder();
+        LatencyHistogram.Recorder second = new LatencyHistogram.Recorder();
+        first.record(10);
+        second.record(20);
+        second.record(30);
+        LatencyHistogram merged = first.snapshot().merge(second.snapshot());
+        assertThat(merged.count(), is(3L));
+        assertThat(merged.maxNanos(), is(30L));
+        assertThat(merged.meanNanos(), is(20d));
+    }
+
+    private static void assertWithinPrecision(long actual, long expected) {
+        assertThat("Unexpected value: " + actual, Math.abs(actual - expected),
+                lessThanOrEqualTo(expected / LatencyHistogram.SUB_BUCKETS));
+    }
+}
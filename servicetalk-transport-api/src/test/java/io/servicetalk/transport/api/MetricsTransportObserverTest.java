@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.api;
+
+import io.servicetalk.concurrent.api.AsyncContextMap;
+import io.servicetalk.transport.api.ConnectionObserver.DataObserver;
+import io.servicetalk.transport.api.ConnectionObserver.MultiplexedObserver;
+import io.servicetalk.transport.api.ConnectionObserver.StreamObserver;
+import io.servicetalk.transport.api.ConnectionObserver.WriteObserver;
+import io.servicetalk.transport.api.MetricsTransportObserver.ConnectionMetrics;
+import io.servicetalk.transport.api.MetricsTransportObserver.Metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.transport.api.TransportObservers.newMetricsObserver;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+class MetricsTransportObserverTest {
+
+    private final MetricsTransportObserver observer = newMetricsObserver();
+
+    @Test
+    void connectionCounters() {
+        ConnectionObserver connection = observer.onNewConnection();
+        connection.onDataRead(10);
+        connection.onDataWrite(20);
+        connection.onFlush();
+        connection.connectionEstablished(mock(ConnectionInfo.class));
+
+        List<ConnectionMetrics> connections = observer.connectionMetrics();
+        assertThat(connections, hasSize(1));
+        assertThat(connections.get(0).bytesRead(), is(10L));
+        assertThat(connections.get(0).bytesWritten(), is(20L));
+        assertThat(connections.get(0).flushes(), is(1L));
+
+        connection.connectionClosed();
+        assertThat(observer.connectionMetrics(), hasSize(0));
+
+        Metrics total = observer.totalMetrics();
+        assertThat(total.bytesRead(), is(10L));
+        assertThat(total.bytesWritten(), is(20L));
+        assertThat(total.flushes(), is(1L));
+        assertThat(total.connectionsOpened(), is(1L));
+        assertThat(total.connectionsClosed(), is(1L));
+    }
+
+    @Test
+    void streams() {
+        ConnectionObserver connection = observer.onNewConnection();
+        MultiplexedObserver multiplexed = connection.multiplexedConnectionEstablished(mock(ConnectionInfo.class));
+        StreamObserver first = multiplexed.onNewStream();
+        StreamObserver second = multiplexed.onNewStream();
+        first.streamClosed();
+        first.streamClosed();
+
+        assertThat(observer.connectionMetrics().get(0).activeStreams(), is(1L));
+        second.streamClosed(new Exception("deliberate"));
+        assertThat(observer.connectionMetrics().get(0).activeStreams(), is(0L));
+
+        Metrics total = observer.totalMetrics();
+        assertThat(total.streamsOpened(), is(2L));
+        assertThat(total.streamsClosed(), is(2L));
+    }
+
+    @Test
+    void handshake() {
+        ConnectionObserver connection = observer.onNewConnection();
+        connection.onSecurityHandshake().handshakeFailed(new Exception("deliberate"));
+
+        Metrics total = observer.totalMetrics();
+        assertThat(total.handshakesFailed(), is(1L));
+        assertThat(total.handshakeTime().count(), is(1L));
+    }
+
+    @Test
+    void writeBackpressure() {
+        ConnectionObserver connection = observer.onNewConnection();
+        DataObserver data = connection.connectionEstablished(mock(ConnectionInfo.class));
+        WriteObserver write = data.onNewWrite();
+        write.requestedToWrite(2);
+        write.itemReceived();
+        write.itemReceived();
+        assertThat(observer.totalMetrics().writeBackpressureTime().count(), is(0L));
+
+        write.requestedToWrite(1);
+        assertThat(observer.totalMetrics().writeBackpressureTime().count(), is(1L));
+    }
+
+    @Test
+    void perIoThreadMetrics() throws Exception {
+        AtomicReference<ConnectionObserver> connection = new AtomicReference<>();
+        TestIoThread ioThread = new TestIoThread(() -> {
+            connection.set(observer.onNewConnection());
+            connection.get().onDataRead(5);
+        });
+        ioThread.start();
+        ioThread.join();
+        connection.get().onDataRead(7);
+
+        List<Metrics> metrics = observer.ioThreadMetrics();
+        assertThat(metrics, hasSize(2));
+        assertThat(metrics.get(0).name(), is(ioThread.getName()));
+        assertThat(metrics.get(0).bytesRead(), is(5L));
+        assertThat(metrics.get(1).bytesRead(), is(7L));
+        assertThat(observer.connectionMetrics().get(0).ioThreadName(), is(ioThread.getName()));
+    }
+
+    private static final class TestIoThread extends Thread implements IoThreadFactory.IoThread {
+        @Nullable
+        private AsyncContextMap asyncContextMap;
+
+        TestIoThread(final Runnable runnable) {
+            super(runnable, "test-io-thread");
+        }
+
+        @Override
+        public void asyncContextMap(@Nullable final AsyncContextMap asyncContextMap) {
+            this.asyncContextMap = asyncContextMap;
+        }
+
+        @Nullable
+        @Override
+        public AsyncContextMap asyncContextMap() {
+            return asyncContextMap;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.netty.internal;
+
+import io.servicetalk.concurrent.api.DefaultThreadFactory;
+import io.servicetalk.transport.api.IoExecutorMetrics;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nullable;
+
+import static java.lang.Thread.NORM_PRIORITY;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Periodically samples every {@link EventExecutor} of an {@link EventLoopGroup} from a dedicated monitoring thread.
+ * <p>
+ * On each sample a probe task is submitted to every event loop, its queueing latency is measured when it runs. If a
+ * previously submitted probe did not run for longer than the configured threshold, the event loop is considered to be
+ * blocked by a long-running task: the stack trace of its thread is sampled and reported to the
+ * {@link IoExecutorMetrics.LongRunningTaskListener}. Utilization is computed from the CPU time consumed by the event
+ * loop thread between samples.
+ */
+final class EventLoopMonitor implements IoExecutorMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopMonitor.class);
+    @Nullable
+    private static final ThreadMXBean THREAD_MX_BEAN;
+
+    static {
+        ThreadMXBean threadMXBean = null;
+        try {
+            threadMXBean = ManagementFactory.getThreadMXBean();
+            if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+                threadMXBean = null;
+            }
+        } catch (Throwable cause) {
+            LOGGER.debug("Thread CPU time is not available, IO thread utilization will not be reported.", cause);
+        }
+        THREAD_MX_BEAN = threadMXBean;
+    }
+
+    private final List<EventLoopState> states;
+    private final long longRunningTaskThresholdNs;
+    private final LongRunningTaskListener listener;
+    private final ScheduledExecutorService sampler;
+
+    EventLoopMonitor(final EventLoopGroup group, final Duration samplingInterval,
+                     final Duration longRunningTaskThreshold, final LongRunningTaskListener listener) {
+        final long samplingIntervalNs = samplingInterval.toNanos();
+        if (samplingIntervalNs <= 0) {
+            throw new IllegalArgumentException("samplingInterval: " + samplingInterval + " (expected > 0)");
+        }
+        longRunningTaskThresholdNs = longRunningTaskThreshold.toNanos();
+        if (longRunningTaskThresholdNs <= 0) {
+            throw new IllegalArgumentException("longRunningTaskThreshold: " + longRunningTaskThreshold +
+                    " (expected > 0)");
+        }
+        this.listener = requireNonNull(listener);
+        final List<EventLoopState> states = new ArrayList<>();
+        for (EventExecutor executor : group) {
+            states.add(new EventLoopState(executor));
+        }
+        this.states = states;
+        sampler = newSingleThreadScheduledExecutor(
+                new DefaultThreadFactory(EventLoopMonitor.class.getSimpleName(), true, NORM_PRIORITY));
+        sampler.scheduleAtFixedRate(this::sample, 0, samplingIntervalNs, NANOSECONDS);
+        group.terminationFuture().addListener(__ -> sampler.shutdownNow());
+    }
+
+    @Override
+    public List<IoThreadMetrics> ioThreadMetrics() {
+        return unmodifiableList(states);
+    }
+
+    private void sample() {
+        final long nowNs = System.nanoTime();
+        for (EventLoopState state : states) {
+            try {
+                state.sample(nowNs);
+            } catch (Throwable cause) {
+                LOGGER.warn("Failed to sample event loop {}", state.executor, cause);
+            }
+        }
+    }
+
+    private final class EventLoopState implements IoThreadMetrics, Runnable {
+        final EventExecutor executor;
+        @Nullable
+        private volatile Thread thread;
+        /**
+         * {@link System#nanoTime()} when the pending probe was submitted or {@code 0} if there is no pending probe.
+         */
+        private volatile long probeSubmittedNs;
+        private volatile long taskQueueLatencyNs;
+        private volatile double utilization = Double.NaN;
+        private volatile int pendingTasks = -1;
+        private volatile long longRunningTasks;
+        // Only accessed from the sampler thread.
+        private long longRunningTasksCount;
+        private boolean longRunningTaskReported;
+        private long lastSampleNs;
+        private long lastCpuTimeNs = -1;
+
+        EventLoopState(final EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            // Probe executed by the event loop.
+            thread = Thread.currentThread();
+            final long submittedNs = probeSubmittedNs;
+            taskQueueLatencyNs = System.nanoTime() - submittedNs;
+            probeSubmittedNs = 0;
+        }
+
+        void sample(final long nowNs) {
+            if (executor instanceof SingleThreadEventExecutor) {
+                pendingTasks = ((SingleThreadEventExecutor) executor).pendingTasks();
+            }
+            final Thread thread = this.thread;
+            if (thread != null) {
+                sampleUtilization(thread, nowNs);
+            }
+
+            final long submittedNs = probeSubmittedNs;
+            if (submittedNs == 0) {
+                longRunningTaskReported = false;
+                probeSubmittedNs = nowNs;
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException ignored) {
+                    // Event loop is shutting down.
+                    probeSubmittedNs = 0;
+                }
+            } else {
+                final long blockedNs = nowNs - submittedNs;
+                // The probe is still waiting in the queue, keep it there and report once per blocking episode.
+                taskQueueLatencyNs = blockedNs;
+                if (blockedNs >= longRunningTaskThresholdNs && !longRunningTaskReported && thread != null) {
+                    longRunningTaskReported = true;
+                    longRunningTasks = ++longRunningTasksCount;
+                    listener.onLongRunningTask(thread, blockedNs, thread.getStackTrace());
+                }
+            }
+        }
+
+        private void sampleUtilization(final Thread thread, final long nowNs) {
+            final ThreadMXBean threadMXBean = THREAD_MX_BEAN;
+            if (threadMXBean == null) {
+                return;
+            }
+            final long cpuTimeNs = threadMXBean.getThreadCpuTime(thread.getId());
+            if (cpuTimeNs < 0) {
+                // Thread is not alive anymore.
+                utilization = Double.NaN;
+                return;
+            }
+            if (lastCpuTimeNs >= 0 && nowNs > lastSampleNs) {
+                utilization = Math.min(1d, (double) (cpuTimeNs - lastCpuTimeNs) / (nowNs - lastSampleNs));
+            }
+            lastCpuTimeNs = cpuTimeNs;
+            lastSampleNs = nowNs;
+        }
+
+        @Override
+        public String threadName() {
+            final Thread thread = this.thread;
+            return thread == null ? "" : thread.getName();
+        }
+
+        @Override
+        public double utilization() {
+            return utilization;
+        }
+
+        @Override
+        public int pendingTasks() {
+            return pendingTasks;
+        }
+
+        @Override
+        public long taskQueueLatencyNanos() {
+            return taskQueueLatencyNs;
+        }
+
+        @Override
+        public long longRunningTasks() {
+            return longRunningTasks;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() +
+                    "{threadName=" + threadName() +
+                    ", utilization=" + utilization +
+                    ", pendingTasks=" + pendingTasks +
+                    ", taskQueueLatencyNanos=" + taskQueueLatencyNs +
+                    ", longRunningTasks=" + longRunningTasks +
+                    '}';
+        }
+    }
+}
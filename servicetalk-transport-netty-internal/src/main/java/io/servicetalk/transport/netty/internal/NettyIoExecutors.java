@@ -16,8 +16,10 @@
 package io.servicetalk.transport.netty.internal;
 
 import io.servicetalk.transport.api.IoExecutor;
+import io.servicetalk.transport.api.IoExecutorMetrics.LongRunningTaskListener;
 import io.servicetalk.transport.api.IoThreadFactory;
 import io.servicetalk.transport.api.IoThreadFactory.IoThread;
+import io.servicetalk.transport.api.MonitoredIoExecutor;
 
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
@@ -25,10 +27,13 @@ import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 
+import java.time.Duration;
+
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isEpollAvailable;
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isKQueueAvailable;
 import static java.lang.Runtime.getRuntime;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * A static factory to create or convert to {@link NettyIoExecutor}.
@@ -107,6 +112,52 @@ public final class NettyIoExecutors {
         return new EventLoopGroupIoExecutor(createEventLoopGroup(ioThreads, threadFactory), true, true);
     }
 
+    /**
+     * Create a new {@link MonitoredIoExecutor} that periodically samples utilization of its IO threads.
+     *
+     * @param ioThreads number of threads.
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @param samplingInterval interval between samples of IO threads.
+     * @param longRunningTaskThreshold {@link Duration} after which an IO thread that did not pick up a new task is
+     * reported to the {@code longRunningTaskListener}.
+     * @param longRunningTaskListener {@link LongRunningTaskListener} to notify when an IO thread is blocked for longer
+     * than {@code longRunningTaskThreshold}.
+     * @return The created {@link MonitoredIoExecutor}
+     */
+    public static MonitoredIoExecutor createMonitoredIoExecutor(
+            int ioThreads, String threadNamePrefix, Duration samplingInterval,
+            Duration longRunningTaskThreshold, LongRunningTaskListener longRunningTaskListener) {
+        return createMonitoredIoExecutor(ioThreads, newIoThreadFactory(threadNamePrefix), samplingInterval,
+                longRunningTaskThreshold, longRunningTaskListener);
+    }
+
+    /**
+     * Create a new {@link MonitoredIoExecutor} that periodically samples utilization of its IO threads.
+     *
+     * @param <T> Type of the IO thread instances created by factory.
+     * @param ioThreads number of threads.
+     * @param threadFactory the {@link IoThreadFactory} to use. If possible you should use an instance of
+     * {@link NettyIoThreadFactory} as it allows internal optimizations.
+     * @param samplingInterval interval between samples of IO threads.
+     * @param longRunningTaskThreshold {@link Duration} after which an IO thread that did not pick up a new task is
+     * reported to the {@code longRunningTaskListener}.
+     * @param longRunningTaskListener {@link LongRunningTaskListener} to notify when an IO thread is blocked for longer
+     * than {@code longRunningTaskThreshold}.
+     * @return The created {@link MonitoredIoExecutor}
+     */
+    public static <T extends Thread & IoThread> MonitoredIoExecutor createMonitoredIoExecutor(
+            int ioThreads, IoThreadFactory<T> threadFactory, Duration samplingInterval,
+            Duration longRunningTaskThreshold, LongRunningTaskListener longRunningTaskListener) {
+        final EventLoopGroup eventLoopGroup = createEventLoopGroup(ioThreads, threadFactory);
+        try {
+            return new MonitoredEventLoopGroupIoExecutor(eventLoopGroup, true, true, samplingInterval,
+                    longRunningTaskThreshold, longRunningTaskListener);
+        } catch (Throwable cause) {
+            eventLoopGroup.shutdownGracefully(0, 0, MILLISECONDS);
+            throw cause;
+        }
+    }
+
     private static <T extends Thread & IoThread> EventLoopGroup createEventLoopGroup(int ioThreads,
             IoThreadFactory<T> threadFactory) {
         validateIoThreads(ioThreads);
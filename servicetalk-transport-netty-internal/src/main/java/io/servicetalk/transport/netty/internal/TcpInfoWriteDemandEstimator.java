@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.netty.internal;
+
+import io.netty.channel.ChannelException;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.epoll.EpollTcpInfo;
+
+import static io.servicetalk.transport.netty.internal.OverlappingCapacityAwareEstimator.SizeEstimator.defaultEstimator;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A {@link WriteDemandEstimator} that sizes demand against the
+ * <a href="https://en.wikipedia.org/wiki/Bandwidth-delay_product">bandwidth-delay product</a> of the connection, as
+ * reported by {@code TCP_INFO} (RTT, congestion window, unacknowledged segments) of an {@link EpollSocketChannel}.
+ * <p>
+ * The number of bytes to request is bounded by the amount of data the socket can drain within the next round trip:
+ * the remaining congestion window plus another full window. On slow links this is less than the remaining write buffer
+ * capacity, so items are not buffered in the channel for longer than necessary. On fast links this may exceed the
+ * write buffer capacity (up to {@link #MAX_CAPACITY_MULTIPLIER} times) so the socket is not starved while waiting for
+ * the write buffer to become writable again. Item sizes are tracked the same way as {@link EWMAWriteDemandEstimator}.
+ */
+final class TcpInfoWriteDemandEstimator extends OverlappingCapacityAwareEstimator {
+    private static final double WEIGHT_NEW = 1 / 5d;
+    private static final double WEIGHT_HISTORICAL = 1 - WEIGHT_NEW;
+    static final long MAX_CAPACITY_MULTIPLIER = 2;
+    private static final long MIN_REFRESH_INTERVAL_NS = MILLISECONDS.toNanos(1);
+
+    private final EpollSocketChannel channel;
+    private final EpollTcpInfo tcpInfo = new EpollTcpInfo();
+    private long sizeAccumulator = 1024;
+    private long lastRefreshNs;
+    private long refreshIntervalNs;
+    /**
+     * Number of bytes the socket is expected to drain within the next round trip, or {@code -1} if unknown.
+     */
+    private long drainableBytes = -1;
+    private boolean tcpInfoAvailable = true;
+
+    TcpInfoWriteDemandEstimator(final EpollSocketChannel channel) {
+        super(defaultEstimator());
+        this.channel = channel;
+    }
+
+    @Override
+    protected void recordSize(final Object written, final long sizeInBytes) {
+        sizeAccumulator = max((long) (WEIGHT_NEW * sizeInBytes + WEIGHT_HISTORICAL * sizeAccumulator), 1L);
+    }
+
+    @Override
+    protected long getRequestNForCapacity(final long capacityToFill) {
+        final long drainable = drainableBytes();
+        final long bytesToFill = drainable < 0 ? capacityToFill :
+                min(drainable, capacityToFill * MAX_CAPACITY_MULTIPLIER);
+        return bytesToFill / sizeAccumulator;
+    }
+
+    private long drainableBytes() {
+        if (!tcpInfoAvailable) {
+            return -1;
+        }
+        // TCP_INFO requires a syscall, only refresh it about once per round trip.
+        final long nowNs = System.nanoTime();
+        if (drainableBytes >= 0 && nowNs - lastRefreshNs < refreshIntervalNs) {
+            return drainableBytes;
+        }
+        try {
+            channel.tcpInfo(tcpInfo);
+        } catch (ChannelException e) {
+            // The socket may be closed or not support TCP_INFO, fall back to the write buffer capacity.
+            tcpInfoAvailable = false;
+            return -1;
+        }
+        lastRefreshNs = nowNs;
+        refreshIntervalNs = max(MICROSECONDS.toNanos(tcpInfo.rtt()), MIN_REFRESH_INTERVAL_NS);
+        drainableBytes = drainableBytes(tcpInfo.sndCwnd(), tcpInfo.unacked(), tcpInfo.sndMss());
+        return drainableBytes;
+    }
+
+    static long drainableBytes(final long congestionWindow, final long unacked, final long mss) {
+        if (congestionWindow <= 0 || mss <= 0) {
+            return -1;
+        }
+        final long bdp = congestionWindow * mss;
+        final long remainingWindow = max(congestionWindow - unacked, 0) * mss;
+        return bdp + remainingWindow;
+    }
+}
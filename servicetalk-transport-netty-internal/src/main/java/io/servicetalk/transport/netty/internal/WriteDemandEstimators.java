@@ -1,5 +1,5 @@
 /*
- * Copyright © 2020 Apple Inc. and the ServiceTalk project authors
+ * Copyright © 2020-2021 Apple Inc. and the ServiceTalk project authors
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,11 @@
  */
 package io.servicetalk.transport.netty.internal;
 
+import io.netty.channel.Channel;
+import io.netty.channel.epoll.EpollSocketChannel;
+
+import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isEpollAvailable;
+
 /**
  * Utility methods associated with {@link WriteDemandEstimator}.
  */
@@ -31,4 +36,23 @@ public final class WriteDemandEstimators {
     public static WriteDemandEstimator newDefaultEstimator() {
         return new EWMAWriteDemandEstimator();
     }
+
+    /**
+     * Returns a new instance of {@link WriteDemandEstimator} that sizes demand against the bandwidth-delay product of
+     * the passed {@link Channel}, as reported by {@code TCP_INFO}.
+     * <p>
+     * {@code TCP_INFO} is only available for
+     * <a href="https://netty.io/wiki/native-transports.html">epoll native transport</a>. For all other channels this
+     * method returns the same estimator as {@link #newDefaultEstimator()}.
+     *
+     * @param channel {@link Channel} for which demand is estimated.
+     * @return A new instance of {@link WriteDemandEstimator} that sizes demand against the bandwidth-delay product of
+     * the passed {@link Channel}.
+     */
+    public static WriteDemandEstimator newTcpInfoEstimator(final Channel channel) {
+        if (isEpollAvailable() && channel instanceof EpollSocketChannel) {
+            return new TcpInfoWriteDemandEstimator((EpollSocketChannel) channel);
+        }
+        return newDefaultEstimator();
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.netty.internal;
+
+import io.servicetalk.transport.api.IoExecutorMetrics.IoThreadMetrics;
+import io.servicetalk.transport.api.MonitoredIoExecutor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static io.servicetalk.transport.netty.internal.NettyIoExecutors.createMonitoredIoExecutor;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventLoopMonitorTest {
+
+    private final BlockingQueue<Long> longRunningTasks = new LinkedBlockingQueue<>();
+    private final MonitoredIoExecutor ioExecutor = createMonitoredIoExecutor(2, "monitored-io", ofMillis(10),
+            ofMillis(100), (thread, blockedNanos, stackTrace) -> longRunningTasks.add(blockedNanos));
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ioExecutor.closeAsync().toFuture().get();
+    }
+
+    @Test
+    void reportsEveryIoThread() throws Exception {
+        List<IoThreadMetrics> metrics = ioExecutor.metrics().ioThreadMetrics();
+        assertThat(metrics, hasSize(2));
+        // Wait for the probes to run at least once.
+        for (IoThreadMetrics threadMetrics : metrics) {
+            while (threadMetrics.threadName().isEmpty()) {
+                Thread.sleep(10);
+            }
+            assertThat(threadMetrics.threadName(), startsWith("monitored-io"));
+            assertThat(threadMetrics.taskQueueLatencyNanos(), greaterThanOrEqualTo(0L));
+            assertThat(threadMetrics.longRunningTasks(), is(0L));
+        }
+    }
+
+    @Test
+    void reportsLongRunningTask() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ioExecutor.asExecutor().execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            Long blockedNanos = longRunningTasks.take();
+            assertThat(blockedNanos, greaterThanOrEqualTo(ofMillis(100).toNanos()));
+            long reported = 0;
+            for (IoThreadMetrics threadMetrics : ioExecutor.metrics().ioThreadMetrics()) {
+                reported += threadMetrics.longRunningTasks();
+            }
+            assertThat(reported, greaterThan(0L));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void invalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> createMonitoredIoExecutor(1, "invalid", ofSeconds(1),
+                ofMillis(0), (thread, blockedNanos, stackTrace) -> { }));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.netty.internal;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.transport.netty.internal.TcpInfoWriteDemandEstimator.drainableBytes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+class TcpInfoWriteDemandEstimatorTest {
+
+    @Test
+    void unknownCongestionWindow() {
+        assertThat("Unexpected drainable bytes.", drainableBytes(0, 0, 1460), is(-1L));
+        assertThat("Unexpected drainable bytes.", drainableBytes(10, 0, 0), is(-1L));
+    }
+
+    @Test
+    void emptyWindow() {
+        assertThat("Unexpected drainable bytes.", drainableBytes(10, 0, 1000), is(20_000L));
+    }
+
+    @Test
+    void partiallyUsedWindow() {
+        assertThat("Unexpected drainable bytes.", drainableBytes(10, 4, 1000), is(16_000L));
+    }
+
+    @Test
+    void fullWindow() {
+        assertThat("Unexpected drainable bytes.", drainableBytes(10, 12, 1000), is(10_000L));
+    }
+
+    @Test
+    void fallbackForNonEpollChannel() {
+        assertThat("Unexpected estimator.", WriteDemandEstimators.newTcpInfoEstimator(new EmbeddedChannel()),
+                instanceOf(EWMAWriteDemandEstimator.class));
+    }
+}
@@ -16,8 +16,12 @@
 package io.servicetalk.transport.netty;
 
 import io.servicetalk.transport.api.IoExecutor;
+import io.servicetalk.transport.api.IoExecutorMetrics.LongRunningTaskListener;
 import io.servicetalk.transport.api.IoThreadFactory;
 import io.servicetalk.transport.api.IoThreadFactory.IoThread;
+import io.servicetalk.transport.api.MonitoredIoExecutor;
+
+import java.time.Duration;
 
 /**
  * Factory methods to create {@link IoExecutor}s using Netty as the transport.
@@ -91,4 +95,45 @@ public final class NettyIoExecutors {
     public static IoExecutor createIoExecutor() {
         return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoExecutor();
     }
+
+    /**
+     * Creates a new {@link MonitoredIoExecutor} with the specified number of {@code ioThreads}, that periodically
+     * samples utilization, pending tasks and task queue latency of its IO threads.
+     *
+     * @param <T> Type of the IO thread instances created by factory.
+     * @param ioThreads number of threads.
+     * @param threadFactory the {@link IoThreadFactory} to use.
+     * @param samplingInterval interval between samples of IO threads.
+     * @param longRunningTaskThreshold {@link Duration} after which an IO thread that did not pick up a new task is
+     * reported to the {@code longRunningTaskListener}.
+     * @param longRunningTaskListener {@link LongRunningTaskListener} to notify when an IO thread is blocked for longer
+     * than {@code longRunningTaskThreshold}.
+     * @return The created {@link MonitoredIoExecutor}
+     */
+    public static <T extends Thread & IoThread> MonitoredIoExecutor createMonitoredIoExecutor(
+            int ioThreads, IoThreadFactory<T> threadFactory, Duration samplingInterval,
+            Duration longRunningTaskThreshold, LongRunningTaskListener longRunningTaskListener) {
+        return io.servicetalk.transport.netty.internal.NettyIoExecutors.createMonitoredIoExecutor(ioThreads,
+                threadFactory, samplingInterval, longRunningTaskThreshold, longRunningTaskListener);
+    }
+
+    /**
+     * Creates a new {@link MonitoredIoExecutor} with the specified number of {@code ioThreads}, that periodically
+     * samples utilization, pending tasks and task queue latency of its IO threads.
+     *
+     * @param ioThreads number of threads.
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @param samplingInterval interval between samples of IO threads.
+     * @param longRunningTaskThreshold {@link Duration} after which an IO thread that did not pick up a new task is
+     * reported to the {@code longRunningTaskListener}.
+     * @param longRunningTaskListener {@link LongRunningTaskListener} to notify when an IO thread is blocked for longer
+     * than {@code longRunningTaskThreshold}.
+     * @return The created {@link MonitoredIoExecutor}
+     */
+    public static MonitoredIoExecutor createMonitoredIoExecutor(
+            int ioThreads, String threadNamePrefix, Duration samplingInterval,
+            Duration longRunningTaskThreshold, LongRunningTaskListener longRunningTaskListener) {
+        return io.servicetalk.transport.netty.internal.NettyIoExecutors.createMonitoredIoExecutor(ioThreads,
+                threadNamePrefix, samplingInterval, longRunningTaskThreshold, longRunningTaskListener);
+    }
 }